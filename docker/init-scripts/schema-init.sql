@@ -4,25 +4,124 @@
 CREATE SCHEMA IF NOT EXISTS document_schema;
 SET SCHEMA 'document_schema';
 
--- Documents table to store document metadata
+-- Documents table to store document metadata.
+-- Rows are appended and read recent-first, so the table is range partitioned by month on
+-- created_at. Every unique constraint must include the partition key, hence the (id, created_at)
+-- primary key; ids are UUIDs, so they stay unique in practice. The service assigns time-ordered
+-- version 7 UUIDs, so new ids append to the id indexes like created_at does; the random default
+-- only applies to rows inserted by hand (PostgreSQL 15 has no UUIDv7 function).
 CREATE TABLE documents (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
     user_name VARCHAR(255) NOT NULL,
     document_name VARCHAR(500) NOT NULL,
-    minio_path VARCHAR(1000) NOT NULL,
+    -- Byte order, like object keys are listed by storage, so the reconciler can merge the two
+    minio_path VARCHAR(1000) COLLATE "C" NOT NULL,
     file_size BIGINT NOT NULL,
     file_type VARCHAR(100) NOT NULL,
+    -- Denormalized copy of the document's tags rows, written together with them
+    tag_names VARCHAR(255)[] NOT NULL DEFAULT '{}',
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Set on delete; the row and its object are removed later by the background purge
+    deleted_at TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
 
--- Tags table to store tags associated with documents (many-to-many relationship)
+-- Tags table to store tags associated with documents (many-to-many relationship).
+-- Co-partitioned with documents: each tag carries its document's created_at, so a document and
+-- its tags live in partitions for the same month and date-bounded joins prune both sides.
 CREATE TABLE tags (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL NOT NULL,
     document_id UUID NOT NULL,
+    document_created_at TIMESTAMP NOT NULL,
     tag_name VARCHAR(255) NOT NULL,
-    CONSTRAINT fk_document FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE
-);
+    PRIMARY KEY (id, document_created_at),
+    CONSTRAINT fk_document FOREIGN KEY (document_id, document_created_at)
+        REFERENCES documents(id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (document_created_at);
+
+-- Catch-all partitions so an insert never fails when a monthly partition is missing. The service
+-- creates months ahead of time (document-management.partitioning), which keeps these empty; a
+-- monthly partition cannot be created while its range has rows here, so ensure_monthly_partitions
+-- moves such rows out first.
+CREATE TABLE documents_default PARTITION OF documents DEFAULT;
+CREATE TABLE tags_default PARTITION OF tags DEFAULT;
+
+-- Creates the monthly documents and tags partitions for p_months months starting at the month of
+-- p_start, skipping existing ones. Called at startup and on a schedule by the service.
+-- Each month is created in its own subtransaction, so a month that fails is reported in
+-- failed_months and the later months are still created. Rows that landed in the default
+-- partitions for a missing month are copied aside, deleted there and re-inserted once the month's
+-- partitions exist; both tables are locked meanwhile, so no insert can slip into the default
+-- partition in between. (Detaching the default partition instead is not possible: the tags rows
+-- reference its documents.) moved_rows counts the documents moved; any is worth investigating.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(
+    p_start DATE,
+    p_months INT,
+    OUT created INT,
+    OUT moved_rows BIGINT,
+    OUT failed_months TEXT[])
+LANGUAGE plpgsql
+SET search_path = document_schema
+AS $$
+DECLARE
+    v_month DATE := date_trunc('month', p_start)::DATE;
+    v_next DATE;
+    v_suffix TEXT;
+    v_rows BIGINT;
+BEGIN
+    created := 0;
+    moved_rows := 0;
+    failed_months := '{}';
+    FOR i IN 1..p_months LOOP
+        v_next := (v_month + INTERVAL '1 month')::DATE;
+        v_suffix := to_char(v_month, 'YYYY_MM');
+        IF to_regclass('documents_p' || v_suffix) IS NULL THEN
+            BEGIN
+                SELECT count(*) INTO v_rows FROM documents_default
+                WHERE created_at >= v_month AND created_at < v_next;
+                IF v_rows > 0 THEN
+                    LOCK TABLE documents, tags IN ACCESS EXCLUSIVE MODE;
+                    CREATE TEMP TABLE moved_documents ON COMMIT DROP AS
+                        SELECT * FROM documents_default
+                        WHERE created_at >= v_month AND created_at < v_next;
+                    SELECT count(*) INTO v_rows FROM moved_documents;
+                    CREATE TEMP TABLE moved_tags ON COMMIT DROP AS
+                        SELECT * FROM tags_default
+                        WHERE document_created_at >= v_month AND document_created_at < v_next;
+                    DELETE FROM tags_default
+                    WHERE document_created_at >= v_month AND document_created_at < v_next;
+                    DELETE FROM documents_default
+                    WHERE created_at >= v_month AND created_at < v_next;
+                END IF;
+
+                EXECUTE format(
+                    'CREATE TABLE documents_p%s PARTITION OF documents FOR VALUES FROM (%L) TO (%L)',
+                    v_suffix, v_month, v_next);
+                EXECUTE format(
+                    'CREATE TABLE tags_p%s PARTITION OF tags FOR VALUES FROM (%L) TO (%L)',
+                    v_suffix, v_month, v_next);
+
+                IF v_rows > 0 THEN
+                    INSERT INTO documents SELECT * FROM moved_documents;
+                    INSERT INTO tags SELECT * FROM moved_tags;
+                    DROP TABLE moved_documents, moved_tags;
+                    RAISE WARNING 'Moved % documents of % out of the default partition',
+                        v_rows, v_suffix;
+                    moved_rows := moved_rows + v_rows;
+                END IF;
+                created := created + 1;
+            EXCEPTION WHEN OTHERS THEN
+                RAISE WARNING 'Could not create the partitions of %: %', v_suffix, SQLERRM;
+                failed_months := failed_months || v_suffix;
+            END;
+        END IF;
+        v_month := v_next;
+    END LOOP;
+END;
+$$;
+
+SELECT * FROM ensure_monthly_partitions(CURRENT_DATE, 4);
 
 -- Indexes for optimizing search queries
 -- Index on user_name for filtering by user
@@ -31,11 +130,50 @@ CREATE INDEX idx_documents_user_name ON documents(user_name);
 -- Index on document_name for filtering by name
 CREATE INDEX idx_documents_document_name ON documents(document_name);
 
--- Index on created_at for sorting (descending order is commonly used)
-CREATE INDEX idx_documents_created_at ON documents(created_at DESC);
+-- Sort indexes. Every whitelisted sort (createdAt, name, size) ends with id as a tie-breaker,
+-- so each index ends with id too and serves both directions (B-trees scan backwards).
+-- Index on created_at for the default sort, which is allowed without a user filter
+CREATE INDEX idx_documents_created_at ON documents(created_at DESC, id DESC);
+
+-- Composite index for common query patterns (user filter + createdAt sort)
+CREATE INDEX idx_documents_user_created ON documents(user_name, created_at DESC, id DESC);
+
+-- Composite index for the name sort, which requires a user filter
+CREATE INDEX idx_documents_user_name_sort ON documents(user_name, document_name, id);
+
+-- BRIN index for creation date range filters (createdFrom/createdTo).
+-- Partition pruning skips whole months. Within a partition rows are only ever appended, so
+-- created_at correlates with the physical row order and a BRIN summary per 32 pages lets
+-- time-window queries read only the matching block ranges at a fraction of the size of a
+-- B-tree. The B-tree above still serves ORDER BY ... LIMIT.
+CREATE INDEX idx_documents_created_at_brin ON documents USING BRIN (created_at)
+    WITH (pages_per_range = 32);
+
+-- Composite index for size range filters (minSize/maxSize) and the size sort, which are
+-- scoped per user
+CREATE INDEX idx_documents_user_size ON documents(user_name, file_size, id);
 
--- Composite index for common query patterns
-CREATE INDEX idx_documents_user_created ON documents(user_name, created_at DESC);
+-- GIN index on the tag array for tag filters: tag_names @> ARRAY[...] (all tags) and
+-- tag_names && ARRAY[...] (any tag) are answered by one index scan on documents, without
+-- joining tags.
+CREATE INDEX idx_documents_tag_names ON documents USING GIN (tag_names);
+
+-- Covering index for the download path lookup (id -> minio_path). The primary key also leads
+-- with id, but would need a heap fetch for the path; with minio_path and the deleted_at the
+-- lookup checks included, it is an index-only scan of each partition.
+CREATE INDEX idx_documents_id_minio_path ON documents(id) INCLUDE (minio_path, deleted_at);
+
+-- Partial index of the documents awaiting purge, oldest deletion first. It only holds rows
+-- between their delete and the next purge run, so it stays tiny.
+CREATE INDEX idx_documents_deleted_at ON documents(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Index on the object path, in the byte order storage lists keys in. The reconciler pages
+-- through each key range in (minio_path, id) order, merging the partitions' index-only scans,
+-- and checks the paths it is about to repair by lookups on it.
+CREATE INDEX idx_documents_minio_path ON documents(minio_path, id) INCLUDE (created_at, deleted_at);
+
+-- Indexes declared on the partitioned parents are created on every partition, including the
+-- ones added later by ensure_monthly_partitions.
 
 -- Index on tags for filtering by tags
 CREATE INDEX idx_tags_tag_name ON tags(tag_name);
@@ -43,8 +181,35 @@ CREATE INDEX idx_tags_tag_name ON tags(tag_name);
 -- Index on document_id in tags table for join operations
 CREATE INDEX idx_tags_document_id ON tags(document_id);
 
--- Composite index on tags for efficient tag searching
-CREATE INDEX idx_tags_document_tag ON tags(document_id, tag_name);
+-- Unique constraint to prevent duplicate tags per document; it includes the partition key as
+-- required, which does not widen it since a document has a single created_at. It also serves
+-- tag lookups by document.
+CREATE UNIQUE INDEX idx_tags_unique_document_tag ON tags(document_id, tag_name, document_created_at);
+
+-- Version of each user's document collection, bumped in the same transaction as every write to
+-- the user's documents. Search responses scoped to a user carry it in their ETag, so a client
+-- revalidating a page costs a primary key lookup instead of the search.
+CREATE TABLE user_collection_versions (
+    user_name VARCHAR(255) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- Document count and total bytes of each user's live documents, as of the last fold of
+-- user_usage_deltas. Read together with the user's pending deltas.
+CREATE TABLE user_usage (
+    user_name VARCHAR(255) PRIMARY KEY,
+    document_count BIGINT NOT NULL,
+    total_bytes BIGINT NOT NULL
+);
+
+-- Usage changes not yet folded into user_usage, one row per upload, delete batch or import
+-- chunk, written in the same transaction as the change. Writers only insert, so the uploads of a
+-- busy user never queue on a counter row; the service folds and removes them on a schedule.
+CREATE TABLE user_usage_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    user_name VARCHAR(255) NOT NULL,
+    document_count BIGINT NOT NULL,
+    total_bytes BIGINT NOT NULL
+);
 
--- Optional: Add a unique constraint to prevent duplicate tags per document
-CREATE UNIQUE INDEX idx_tags_unique_document_tag ON tags(document_id, tag_name);
+CREATE INDEX idx_user_usage_deltas_user_name ON user_usage_deltas(user_name);
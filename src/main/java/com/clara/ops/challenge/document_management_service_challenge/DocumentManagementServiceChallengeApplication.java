@@ -2,8 +2,10 @@ package com.clara.ops.challenge.document_management_service_challenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DocumentManagementServiceChallengeApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,94 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.controller;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.Bulkhead;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentModifiedException;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentContentService;
+import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/document-management")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "document-management.download.proxy", name = "enabled")
+public class DocumentContentController {
+
+  private final DocumentContentService documentContentService;
+  private final DocumentValidator documentValidator;
+
+  /**
+   * Stream the content of a document through the service, for clients that cannot reach storage
+   * directly. Supports single byte ranges ({@code Range}, {@code If-Range}) so interrupted
+   * downloads can be resumed.
+   *
+   * <p>The response is written synchronously so long transfers are not cut by the async request
+   * timeout.
+   *
+   * <p>Content is read from storage only while the object still has the ETag sent in the response;
+   * a document replaced in between is answered with 409 Conflict.
+   *
+   * @param documentId UUID of the document to download
+   * @param range Optional byte range, e.g. {@code bytes=1048576-}
+   * @param ifRange Optional ETag or Last-Modified date the range is conditional on
+   * @param response Response the content is written to
+   */
+  @GetMapping("/download/{documentId}/content")
+  @Bulkhead(Workload.STREAM)
+  public void streamDocument(
+      @PathVariable String documentId,
+      @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+      @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+      HttpServletResponse response)
+      throws IOException {
+    log.info(LogMessage.PROXY_REQUEST_RECEIVED.getMessage(), documentId, range);
+
+    documentValidator.validateDocumentId(documentId);
+    DocumentContentService.Content content =
+        documentContentService.open(documentId, range, ifRange);
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.ETAG, content.getEtag());
+    response.setDateHeader(
+        HttpHeaders.LAST_MODIFIED, content.getLastModified().toInstant().toEpochMilli());
+
+    if (!content.isSatisfiable()) {
+      response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + content.getSize());
+      return;
+    }
+
+    if (content.isPartial()) {
+      response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+      response.setHeader(
+          HttpHeaders.CONTENT_RANGE,
+          "bytes " + content.getStart() + "-" + content.getEnd() + "/" + content.getSize());
+    } else {
+      response.setStatus(HttpStatus.OK.value());
+    }
+    response.setContentType(content.getContentType());
+    response.setContentLengthLong(content.getLength());
+
+    try {
+      documentContentService.transfer(content, response.getOutputStream());
+    } catch (DocumentModifiedException e) {
+      // Nothing was sent yet; drop the headers of the version that is gone before answering 409
+      response.reset();
+      throw e;
+    }
+
+    log.info(LogMessage.PROXY_SUCCESS.getMessage(), content.getLength(), documentId);
+  }
+}
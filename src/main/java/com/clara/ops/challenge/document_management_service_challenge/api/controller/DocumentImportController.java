@@ -0,0 +1,61 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.controller;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.Bulkhead;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ImportFormat;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentImportService;
+import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/document-management/admin")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "document-management.bulk-import",
+    name = "enabled",
+    havingValue = "true")
+public class DocumentImportController {
+
+  private final DocumentImportService documentImportService;
+  private final DocumentValidator documentValidator;
+
+  /**
+   * Import the metadata of documents whose objects are already in storage. The body is CSV with a
+   * header row ({@code user,name,minio_path,size,tags[,created_at]}, tags separated by {@code |})
+   * or NDJSON, and is streamed into the database in chunks rather than read into memory, e.g.
+   * {@code curl -H 'Content-Type: text/csv' --data-binary @documents.csv}.
+   *
+   * <p>Invalid records are skipped and listed in the response with their line number.
+   *
+   * @param contentType text/csv or application/x-ndjson
+   * @param body Records to import
+   * @return Counts of imported and rejected records and the first errors
+   */
+  @PostMapping("/import")
+  @Bulkhead(Workload.UPLOAD)
+  public ResponseEntity<DocumentImportResponse> importDocuments(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body)
+      throws IOException {
+    log.info(LogMessage.IMPORT_REQUEST_RECEIVED.getMessage(), contentType);
+
+    documentValidator.validateImportFormat(contentType);
+    DocumentImportResponse response =
+        documentImportService.importDocuments(
+            body, ImportFormat.fromContentType(contentType).orElseThrow());
+
+    return ResponseEntity.ok(response);
+  }
+}
@@ -1,26 +1,60 @@
 package com.clara.ops.challenge.document_management_service_challenge.api.controller;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrlRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrlResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BundleDownloadRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDeletionResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDownloadUrlResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentTagsUpdateRequest;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.PaginatedDocumentSearchResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.SuggestionResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.UploadDocumentRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.UserUsageResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.Bulkhead;
 import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentFileView;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentBundleService;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentDeletionService;
 import com.clara.ops.challenge.document_management_service_challenge.service.DocumentService;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentTagService;
+import com.clara.ops.challenge.document_management_service_challenge.service.SuggestionService;
+import com.clara.ops.challenge.document_management_service_challenge.service.UserUsageService;
 import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
@@ -34,7 +68,15 @@ import org.springframework.web.multipart.MultipartFile;
 @Validated
 public class DocumentManagementController {
 
+  private static final String BUNDLE_CONTENT_TYPE = "application/zip";
+  private static final String BUNDLE_FILENAME = "documents.zip";
+
   private final DocumentService documentService;
+  private final DocumentBundleService documentBundleService;
+  private final DocumentDeletionService documentDeletionService;
+  private final DocumentTagService documentTagService;
+  private final SuggestionService suggestionService;
+  private final UserUsageService userUsageService;
   private final DocumentValidator documentValidator;
   private final DocumentManagementProperties properties;
 
@@ -49,6 +91,7 @@ public class DocumentManagementController {
    * @return 201 Created on successful upload
    */
   @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @Bulkhead(Workload.UPLOAD)
   public ResponseEntity<Void> uploadDocument(
       @RequestPart("metadata") @Valid UploadDocumentRequest metadata,
       @RequestPart("file") MultipartFile file) {
@@ -64,18 +107,30 @@ public class DocumentManagementController {
 
   /**
    * Search for documents with optional filters. Returns paginated results sorted by creation date
-   * in descending order.
+   * in descending order unless another sort is requested.
+   *
+   * <p>Searches scoped to a user carry a weak ETag built from the version of the user's collection
+   * and the request. The tag is built from the version read in the search's own transaction, so it
+   * never claims results newer than those returned. A matching {@code If-None-Match} is answered
+   * with 304 Not Modified before the search runs.
    *
-   * @param filters Optional filters (user, name, tags)
+   * @param filters Optional filters (user, name, tags, creation date and size ranges)
    * @param page Page number (zero-based)
    * @param size Number of items per page
+   * @param sort Optional sort as property[,asc|desc]; property is one of createdAt, name, size
+   * @param facets Whether to include per-tag document counts for the filtered set
+   * @param ifNoneMatch Optional ETags of results the client already has
    * @return Paginated search results
    */
   @PostMapping("/search")
+  @Bulkhead(Workload.SEARCH)
   public ResponseEntity<PaginatedDocumentSearchResponse> searchDocuments(
       @RequestBody @Valid DocumentSearchFilters filters,
       @RequestParam(defaultValue = "0") @Min(0) int page,
-      @RequestParam(required = false) @Min(1) Integer size) {
+      @RequestParam(required = false) @Min(1) Integer size,
+      @RequestParam(required = false) String sort,
+      @RequestParam(defaultValue = "false") boolean facets,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
     int pageSize =
         Optional.ofNullable(size).orElseGet(() -> properties.getPagination().getDefaultSize());
@@ -83,8 +138,36 @@ public class DocumentManagementController {
     log.info(LogMessage.SEARCH_REQUEST_RECEIVED.getMessage(), page, pageSize, filters);
 
     documentValidator.validatePaginationParams(page, pageSize);
+    documentValidator.validateSearchFilters(filters);
+    documentValidator.validateSort(sort, filters);
+
+    // A stored tag is never newer than the results it came with, so a version read from any
+    // replica that still matches it proves those results current
+    Optional<String> user = Optional.ofNullable(filters.getUser());
+    Optional<String> currentEtag =
+        user.filter(u -> ifNoneMatch != null)
+            .map(
+                u ->
+                    searchEtag(
+                        documentService.getCollectionVersion(u),
+                        filters,
+                        page,
+                        pageSize,
+                        sort,
+                        facets));
+    if (currentEtag.filter(tag -> matches(ifNoneMatch, tag)).isPresent()) {
+      log.info(LogMessage.SEARCH_NOT_MODIFIED.getMessage(), currentEtag.get());
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentEtag.get()).build();
+    }
+
     PaginatedDocumentSearchResponse response =
-        documentService.searchDocuments(filters, page, pageSize);
+        documentService.searchDocuments(filters, page, pageSize, sort, facets);
+    // Tagged with the version read in the search's own transaction, which may be on another
+    // replica than the check above
+    Optional<String> etag =
+        Optional.ofNullable(response)
+            .map(PaginatedDocumentSearchResponse::getCollectionVersion)
+            .map(version -> searchEtag(version, filters, page, pageSize, sort, facets));
 
     Optional.ofNullable(response)
         .map(PaginatedDocumentSearchResponse::getMetadata)
@@ -95,25 +178,307 @@ public class DocumentManagementController {
                     metadata.getCurrentItems(),
                     metadata.getTotalItems()));
 
-    return ResponseEntity.ok(response);
+    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+    etag.ifPresent(ok::eTag);
+    return ok.body(response);
+  }
+
+  /**
+   * Autocomplete document names and tags of a user. Completions are served from memory and match
+   * the prefix case-insensitively, in alphabetical order. Only the first {@code max-terms-per-user}
+   * names and tags of the user in alphabetical order are indexed, so later ones are never
+   * completed, and changes made through other nodes may take until the index expires to show up.
+   *
+   * @param user Owner of the documents
+   * @param prefix Prefix typed so far
+   * @param limit Maximum number of names and of tags returned
+   * @return Matching document names and tags
+   */
+  @GetMapping("/suggest")
+  @Bulkhead(Workload.SEARCH)
+  public ResponseEntity<SuggestionResponse> suggest(
+      @RequestParam String user,
+      @RequestParam String prefix,
+      @RequestParam(required = false) Integer limit) {
+    int maxResults =
+        Optional.ofNullable(limit).orElseGet(() -> properties.getSuggest().getDefaultLimit());
+
+    log.debug(LogMessage.SUGGEST_REQUEST_RECEIVED.getMessage(), user, prefix, maxResults);
+
+    documentValidator.validateSuggestParams(user, prefix, maxResults);
+    return ResponseEntity.ok(suggestionService.suggest(user.trim(), prefix.trim(), maxResults));
+  }
+
+  /**
+   * Get the storage usage of a user: the number and total size of the user's documents, and the
+   * quota if enabled. Usage is maintained incrementally, so the cost does not grow with the number
+   * of documents.
+   *
+   * @param user Owner of the documents
+   * @return The user's usage
+   */
+  @GetMapping("/usage")
+  @Bulkhead(Workload.SEARCH)
+  public ResponseEntity<UserUsageResponse> getUsage(@RequestParam String user) {
+    log.debug(LogMessage.USAGE_REQUEST_RECEIVED.getMessage(), user);
+
+    documentValidator.validateUsageUser(user);
+    return ResponseEntity.ok(userUsageService.getUsage(user.trim()));
   }
 
   /**
    * Get a presigned download URL for a document. The URL is temporary and will expire after the
    * configured time.
    *
+   * <p>With {@code redirect=true} the endpoint answers {@code 302 Found} with the URL as {@code
+   * Location} instead of a JSON body, so browsers and HTTP clients follow it in one step. The
+   * redirect may be cached privately until the URL expires.
+   *
+   * <p>The response carries a strong ETag of the document and the URL. While the same URL is handed
+   * out again (see {@code minio.presigned-url-cache}), a matching {@code If-None-Match} is answered
+   * with 304 Not Modified and no body. When the document's path and URL are both cached, the 304 is
+   * decided from memory before any database lookup or signing.
+   *
    * @param documentId UUID of the document to download
-   * @return Response containing the presigned download URL
+   * @param redirect Whether to redirect to the URL rather than return it
+   * @param ifNoneMatch Optional ETags of responses the client already has
+   * @return Response containing the presigned download URL, or redirecting to it
    */
   @GetMapping("/download/{documentId}")
+  @Bulkhead(Workload.DOWNLOAD)
   public ResponseEntity<DocumentDownloadUrlResponse> downloadDocument(
-      @PathVariable String documentId) {
+      @PathVariable String documentId,
+      @RequestParam(defaultValue = "false") boolean redirect,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     log.info(LogMessage.DOWNLOAD_REQUEST_RECEIVED.getMessage(), documentId);
 
     documentValidator.validateDocumentId(documentId);
+    // Decided from memory when the path and URL are cached: no transaction, lookup or signing
+    Optional<DocumentDownloadUrlResponse> cached =
+        Optional.ofNullable(ifNoneMatch)
+            .flatMap(tag -> documentService.findCachedDownloadUrl(documentId));
+    Optional<String> cachedEtag =
+        cached.map(url -> downloadEtag(documentId, url)).filter(tag -> matches(ifNoneMatch, tag));
+    if (cachedEtag.isPresent()) {
+      return notModified(documentId, cachedEtag.get(), cacheControl(cached.get(), redirect));
+    }
+
     DocumentDownloadUrlResponse response = documentService.getDownloadUrl(documentId);
+    String etag = downloadEtag(documentId, response);
+    CacheControl cacheControl = cacheControl(response, redirect);
+    if (matches(ifNoneMatch, etag)) {
+      return notModified(documentId, etag, cacheControl);
+    }
+
+    if (redirect) {
+      log.info(LogMessage.DOWNLOAD_REDIRECT.getMessage(), documentId);
+      return ResponseEntity.status(HttpStatus.FOUND)
+          .location(URI.create(response.getUrl()))
+          .eTag(etag)
+          .cacheControl(cacheControl)
+          .build();
+    }
 
     log.info(LogMessage.DOWNLOAD_SUCCESS.getMessage(), documentId);
+    return ResponseEntity.ok().eTag(etag).body(response);
+  }
+
+  /**
+   * Get presigned download URLs for several documents at once. IDs that do not match a document are
+   * returned with {@code found=false} rather than failing the request.
+   *
+   * @param request IDs of the documents to download
+   * @return Response mapping each requested document ID to its download URL
+   */
+  @PostMapping("/download/batch")
+  @Bulkhead(Workload.DOWNLOAD)
+  public ResponseEntity<BatchDownloadUrlResponse> downloadDocuments(
+      @RequestBody BatchDownloadUrlRequest request) {
+    List<String> documentIds =
+        Optional.ofNullable(request).map(BatchDownloadUrlRequest::getDocumentIds).orElse(null);
+    log.info(
+        LogMessage.BATCH_DOWNLOAD_REQUEST_RECEIVED.getMessage(),
+        Optional.ofNullable(documentIds).map(List::size).orElse(0));
+
+    documentValidator.validateDocumentIds(documentIds);
+    BatchDownloadUrlResponse response = documentService.getDownloadUrls(documentIds);
+
+    log.info(LogMessage.BATCH_DOWNLOAD_SUCCESS.getMessage(), documentIds.size());
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Download several documents as one ZIP archive, streamed from storage as it is written. The
+   * documents are selected either by ID or by search filters.
+   *
+   * @param request Document IDs, or filters selecting the documents
+   * @param response Response the archive is written to
+   */
+  @PostMapping("/download/bundle")
+  @Bulkhead(Workload.STREAM)
+  public void downloadBundle(
+      @RequestBody @Valid BundleDownloadRequest request, HttpServletResponse response)
+      throws IOException {
+    log.info(
+        LogMessage.BUNDLE_REQUEST_RECEIVED.getMessage(),
+        request.getDocumentIds(),
+        request.getFilters());
+
+    documentValidator.validateBundleRequest(request);
+    List<DocumentFileView> files = documentBundleService.resolve(request);
+
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(BUNDLE_CONTENT_TYPE);
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename(BUNDLE_FILENAME).build().toString());
+    documentBundleService.write(files, response.getOutputStream());
+
+    log.info(LogMessage.BUNDLE_SUCCESS.getMessage(), files.size());
+  }
+
+  /**
+   * Delete a document. The document disappears from searches and downloads at once; its stored file
+   * is removed shortly after by a background purge.
+   *
+   * @param documentId UUID of the document to delete
+   * @return 204 No Content once the document is deleted
+   */
+  @DeleteMapping("/{documentId}")
+  @Bulkhead(Workload.MUTATE)
+  public ResponseEntity<Void> deleteDocument(@PathVariable String documentId) {
+    log.info(LogMessage.DELETE_REQUEST_RECEIVED.getMessage(), documentId);
+
+    documentValidator.validateDocumentId(documentId);
+    documentDeletionService.deleteDocument(documentId);
+
+    log.info(LogMessage.DELETE_SUCCESS.getMessage(), documentId);
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * Delete every document of a user matching the filters. Documents are deleted in batches; their
+   * stored files are removed in bulk by a background purge.
+   *
+   * @param filters Filters selecting the documents; the user is required
+   * @return Number of documents deleted
+   */
+  @PostMapping("/delete")
+  @Bulkhead(Workload.MUTATE)
+  public ResponseEntity<DocumentDeletionResponse> deleteDocuments(
+      @RequestBody @Valid DocumentSearchFilters filters) {
+    log.info(LogMessage.BULK_DELETE_REQUEST_RECEIVED.getMessage(), filters);
+
+    documentValidator.validateDeleteFilters(filters);
+    long deleted = documentDeletionService.deleteDocuments(filters);
+
+    log.info(LogMessage.BULK_DELETE_SUCCESS.getMessage(), deleted);
+    return ResponseEntity.ok(DocumentDeletionResponse.builder().deleted(deleted).build());
+  }
+
+  /**
+   * Add and remove tags of a document. Only the changed tags are written; adding a tag the document
+   * already has, or removing one it does not have, changes nothing.
+   *
+   * @param documentId UUID of the document
+   * @param request Tags to add and tags to remove
+   * @return The document with its new tags
+   */
+  @PatchMapping("/{documentId}/tags")
+  @Bulkhead(Workload.MUTATE)
+  public ResponseEntity<DocumentDto> updateTags(
+      @PathVariable String documentId, @RequestBody DocumentTagsUpdateRequest request) {
+    log.info(
+        LogMessage.TAGS_UPDATE_REQUEST_RECEIVED.getMessage(),
+        documentId,
+        request.getAdd(),
+        request.getRemove());
+
+    documentValidator.validateDocumentId(documentId);
+    documentValidator.validateTagChanges(request.getAdd(), request.getRemove());
+    DocumentDto document = documentTagService.updateTags(documentId, request);
+
+    log.info(LogMessage.TAGS_UPDATE_SUCCESS.getMessage(), documentId);
+    return ResponseEntity.ok(document);
+  }
+
+  /**
+   * Add and remove tags of every document of a user matching the filters. The changes are applied
+   * with set-based statements in batches, without loading the documents.
+   *
+   * @param request Filters selecting the documents, with the user required, and the tag changes
+   * @return Number of documents retagged
+   */
+  @PostMapping("/retag")
+  @Bulkhead(Workload.MUTATE)
+  public ResponseEntity<DocumentRetagResponse> retagDocuments(
+      @RequestBody @Valid DocumentRetagRequest request) {
+    log.info(
+        LogMessage.RETAG_REQUEST_RECEIVED.getMessage(),
+        request.getFilters(),
+        request.getAdd(),
+        request.getRemove());
+
+    documentValidator.validateRetagRequest(request);
+    long updated = documentTagService.retagDocuments(request);
+
+    log.info(LogMessage.RETAG_SUCCESS.getMessage(), updated);
+    return ResponseEntity.ok(DocumentRetagResponse.builder().updated(updated).build());
+  }
+
+  /** Lets clients reuse a redirect only while the URL it points to is still accepted. */
+  private static CacheControl untilExpiry(Instant expiresAt) {
+    return Optional.ofNullable(expiresAt)
+        .map(expiry -> Duration.between(Instant.now(), expiry))
+        .filter(remaining -> remaining.getSeconds() > 0)
+        .map(remaining -> CacheControl.maxAge(remaining).cachePrivate())
+        .orElseGet(CacheControl::noStore);
+  }
+
+  private static String searchEtag(
+      long collectionVersion,
+      DocumentSearchFilters filters,
+      int page,
+      int pageSize,
+      String sort,
+      boolean facets) {
+    return "W/\""
+        + collectionVersion
+        + "-"
+        + digest(filters.toString(), page, pageSize, sort, facets)
+        + "\"";
+  }
+
+  private static String downloadEtag(String documentId, DocumentDownloadUrlResponse response) {
+    return "\"" + digest(documentId, response.getUrl()) + "\"";
+  }
+
+  private static CacheControl cacheControl(DocumentDownloadUrlResponse response, boolean redirect) {
+    return redirect ? untilExpiry(response.getExpiresAt()) : CacheControl.empty();
+  }
+
+  private static ResponseEntity<DocumentDownloadUrlResponse> notModified(
+      String documentId, String etag, CacheControl cacheControl) {
+    log.info(LogMessage.DOWNLOAD_NOT_MODIFIED.getMessage(), documentId);
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(etag)
+        .cacheControl(cacheControl)
+        .build();
+  }
+
+  private static String digest(Object... parts) {
+    String joined = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("\n"));
+    return DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Weak comparison of {@code If-None-Match} against an ETag, as RFC 9110 requires for it. */
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaqueTag = etag.replaceFirst("^W/", "");
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .anyMatch(tag -> tag.equals("*") || tag.replaceFirst("^W/", "").equals(opaqueTag));
+  }
 }
@@ -0,0 +1,55 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.controller;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.StorageReconciliationResponse;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.service.StorageReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/document-management/admin")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "document-management.reconciliation",
+    name = "enabled",
+    havingValue = "true")
+public class StorageReconciliationController {
+
+  private final StorageReconciliationService storageReconciliationService;
+
+  /**
+   * Start comparing storage with the database in the background, outside the schedule. Whether
+   * drift is repaired or only reported follows the configuration.
+   *
+   * @return 202 Accepted, or 409 Conflict if a reconciliation is already running
+   */
+  @PostMapping("/reconciliation")
+  public ResponseEntity<Void> startReconciliation() {
+    log.info(LogMessage.RECONCILIATION_REQUEST_RECEIVED.getMessage());
+
+    return storageReconciliationService.startReconciliation()
+        ? ResponseEntity.accepted().build()
+        : ResponseEntity.status(HttpStatus.CONFLICT).build();
+  }
+
+  /**
+   * Get the report of the last finished reconciliation.
+   *
+   * @return The report, or 204 No Content if no reconciliation has finished yet
+   */
+  @GetMapping("/reconciliation")
+  public ResponseEntity<StorageReconciliationResponse> getReconciliationReport() {
+    return storageReconciliationService
+        .getLastReport()
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
+  }
+}
@@ -0,0 +1,19 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDownloadUrl {
+
+  private boolean found;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String url;
+}
@@ -0,0 +1,16 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDownloadUrlRequest {
+
+  private List<String> documentIds;
+}
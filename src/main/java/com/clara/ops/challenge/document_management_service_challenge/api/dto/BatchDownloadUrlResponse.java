@@ -0,0 +1,17 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDownloadUrlResponse {
+
+  /** Download URL per requested document ID, in request order. */
+  private Map<String, BatchDownloadUrl> urls;
+}
@@ -0,0 +1,21 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BundleDownloadRequest {
+
+  /** Documents to bundle, in order. Mutually exclusive with {@link #filters}. */
+  private List<String> documentIds;
+
+  /** Search filters selecting the documents to bundle, newest first. */
+  @Valid private DocumentSearchFilters filters;
+}
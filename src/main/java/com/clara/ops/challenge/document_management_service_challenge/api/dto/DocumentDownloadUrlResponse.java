@@ -1,5 +1,6 @@
 package com.clara.ops.challenge.document_management_service_challenge.api.dto;
 
+import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +13,7 @@ import lombok.NoArgsConstructor;
 public class DocumentDownloadUrlResponse {
 
   private String url;
+
+  /** When storage stops accepting the URL. */
+  private Instant expiresAt;
 }
@@ -0,0 +1,29 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Metadata of one document whose object is already in storage, as read by the bulk import. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentImportRecord {
+
+  private String user;
+
+  private String name;
+
+  private String minioPath;
+
+  private Long size;
+
+  private List<String> tags;
+
+  /** Optional original creation time; the import time when absent. */
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentImportResponse {
+
+  private Long imported;
+
+  private Long rejected;
+
+  /** Number of committed chunks. */
+  private Integer chunks;
+
+  private Long elapsedMs;
+
+  /** The first rejected records, up to the configured limit. */
+  private List<ImportRowError> errors;
+}
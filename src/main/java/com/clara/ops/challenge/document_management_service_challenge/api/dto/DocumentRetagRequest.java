@@ -0,0 +1,24 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentRetagRequest {
+
+  /** Search filters selecting the documents to retag. The user is required. */
+  @Valid private DocumentSearchFilters filters;
+
+  /** Tags to add to every matching document. */
+  private List<String> add;
+
+  /** Tags to remove from every matching document. */
+  private List<String> remove;
+}
@@ -0,0 +1,16 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentRetagResponse {
+
+  /** Number of matching documents whose tags were updated. */
+  private Long updated;
+}
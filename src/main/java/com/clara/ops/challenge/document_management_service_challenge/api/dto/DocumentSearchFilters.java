@@ -1,13 +1,17 @@
 package com.clara.ops.challenge.document_management_service_challenge.api.dto;
 
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.TagMatchMode;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DocumentSearchFilters {
@@ -17,4 +21,30 @@ public class DocumentSearchFilters {
   private String name;
 
   private List<String> tags;
+
+  /** Whether documents must carry all of the tags (default) or any of them. */
+  private TagMatchMode tagMatch;
+
+  /** Inclusive lower bound on the creation date. */
+  private LocalDateTime createdFrom;
+
+  /** Exclusive upper bound on the creation date. */
+  private LocalDateTime createdTo;
+
+  /** Inclusive lower bound on the file size in bytes. */
+  @PositiveOrZero(message = "Minimum size must be greater than or equal to 0")
+  private Long minSize;
+
+  /** Inclusive upper bound on the file size in bytes. */
+  @PositiveOrZero(message = "Maximum size must be greater than or equal to 0")
+  private Long maxSize;
+
+  /**
+   * Keyset cursor for recent-first paging: the creation date of the last document of the previous
+   * page. Requires {@link #beforeId} and the default sort; request page 0.
+   */
+  private LocalDateTime beforeCreatedAt;
+
+  /** Keyset cursor tie-breaker: the id of the last document of the previous page. */
+  private UUID beforeId;
 }
@@ -0,0 +1,20 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentTagsUpdateRequest {
+
+  /** Tags to add; tags the document already has are ignored. */
+  private List<String> add;
+
+  /** Tags to remove; tags the document does not have are ignored. */
+  private List<String> remove;
+}
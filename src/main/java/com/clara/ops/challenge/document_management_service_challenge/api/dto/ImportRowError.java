@@ -0,0 +1,18 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+  /** Line of the input on which the rejected record starts. */
+  private Long line;
+
+  private String message;
+}
@@ -1,5 +1,7 @@
 package com.clara.ops.challenge.document_management_service_challenge.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaginatedDocumentSearchResponse {
@@ -15,4 +17,13 @@ public class PaginatedDocumentSearchResponse {
   private Metadata metadata;
 
   private List<DocumentDto> documents;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<TagFacet> facets;
+
+  /**
+   * Version of the user's collection, read in the search's transaction before the page, so it is
+   * never newer than the results; only set for user-scoped searches. Used for the ETag, not sent.
+   */
+  @JsonIgnore private Long collectionVersion;
 }
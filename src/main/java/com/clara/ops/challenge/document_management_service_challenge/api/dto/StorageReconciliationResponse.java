@@ -0,0 +1,46 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageReconciliationResponse {
+
+  private Instant startedAt;
+
+  private Long elapsedMs;
+
+  /** Whether drift was repaired or only reported. */
+  private Boolean repair;
+
+  private Long objectsScanned;
+
+  /** Number of document rows scanned, deleted ones included. */
+  private Long documentsScanned;
+
+  /** Objects older than the grace period that no document points to. */
+  private Long orphanedObjects;
+
+  private Long objectsRemoved;
+
+  /** Live documents older than the grace period whose object is missing. */
+  private Long danglingDocuments;
+
+  private Long documentsDeleted;
+
+  /** Key ranges that could not be compared; their drift is not counted. */
+  private List<String> failedRanges;
+
+  /** The first orphaned object paths, up to the configured limit. */
+  private List<String> orphanedPaths;
+
+  /** The first object paths of dangling documents, up to the configured limit. */
+  private List<String> danglingPaths;
+}
@@ -0,0 +1,18 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+  private List<String> names;
+
+  private List<String> tags;
+}
@@ -0,0 +1,17 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagFacet {
+
+  private String tag;
+
+  private Long count;
+}
@@ -0,0 +1,27 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserUsageResponse {
+
+  private String user;
+
+  /** Number of live documents. */
+  private Long documentCount;
+
+  /** Total size of the live documents. */
+  private Long totalBytes;
+
+  /** Document quota, if quotas are enabled. */
+  private Long maxDocuments;
+
+  /** Size quota in bytes, if quotas are enabled. */
+  private Long maxBytes;
+}
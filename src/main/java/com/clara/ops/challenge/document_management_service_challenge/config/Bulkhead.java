@@ -0,0 +1,17 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a handler method to a {@link Workload}; {@link BulkheadInterceptor} admits it against
+ * that workload's concurrency limit. Handlers without it are not limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+  Workload value();
+}
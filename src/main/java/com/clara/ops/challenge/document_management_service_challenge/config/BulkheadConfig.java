@@ -0,0 +1,56 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the per-workload {@link BulkheadInterceptor} unless bulkheads are disabled, and wraps
+ * the application datasource in a {@link WorkloadConnectionBudget} so that each workload also has
+ * its own share of the connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(
+    prefix = "document-management.bulkhead",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+  private static final String DATA_SOURCE_BEAN = "dataSource";
+
+  private final BulkheadInterceptor bulkheadInterceptor;
+
+  public BulkheadConfig(
+      DocumentManagementProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+    this.bulkheadInterceptor =
+        new BulkheadInterceptor(
+            properties.getBulkhead(), Optional.ofNullable(meterRegistry.getIfAvailable()));
+  }
+
+  @Bean
+  static BeanPostProcessor workloadConnectionBudget(
+      ObjectProvider<DocumentManagementProperties> properties) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+          return new WorkloadConnectionBudget(dataSource, properties.getObject().getBulkhead());
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(bulkheadInterceptor);
+  }
+}
@@ -0,0 +1,164 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import com.clara.ops.challenge.document_management_service_challenge.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests of each {@link Workload} against that workload's own limit. A request over the
+ * limit waits in its workload's queue; when the queue is full or the wait runs out it is rejected
+ * with {@link ServiceOverloadedException}, leaving the capacity of the other workloads untouched.
+ * An admitted request's workload is kept in {@link WorkloadContext} until it completes, for {@link
+ * WorkloadConnectionBudget}.
+ *
+ * <p>Running and queued requests are published as the {@code document.bulkhead.active} and {@code
+ * document.bulkhead.queued} gauges, rejections as the {@code document.bulkhead.rejected} counter,
+ * all tagged with the workload.
+ */
+@Slf4j
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+  private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+  private final Map<Workload, Compartment> compartments = new EnumMap<>(Workload.class);
+
+  public BulkheadInterceptor(
+      DocumentManagementProperties.Bulkhead properties, Optional<MeterRegistry> meterRegistry) {
+    for (Workload workload : Workload.values()) {
+      DocumentManagementProperties.Limit limit = properties.getLimit(workload);
+      compartments.put(workload, new Compartment(workload, limit, meterRegistry));
+      log.info(LogMessage.BULKHEAD_CONFIGURED.getMessage(), workload.getKey(), limit);
+    }
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    Optional<Compartment> compartment =
+        Optional.of(handler)
+            .filter(HandlerMethod.class::isInstance)
+            .map(HandlerMethod.class::cast)
+            .map(method -> method.getMethodAnnotation(Bulkhead.class))
+            .map(bulkhead -> compartments.get(bulkhead.value()));
+    if (compartment.isPresent()) {
+      compartment.get().acquire(request);
+      request.setAttribute(PERMIT_ATTRIBUTE, compartment.get());
+      WorkloadContext.enter(compartment.get().workload);
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    Optional.ofNullable(request.getAttribute(PERMIT_ATTRIBUTE))
+        .map(Compartment.class::cast)
+        .ifPresent(
+            compartment -> {
+              request.removeAttribute(PERMIT_ATTRIBUTE);
+              WorkloadContext.exit();
+              compartment.release();
+            });
+  }
+
+  int active(Workload workload) {
+    return compartments.get(workload).active();
+  }
+
+  private static final class Compartment {
+    private final Workload workload;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Optional<Counter> rejected;
+
+    private Compartment(
+        Workload workload,
+        DocumentManagementProperties.Limit limit,
+        Optional<MeterRegistry> meterRegistry) {
+      this.workload = workload;
+      this.maxConcurrent = limit.getMaxConcurrent();
+      this.maxQueued = limit.getMaxQueued();
+      this.maxWaitMs = limit.getMaxWaitMs();
+      this.permits = new Semaphore(maxConcurrent, true);
+      meterRegistry.ifPresent(
+          registry -> {
+            Gauge.builder("document.bulkhead.active", this, Compartment::active)
+                .tag("workload", workload.getKey())
+                .register(registry);
+            Gauge.builder("document.bulkhead.queued", queued, AtomicInteger::get)
+                .tag("workload", workload.getKey())
+                .register(registry);
+          });
+      this.rejected =
+          meterRegistry.map(
+              registry ->
+                  Counter.builder("document.bulkhead.rejected")
+                      .tag("workload", workload.getKey())
+                      .register(registry));
+    }
+
+    private void acquire(HttpServletRequest request) {
+      // A zero timeout, unlike tryAcquire(), does not overtake requests already queued
+      if (tryAcquire(0)) {
+        return;
+      }
+      if (queued.incrementAndGet() > maxQueued) {
+        queued.decrementAndGet();
+        reject(request);
+      }
+      try {
+        if (!tryAcquire(maxWaitMs)) {
+          reject(request);
+        }
+      } finally {
+        queued.decrementAndGet();
+      }
+    }
+
+    private boolean tryAcquire(long timeoutMs) {
+      try {
+        return permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    private void release() {
+      permits.release();
+    }
+
+    private int active() {
+      return maxConcurrent - permits.availablePermits();
+    }
+
+    private void reject(HttpServletRequest request) {
+      rejected.ifPresent(Counter::increment);
+      log.warn(
+          LogMessage.BULKHEAD_REJECTED.getMessage(),
+          workload.getKey(),
+          request.getRequestURI(),
+          active(),
+          queued.get());
+      throw new ServiceOverloadedException(
+          "Too many concurrent " + workload.getKey() + " requests; retry shortly");
+    }
+  }
+}
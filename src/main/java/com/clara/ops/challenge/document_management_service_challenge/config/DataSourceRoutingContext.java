@@ -0,0 +1,38 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-thread override that pins read-only transactions to the primary datasource. Has no effect
+ * when read replicas are not enabled.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DataSourceRoutingContext {
+
+  private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+  /**
+   * Routes the current transaction to the primary. Must be called before the transaction issues its
+   * first statement; the override is cleared when the transaction completes.
+   */
+  public static void usePrimaryForCurrentTransaction() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive() || isPrimaryForced()) {
+      return;
+    }
+    PRIMARY_FORCED.set(Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            PRIMARY_FORCED.remove();
+          }
+        });
+  }
+
+  public static boolean isPrimaryForced() {
+    return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+  }
+}
@@ -1,9 +1,16 @@
 package com.clara.ops.challenge.document_management_service_challenge.config;
 
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.nio.file.Path;
+import java.util.List;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
@@ -18,6 +25,28 @@ public class DocumentManagementProperties {
 
   @NotNull private Pagination pagination = new Pagination();
 
+  @NotNull private Search search = new Search();
+
+  @NotNull private QueryTimeout queryTimeout = new QueryTimeout();
+
+  @NotNull @Valid private Download download = new Download();
+
+  @NotNull private Suggest suggest = new Suggest();
+
+  @NotNull private Partitioning partitioning = new Partitioning();
+
+  @NotNull @Valid private Bulkhead bulkhead = new Bulkhead();
+
+  @NotNull private BulkImport bulkImport = new BulkImport();
+
+  @NotNull private Deletion deletion = new Deletion();
+
+  @NotNull private Retag retag = new Retag();
+
+  @NotNull @Valid private Reconciliation reconciliation = new Reconciliation();
+
+  @NotNull @Valid private Usage usage = new Usage();
+
   @Data
   public static class Upload {
     @Min(1)
@@ -39,4 +68,348 @@ public class DocumentManagementProperties {
     @Max(1000)
     private int maxSize = 100;
   }
+
+  @Data
+  public static class Search {
+    @Min(1)
+    @Max(100)
+    private int facetLimit = 10;
+  }
+
+  /**
+   * Per-endpoint transaction timeouts. The {@code @Transactional} annotations of {@code
+   * DocumentService} and {@code DocumentBundleService} read them from this bean, so the validated
+   * values and defaults here are the only ones. They propagate to every statement as a JDBC query
+   * timeout, so a runaway query is cancelled on the server and its pool connection released.
+   */
+  @Data
+  public static class QueryTimeout {
+    @Min(1)
+    @Max(300)
+    private int searchSeconds = 10;
+
+    @Min(1)
+    @Max(300)
+    private int downloadSeconds = 5;
+  }
+
+  @Data
+  public static class Download {
+    @Min(1)
+    @Max(1000)
+    private int maxBatchSize = 100;
+
+    @NotNull @Valid private Proxy proxy = new Proxy();
+
+    @NotNull @Valid private Bundle bundle = new Bundle();
+
+    @NotNull @Valid private PathCache pathCache = new PathCache();
+  }
+
+  /**
+   * Storage paths of downloaded documents kept in memory, so repeat downloads skip the database.
+   * Deletes evict the path on the node that served them; {@code expireAfterSeconds} bounds how long
+   * other nodes keep resolving a deleted document.
+   */
+  @Data
+  public static class PathCache {
+    private boolean enabled = true;
+
+    @Min(1)
+    private long maxEntries = 100_000L;
+
+    @Min(1)
+    private long expireAfterSeconds = 300L;
+  }
+
+  /**
+   * Streaming of document content through the service for clients that cannot reach MinIO. Content
+   * is copied through a single buffer of {@code bufferSizeKb} per request, never held in memory.
+   */
+  @Data
+  public static class Proxy {
+    private boolean enabled = false;
+
+    @Min(4)
+    @Max(1024)
+    private int bufferSizeKb = 64;
+
+    @NotNull @Valid private DiskCache diskCache = new DiskCache();
+  }
+
+  /**
+   * Node-local disk copies of frequently proxied objects. An object is copied only once it has been
+   * read {@code admitAfterReads} times, so one-off reads do not displace hot objects; the least
+   * recently used copies are deleted to stay within {@code maxSizeMb}.
+   */
+  @Data
+  public static class DiskCache {
+    private boolean enabled = false;
+
+    @NotBlank
+    private String directory =
+        Path.of(System.getProperty("java.io.tmpdir"), "document-cache").toString();
+
+    @Min(1)
+    private long maxSizeMb = 1024L;
+
+    @Min(1)
+    private long maxObjectSizeMb = 64L;
+
+    @Min(1)
+    @Max(100)
+    private int admitAfterReads = 3;
+  }
+
+  /**
+   * ZIP bundles of several documents. While one document is written, up to {@code prefetch} of the
+   * following ones are already being opened on a pool of {@code fetchThreads} shared by all bundle
+   * downloads.
+   */
+  @Data
+  public static class Bundle {
+    @Min(1)
+    @Max(1000)
+    private int maxDocuments = 200;
+
+    @Min(0)
+    @Max(32)
+    private int prefetch = 4;
+
+    @Min(1)
+    @Max(64)
+    private int fetchThreads = 8;
+  }
+
+  /**
+   * Sizing of the in-memory autocomplete indexes. {@code maxCachedTerms} bounds the terms held
+   * across all users; least recently used users are evicted first. Uploads and deletes only update
+   * the indexes of the node that served them; {@code expireAfterSeconds} bounds how long other
+   * nodes keep suggesting from an outdated index.
+   */
+  @Data
+  public static class Suggest {
+    @Min(1)
+    @Max(50)
+    private int defaultLimit = 10;
+
+    @Min(1)
+    @Max(100)
+    private int maxLimit = 25;
+
+    @Min(1)
+    @Max(100000)
+    private int maxTermsPerUser = 5000;
+
+    @Min(1)
+    private long maxCachedTerms = 200000L;
+
+    @Min(1)
+    private long expireAfterSeconds = 600L;
+  }
+
+  /**
+   * Creation of the monthly documents and tags partitions ahead of time. Only meaningful on the
+   * partitioned PostgreSQL schema, hence disabled by default.
+   */
+  @Data
+  public static class Partitioning {
+    private boolean enabled = false;
+
+    @Min(1)
+    @Max(24)
+    private int monthsAhead = 3;
+
+    @NotBlank private String cron = "0 0 3 * * *";
+  }
+
+  /**
+   * Admin import of metadata for objects already in storage. Records are written with {@code COPY}
+   * in transactions of {@code chunkSize} documents, so an interrupted import keeps the chunks
+   * committed before it. Disabled by default as the endpoint is not meant to be publicly reachable.
+   */
+  @Data
+  public static class BulkImport {
+    private boolean enabled = false;
+
+    @Min(1)
+    @Max(100000)
+    private int chunkSize = 5000;
+
+    @Min(0)
+    @Max(10000)
+    private int maxReportedErrors = 100;
+
+    /**
+     * How far back, in months, an imported {@code createdAt} may lie. The monthly partitions
+     * covering each chunk are created before it is written, so this bounds how many a single import
+     * can add; future dates are always rejected.
+     */
+    @Min(1)
+    @Max(1200)
+    private int maxAgeMonths = 120;
+
+    /**
+     * Longest record accepted, in characters; a quoted CSV field spanning lines counts all of them.
+     * Longer records are rejected as malformed rather than buffered.
+     */
+    @Min(1000)
+    @Max(10000000)
+    private int maxRecordLength = 65536;
+  }
+
+  /**
+   * Deletes mark documents, which hides them at once; a background purge then removes their objects
+   * from storage and their rows every {@code purgeIntervalMs}. Objects are removed with one
+   * multi-object delete per batch, hence at most 1000 documents per batch. Bulk deletes mark
+   * documents in transactions of {@code batchSize} as well.
+   */
+  @Data
+  public static class Deletion {
+    private boolean purgeEnabled = true;
+
+    @Min(1)
+    @Max(1000)
+    private int batchSize = 1000;
+
+    @Min(100)
+    private long purgeIntervalMs = 10_000L;
+  }
+
+  /**
+   * Bulk retags walk the matching documents newest first and change their tags in transactions of
+   * {@code batchSize} documents, each passed to the database as one id list.
+   */
+  @Data
+  public static class Retag {
+    @Min(1)
+    @Max(1000)
+    private int batchSize = 1000;
+  }
+
+  /**
+   * Compares the bucket with the documents table on {@code cron}. The key space is cut into ranges
+   * at the {@code splitPoints}, which are checked {@code parallelism} at a time; objects and rows
+   * younger than {@code gracePeriodMinutes} may belong to an upload in progress and are never
+   * reported. With {@code repair}, orphaned objects are removed and documents whose object is
+   * missing are deleted. Disabled by default; enable it on one instance only.
+   */
+  @Data
+  public static class Reconciliation {
+    private boolean enabled = false;
+
+    private boolean repair = false;
+
+    @NotBlank private String cron = "0 30 4 * * *";
+
+    @Min(1)
+    @Max(64)
+    private int parallelism = 4;
+
+    @Min(1)
+    private long gracePeriodMinutes = 60;
+
+    @Min(0)
+    @Max(10000)
+    private int maxReportedPaths = 100;
+
+    @NotNull
+    private List<String> splitPoints =
+        List.of(
+            "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "a", "b", "c", "d", "e", "f", "g",
+            "h", "i", "j", "k", "l", "m", "n", "o", "p", "q", "r", "s", "t", "u", "v", "w", "x",
+            "y", "z");
+  }
+
+  /**
+   * Usage per user is recorded as deltas in the same transaction as every upload, delete and
+   * import, and folded into the per-user totals every {@code foldIntervalMs}, {@code foldBatchSize}
+   * deltas per transaction. Folding is safe on several instances at once.
+   */
+  @Data
+  public static class Usage {
+    private boolean foldEnabled = true;
+
+    @Min(1)
+    @Max(10000)
+    private int foldBatchSize = 1000;
+
+    @Min(100)
+    private long foldIntervalMs = 60_000L;
+
+    @NotNull @Valid private Quota quota = new Quota();
+  }
+
+  /**
+   * Limits applied to every user's live documents. Uploads that would exceed them are rejected
+   * before the file is sent to storage; imports are not limited. Each upload reserves its room
+   * under a per-user lock before streaming, so concurrent uploads of a user are checked one at a
+   * time and cannot together overshoot; the lock is released before the file is sent. A failed
+   * upload gives its reservation back.
+   */
+  @Data
+  public static class Quota {
+    private boolean enabled = false;
+
+    @Min(1)
+    private long maxDocuments = 100_000L;
+
+    @Min(1)
+    private long maxSizeMb = 10_240L;
+  }
+
+  /**
+   * Concurrency and connection limits per {@link Workload}, so a burst in one cannot take all
+   * request threads or all pool connections. Scheduled jobs and admin endpoints run outside any
+   * bulkhead and share what the pool has beyond the sum of the {@code maxConnections} budgets.
+   *
+   * <p>A request over the limit waits up to {@code maxWaitMs} behind at most {@code maxQueued}
+   * others of its workload and is then rejected with 503. A transaction of a workload holding all
+   * its connections waits up to the same {@code maxWaitMs} and then fails with 503 too.
+   */
+  @Data
+  public static class Bulkhead {
+    private boolean enabled = true;
+
+    @NotNull @Valid private Limit upload = new Limit(3, 10, 2000L, 2);
+
+    @NotNull @Valid private Limit mutate = new Limit(2, 20, 2000L, 1);
+
+    @NotNull @Valid private Limit search = new Limit(3, 50, 1000L, 2);
+
+    @NotNull @Valid private Limit download = new Limit(4, 100, 500L, 2);
+
+    @NotNull @Valid private Limit stream = new Limit(16, 32, 1000L, 2);
+
+    public Limit getLimit(Workload workload) {
+      return switch (workload) {
+        case UPLOAD -> upload;
+        case MUTATE -> mutate;
+        case SEARCH -> search;
+        case DOWNLOAD -> download;
+        case STREAM -> stream;
+      };
+    }
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Limit {
+    @Min(1)
+    @Max(1000)
+    private int maxConcurrent = 1;
+
+    @Min(0)
+    @Max(10000)
+    private int maxQueued;
+
+    @Min(0)
+    @Max(60000)
+    private long maxWaitMs;
+
+    @Min(1)
+    @Max(1000)
+    private int maxConnections = 1;
+  }
 }
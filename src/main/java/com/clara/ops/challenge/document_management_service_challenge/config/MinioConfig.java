@@ -42,8 +42,17 @@ public class MinioConfig {
             .filter(b -> !b.isBlank())
             .orElseThrow(() -> new IllegalStateException("MinIO bucket name is not configured"));
 
+    String region =
+        Optional.ofNullable(minioProperties.getRegion())
+            .filter(r -> !r.isBlank())
+            .orElseThrow(() -> new IllegalStateException("MinIO region is not configured"));
+
     MinioClient minioClient =
-        MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build();
+        MinioClient.builder()
+            .endpoint(endpoint)
+            .credentials(accessKey, secretKey)
+            .region(region)
+            .build();
 
     try {
       boolean bucketExists =
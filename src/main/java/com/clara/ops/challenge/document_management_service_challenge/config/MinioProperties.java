@@ -1,6 +1,11 @@
 package com.clara.ops.challenge.document_management_service_challenge.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -20,5 +25,29 @@ public class MinioProperties {
 
   @NotBlank private String bucketName;
 
+  /**
+   * Region of the bucket. With a fixed region the client never looks up the bucket location, and
+   * presigned URLs are signed locally for it.
+   */
+  @NotBlank private String region = "us-east-1";
+
   private Integer presignedUrlExpirySeconds = 3600;
+
+  @NotNull @Valid private PresignedUrlCache presignedUrlCache = new PresignedUrlCache();
+
+  /**
+   * Reuse of presigned URLs per object path. A URL is served from the cache while at least {@code
+   * minRemainingFraction} of its validity is left, so clients always get a usable URL.
+   */
+  @Data
+  public static class PresignedUrlCache {
+    private boolean enabled = true;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double minRemainingFraction = 0.5;
+
+    @Min(1)
+    private long maxEntries = 10_000L;
+  }
 }
@@ -0,0 +1,84 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured datasource with a routing one when read replicas are enabled. The
+ * primary pool keeps its {@code spring.datasource.hikari} settings; every replica gets its own pool
+ * from {@code document-management.replicas.nodes}.
+ */
+@Configuration
+@ConditionalOnProperty(
+    prefix = "document-management.replicas",
+    name = "enabled",
+    havingValue = "true")
+@Slf4j
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    HikariDataSource dataSource =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      HikariDataSource primaryDataSource,
+      DataSourceProperties dataSourceProperties,
+      ReplicaDataSourceProperties replicaProperties) {
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(ReplicaRoutingDataSource.PRIMARY_KEY, primaryDataSource);
+
+    List<String> replicaKeys = new ArrayList<>();
+    List<ReplicaDataSourceProperties.Node> nodes = replicaProperties.getNodes();
+    for (int i = 0; i < nodes.size(); i++) {
+      String key = "replica-" + i;
+      targets.put(key, replicaDataSource(key, nodes.get(i), dataSourceProperties));
+      replicaKeys.add(key);
+    }
+    log.info(LogMessage.DATASOURCE_REPLICAS_CONFIGURED.getMessage(), replicaKeys.size());
+
+    ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaKeys);
+    routingDataSource.setTargetDataSources(targets);
+    routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+    routingDataSource.afterPropertiesSet();
+
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  private HikariDataSource replicaDataSource(
+      String poolName, ReplicaDataSourceProperties.Node node, DataSourceProperties primary) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName(poolName);
+    dataSource.setDriverClassName(primary.determineDriverClassName());
+    dataSource.setJdbcUrl(node.getUrl());
+    dataSource.setUsername(
+        Optional.ofNullable(node.getUsername()).orElseGet(primary::determineUsername));
+    dataSource.setPassword(
+        Optional.ofNullable(node.getPassword()).orElseGet(primary::determinePassword));
+    dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+    dataSource.setMinimumIdle(node.getMinimumIdle());
+    dataSource.setConnectionTimeout(node.getConnectionTimeout());
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+}
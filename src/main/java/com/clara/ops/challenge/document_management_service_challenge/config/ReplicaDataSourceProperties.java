@@ -0,0 +1,58 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Read replica pools used for read-only transactions. Each replica gets its own Hikari pool, sized
+ * independently from the primary pool configured under {@code spring.datasource.hikari}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "document-management.replicas")
+@Data
+@Validated
+public class ReplicaDataSourceProperties {
+
+  private boolean enabled = false;
+
+  /**
+   * How long after a write the affected user and document keep being read from the primary, to hide
+   * replication lag from the client that just wrote.
+   */
+  @Min(0)
+  @Max(3600)
+  private long readYourWritesWindowSeconds = 10;
+
+  @Valid @NotNull private List<Node> nodes = new ArrayList<>();
+
+  @Data
+  public static class Node {
+    @NotBlank private String url;
+
+    /** Defaults to the primary username when not set. */
+    private String username;
+
+    /** Defaults to the primary password when not set. */
+    private String password;
+
+    @Min(1)
+    @Max(100)
+    private int maximumPoolSize = 10;
+
+    @Min(0)
+    @Max(100)
+    private int minimumIdle = 2;
+
+    @Min(250)
+    private long connectionTimeout = 30000;
+  }
+}
@@ -0,0 +1,34 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replicas in round-robin order and everything else to the
+ * primary. Must be wrapped in a {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so that the lookup happens on
+ * the first statement, after the transaction has been marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  static final String PRIMARY_KEY = "primary";
+
+  private final List<String> replicaKeys;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReplicaRoutingDataSource(List<String> replicaKeys) {
+    this.replicaKeys = List.copyOf(replicaKeys);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (replicaKeys.isEmpty()
+        || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        || DataSourceRoutingContext.isPrimaryForced()) {
+      return PRIMARY_KEY;
+    }
+    return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+  }
+}
@@ -0,0 +1,116 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Caps the connections each {@link Workload} holds at once, so a burst in one cannot drain the pool
+ * the others draw from. A connection is charged to the workload in {@link WorkloadContext} when it
+ * is taken and returned to it when closed; connections taken outside a request, by scheduled jobs
+ * and admin endpoints, are not charged. With the pool's size above the sum of the budgets, those
+ * keep the difference to themselves.
+ *
+ * <p>A workload at its budget waits up to its {@code maxWaitMs} for one of its connections to be
+ * closed and then fails like an exhausted pool, with {@link SQLTransientConnectionException}.
+ */
+@Slf4j
+public class WorkloadConnectionBudget extends DelegatingDataSource {
+
+  private final Map<Workload, Semaphore> permits = new EnumMap<>(Workload.class);
+  private final Map<Workload, Integer> maxConnections = new EnumMap<>(Workload.class);
+  private final Map<Workload, Long> maxWaitMs = new EnumMap<>(Workload.class);
+
+  public WorkloadConnectionBudget(
+      DataSource targetDataSource, DocumentManagementProperties.Bulkhead properties) {
+    super(targetDataSource);
+    for (Workload workload : Workload.values()) {
+      DocumentManagementProperties.Limit limit = properties.getLimit(workload);
+      permits.put(workload, new Semaphore(limit.getMaxConnections(), true));
+      maxConnections.put(workload, limit.getMaxConnections());
+      maxWaitMs.put(workload, limit.getMaxWaitMs());
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return charge(super::getConnection);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return charge(() -> super.getConnection(username, password));
+  }
+
+  int inUse(Workload workload) {
+    return maxConnections.get(workload) - permits.get(workload).availablePermits();
+  }
+
+  private Connection charge(ConnectionSource source) throws SQLException {
+    Optional<Workload> workload = WorkloadContext.current();
+    if (workload.isEmpty()) {
+      return source.get();
+    }
+    Semaphore semaphore = acquire(workload.get());
+    try {
+      return charged(source.get(), semaphore);
+    } catch (SQLException | RuntimeException e) {
+      semaphore.release();
+      throw e;
+    }
+  }
+
+  private Semaphore acquire(Workload workload) throws SQLException {
+    Semaphore semaphore = permits.get(workload);
+    boolean acquired;
+    try {
+      acquired = semaphore.tryAcquire(maxWaitMs.get(workload), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      log.warn(LogMessage.CONNECTION_BUDGET_EXHAUSTED.getMessage(), workload.getKey());
+      throw new SQLTransientConnectionException(
+          "No connection left in the " + workload.getKey() + " budget");
+    }
+    return semaphore;
+  }
+
+  /** Wraps the connection so that closing it, once, hands its permit back. */
+  private static Connection charged(Connection connection, Semaphore semaphore) {
+    AtomicBoolean closed = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+              } finally {
+                if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                  semaphore.release();
+                }
+              }
+            });
+  }
+
+  private interface ConnectionSource {
+    Connection get() throws SQLException;
+  }
+}
@@ -0,0 +1,29 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-thread record of the {@link Workload} the current request was admitted as, set by {@link
+ * BulkheadInterceptor} for the request's duration. {@link WorkloadConnectionBudget} charges the
+ * connections the thread takes to it; threads outside any request have none.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class WorkloadContext {
+
+  private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+  static void enter(Workload workload) {
+    CURRENT.set(workload);
+  }
+
+  static void exit() {
+    CURRENT.remove();
+  }
+
+  public static Optional<Workload> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+}
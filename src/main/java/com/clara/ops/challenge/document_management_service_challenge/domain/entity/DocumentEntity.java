@@ -4,22 +4,25 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "documents")
@@ -29,8 +32,13 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class DocumentEntity {
 
+  /**
+   * Time-ordered (version 7), so new documents append to the id indexes; see {@link
+   * UuidV7Generator}. Assigned on persist rather than by a Hibernate generator: the tags join
+   * references it together with {@link #createdAt}, and Hibernate would run a generator again for
+   * that reference.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
   @Column(name = "id", updatable = false, nullable = false)
   private UUID id;
 
@@ -55,23 +63,44 @@ public class DocumentEntity {
   @Column(name = "updated_at", nullable = false)
   private LocalDateTime updatedAt;
 
+  /**
+   * Set when the document is deleted. Deleted documents are hidden from every read and removed,
+   * together with their stored object, by the background purge.
+   */
+  @Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
+  /**
+   * Denormalized copy of the tag names, kept in sync with {@link #tags} on write. Tag filters run
+   * against it as a single GIN-indexed containment or overlap test instead of a join per tag.
+   */
+  @JdbcTypeCode(SqlTypes.ARRAY)
+  @Column(name = "tag_names", nullable = false)
+  @Builder.Default
+  private String[] tagNames = new String[0];
+
   @OneToMany(
       mappedBy = "document",
       cascade = CascadeType.ALL,
       orphanRemoval = true,
       fetch = FetchType.EAGER)
+  @BatchSize(size = 100)
   @Builder.Default
   private List<TagEntity> tags = new ArrayList<>();
 
   @PrePersist
   protected void onCreate() {
-    createdAt = LocalDateTime.now();
-    updatedAt = LocalDateTime.now();
+    id = Optional.ofNullable(id).orElseGet(UuidV7Generator::generate);
+    // Truncated to the database precision so the copy stored on each tag matches exactly
+    createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    updatedAt = createdAt;
+    syncTagNames();
   }
 
   @PreUpdate
   protected void onUpdate() {
     updatedAt = LocalDateTime.now();
+    syncTagNames();
   }
 
   public void addTag(TagEntity tag) {
@@ -86,6 +115,7 @@ public class DocumentEntity {
                       })
                   .add(t);
               t.setDocument(this);
+              syncTagNames();
             });
   }
 
@@ -95,6 +125,22 @@ public class DocumentEntity {
             t -> {
               Optional.ofNullable(this.tags).ifPresent(tagList -> tagList.remove(t));
               t.setDocument(null);
+              syncTagNames();
             });
   }
+
+  /**
+   * Recomputes {@link #tagNames} from the tag entities. Called by the tag mutators and the
+   * lifecycle callbacks, since changes to the inverse collection alone do not trigger an update.
+   */
+  private void syncTagNames() {
+    tagNames =
+        Optional.ofNullable(this.tags).stream()
+            .flatMap(List::stream)
+            .map(TagEntity::getTagName)
+            .filter(Objects::nonNull)
+            .distinct()
+            .sorted()
+            .toArray(String[]::new);
+  }
 }
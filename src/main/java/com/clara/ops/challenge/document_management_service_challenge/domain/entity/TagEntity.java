@@ -7,9 +7,12 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinColumns;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,13 +34,35 @@ public class TagEntity {
   @Column(name = "id")
   private Long id;
 
+  /**
+   * Joined on the document's creation date as well as its id, matching the foreign key to the
+   * partitioned documents table, so loading a document's tags only reads the tags partition of its
+   * month.
+   */
   @ManyToOne(fetch = FetchType.LAZY)
-  @JoinColumn(name = "document_id", nullable = false)
+  @JoinColumns({
+    @JoinColumn(name = "document_id", referencedColumnName = "id", nullable = false),
+    @JoinColumn(name = "document_created_at", referencedColumnName = "created_at", nullable = false)
+  })
   private DocumentEntity document;
 
+  /**
+   * Copy of the document's creation date. Tags are partitioned on it alongside documents; written
+   * through {@link #document}.
+   */
+  @Column(name = "document_created_at", insertable = false, updatable = false)
+  private LocalDateTime documentCreatedAt;
+
   @Column(name = "tag_name", nullable = false)
   private String tagName;
 
+  @PrePersist
+  protected void onCreate() {
+    Optional.ofNullable(document)
+        .map(DocumentEntity::getCreatedAt)
+        .ifPresent(createdAt -> documentCreatedAt = createdAt);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,31 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of a user's document collection, incremented by every write to the user's documents. It
+ * lets search results of a user be revalidated with a primary key lookup instead of the search
+ * itself.
+ */
+@Entity
+@Table(name = "user_collection_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCollectionVersionEntity {
+
+  @Id
+  @Column(name = "user_name", nullable = false)
+  private String userName;
+
+  @Column(name = "version", nullable = false)
+  private Long version;
+}
@@ -0,0 +1,40 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to a user's usage not yet folded into {@link UserUsageEntity}, negative for deletes.
+ * Written in the same transaction as the change, and only ever inserted, so concurrent writes of a
+ * user take no lock on a shared counter.
+ */
+@Entity
+@Table(name = "user_usage_deltas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserUsageDeltaEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private Long id;
+
+  @Column(name = "user_name", nullable = false)
+  private String userName;
+
+  @Column(name = "document_count", nullable = false)
+  private Long documentCount;
+
+  @Column(name = "total_bytes", nullable = false)
+  private Long totalBytes;
+}
@@ -0,0 +1,33 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Document count and total bytes of a user's live documents, as of the last fold of the user's
+ * {@link UserUsageDeltaEntity usage deltas}. The current usage is this plus the pending deltas.
+ */
+@Entity
+@Table(name = "user_usage")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserUsageEntity {
+
+  @Id
+  @Column(name = "user_name", nullable = false)
+  private String userName;
+
+  @Column(name = "document_count", nullable = false)
+  private Long documentCount;
+
+  @Column(name = "total_bytes", nullable = false)
+  private Long totalBytes;
+}
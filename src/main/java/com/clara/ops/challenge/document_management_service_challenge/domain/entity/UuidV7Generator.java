@@ -0,0 +1,50 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.entity;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp followed
+ * by a 12-bit counter and 62 random bits. New ids sort after older ones, so inserts append to the
+ * right edge of the id indexes instead of landing on random pages.
+ *
+ * <p>Within a millisecond the counter keeps ids from one JVM strictly increasing; when it runs out,
+ * or the clock steps back, the timestamp is advanced past the last one issued. Ids from different
+ * nodes interleave by time but stay unique through the random bits.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UuidV7Generator {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int MAX_COUNTER = 0xFFF;
+
+  private static long lastTimestamp = -1;
+  private static int counter;
+
+  public static UUID generate() {
+    long timestamp;
+    int sequence;
+    synchronized (UuidV7Generator.class) {
+      timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+      if (timestamp == lastTimestamp) {
+        if (counter == MAX_COUNTER) {
+          timestamp++;
+          counter = RANDOM.nextInt(MAX_COUNTER / 2);
+        } else {
+          counter++;
+        }
+      } else {
+        // Seeded low in a fresh millisecond to leave room for increments
+        counter = RANDOM.nextInt(MAX_COUNTER / 2);
+      }
+      lastTimestamp = timestamp;
+      sequence = counter;
+    }
+
+    long mostSigBits = (timestamp << 16) | 0x7000L | sequence;
+    long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+}
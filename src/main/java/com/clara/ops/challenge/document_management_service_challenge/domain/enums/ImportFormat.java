@@ -0,0 +1,34 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/** Formats accepted by the bulk metadata import, selected by the request content type. */
+@Getter
+@RequiredArgsConstructor
+public enum ImportFormat {
+  /**
+   * RFC 4180 CSV with a header row naming the columns {@code user}, {@code name}, {@code
+   * minio_path}, {@code size}, {@code tags} and optionally {@code created_at}; tags are separated
+   * by {@code |}.
+   */
+  CSV("text/csv"),
+  /** One JSON object per line with the fields of {@code DocumentImportRecord}. */
+  NDJSON("application/x-ndjson");
+
+  private final String contentType;
+
+  public static Optional<ImportFormat> fromContentType(String contentType) {
+    return Optional.ofNullable(contentType)
+        .map(MediaType::parseMediaType)
+        .flatMap(
+            mediaType ->
+                Arrays.stream(values())
+                    .filter(
+                        format -> MediaType.parseMediaType(format.contentType).includes(mediaType))
+                    .findFirst());
+  }
+}
@@ -33,8 +33,32 @@ public enum LogMessage {
       "Pagination validation failed: Page size {} exceeds maximum {}"),
   SEARCH_VALIDATION_PASSED(
       Level.DEBUG, "validatePagination", "Pagination validation passed: page={}, size={}"),
+  SEARCH_VALIDATION_FAILED_CREATED_RANGE(
+      Level.ERROR,
+      "validateSearchFilters",
+      "Search filter validation failed: createdFrom {} is not before createdTo {}"),
+  SEARCH_VALIDATION_FAILED_SIZE_RANGE(
+      Level.ERROR,
+      "validateSearchFilters",
+      "Search filter validation failed: minSize {} exceeds maxSize {}"),
+  SEARCH_VALIDATION_FAILED_CURSOR(
+      Level.ERROR,
+      "validateSearchFilters",
+      "Search filter validation failed: incomplete cursor beforeCreatedAt={}, beforeId={}"),
+  SEARCH_VALIDATION_FAILED_SORT(
+      Level.ERROR, "validateSort", "Sort validation failed: Invalid sort: {}"),
+  SEARCH_VALIDATION_FAILED_SORT_SCOPE(
+      Level.ERROR, "validateSort", "Sort validation failed: Sort by {} without user filter"),
   SEARCH_COMPLETED(
       Level.INFO, "searchDocuments", "Search completed - found {} documents out of {} total"),
+  SEARCH_NOT_MODIFIED(
+      Level.INFO, "searchDocuments", "Search results not modified - answered with ETag {}"),
+
+  SUGGEST_REQUEST_RECEIVED(
+      Level.DEBUG, "suggest", "Received suggest request - user: {}, prefix: {}, limit: {}"),
+  SUGGEST_VALIDATION_FAILED(Level.ERROR, "validateSuggestParams", "Suggest validation failed: {}"),
+  SUGGEST_INDEX_LOADED(
+      Level.DEBUG, "loadIndex", "Loaded suggestion index for user: {} ({} names, {} tags)"),
 
   DOWNLOAD_REQUEST_RECEIVED(
       Level.INFO, "getDownloadUrl", "Received download request for document: {}"),
@@ -46,19 +70,104 @@ public enum LogMessage {
       Level.DEBUG, "validateDocumentId", "Document ID validation passed: {}"),
   DOWNLOAD_SUCCESS(
       Level.INFO, "getDownloadUrl", "Download URL generated successfully for document: {}"),
+  DOWNLOAD_REDIRECT(Level.INFO, "getDownloadUrl", "Redirecting to download URL for document: {}"),
+  DOWNLOAD_NOT_MODIFIED(Level.INFO, "getDownloadUrl", "Download URL not modified for document: {}"),
+
+  BATCH_DOWNLOAD_REQUEST_RECEIVED(
+      Level.INFO, "getDownloadUrls", "Received batch download request for {} documents"),
+  BATCH_DOWNLOAD_VALIDATION_FAILED(
+      Level.ERROR, "validateDocumentIds", "Batch download validation failed: {} document IDs"),
+  BATCH_DOWNLOAD_SUCCESS(
+      Level.INFO, "getDownloadUrls", "Batch download URLs generated for {} documents"),
+
+  PROXY_REQUEST_RECEIVED(
+      Level.INFO,
+      "streamDocument",
+      "Received proxied download request for document: {} (range: {})"),
+  PROXY_RANGE_IGNORED(
+      Level.DEBUG, "openContent", "Serving full content of document: {}, ignoring range: {}"),
+  PROXY_SUCCESS(Level.INFO, "streamDocument", "Streamed {} bytes of document: {}"),
+
+  BUNDLE_REQUEST_RECEIVED(
+      Level.INFO,
+      "downloadBundle",
+      "Received bundle download request - documentIds: {}, filters: {}"),
+  BUNDLE_VALIDATION_FAILED(Level.ERROR, "validateBundleRequest", "Bundle validation failed: {}"),
+  BUNDLE_SUCCESS(Level.INFO, "downloadBundle", "Bundle of {} documents streamed"),
+  BUNDLE_PREFETCH_CLOSE_FAILED(
+      Level.DEBUG, "writeBundle", "Failed to close prefetched object stream"),
+
+  DELETE_REQUEST_RECEIVED(Level.INFO, "deleteDocument", "Received delete request for document: {}"),
+  DELETE_SUCCESS(Level.INFO, "deleteDocument", "Document deleted: {}"),
+  BULK_DELETE_REQUEST_RECEIVED(
+      Level.INFO, "deleteDocuments", "Received bulk delete request - filters: {}"),
+  BULK_DELETE_VALIDATION_FAILED(
+      Level.ERROR, "validateDeleteFilters", "Bulk delete validation failed: no user in {}"),
+  BULK_DELETE_SUCCESS(Level.INFO, "deleteDocuments", "Bulk delete marked {} documents"),
+
+  TAGS_UPDATE_REQUEST_RECEIVED(
+      Level.INFO, "updateTags", "Received tag update for document: {} - add: {}, remove: {}"),
+  TAGS_UPDATE_SUCCESS(Level.INFO, "updateTags", "Tags updated for document: {}"),
+  TAGS_VALIDATION_FAILED(Level.ERROR, "validateTagChanges", "Tag validation failed: {}"),
+  RETAG_REQUEST_RECEIVED(
+      Level.INFO, "retagDocuments", "Received retag request - filters: {}, add: {}, remove: {}"),
+  RETAG_VALIDATION_FAILED(
+      Level.ERROR, "validateRetagRequest", "Retag validation failed: no user in {}"),
+  RETAG_SUCCESS(Level.INFO, "retagDocuments", "Retag updated {} documents"),
+
+  IMPORT_REQUEST_RECEIVED(Level.INFO, "importDocuments", "Received {} import request"),
+  IMPORT_VALIDATION_FAILED(
+      Level.ERROR, "validateImportFormat", "Import validation failed: unsupported format {}"),
+  IMPORT_RECORD_REJECTED(Level.DEBUG, "validateImportRecord", "Import record rejected: {}"),
+  IMPORT_PROGRESS(
+      Level.INFO,
+      "importDocuments",
+      "Import progress: {} documents imported, {} rejected, {} lines read"),
+  IMPORT_SUCCESS(
+      Level.INFO, "importDocuments", "Imported {} documents ({} rejected) in {} ms via {}"),
+  IMPORT_ERROR(Level.ERROR, "importDocuments", "Import failed after {} committed documents"),
+
+  RECONCILIATION_REQUEST_RECEIVED(
+      Level.INFO, "startReconciliation", "Received storage reconciliation request"),
+
+  USAGE_REQUEST_RECEIVED(Level.DEBUG, "getUsage", "Received usage request for user: {}"),
+  USAGE_VALIDATION_FAILED(Level.ERROR, "validateUsageUser", "Usage validation failed: {}"),
 
   SERVICE_UPLOAD_STARTED(Level.INFO, "uploadDocument", "Uploading document: {} for user: {}"),
   SERVICE_UPLOAD_SUCCESS(Level.INFO, "uploadDocument", "Document uploaded successfully: {}"),
   SERVICE_UPLOAD_ERROR(Level.ERROR, "uploadDocument", "Error uploading document"),
 
+  SERVICE_DELETE_SUCCESS(Level.INFO, "deleteDocument", "Document marked deleted: {}"),
+  SERVICE_DELETE_PROGRESS(Level.DEBUG, "deleteDocuments", "Marked {} documents deleted so far"),
+  SERVICE_BULK_DELETE_SUCCESS(
+      Level.INFO, "deleteDocuments", "Marked {} documents deleted matching filters: {}"),
+
+  SERVICE_TAGS_UPDATE_SUCCESS(Level.INFO, "updateTags", "Applied tag changes to document: {}"),
+  SERVICE_RETAG_PROGRESS(Level.DEBUG, "retagDocuments", "Retagged {} documents so far"),
+  SERVICE_RETAG_SUCCESS(Level.INFO, "retagDocuments", "Retagged {} documents matching filters: {}"),
+
   SERVICE_SEARCH_STARTED(Level.INFO, "searchDocuments", "Searching documents with filters: {}"),
+  SERVICE_SEARCH_FACETS_COMPUTED(
+      Level.DEBUG, "searchDocuments", "Computed {} tag facets (limit: {})"),
 
   SERVICE_DOWNLOAD_STARTED(
       Level.INFO, "getDownloadUrl", "Generating download URL for document: {}"),
 
+  SERVICE_BATCH_DOWNLOAD_RESOLVED(
+      Level.DEBUG, "getDownloadUrls", "Resolved {} of {} requested documents"),
+
   MINIO_UPLOAD_STARTED(Level.INFO, "uploadFile", "Uploading file to MinIO: {}"),
   MINIO_UPLOAD_SUCCESS(Level.INFO, "uploadFile", "File uploaded successfully to MinIO: {}"),
   MINIO_UPLOAD_ERROR(Level.ERROR, "uploadFile", "Error uploading file to MinIO: {}"),
+  MINIO_OBJECT_NOT_FOUND(Level.ERROR, "getObject", "File not found in MinIO: {}"),
+  MINIO_OBJECT_MODIFIED(Level.WARN, "getObject", "File in MinIO no longer matches its ETag: {}"),
+  MINIO_DOWNLOAD_ERROR(Level.ERROR, "getObject", "Error reading file from MinIO: {}"),
+  MINIO_REMOVE_SUCCESS(Level.INFO, "removeObjects", "Removed {} of {} files from MinIO"),
+  MINIO_REMOVE_FAILED(Level.WARN, "removeObjects", "Could not remove file from MinIO: {} ({})"),
+  MINIO_REMOVE_ERROR(Level.ERROR, "removeObjects", "Error removing {} files from MinIO"),
+  MINIO_LIST_ERROR(Level.ERROR, "listObjects", "Error listing files in MinIO after key: {}"),
+  MINIO_URL_CACHE_CONFIGURED(
+      Level.INFO, "presignedUrlCache", "Presigned URLs are reused for up to {} seconds"),
   MINIO_URL_GENERATION_STARTED(
       Level.INFO, "generatePresignedUrl", "Generating presigned URL for: {}"),
   MINIO_URL_GENERATION_SUCCESS(
@@ -66,6 +175,71 @@ public enum LogMessage {
   MINIO_URL_GENERATION_ERROR(
       Level.ERROR, "generatePresignedUrl", "Error generating presigned URL for: {}"),
 
+  DISK_CACHE_CONFIGURED(
+      Level.INFO,
+      "objectDiskCache",
+      "Caching hot objects in {} (max {} MB, admitted after {} reads)"),
+  DISK_CACHE_ADMITTED(Level.DEBUG, "admit", "Cached object on disk: {} ({} bytes)"),
+  DISK_CACHE_ADMISSION_FAILED(Level.WARN, "admit", "Could not cache object on disk: {}"),
+  DISK_CACHE_COPY_TRUNCATED(
+      Level.WARN, "transfer", "Evicted truncated disk copy of {} at byte {} of {}"),
+  DISK_CACHE_DELETE_FAILED(Level.WARN, "evict", "Could not delete cached object file: {}"),
+
+  BULKHEAD_CONFIGURED(Level.INFO, "bulkheadInterceptor", "Bulkhead for {}: {}"),
+  BULKHEAD_REJECTED(Level.WARN, "preHandle", "Rejected {} request to {}: {} running, {} queued"),
+  CONNECTION_BUDGET_EXHAUSTED(
+      Level.WARN, "getConnection", "No connection left in the {} budget within its wait"),
+
+  DATASOURCE_REPLICAS_CONFIGURED(
+      Level.INFO, "dataSource", "Routing read-only transactions to {} replica(s)"),
+  PARTITIONS_ENSURED(
+      Level.INFO,
+      "ensureMonthlyPartitions",
+      "Ensured monthly partitions for {} months from {} ({} created)"),
+  PARTITIONS_ROWS_MOVED(
+      Level.WARN,
+      "ensureMonthlyPartitions",
+      "Moved {} documents out of the default partition into their new monthly partitions"),
+  PARTITIONS_MONTHS_FAILED(
+      Level.ERROR,
+      "ensureMonthlyPartitions",
+      "Could not create the monthly partitions of {}; their rows stay in the default partition"),
+  PARTITIONS_ERROR(
+      Level.ERROR, "ensureMonthlyPartitions", "Error creating monthly partitions from {}"),
+  PURGE_SUCCESS(
+      Level.INFO,
+      "purgeDeletedDocuments",
+      "Purged {} deleted documents ({} objects removed, {} requeued)"),
+  PURGE_OBJECT_KEPT(
+      Level.INFO, "purgeDeletedDocuments", "Kept object {} written after its document was deleted"),
+  PURGE_ERROR(Level.ERROR, "purgeDeletedDocuments", "Purge of deleted documents failed"),
+  USAGE_FOLD_SUCCESS(
+      Level.DEBUG, "foldUsageDeltas", "Folded {} usage deltas into the totals of {} users"),
+  USAGE_FOLD_ERROR(Level.ERROR, "foldUsageDeltas", "Fold of usage deltas failed"),
+  SERVICE_QUOTA_EXCEEDED(
+      Level.WARN,
+      "reserveQuota",
+      "Upload rejected for user: {} - {} documents and {} bytes used, {} bytes uploaded"),
+  RECONCILIATION_STARTED(
+      Level.INFO, "reconcile", "Reconciling storage with the database over {} key ranges"),
+  RECONCILIATION_ALREADY_RUNNING(
+      Level.WARN, "reconcile", "Reconciliation skipped: a run is already in progress"),
+  RECONCILIATION_RANGE_DONE(
+      Level.DEBUG, "reconcileRange", "Reconciled key range {}: {} objects, {} documents"),
+  RECONCILIATION_RANGE_ERROR(
+      Level.ERROR, "reconcileRange", "Reconciliation of key range {} failed"),
+  RECONCILIATION_ORPHANED_OBJECT(Level.WARN, "reconcileRange", "Object without document: {}"),
+  RECONCILIATION_ORPHANED_KEPT(
+      Level.INFO, "reconcileRange", "Object kept: written or removed since the listing: {}"),
+  RECONCILIATION_DANGLING_DOCUMENT(Level.WARN, "reconcileRange", "Document without object: {}"),
+  RECONCILIATION_DANGLING_KEPT(
+      Level.INFO, "reconcileRange", "Documents kept: object written since the listing: {}"),
+  RECONCILIATION_SUCCESS(
+      Level.INFO,
+      "reconcile",
+      "Reconciled {} objects with {} documents in {} ms: {} orphaned objects ({} removed),"
+          + " {} documents without object ({} deleted), {} failed ranges"),
+
   MINIO_BUCKET_CREATING(Level.INFO, "minioClient", "Creating bucket: {}"),
   MINIO_BUCKET_CREATED(Level.INFO, "minioClient", "Bucket created successfully: {}"),
   MINIO_BUCKET_EXISTS(Level.INFO, "minioClient", "Bucket already exists: {}"),
@@ -76,6 +250,12 @@ public enum LogMessage {
   EXCEPTION_INVALID_DOCUMENT(Level.ERROR, "handleInvalidDocument", "Invalid document: {}"),
   EXCEPTION_VALIDATION_ERROR(Level.ERROR, "handleValidation", "Validation error: {}"),
   EXCEPTION_FILE_SIZE_EXCEEDED(Level.ERROR, "handleMaxUploadSize", "File size exceeds maximum: {}"),
+  EXCEPTION_QUERY_TIMEOUT(Level.ERROR, "handleQueryTimeout", "Query timed out for: {}"),
+  EXCEPTION_SERVICE_OVERLOADED(Level.WARN, "handleServiceOverloaded", "Service overloaded: {}"),
+  EXCEPTION_CONNECTION_UNAVAILABLE(
+      Level.WARN, "handleConnectionUnavailable", "No database connection for: {} - {}"),
+  EXCEPTION_QUOTA_EXCEEDED(Level.WARN, "handleQuotaExceeded", "Quota exceeded: {}"),
+  EXCEPTION_DOCUMENT_MODIFIED(Level.WARN, "handleDocumentModified", "Document modified: {}"),
   EXCEPTION_UNEXPECTED(Level.ERROR, "handleGeneric", "Unexpected error: {}");
 
   private final Level level;
@@ -0,0 +1,34 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sort keys accepted by the search endpoint. Each key is backed by a composite index ending in
+ * {@code id}, which is always appended as a tie-breaker so that orderings are total and usable for
+ * keyset pagination.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SortField {
+  CREATED_AT("createdAt", "createdAt", false),
+  NAME("name", "documentName", true),
+  SIZE("size", "fileSize", true);
+
+  public static final String TIE_BREAKER_PROPERTY = "id";
+
+  private final String key;
+  private final String property;
+
+  /**
+   * Whether the ordering is only index-backed within a single user, via the (user_name, column, id)
+   * indexes. Without a user filter it would sort the whole table in memory.
+   */
+  private final boolean requiresUserFilter;
+
+  public static Optional<SortField> fromKey(String key) {
+    return Arrays.stream(values()).filter(field -> field.key.equals(key)).findFirst();
+  }
+}
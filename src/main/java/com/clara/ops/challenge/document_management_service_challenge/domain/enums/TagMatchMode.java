@@ -0,0 +1,12 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.enums;
+
+/**
+ * How the tags of a search filter are combined. Both modes are answered by the GIN index on the
+ * denormalized {@code documents.tag_names} array.
+ */
+public enum TagMatchMode {
+  /** Documents carrying every requested tag ({@code tag_names @> :tags}). */
+  ALL,
+  /** Documents carrying at least one requested tag ({@code tag_names && :tags}). */
+  ANY
+}
@@ -14,7 +14,39 @@ public enum ValidationMessage {
   PAGE_SIZE_TOO_SMALL("Page size must be greater than 0"),
   PAGE_SIZE_TOO_LARGE("Page size must not exceed %d items"),
   DOCUMENT_ID_REQUIRED("Document ID is required"),
-  DOCUMENT_ID_INVALID_FORMAT("Invalid document ID format. Expected UUID format.");
+  DOCUMENT_ID_INVALID_FORMAT("Invalid document ID format. Expected UUID format."),
+  CREATED_RANGE_INVALID("createdFrom must be before createdTo"),
+  SIZE_RANGE_INVALID("minSize must not be greater than maxSize"),
+  SORT_INVALID_FORMAT("Invalid sort '%s'. Expected format: property,(asc|desc)"),
+  SORT_UNSUPPORTED_PROPERTY("Unsupported sort property '%s'. Allowed values: %s"),
+  SORT_REQUIRES_USER_FILTER("Sorting by '%s' requires a user filter"),
+  CURSOR_INCOMPLETE("beforeCreatedAt and beforeId must be provided together"),
+  CURSOR_REQUIRES_DEFAULT_SORT(
+      "Keyset paging with beforeCreatedAt/beforeId requires the default sort"),
+  SUGGEST_USER_REQUIRED("User is required"),
+  SUGGEST_PREFIX_REQUIRED("Prefix is required"),
+  SUGGEST_LIMIT_INVALID("Limit must be between 1 and %d"),
+  BATCH_DOCUMENT_IDS_REQUIRED("At least one document ID is required"),
+  BATCH_DOCUMENT_IDS_TOO_MANY("A batch must not exceed %d document IDs"),
+  BUNDLE_SELECTION_INVALID("Provide either documentIds or filters"),
+  BUNDLE_TOO_MANY_DOCUMENTS("A bundle must not exceed %d documents"),
+  DELETE_USER_REQUIRED("A user filter is required to delete documents by filter"),
+  TAG_CHANGES_REQUIRED("At least one tag to add or remove is required"),
+  TAG_CHANGES_TOO_MANY("At most %d tags can be added or removed at once"),
+  TAG_TOO_LONG("Tags must not exceed %d characters"),
+  TAG_CHANGES_CONFLICT("Tag '%s' cannot be both added and removed"),
+  RETAG_USER_REQUIRED("A user filter is required to retag documents by filter"),
+  IMPORT_FORMAT_UNSUPPORTED("Unsupported import content type '%s'. Allowed values: %s"),
+  IMPORT_COLUMNS_MISSING("CSV header is missing the columns %s"),
+  IMPORT_RECORD_MALFORMED("Malformed record: %s"),
+  IMPORT_FIELD_REQUIRED("%s is required"),
+  IMPORT_FIELD_TOO_LONG("%s must not exceed %d characters"),
+  IMPORT_SIZE_INVALID("size must not be negative"),
+  IMPORT_TAGS_REQUIRED("At least one tag is required"),
+  IMPORT_CREATED_AT_IN_FUTURE("createdAt must not be in the future"),
+  IMPORT_CREATED_AT_TOO_OLD("createdAt must not be more than %d months ago"),
+  USAGE_USER_REQUIRED("User is required"),
+  USAGE_USER_TOO_LONG("User must not exceed %d characters");
 
   private final String message;
 
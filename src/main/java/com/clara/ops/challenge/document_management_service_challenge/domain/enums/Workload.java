@@ -0,0 +1,25 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Classes of endpoints that get their own concurrency limit, so a burst in one cannot take the
+ * request threads the others need.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Workload {
+  /** Document uploads and imports, bound by the client's upload speed. */
+  UPLOAD("upload"),
+  /** Deletes and tag changes of stored documents, single and bulk. */
+  MUTATE("mutate"),
+  /** Searches and suggestions. */
+  SEARCH("search"),
+  /** Download URL lookups, single and batch: short, latency-sensitive. */
+  DOWNLOAD("download"),
+  /** Content streamed through the service: proxied documents and ZIP bundles. */
+  STREAM("stream");
+
+  private final String key;
+}
@@ -0,0 +1,9 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.time.LocalDateTime;
+
+/** A deleted document awaiting purge, with the time it was deleted. */
+public interface DeletedDocumentView extends DocumentOwnerView {
+
+  LocalDateTime getDeletedAt();
+}
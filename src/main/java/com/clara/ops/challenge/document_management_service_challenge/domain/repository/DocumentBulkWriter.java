@@ -0,0 +1,175 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts documents and their tags over plain JDBC, bypassing the persistence context. On
+ * PostgreSQL each table is loaded with one {@code COPY ... FROM STDIN}, which streams all rows in a
+ * single statement instead of one {@code INSERT} round trip per row; other databases get batched
+ * inserts.
+ *
+ * <p>Writes join the surrounding transaction, so a chunk of documents and its tags commit together.
+ */
+@Repository
+public class DocumentBulkWriter {
+
+  private static final String DOCUMENT_COLUMNS =
+      "id, user_name, document_name, minio_path, file_size, file_type, tag_names, created_at,"
+          + " updated_at";
+  private static final String TAG_COLUMNS = "document_id, document_created_at, tag_name";
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final String documentsTable;
+  private final String tagsTable;
+
+  public DocumentBulkWriter(
+      JdbcTemplate jdbcTemplate,
+      @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+    this.jdbcTemplate = jdbcTemplate;
+    String prefix = Optional.of(schema).filter(s -> !s.isBlank()).map(s -> s + ".").orElse("");
+    this.documentsTable = prefix + "documents";
+    this.tagsTable = prefix + "tags";
+  }
+
+  /**
+   * Inserts the documents with their ids, timestamps and {@code tagNames} as given, and one tags
+   * row per tag name.
+   */
+  public void insert(List<DocumentEntity> documents) {
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class).getCopyAPI(), documents);
+              } else {
+                insertBatched(connection, documents);
+              }
+              return null;
+            });
+  }
+
+  private void copy(CopyManager copyManager, List<DocumentEntity> documents) throws SQLException {
+    String documentRows =
+        documents.stream().map(DocumentBulkWriter::documentRow).collect(Collectors.joining());
+    String tagRows =
+        documents.stream().map(DocumentBulkWriter::tagRows).collect(Collectors.joining());
+    try {
+      copyManager.copyIn(copySql(documentsTable, DOCUMENT_COLUMNS), new StringReader(documentRows));
+      copyManager.copyIn(copySql(tagsTable, TAG_COLUMNS), new StringReader(tagRows));
+    } catch (IOException e) {
+      // Only thrown by the reader, which is in memory
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void insertBatched(Connection connection, List<DocumentEntity> documents)
+      throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement(insertSql(documentsTable, DOCUMENT_COLUMNS, 9))) {
+      for (DocumentEntity document : documents) {
+        statement.setObject(1, document.getId());
+        statement.setString(2, document.getUserName());
+        statement.setString(3, document.getDocumentName());
+        statement.setString(4, document.getMinioPath());
+        statement.setLong(5, document.getFileSize());
+        statement.setString(6, document.getFileType());
+        statement.setArray(7, connection.createArrayOf("varchar", document.getTagNames()));
+        statement.setTimestamp(8, Timestamp.valueOf(document.getCreatedAt()));
+        statement.setTimestamp(9, Timestamp.valueOf(document.getUpdatedAt()));
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+
+    try (PreparedStatement statement =
+        connection.prepareStatement(insertSql(tagsTable, TAG_COLUMNS, 3))) {
+      for (DocumentEntity document : documents) {
+        for (String tagName : document.getTagNames()) {
+          statement.setObject(1, document.getId());
+          statement.setTimestamp(2, Timestamp.valueOf(document.getCreatedAt()));
+          statement.setString(3, tagName);
+          statement.addBatch();
+        }
+      }
+      statement.executeBatch();
+    }
+  }
+
+  /** One line of {@code COPY} CSV input for the documents table. */
+  static String documentRow(DocumentEntity document) {
+    return csvLine(
+        document.getId().toString(),
+        document.getUserName(),
+        document.getDocumentName(),
+        document.getMinioPath(),
+        document.getFileSize().toString(),
+        document.getFileType(),
+        arrayLiteral(document.getTagNames()),
+        timestamp(document.getCreatedAt()),
+        timestamp(document.getUpdatedAt()));
+  }
+
+  /** The lines of {@code COPY} CSV input for the tags of a document. */
+  static String tagRows(DocumentEntity document) {
+    return Arrays.stream(document.getTagNames())
+        .map(
+            tagName ->
+                csvLine(document.getId().toString(), timestamp(document.getCreatedAt()), tagName))
+        .collect(Collectors.joining());
+  }
+
+  /** Every field is quoted, so commas, quotes and line breaks in values need no special care. */
+  private static String csvLine(String... fields) {
+    return Arrays.stream(fields)
+            .map(field -> '"' + field.replace("\"", "\"\"") + '"')
+            .collect(Collectors.joining(","))
+        + "\n";
+  }
+
+  /** A PostgreSQL array literal with every element quoted, e.g. {@code {"a","b \"c\""}}. */
+  private static String arrayLiteral(String[] values) {
+    return Arrays.stream(values)
+        .map(value -> '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"')
+        .collect(Collectors.joining(",", "{", "}"));
+  }
+
+  private static String timestamp(LocalDateTime value) {
+    return TIMESTAMP.format(value);
+  }
+
+  private static String copySql(String table, String columns) {
+    return "COPY " + table + " (" + columns + ") FROM STDIN (FORMAT csv)";
+  }
+
+  private static String insertSql(String table, String columns, int parameters) {
+    return "INSERT INTO "
+        + table
+        + " ("
+        + columns
+        + ") VALUES ("
+        + String.join(", ", Collections.nCopies(parameters, "?"))
+        + ")";
+  }
+}
@@ -0,0 +1,13 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.util.UUID;
+
+/** Projection of the columns needed to add a document to a download bundle. */
+public interface DocumentFileView {
+
+  UUID getId();
+
+  String getDocumentName();
+
+  String getMinioPath();
+}
@@ -0,0 +1,14 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Projection of a document's position in the default order, and its owner. */
+public interface DocumentKeyView {
+
+  UUID getId();
+
+  String getUserName();
+
+  LocalDateTime getCreatedAt();
+}
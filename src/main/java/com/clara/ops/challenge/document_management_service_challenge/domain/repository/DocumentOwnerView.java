@@ -0,0 +1,13 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.util.UUID;
+
+/** Projection of the columns needed to delete a document and invalidate what refers to it. */
+public interface DocumentOwnerView {
+
+  UUID getId();
+
+  String getUserName();
+
+  String getMinioPath();
+}
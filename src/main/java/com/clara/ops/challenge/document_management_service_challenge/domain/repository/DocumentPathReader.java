@@ -0,0 +1,80 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Pages through the object paths of all documents, deleted ones included, in {@code (minio_path,
+ * id)} order. The path column is collated by bytes, the order storage lists keys in, so the two
+ * listings can be merged in one pass.
+ *
+ * <p>Pages are read with a keyset cursor rather than a server-side one, so a scan of the whole
+ * table needs neither a long-running transaction nor memory beyond one page.
+ */
+@Repository
+public class DocumentPathReader {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final String documentsTable;
+
+  public DocumentPathReader(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+    this.jdbcTemplate = jdbcTemplate;
+    String prefix = Optional.of(schema).filter(s -> !s.isBlank()).map(s -> s + ".").orElse("");
+    this.documentsTable = prefix + "documents";
+  }
+
+  /**
+   * Returns the next page of paths up to and including {@code upTo}. A path shared by several
+   * documents is returned once per document.
+   *
+   * @param after The last path of the previous page, or the exclusive lower bound of the key range
+   *     if {@code afterId} is null; null for no bound
+   * @param afterId The id of the last document of the previous page, or null on the first page
+   * @param upTo Inclusive upper bound, or null for no bound
+   * @param limit Maximum number of paths returned
+   */
+  public List<DocumentPath> findPage(String after, UUID afterId, String upTo, int limit) {
+    List<String> conditions = new ArrayList<>();
+    MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+    Optional.ofNullable(after)
+        .ifPresent(
+            bound -> {
+              conditions.add(
+                  afterId == null
+                      ? "minio_path > :after"
+                      : "(minio_path, id) > (:after, :afterId)");
+              params.addValue("after", bound).addValue("afterId", afterId);
+            });
+    Optional.ofNullable(upTo)
+        .ifPresent(
+            bound -> {
+              conditions.add("minio_path <= :upTo");
+              params.addValue("upTo", bound);
+            });
+
+    return jdbcTemplate.query(
+        "SELECT minio_path, id, created_at, deleted_at FROM "
+            + documentsTable
+            + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+            + " ORDER BY minio_path, id LIMIT :limit",
+        params,
+        (resultSet, rowNumber) ->
+            new DocumentPath(
+                resultSet.getString("minio_path"),
+                resultSet.getObject("id", UUID.class),
+                resultSet.getTimestamp("created_at").toLocalDateTime(),
+                resultSet.getTimestamp("deleted_at") != null));
+  }
+
+  /** A document's object path, and whether the document is deleted and awaiting purge. */
+  public record DocumentPath(String minioPath, UUID id, LocalDateTime createdAt, boolean deleted) {}
+}
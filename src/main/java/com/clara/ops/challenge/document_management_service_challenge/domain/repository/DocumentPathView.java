@@ -0,0 +1,11 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.util.UUID;
+
+/** Projection of the columns needed to sign a download URL. */
+public interface DocumentPathView {
+
+  UUID getId();
+
+  String getMinioPath();
+}
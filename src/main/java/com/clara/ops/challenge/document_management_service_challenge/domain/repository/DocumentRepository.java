@@ -1,11 +1,112 @@
 package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
 
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DocumentRepository
-    extends JpaRepository<DocumentEntity, UUID>, JpaSpecificationExecutor<DocumentEntity> {}
+    extends JpaRepository<DocumentEntity, UUID>,
+        JpaSpecificationExecutor<DocumentEntity>,
+        DocumentRepositoryCustom {
+
+  @Query(
+      "select distinct d.documentName from DocumentEntity d where d.userName = :userName"
+          + " and d.deletedAt is null order by d.documentName")
+  List<String> findDistinctDocumentNames(@Param("userName") String userName, Pageable pageable);
+
+  @Query(
+      "select distinct t.tagName from TagEntity t where t.document.userName = :userName"
+          + " and t.document.deletedAt is null order by t.tagName")
+  List<String> findDistinctTagNames(@Param("userName") String userName, Pageable pageable);
+
+  @Query("select d.minioPath from DocumentEntity d where d.id = :id and d.deletedAt is null")
+  Optional<String> findMinioPathById(@Param("id") UUID id);
+
+  @Query(
+      "select d.id as id, d.minioPath as minioPath from DocumentEntity d"
+          + " where d.id in :ids and d.deletedAt is null")
+  List<DocumentPathView> findPathsByIdIn(@Param("ids") Collection<UUID> ids);
+
+  @Query(
+      "select d.id as id, d.documentName as documentName, d.minioPath as minioPath"
+          + " from DocumentEntity d where d.id in :ids and d.deletedAt is null")
+  List<DocumentFileView> findFilesByIdIn(@Param("ids") Collection<UUID> ids);
+
+  @Query(
+      "select d.id as id, d.userName as userName, d.minioPath as minioPath"
+          + " from DocumentEntity d where d.id = :id and d.deletedAt is null")
+  Optional<DocumentOwnerView> findOwnerById(@Param("id") UUID id);
+
+  /**
+   * Marks documents deleted. Documents already marked are left alone, so the count tells a caller
+   * racing another delete whether it was the one to delete.
+   */
+  @Modifying
+  @Query(
+      "update DocumentEntity d set d.deletedAt = :deletedAt, d.updatedAt = :deletedAt"
+          + " where d.id in :ids and d.deletedAt is null")
+  int markDeleted(@Param("ids") Collection<UUID> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+  /**
+   * Deleted documents awaiting purge, those deleted longest ago first. The deletion time is read
+   * from {@code updatedAt}, which {@link #markDeleted} stamps along with {@code deletedAt} and
+   * {@link #requeueDeleted} leaves alone.
+   */
+  @Query(
+      "select d.id as id, d.userName as userName, d.minioPath as minioPath,"
+          + " d.updatedAt as deletedAt"
+          + " from DocumentEntity d where d.deletedAt is not null order by d.deletedAt")
+  List<DeletedDocumentView> findDeleted(Limit limit);
+
+  /**
+   * Returns those of the paths that a live document of one of the users still points to. An upload
+   * under an existing name replaces the object in place, so an older, deleted document can share
+   * its object with a live one.
+   */
+  @Query(
+      "select distinct d.minioPath from DocumentEntity d where d.userName in :userNames"
+          + " and d.minioPath in :minioPaths and d.deletedAt is null")
+  List<String> findLivePaths(
+      @Param("userNames") Collection<String> userNames,
+      @Param("minioPaths") Collection<String> minioPaths);
+
+  /** Pushes deleted documents to the back of the purge queue, e.g. after their removal failed. */
+  @Modifying
+  @Query(
+      "update DocumentEntity d set d.deletedAt = :deletedAt"
+          + " where d.id in :ids and d.deletedAt is not null")
+  int requeueDeleted(
+      @Param("ids") Collection<UUID> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+  /** Those of the documents that are live and were created before the given time. */
+  @Query(
+      "select d.id as id, d.userName as userName, d.minioPath as minioPath"
+          + " from DocumentEntity d where d.id in :ids and d.deletedAt is null"
+          + " and d.createdAt < :createdBefore")
+  List<DocumentOwnerView> findLiveOwnersCreatedBefore(
+      @Param("ids") Collection<UUID> ids, @Param("createdBefore") LocalDateTime createdBefore);
+
+  /** Returns those of the paths that any document, deleted or not, points to. */
+  @Query("select distinct d.minioPath from DocumentEntity d where d.minioPath in :minioPaths")
+  List<String> findReferencedPaths(@Param("minioPaths") Collection<String> minioPaths);
+
+  @Modifying
+  @Query("delete from TagEntity t where t.document.id in :ids")
+  int deleteTagsByDocumentIdIn(@Param("ids") Collection<UUID> ids);
+
+  @Modifying
+  @Query("delete from DocumentEntity d where d.id in :ids and d.deletedAt is not null")
+  int deleteDeletedByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,18 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import java.util.Map;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface DocumentRepositoryCustom {
+
+  /**
+   * Counts documents per tag over the set matched by the given specification, using a single
+   * grouped aggregate. Results are ordered by count descending, then tag name.
+   *
+   * @param spec Filter applied to the documents before grouping
+   * @param limit Maximum number of tags to return
+   * @return Tag name to document count, in ranking order
+   */
+  Map<String, Long> countTopTags(Specification<DocumentEntity> spec, int limit);
+}
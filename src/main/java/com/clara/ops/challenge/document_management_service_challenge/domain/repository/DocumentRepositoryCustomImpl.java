@@ -0,0 +1,51 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.data.jpa.domain.Specification;
+
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Map<String, Long> countTopTags(Specification<DocumentEntity> spec, int limit) {
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+    Root<DocumentEntity> root = query.from(DocumentEntity.class);
+    // Joined on the partition key too, by the mapping, so matching months pair up
+    Join<DocumentEntity, TagEntity> tag = root.join("tags");
+
+    Optional.ofNullable(spec)
+        .map(s -> s.toPredicate(root, query, criteriaBuilder))
+        .ifPresent(query::where);
+
+    // (document_id, tag_name) is unique, so a plain count per tag equals the distinct document
+    // count
+    Expression<String> tagName = tag.get("tagName");
+    Expression<Long> documentCount = criteriaBuilder.count(root);
+    query
+        .multiselect(tagName, documentCount)
+        .groupBy(tagName)
+        .orderBy(criteriaBuilder.desc(documentCount), criteriaBuilder.asc(tagName));
+
+    Map<String, Long> counts = new LinkedHashMap<>();
+    entityManager
+        .createQuery(query)
+        .setMaxResults(limit)
+        .getResultList()
+        .forEach(row -> counts.put(row.get(0, String.class), row.get(1, Long.class)));
+    return counts;
+  }
+}
@@ -2,14 +2,14 @@ package com.clara.ops.challenge.document_management_service_challenge.domain.rep
 
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
-import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.TagMatchMode;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
-import jakarta.persistence.criteria.Subquery;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.NoArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 @NoArgsConstructor
@@ -22,6 +22,9 @@ public class DocumentSpecification {
       DocumentSearchFilters safeFilters =
           Optional.ofNullable(filters).orElse(new DocumentSearchFilters());
 
+      // Deleted documents stay in the table until purged but are never matched
+      predicates.add(criteriaBuilder.isNull(root.get("deletedAt")));
+
       Optional.ofNullable(safeFilters.getUser())
           .filter(user -> !user.isBlank())
           .ifPresent(user -> predicates.add(criteriaBuilder.equal(root.get("userName"), user)));
@@ -35,26 +38,58 @@ public class DocumentSpecification {
                           criteriaBuilder.lower(root.get("documentName")),
                           "%" + name.toLowerCase() + "%")));
 
-      Optional.ofNullable(safeFilters.getTags())
-          .filter(tags -> !tags.isEmpty())
+      // Half-open [createdFrom, createdTo) so consecutive windows never overlap. Plain range
+      // predicates on created_at let PostgreSQL use the BRIN index and skip unrelated blocks.
+      Optional.ofNullable(safeFilters.getCreatedFrom())
+          .ifPresent(
+              from ->
+                  predicates.add(
+                      criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), from)));
+
+      Optional.ofNullable(safeFilters.getCreatedTo())
+          .ifPresent(to -> predicates.add(criteriaBuilder.lessThan(root.get("createdAt"), to)));
+
+      // Keyset page in the default (createdAt DESC, id DESC) order. The row comparison is spelled
+      // out because JPA has no tuple comparison; the redundant created_at upper bound is what lets
+      // PostgreSQL prune newer partitions, since it cannot prune on an OR.
+      Optional.ofNullable(safeFilters.getBeforeCreatedAt())
+          .filter(before -> safeFilters.getBeforeId() != null)
           .ifPresent(
-              tags ->
-                  tags.stream()
-                      .filter(tag -> tag != null && !tag.isBlank())
-                      .forEach(
-                          tag -> {
-                            Subquery<Long> subquery = query.subquery(Long.class);
-                            Root<TagEntity> tagRoot = subquery.from(TagEntity.class);
-                            subquery.select(criteriaBuilder.count(tagRoot));
-                            subquery.where(
-                                criteriaBuilder.and(
-                                    criteriaBuilder.equal(tagRoot.get("document"), root),
-                                    criteriaBuilder.equal(tagRoot.get("tagName"), tag)));
-
-                            predicates.add(criteriaBuilder.greaterThan(subquery, 0L));
-                          }));
-
-      query.distinct(true);
+              before ->
+                  predicates.add(
+                      criteriaBuilder.and(
+                          criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), before),
+                          criteriaBuilder.or(
+                              criteriaBuilder.lessThan(root.get("createdAt"), before),
+                              criteriaBuilder.lessThan(
+                                  root.get("id"), safeFilters.getBeforeId())))));
+
+      Optional.ofNullable(safeFilters.getMinSize())
+          .ifPresent(
+              min ->
+                  predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("fileSize"), min)));
+
+      Optional.ofNullable(safeFilters.getMaxSize())
+          .ifPresent(
+              max -> predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("fileSize"), max)));
+
+      // One GIN-indexed test on the denormalized tag array: @> (contains all) or && (overlaps).
+      // The tags are bound as ARRAY[?, ...] so the operand has the column's element type.
+      String[] tags =
+          Optional.ofNullable(safeFilters.getTags()).stream()
+              .flatMap(List::stream)
+              .filter(tag -> tag != null && !tag.isBlank())
+              .distinct()
+              .toArray(String[]::new);
+      if (tags.length > 0) {
+        HibernateCriteriaBuilder hibernateBuilder = (HibernateCriteriaBuilder) criteriaBuilder;
+        Expression<String[]> tagNames = root.get("tagNames");
+        Expression<String[]> requested = hibernateBuilder.arrayLiteral(tags);
+        predicates.add(
+            safeFilters.getTagMatch() == TagMatchMode.ANY
+                ? hibernateBuilder.arrayIntersects(tagNames, requested)
+                : hibernateBuilder.arrayIncludes(tagNames, requested));
+      }
 
       return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
     };
@@ -0,0 +1,109 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Adds and removes tags of documents with set-based SQL, bypassing the persistence context. Only
+ * the changed tags rows are written: one {@code DELETE} for the removed tags and one batched {@code
+ * INSERT ... SELECT} per added tag, each covering every document at once. Neither the documents nor
+ * their tag collections are loaded.
+ *
+ * <p>Writes join the surrounding transaction. The documents are locked first, in id order, so
+ * concurrent changes to the same documents queue up instead of colliding on the unique tag index.
+ */
+@Repository
+public class DocumentTagWriter {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final String documentsTable;
+  private final String tagsTable;
+
+  public DocumentTagWriter(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+    this.jdbcTemplate = jdbcTemplate;
+    String prefix = Optional.of(schema).filter(s -> !s.isBlank()).map(s -> s + ".").orElse("");
+    this.documentsTable = prefix + "documents";
+    this.tagsTable = prefix + "tags";
+  }
+
+  /**
+   * Adds and removes tags of the live documents among the ids and brings their {@code tag_names}
+   * and {@code updated_at} up to date. Tags already present are not added again, and removing an
+   * absent tag is a no-op.
+   *
+   * @return The number of live documents updated; deleted or unknown ids are skipped
+   */
+  public int update(
+      Collection<UUID> ids,
+      Collection<String> added,
+      Collection<String> removed,
+      LocalDateTime updatedAt) {
+    List<Map<String, Object>> documents =
+        jdbcTemplate.queryForList(
+            "SELECT id, created_at FROM "
+                + documentsTable
+                + " WHERE id IN (:ids) AND deleted_at IS NULL ORDER BY id FOR UPDATE",
+            new MapSqlParameterSource("ids", ids));
+    if (documents.isEmpty()) {
+      return 0;
+    }
+
+    // The creation dates are the partition key of both tables; passing them lets PostgreSQL touch
+    // only the partitions of these documents
+    MapSqlParameterSource keys =
+        new MapSqlParameterSource()
+            .addValue("ids", documents.stream().map(row -> row.get("id")).toList())
+            .addValue(
+                "createdAts",
+                documents.stream().map(row -> row.get("created_at")).distinct().toList());
+
+    if (!removed.isEmpty()) {
+      jdbcTemplate.update(
+          "DELETE FROM "
+              + tagsTable
+              + " WHERE document_id IN (:ids) AND document_created_at IN (:createdAts)"
+              + " AND tag_name IN (:removed)",
+          new MapSqlParameterSource(keys.getValues()).addValue("removed", removed));
+    }
+
+    if (!added.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO "
+              + tagsTable
+              + " (document_id, document_created_at, tag_name)"
+              + " SELECT d.id, d.created_at, :tagName FROM "
+              + documentsTable
+              + " d WHERE d.id IN (:ids) AND d.created_at IN (:createdAts)"
+              + " AND NOT EXISTS (SELECT 1 FROM "
+              + tagsTable
+              + " t WHERE t.document_id = d.id AND t.document_created_at = d.created_at"
+              + " AND t.tag_name = :tagName)",
+          added.stream()
+              .map(
+                  tagName ->
+                      new MapSqlParameterSource(keys.getValues()).addValue("tagName", tagName))
+              .toArray(SqlParameterSource[]::new));
+    }
+
+    return jdbcTemplate.update(
+        "UPDATE "
+            + documentsTable
+            + " d SET tag_names = ARRAY(SELECT t.tag_name FROM "
+            + tagsTable
+            + " t WHERE t.document_id = d.id AND t.document_created_at = d.created_at"
+            + " ORDER BY t.tag_name), updated_at = :updatedAt"
+            + " WHERE d.id IN (:ids) AND d.created_at IN (:createdAts)",
+        new MapSqlParameterSource(keys.getValues()).addValue("updatedAt", updatedAt));
+  }
+}
@@ -0,0 +1,27 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.UserCollectionVersionEntity;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserCollectionVersionRepository
+    extends JpaRepository<UserCollectionVersionEntity, String> {
+
+  @Query("select v.version from UserCollectionVersionEntity v where v.userName = :userName")
+  Optional<Long> findVersionByUserName(@Param("userName") String userName);
+
+  /**
+   * Increments the version of a user's collection, creating it at 1 on the first write. A single
+   * statement, so concurrent first writes of a user cannot both insert.
+   */
+  @Modifying
+  @Query(
+      "insert into UserCollectionVersionEntity (userName, version) values (:userName, 1)"
+          + " on conflict (userName) do update set version = version + 1")
+  int incrementVersion(@Param("userName") String userName);
+}
@@ -0,0 +1,53 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.UserUsageDeltaEntity;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserUsageDeltaRepository extends JpaRepository<UserUsageDeltaEntity, Long> {
+
+  @Modifying
+  @Query(
+      "insert into UserUsageDeltaEntity (userName, documentCount, totalBytes)"
+          + " values (:userName, :documents, :bytes)")
+  int recordChange(
+      @Param("userName") String userName,
+      @Param("documents") long documents,
+      @Param("bytes") long bytes);
+
+  /**
+   * Records the documents just marked deleted with the given timestamp as negative deltas, one per
+   * user. Documents among the ids that were deleted earlier carry an earlier timestamp and are not
+   * counted again.
+   */
+  @Modifying
+  @Query(
+      "insert into UserUsageDeltaEntity (userName, documentCount, totalBytes)"
+          + " select d.userName, -count(d), -sum(d.fileSize) from DocumentEntity d"
+          + " where d.id in :ids and d.deletedAt = :deletedAt group by d.userName")
+  int recordDeleted(
+      @Param("ids") Collection<UUID> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+  /**
+   * Returns the oldest deltas, locked, so two nodes folding at once never fold the same delta. A
+   * delta folded and removed by the other node meanwhile is skipped.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select d from UserUsageDeltaEntity d order by d.id")
+  List<UserUsageDeltaEntity> findOldestForFold(Limit limit);
+
+  @Modifying
+  @Query("delete from UserUsageDeltaEntity d where d.id in :ids")
+  int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,45 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.UserUsageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserUsageRepository extends JpaRepository<UserUsageEntity, String> {
+
+  /**
+   * Returns a user's current usage: the folded totals plus the pending deltas. A single statement,
+   * so a fold committing meanwhile cannot make deltas count twice or not at all.
+   */
+  @Query(
+      "select coalesce(sum(u.documentCount), 0) as documentCount,"
+          + " coalesce(sum(u.totalBytes), 0) as totalBytes"
+          + " from (select a.documentCount as documentCount, a.totalBytes as totalBytes"
+          + " from UserUsageEntity a where a.userName = :userName"
+          + " union all select d.documentCount, d.totalBytes"
+          + " from UserUsageDeltaEntity d where d.userName = :userName) u")
+  UserUsageView findUsage(@Param("userName") String userName);
+
+  /**
+   * Takes a transaction-scoped advisory lock on a user, so concurrent quota reservations of the
+   * same user run one after another and each sees the ones committed before it. PostgreSQL only;
+   * covered by the query-plan suite, which runs against PostgreSQL.
+   */
+  @Query(value = "select 1 from pg_advisory_xact_lock(hashtext(:userName))", nativeQuery = true)
+  int lockUser(@Param("userName") String userName);
+
+  /** Adds folded deltas to a user's totals, creating them on the first fold. */
+  @Modifying
+  @Query(
+      "insert into UserUsageEntity (userName, documentCount, totalBytes)"
+          + " values (:userName, :documents, :bytes)"
+          + " on conflict (userName) do update"
+          + " set documentCount = documentCount + :documents, totalBytes = totalBytes + :bytes")
+  int addUsage(
+      @Param("userName") String userName,
+      @Param("documents") long documents,
+      @Param("bytes") long bytes);
+}
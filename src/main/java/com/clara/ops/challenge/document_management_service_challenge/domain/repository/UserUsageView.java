@@ -0,0 +1,9 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+/** Projection of a user's current usage. */
+public interface UserUsageView {
+
+  Long getDocumentCount();
+
+  Long getTotalBytes();
+}
@@ -0,0 +1,8 @@
+package com.clara.ops.challenge.document_management_service_challenge.exception;
+
+public class DocumentModifiedException extends RuntimeException {
+
+  public DocumentModifiedException(String message) {
+    super(message);
+  }
+}
@@ -4,8 +4,12 @@ import com.clara.ops.challenge.document_management_service_challenge.domain.enum
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -95,6 +99,90 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
   }
 
+  @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+  public ResponseEntity<ErrorResponse> handleQueryTimeout(
+      RuntimeException ex, HttpServletRequest request) {
+    log.error(LogMessage.EXCEPTION_QUERY_TIMEOUT.getMessage(), request.getRequestURI(), ex);
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+            .message("The query exceeded its time limit and was cancelled; narrow the filters")
+            .path(request.getRequestURI())
+            .build();
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "5")
+        .body(errorResponse);
+  }
+
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<ErrorResponse> handleServiceOverloaded(
+      ServiceOverloadedException ex, HttpServletRequest request) {
+    log.warn(LogMessage.EXCEPTION_SERVICE_OVERLOADED.getMessage(), ex.getMessage());
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .build();
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errorResponse);
+  }
+
+  @ExceptionHandler(CannotCreateTransactionException.class)
+  public ResponseEntity<ErrorResponse> handleConnectionUnavailable(
+      CannotCreateTransactionException ex, HttpServletRequest request) {
+    log.warn(
+        LogMessage.EXCEPTION_CONNECTION_UNAVAILABLE.getMessage(),
+        request.getRequestURI(),
+        ex.getMostSpecificCause().getMessage());
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+            .message("No database connection available; retry shortly")
+            .path(request.getRequestURI())
+            .build();
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errorResponse);
+  }
+
+  @ExceptionHandler(DocumentModifiedException.class)
+  public ResponseEntity<ErrorResponse> handleDocumentModified(
+      DocumentModifiedException ex, HttpServletRequest request) {
+    log.warn(LogMessage.EXCEPTION_DOCUMENT_MODIFIED.getMessage(), ex.getMessage());
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.CONFLICT.value())
+            .error(HttpStatus.CONFLICT.getReasonPhrase())
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .build();
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+  }
+
+  @ExceptionHandler(QuotaExceededException.class)
+  public ResponseEntity<ErrorResponse> handleQuotaExceeded(
+      QuotaExceededException ex, HttpServletRequest request) {
+    log.warn(LogMessage.EXCEPTION_QUOTA_EXCEEDED.getMessage(), ex.getMessage());
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.FORBIDDEN.value())
+            .error(HttpStatus.FORBIDDEN.getReasonPhrase())
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .build();
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGenericException(
       Exception ex, HttpServletRequest request) {
@@ -0,0 +1,8 @@
+package com.clara.ops.challenge.document_management_service_challenge.exception;
+
+public class QuotaExceededException extends RuntimeException {
+
+  public QuotaExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,201 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BundleDownloadRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.config.DataSourceRoutingContext;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ValidationMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentFileView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentSpecification;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams several documents as one ZIP archive. Objects are copied from MinIO to the response as
+ * they are read, so memory use does not depend on the bundle size; the next documents are opened
+ * ahead on a shared pool so their time to first byte overlaps with writing the current one.
+ *
+ * <p>Entries are DEFLATED at level 0 rather than STORED: {@link ZipOutputStream} needs the CRC of a
+ * STORED entry before its data, which would mean reading every object twice. Level 0 keeps PDFs
+ * uncompressed at a few bytes of framing per 64 KiB.
+ */
+@Service
+@Slf4j
+public class DocumentBundleService {
+
+  private static final String SEARCH_TIMEOUT =
+      "#{@documentManagementProperties.queryTimeout.searchSeconds}";
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private final DocumentRepository documentRepository;
+  private final MinioService minioService;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final DocumentManagementProperties.Bundle properties;
+  private final ExecutorService fetchExecutor;
+
+  public DocumentBundleService(
+      DocumentRepository documentRepository,
+      MinioService minioService,
+      ReadYourWritesTracker readYourWritesTracker,
+      DocumentManagementProperties properties) {
+    this.documentRepository = documentRepository;
+    this.minioService = minioService;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.properties = properties.getDownload().getBundle();
+    this.fetchExecutor = Executors.newFixedThreadPool(this.properties.getFetchThreads());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    fetchExecutor.shutdownNow();
+  }
+
+  /**
+   * Resolves the documents of a bundle: the listed IDs in request order, or the documents matching
+   * the filters, newest first.
+   *
+   * <p>Note: Request validation is performed at the controller layer.
+   *
+   * @throws DocumentNotFoundException if a listed ID has no document
+   * @throws InvalidDocumentException if the filters match more documents than a bundle may hold
+   */
+  @Transactional(readOnly = true, timeoutString = SEARCH_TIMEOUT)
+  public List<DocumentFileView> resolve(BundleDownloadRequest request) {
+    return Optional.ofNullable(request.getDocumentIds())
+        .map(this::findByIds)
+        .orElseGet(() -> findByFilters(request.getFilters()));
+  }
+
+  /**
+   * Writes the documents to the output stream as a ZIP archive. Entries are named after the
+   * documents; repeated names get a numeric suffix.
+   */
+  public void write(List<DocumentFileView> files, OutputStream outputStream) throws IOException {
+    Deque<CompletableFuture<InputStream>> opened = new ArrayDeque<>();
+    Iterator<DocumentFileView> toOpen = files.iterator();
+    Set<String> entryNames = new HashSet<>();
+    byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+    ZipOutputStream zip = new ZipOutputStream(outputStream);
+    zip.setLevel(Deflater.NO_COMPRESSION);
+    try {
+      for (DocumentFileView file : files) {
+        while (opened.size() <= properties.getPrefetch() && toOpen.hasNext()) {
+          String minioPath = toOpen.next().getMinioPath();
+          opened.add(
+              CompletableFuture.supplyAsync(
+                  () -> minioService.getObject(minioPath), fetchExecutor));
+        }
+
+        try (InputStream inputStream = await(opened.poll())) {
+          zip.putNextEntry(new ZipEntry(entryName(file.getDocumentName(), entryNames)));
+          int read;
+          while ((read = inputStream.read(buffer)) != -1) {
+            zip.write(buffer, 0, read);
+          }
+          zip.closeEntry();
+        }
+      }
+      zip.finish();
+    } finally {
+      // Streams opened ahead of a failure are closed whenever their fetch completes
+      opened.forEach(future -> future.thenAccept(DocumentBundleService::closeQuietly));
+    }
+  }
+
+  private List<DocumentFileView> findByIds(List<String> documentIds) {
+    List<UUID> uuids = documentIds.stream().map(UUID::fromString).distinct().toList();
+    if (uuids.stream().anyMatch(readYourWritesTracker::hasRecentWrite)) {
+      DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+    }
+
+    Map<UUID, DocumentFileView> files =
+        documentRepository.findFilesByIdIn(uuids).stream()
+            .collect(Collectors.toMap(DocumentFileView::getId, Function.identity()));
+    return uuids.stream()
+        .map(
+            uuid ->
+                Optional.ofNullable(files.get(uuid))
+                    .orElseThrow(
+                        () -> new DocumentNotFoundException("Document not found with id: " + uuid)))
+        .toList();
+  }
+
+  private List<DocumentFileView> findByFilters(DocumentSearchFilters filters) {
+    Optional.ofNullable(filters.getUser())
+        .filter(readYourWritesTracker::hasRecentWrite)
+        .ifPresent(user -> DataSourceRoutingContext.usePrimaryForCurrentTransaction());
+
+    int maxDocuments = properties.getMaxDocuments();
+    List<DocumentFileView> files =
+        documentRepository.findBy(
+            DocumentSpecification.withFilters(filters),
+            query ->
+                query
+                    .as(DocumentFileView.class)
+                    .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                    .limit(maxDocuments + 1)
+                    .all());
+    if (files.size() > maxDocuments) {
+      throw new InvalidDocumentException(
+          ValidationMessage.BUNDLE_TOO_MANY_DOCUMENTS.format(maxDocuments));
+    }
+    return files;
+  }
+
+  private static InputStream await(CompletableFuture<InputStream> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+  }
+
+  private static String entryName(String documentName, Set<String> entryNames) {
+    String name = documentName.replace('/', '_').replace('\\', '_');
+    int dot = name.lastIndexOf('.');
+    String base = dot > 0 ? name.substring(0, dot) : name;
+    String extension = dot > 0 ? name.substring(dot) : "";
+    String candidate = name;
+    for (int copy = 2; !entryNames.add(candidate); copy++) {
+      candidate = base + " (" + copy + ")" + extension;
+    }
+    return candidate;
+  }
+
+  private static void closeQuietly(InputStream inputStream) {
+    try {
+      inputStream.close();
+    } catch (IOException e) {
+      log.debug(LogMessage.BUNDLE_PREFETCH_CLOSE_FAILED.getMessage(), e);
+    }
+  }
+}
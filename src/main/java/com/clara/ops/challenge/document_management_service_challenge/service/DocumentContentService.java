@@ -0,0 +1,173 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentModifiedException;
+import io.minio.StatObjectResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves document content through the service for clients that cannot reach MinIO. A single byte
+ * range may be requested; it is fetched from MinIO as a ranged GET, so resuming a large download
+ * transfers only the missing bytes. Content is copied through a fixed-size buffer, unless the
+ * object is hot enough to be held in the {@link ObjectDiskCache}.
+ */
+@Service
+@Slf4j
+public class DocumentContentService {
+
+  private final DocumentService documentService;
+  private final MinioService minioService;
+  private final ObjectDiskCache objectDiskCache;
+  private final int bufferSize;
+
+  public DocumentContentService(
+      DocumentService documentService,
+      MinioService minioService,
+      ObjectDiskCache objectDiskCache,
+      DocumentManagementProperties properties) {
+    this.documentService = documentService;
+    this.minioService = minioService;
+    this.objectDiskCache = objectDiskCache;
+    this.bufferSize = properties.getDownload().getProxy().getBufferSizeKb() * 1024;
+  }
+
+  /**
+   * Resolves the part of a document to serve. The range is honoured only if it is a single valid
+   * byte range and, when {@code ifRange} is given, the stored object still matches it; otherwise
+   * the whole document is served, as HTTP allows.
+   *
+   * <p>Note: Document ID validation is performed at the controller layer.
+   *
+   * @param documentId ID of the document
+   * @param range Value of the Range request header, may be null
+   * @param ifRange Value of the If-Range request header, may be null
+   * @return The content to serve
+   */
+  public Content open(String documentId, String range, String ifRange) {
+    String objectPath = documentService.getMinioPath(documentId);
+    StatObjectResponse stat = minioService.statObject(objectPath);
+    long size = stat.size();
+    String etag = "\"" + stat.etag() + "\"";
+
+    Optional<HttpRange> requested =
+        Optional.ofNullable(range)
+            .filter(header -> ifRange == null || matches(ifRange, etag, stat.lastModified()))
+            .flatMap(this::singleRange);
+    if (range != null && requested.isEmpty()) {
+      log.debug(LogMessage.PROXY_RANGE_IGNORED.getMessage(), documentId, range);
+    }
+
+    Content.ContentBuilder content =
+        Content.builder()
+            .objectPath(objectPath)
+            .contentType(stat.contentType())
+            .size(size)
+            .etag(etag)
+            .lastModified(stat.lastModified());
+    if (requested.isEmpty()) {
+      return content.start(0).length(size).build();
+    }
+
+    HttpRange byteRange = requested.get();
+    if (size == 0) {
+      return content.satisfiable(false).build();
+    }
+    try {
+      long start = byteRange.getRangeStart(size);
+      long end = byteRange.getRangeEnd(size);
+      return end < start
+          ? content.satisfiable(false).build()
+          : content.partial(true).start(start).length(end - start + 1).build();
+    } catch (IllegalArgumentException e) {
+      return content.satisfiable(false).build();
+    }
+  }
+
+  /**
+   * Copies the resolved content to the output stream, from the disk cache when it holds this
+   * version of the object. Otherwise only the bytes of {@code content} are read from MinIO, on
+   * condition that the object still has the ETag it was opened with, so the headers already chosen
+   * never describe bytes from another version.
+   *
+   * @throws DocumentModifiedException if the object was replaced since it was opened; nothing has
+   *     been written to the output stream then
+   */
+  public void transfer(Content content, OutputStream outputStream) throws IOException {
+    if (content.getLength() == 0
+        || objectDiskCache.transfer(
+            content.getObjectPath(),
+            content.getEtag(),
+            content.getSize(),
+            content.getStart(),
+            content.getLength(),
+            outputStream)) {
+      return;
+    }
+    try (InputStream inputStream =
+        minioService.getObjectIfMatch(
+            content.getObjectPath(), content.getEtag(), content.getStart(), content.getLength())) {
+      byte[] buffer = new byte[bufferSize];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, read);
+      }
+    }
+  }
+
+  private Optional<HttpRange> singleRange(String range) {
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(range);
+      // Multipart byte ranges are not supported; the full content is a valid answer
+      return ranges.size() == 1 ? Optional.of(ranges.get(0)) : Optional.empty();
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private boolean matches(String ifRange, String etag, ZonedDateTime lastModified) {
+    String validator = ifRange.trim();
+    if (validator.startsWith("\"") || validator.startsWith("W/")) {
+      // If-Range requires a strong comparison, so weak tags never match
+      return validator.equals(etag);
+    }
+    try {
+      ZonedDateTime date = ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME);
+      return date.toInstant().equals(lastModified.toInstant().truncatedTo(ChronoUnit.SECONDS));
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
+  /** Part of a stored document to send, with the validators of the whole object. */
+  @Value
+  @Builder
+  public static class Content {
+    String objectPath;
+    String contentType;
+    long size;
+    String etag;
+    ZonedDateTime lastModified;
+    long start;
+    long length;
+    boolean partial;
+    @Builder.Default boolean satisfiable = true;
+
+    public long getEnd() {
+      return start + length - 1;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentOwnerView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentSpecification;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes documents. A delete only marks the rows, which hides the documents from every read as
+ * soon as it commits; their objects and rows are removed in bulk by {@link DocumentPurgeService}.
+ */
+@Service
+@Slf4j
+public class DocumentDeletionService {
+
+  private final DocumentRepository documentRepository;
+  private final UserCollectionVersionRepository userCollectionVersionRepository;
+  private final UserUsageDeltaRepository userUsageDeltaRepository;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final SuggestionService suggestionService;
+  private final DocumentPathCache documentPathCache;
+  private final TransactionTemplate transactionTemplate;
+  private final DocumentManagementProperties.Deletion properties;
+
+  public DocumentDeletionService(
+      DocumentRepository documentRepository,
+      UserCollectionVersionRepository userCollectionVersionRepository,
+      UserUsageDeltaRepository userUsageDeltaRepository,
+      ReadYourWritesTracker readYourWritesTracker,
+      SuggestionService suggestionService,
+      DocumentPathCache documentPathCache,
+      TransactionTemplate transactionTemplate,
+      DocumentManagementProperties properties) {
+    this.documentRepository = documentRepository;
+    this.userCollectionVersionRepository = userCollectionVersionRepository;
+    this.userUsageDeltaRepository = userUsageDeltaRepository;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.suggestionService = suggestionService;
+    this.documentPathCache = documentPathCache;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties.getDeletion();
+  }
+
+  /**
+   * Marks a document deleted.
+   *
+   * <p>Note: Document ID validation is performed at the controller layer.
+   *
+   * @throws DocumentNotFoundException if no document exists with the ID, or it is already deleted
+   */
+  public void deleteDocument(String documentId) {
+    UUID uuid = UUID.fromString(documentId);
+    LocalDateTime deletedAt = now();
+    DocumentOwnerView document =
+        transactionTemplate.execute(
+            status ->
+                documentRepository
+                    .findOwnerById(uuid)
+                    // Zero rows when a concurrent delete of the same document committed first
+                    .filter(owner -> documentRepository.markDeleted(List.of(uuid), deletedAt) == 1)
+                    .map(
+                        owner -> {
+                          userCollectionVersionRepository.incrementVersion(owner.getUserName());
+                          userUsageDeltaRepository.recordDeleted(List.of(uuid), deletedAt);
+                          return owner;
+                        })
+                    .orElseThrow(
+                        () ->
+                            new DocumentNotFoundException(
+                                "Document not found with id: " + documentId)));
+
+    readYourWritesTracker.recordWrite(document.getUserName(), uuid);
+    suggestionService.recordDelete(document.getUserName());
+    documentPathCache.evict(uuid);
+    log.info(LogMessage.SERVICE_DELETE_SUCCESS.getMessage(), documentId);
+  }
+
+  /**
+   * Marks every document matching the filters deleted, in transactions of {@code batchSize}
+   * documents. A failure leaves the batches committed before it deleted.
+   *
+   * <p>Note: Filter validation, including the required user, is performed at the controller layer.
+   *
+   * @return The number of documents deleted
+   */
+  public long deleteDocuments(DocumentSearchFilters filters) {
+    Specification<DocumentEntity> spec = DocumentSpecification.withFilters(filters);
+    int batchSize = properties.getBatchSize();
+    long deleted = 0;
+
+    Batch batch;
+    do {
+      batch = transactionTemplate.execute(status -> markBatch(spec, batchSize));
+      deleted += batch.marked();
+      afterDelete(batch.documents());
+      log.debug(LogMessage.SERVICE_DELETE_PROGRESS.getMessage(), deleted);
+    } while (batch.documents().size() == batchSize);
+
+    log.info(LogMessage.SERVICE_BULK_DELETE_SUCCESS.getMessage(), deleted, filters);
+    return deleted;
+  }
+
+  /**
+   * Marks the given documents deleted because their objects are gone from storage, skipping any
+   * created since {@code createdBefore}, which may belong to an upload in progress. The purge then
+   * removes the rows; the missing objects count as removed.
+   *
+   * @return The number of documents deleted
+   */
+  public int deleteDanglingDocuments(Collection<UUID> ids, LocalDateTime createdBefore) {
+    Batch batch =
+        transactionTemplate.execute(
+            status -> mark(documentRepository.findLiveOwnersCreatedBefore(ids, createdBefore)));
+    afterDelete(batch.documents());
+    return batch.marked();
+  }
+
+  /**
+   * Marks the next batch of matching documents. Marked documents no longer match, so each batch
+   * selects the next one without a cursor.
+   */
+  private Batch markBatch(Specification<DocumentEntity> spec, int batchSize) {
+    List<DocumentOwnerView> documents =
+        documentRepository.findBy(
+            spec,
+            query ->
+                query
+                    .as(DocumentOwnerView.class)
+                    .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                    .limit(batchSize)
+                    .all());
+    return mark(documents);
+  }
+
+  private Batch mark(List<DocumentOwnerView> documents) {
+    if (documents.isEmpty()) {
+      return new Batch(documents, 0);
+    }
+
+    List<UUID> ids = documents.stream().map(DocumentOwnerView::getId).toList();
+    LocalDateTime deletedAt = now();
+    int marked = documentRepository.markDeleted(ids, deletedAt);
+    // Sorted, so concurrent bulk writes lock the version rows in the same order
+    users(documents).forEach(userCollectionVersionRepository::incrementVersion);
+    userUsageDeltaRepository.recordDeleted(ids, deletedAt);
+    return new Batch(documents, marked);
+  }
+
+  private void afterDelete(List<DocumentOwnerView> documents) {
+    documents.forEach(document -> documentPathCache.evict(document.getId()));
+    users(documents)
+        .forEach(
+            user -> {
+              readYourWritesTracker.recordWrite(user);
+              suggestionService.recordDelete(user);
+            });
+  }
+
+  private static Set<String> users(List<DocumentOwnerView> documents) {
+    return documents.stream()
+        .map(DocumentOwnerView::getUserName)
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  private static LocalDateTime now() {
+    return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+  }
+
+  /** A selected batch and how many of it were still live when marked. */
+  private record Batch(List<DocumentOwnerView> documents, int marked) {}
+}
@@ -0,0 +1,260 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportRecord;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.ImportRowError;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.UuidV7Generator;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.FileType;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ImportFormat;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentBulkWriter;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports the metadata of documents whose objects are already in storage, such as a legacy archive
+ * being migrated. The input is read record by record and written in chunks through {@link
+ * DocumentBulkWriter}, one transaction per chunk, so memory use depends on the chunk size rather
+ * than the input size.
+ *
+ * <p>Invalid records are skipped and reported with their line; the rest of the input is still
+ * imported. Creation dates may lie up to {@code maxAgeMonths} in the past, and the monthly
+ * partitions they fall in are created before each chunk is written. A database failure stops the
+ * import, keeping the chunks committed before it.
+ */
+@Service
+@ConditionalOnProperty(
+    prefix = "document-management.bulk-import",
+    name = "enabled",
+    havingValue = "true")
+@Slf4j
+public class DocumentImportService {
+
+  private final DocumentBulkWriter documentBulkWriter;
+  private final UserCollectionVersionRepository userCollectionVersionRepository;
+  private final UserUsageDeltaRepository userUsageDeltaRepository;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final SuggestionService suggestionService;
+  private final ObjectProvider<PartitionMaintenanceService> partitionMaintenanceService;
+  private final DocumentValidator documentValidator;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final DocumentManagementProperties.BulkImport properties;
+
+  public DocumentImportService(
+      DocumentBulkWriter documentBulkWriter,
+      UserCollectionVersionRepository userCollectionVersionRepository,
+      UserUsageDeltaRepository userUsageDeltaRepository,
+      ReadYourWritesTracker readYourWritesTracker,
+      SuggestionService suggestionService,
+      ObjectProvider<PartitionMaintenanceService> partitionMaintenanceService,
+      DocumentValidator documentValidator,
+      TransactionTemplate transactionTemplate,
+      ObjectMapper objectMapper,
+      DocumentManagementProperties properties) {
+    this.documentBulkWriter = documentBulkWriter;
+    this.userCollectionVersionRepository = userCollectionVersionRepository;
+    this.userUsageDeltaRepository = userUsageDeltaRepository;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.suggestionService = suggestionService;
+    this.partitionMaintenanceService = partitionMaintenanceService;
+    this.documentValidator = documentValidator;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.properties = properties.getBulkImport();
+  }
+
+  /**
+   * Reads records in the given format from the input and imports the valid ones.
+   *
+   * @throws InvalidDocumentException if a CSV header lacks required columns
+   * @throws DocumentUploadException if a chunk cannot be written
+   */
+  public DocumentImportResponse importDocuments(InputStream input, ImportFormat format)
+      throws IOException {
+    long started = System.nanoTime();
+    Progress progress = new Progress(properties.getMaxReportedErrors());
+    List<DocumentEntity> chunk = new ArrayList<>();
+
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    ImportRecordReader records =
+        ImportRecordReader.of(format, reader, objectMapper, properties.getMaxRecordLength());
+    try {
+      while (true) {
+        try {
+          Optional<DocumentImportRecord> record = records.next();
+          if (record.isEmpty()) {
+            break;
+          }
+          documentValidator.validateImportRecord(record.get());
+          chunk.add(toDocument(record.get()));
+        } catch (InvalidDocumentException e) {
+          progress.reject(records.recordLine(), e.getMessage());
+        }
+
+        if (chunk.size() >= properties.getChunkSize()) {
+          commit(chunk, progress, records.linesRead());
+        }
+      }
+      if (!chunk.isEmpty()) {
+        commit(chunk, progress, records.linesRead());
+      }
+    } catch (DataAccessException | TransactionException e) {
+      log.error(LogMessage.IMPORT_ERROR.getMessage(), progress.imported, e);
+      throw new DocumentUploadException(
+          "Import failed after " + progress.imported + " documents were committed", e);
+    }
+
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    log.info(
+        LogMessage.IMPORT_SUCCESS.getMessage(),
+        progress.imported,
+        progress.rejected,
+        elapsedMs,
+        format);
+    return DocumentImportResponse.builder()
+        .imported(progress.imported)
+        .rejected(progress.rejected)
+        .chunks(progress.chunks)
+        .elapsedMs(elapsedMs)
+        .errors(progress.errors)
+        .build();
+  }
+
+  private void commit(List<DocumentEntity> chunk, Progress progress, long linesRead) {
+    Set<String> users =
+        chunk.stream()
+            .map(DocumentEntity::getUserName)
+            .collect(Collectors.toCollection(TreeSet::new));
+    ensurePartitions(chunk);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          documentBulkWriter.insert(chunk);
+          // Sorted, so concurrent imports lock the version rows in the same order
+          users.forEach(userCollectionVersionRepository::incrementVersion);
+          recordUsage(chunk);
+          chunk.forEach(
+              document ->
+                  suggestionService.recordUpload(
+                      document.getUserName(),
+                      document.getDocumentName(),
+                      Arrays.asList(document.getTagNames())));
+        });
+    users.forEach(readYourWritesTracker::recordWrite);
+
+    progress.imported += chunk.size();
+    progress.chunks++;
+    chunk.clear();
+    log.info(
+        LogMessage.IMPORT_PROGRESS.getMessage(), progress.imported, progress.rejected, linesRead);
+  }
+
+  /**
+   * Creates the monthly partitions spanned by the chunk's creation dates, in their own
+   * transactions, so historical documents are not written to the default partition, where they
+   * would never be pruned.
+   */
+  private void ensurePartitions(List<DocumentEntity> chunk) {
+    Optional.ofNullable(partitionMaintenanceService.getIfAvailable())
+        .ifPresent(
+            service ->
+                service.ensurePartitions(
+                    chunk.stream()
+                        .map(DocumentEntity::getCreatedAt)
+                        .min(Comparator.naturalOrder())
+                        .orElseThrow()
+                        .toLocalDate(),
+                    chunk.stream()
+                        .map(DocumentEntity::getCreatedAt)
+                        .max(Comparator.naturalOrder())
+                        .orElseThrow()
+                        .toLocalDate()));
+  }
+
+  /** Records the chunk's documents as one usage delta per user. */
+  private void recordUsage(List<DocumentEntity> chunk) {
+    chunk.stream()
+        .collect(
+            Collectors.groupingBy(
+                DocumentEntity::getUserName,
+                TreeMap::new,
+                Collectors.summarizingLong(DocumentEntity::getFileSize)))
+        .forEach(
+            (user, sizes) ->
+                userUsageDeltaRepository.recordChange(user, sizes.getCount(), sizes.getSum()));
+  }
+
+  private static DocumentEntity toDocument(DocumentImportRecord record) {
+    LocalDateTime createdAt =
+        Optional.ofNullable(record.getCreatedAt())
+            .orElseGet(LocalDateTime::now)
+            .truncatedTo(ChronoUnit.MICROS);
+    return DocumentEntity.builder()
+        .id(UuidV7Generator.generate())
+        .userName(record.getUser().trim())
+        .documentName(DocumentService.ensurePdfExtension(record.getName()))
+        .minioPath(record.getMinioPath().trim())
+        .fileSize(record.getSize())
+        .fileType(FileType.PDF.getContentType())
+        .createdAt(createdAt)
+        .updatedAt(createdAt)
+        .tagNames(
+            record.getTags().stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(String::trim)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new))
+        .build();
+  }
+
+  private static final class Progress {
+    private final int maxReportedErrors;
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private long imported;
+    private long rejected;
+    private int chunks;
+
+    private Progress(int maxReportedErrors) {
+      this.maxReportedErrors = maxReportedErrors;
+    }
+
+    private void reject(long line, String message) {
+      rejected++;
+      if (errors.size() < maxReportedErrors) {
+        errors.add(ImportRowError.builder().line(line).message(message).build());
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of document storage paths keyed by document ID. A document's path never changes, so
+ * entries are only dropped by size, when the document is deleted on this node, or after a fixed
+ * time so that deletes on other nodes are picked up. Unknown IDs are not cached.
+ */
+@Component
+public class DocumentPathCache {
+
+  private final Optional<Cache<UUID, String>> paths;
+
+  public DocumentPathCache(DocumentManagementProperties properties) {
+    this.paths =
+        Optional.of(properties.getDownload().getPathCache())
+            .filter(DocumentManagementProperties.PathCache::isEnabled)
+            .map(
+                config ->
+                    Caffeine.newBuilder()
+                        .maximumSize(config.getMaxEntries())
+                        .expireAfterWrite(Duration.ofSeconds(config.getExpireAfterSeconds()))
+                        .build());
+  }
+
+  /** Returns the path of a document, looking it up with {@code lookup} when it is not cached. */
+  public Optional<String> get(UUID documentId, Function<UUID, Optional<String>> lookup) {
+    return paths
+        .map(
+            cache ->
+                Optional.ofNullable(cache.get(documentId, id -> lookup.apply(id).orElse(null))))
+        .orElseGet(() -> lookup.apply(documentId));
+  }
+
+  /** Returns the path of a document if it is cached, without looking it up. */
+  public Optional<String> getIfPresent(UUID documentId) {
+    return paths.map(cache -> cache.getIfPresent(documentId));
+  }
+
+  /**
+   * Returns the paths of the documents that exist, looking up the ones not cached with a single
+   * call to {@code lookup}.
+   */
+  public Map<UUID, String> getAll(
+      Collection<UUID> documentIds, Function<Set<? extends UUID>, Map<UUID, String>> lookup) {
+    return paths
+        .map(cache -> cache.getAll(documentIds, lookup))
+        .orElseGet(() -> lookup.apply(Set.copyOf(documentIds)));
+  }
+
+  /** Drops the cached path of a document, e.g. once the document is deleted. */
+  public void evict(UUID documentId) {
+    paths.ifPresent(cache -> cache.invalidate(documentId));
+  }
+}
@@ -0,0 +1,177 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DeletedDocumentView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentOwnerView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Removes deleted documents for good, in the background: their objects with one multi-object delete
+ * per batch, then their tags and rows. Objects a live document still points to are kept. An upload
+ * under the same name writes the object before its row commits, so each object is also checked just
+ * before removal and kept if it was written after the document was deleted.
+ *
+ * <p>Every step is idempotent, so a run that fails halfway, or two nodes purging the same batch,
+ * only repeat work. Documents whose object could not be removed go to the back of the queue and are
+ * retried on a later run.
+ */
+@Service
+@ConditionalOnProperty(
+    prefix = "document-management.deletion",
+    name = "purge-enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Slf4j
+public class DocumentPurgeService {
+
+  private final DocumentRepository documentRepository;
+  private final MinioService minioService;
+  private final TransactionTemplate transactionTemplate;
+  private final DocumentManagementProperties.Deletion properties;
+
+  public DocumentPurgeService(
+      DocumentRepository documentRepository,
+      MinioService minioService,
+      TransactionTemplate transactionTemplate,
+      DocumentManagementProperties properties) {
+    this.documentRepository = documentRepository;
+    this.minioService = minioService;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties.getDeletion();
+  }
+
+  /** Purges batches until no deleted documents are left or a batch makes no progress. */
+  @Scheduled(
+      initialDelayString = "${document-management.deletion.purge-interval-ms:10000}",
+      fixedDelayString = "${document-management.deletion.purge-interval-ms:10000}")
+  public void purgeDeletedDocuments() {
+    // A failure is not fatal: the documents stay marked and the next run retries them
+    try {
+      Purge purge;
+      do {
+        purge = purgeBatch();
+      } while (purge.selected() == properties.getBatchSize() && purge.purged() > 0);
+    } catch (DataAccessException | TransactionException | DocumentUploadException e) {
+      log.error(LogMessage.PURGE_ERROR.getMessage(), e);
+    }
+  }
+
+  Purge purgeBatch() {
+    // Read on the primary: a lagging replica could miss a live document sharing an object
+    Batch batch =
+        transactionTemplate.execute(
+            status -> {
+              List<DeletedDocumentView> documents =
+                  documentRepository.findDeleted(Limit.of(properties.getBatchSize()));
+              Set<String> shared =
+                  documents.isEmpty()
+                      ? Set.of()
+                      : Set.copyOf(
+                          documentRepository.findLivePaths(
+                              documents.stream()
+                                  .map(DocumentOwnerView::getUserName)
+                                  .distinct()
+                                  .toList(),
+                              documents.stream()
+                                  .map(DocumentOwnerView::getMinioPath)
+                                  .distinct()
+                                  .toList()));
+              return new Batch(documents, shared);
+            });
+    if (batch.documents().isEmpty()) {
+      return new Purge(0, 0);
+    }
+
+    // The latest deletion per path: an object written before it belongs to a deleted document
+    Map<String, LocalDateTime> deletedAtByPath =
+        batch.documents().stream()
+            .filter(document -> !batch.shared().contains(document.getMinioPath()))
+            .collect(
+                Collectors.toMap(
+                    DocumentOwnerView::getMinioPath,
+                    DeletedDocumentView::getDeletedAt,
+                    BinaryOperator.maxBy(Comparator.naturalOrder())));
+    Set<String> orphaned =
+        deletedAtByPath.entrySet().stream()
+            .filter(entry -> writtenBefore(entry.getKey(), entry.getValue()))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toCollection(HashSet::new));
+    Set<String> failed = minioService.removeObjects(orphaned);
+
+    Map<Boolean, List<UUID>> idsByFailure =
+        batch.documents().stream()
+            .collect(
+                Collectors.partitioningBy(
+                    document -> failed.contains(document.getMinioPath()),
+                    Collectors.mapping(DocumentOwnerView::getId, Collectors.toList())));
+    List<UUID> purgeable = idsByFailure.get(false);
+    List<UUID> requeued = idsByFailure.get(true);
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          if (!purgeable.isEmpty()) {
+            documentRepository.deleteTagsByDocumentIdIn(purgeable);
+            documentRepository.deleteDeletedByIdIn(purgeable);
+          }
+          if (!requeued.isEmpty()) {
+            documentRepository.requeueDeleted(
+                requeued, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+          }
+        });
+
+    log.info(
+        LogMessage.PURGE_SUCCESS.getMessage(),
+        purgeable.size(),
+        orphaned.size() - failed.size(),
+        requeued.size());
+    return new Purge(batch.documents().size(), purgeable.size());
+  }
+
+  /**
+   * Whether the object at the path was last written before the given deletion, so it cannot hold a
+   * newer upload under the same name. A missing object needs no removal.
+   */
+  private boolean writtenBefore(String path, LocalDateTime deletedAt) {
+    Instant lastModified;
+    try {
+      lastModified = minioService.statObject(path).lastModified().toInstant();
+    } catch (DocumentNotFoundException e) {
+      return false;
+    }
+    // Documents are stamped with the local time of the node; object times carry whole seconds
+    Instant deleted =
+        deletedAt.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+    if (!lastModified.isBefore(deleted)) {
+      log.info(LogMessage.PURGE_OBJECT_KEPT.getMessage(), path);
+      return false;
+    }
+    return true;
+  }
+
+  private record Batch(List<DeletedDocumentView> documents, Set<String> shared) {}
+
+  record Purge(int selected, int purged) {}
+}
@@ -1,24 +1,37 @@
 package com.clara.ops.challenge.document_management_service_challenge.service;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrl;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrlResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDownloadUrlResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.Metadata;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.PaginatedDocumentSearchResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.TagFacet;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.UploadDocumentRequest;
+import com.clara.ops.challenge.document_management_service_challenge.config.DataSourceRoutingContext;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.FileType;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.SortField;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathView;
 import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
 import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentSpecification;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
 import com.clara.ops.challenge.document_management_service_challenge.mapper.DocumentMapper;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -28,6 +41,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -35,17 +49,31 @@ import org.springframework.web.multipart.MultipartFile;
 @Slf4j
 public class DocumentService {
 
+  private static final String SEARCH_TIMEOUT =
+      "#{@documentManagementProperties.queryTimeout.searchSeconds}";
+  private static final String DOWNLOAD_TIMEOUT =
+      "#{@documentManagementProperties.queryTimeout.downloadSeconds}";
+
   private final DocumentRepository documentRepository;
   private final MinioService minioService;
   private final DocumentMapper documentMapper;
+  private final DocumentManagementProperties properties;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final SuggestionService suggestionService;
+  private final DocumentPathCache documentPathCache;
+  private final UserCollectionVersionRepository userCollectionVersionRepository;
+  private final UserUsageDeltaRepository userUsageDeltaRepository;
+  private final UserUsageService userUsageService;
+  private final TransactionTemplate transactionTemplate;
 
   /**
    * Uploads a document to MinIO and saves metadata to the database. Uses streaming to handle large
-   * files efficiently without loading them entirely into memory.
+   * files efficiently without loading them entirely into memory. The file is streamed outside any
+   * transaction: the quota is reserved in a short transaction before it, and the metadata saved in
+   * another after it, so no connection or per-user lock is held while the file is sent.
    *
    * <p>Note: File validation is performed at the controller layer.
    */
-  @Transactional
   public void uploadDocument(UploadDocumentRequest request, MultipartFile file) {
     Optional.ofNullable(request)
         .orElseThrow(() -> new InvalidDocumentException("Upload request cannot be null"));
@@ -58,6 +86,9 @@ public class DocumentService {
 
     String minioPath = buildMinioPath(request.getUser(), documentName);
 
+    // Before the file is sent, so a rejected upload costs no storage traffic
+    boolean reserved = userUsageService.reserveQuota(request.getUser(), file.getSize());
+
     try {
       InputStream inputStream = file.getInputStream();
       minioService.uploadFile(
@@ -83,10 +114,26 @@ public class DocumentService {
                             document.addTag(tag);
                           }));
 
-      documentRepository.save(document);
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            documentRepository.save(document);
+            userCollectionVersionRepository.incrementVersion(document.getUserName());
+            if (!reserved) {
+              userUsageDeltaRepository.recordChange(
+                  document.getUserName(), 1, document.getFileSize());
+            }
+            readYourWritesTracker.recordWrite(document.getUserName(), document.getId());
+            suggestionService.recordUpload(
+                document.getUserName(),
+                documentName,
+                document.getTags().stream().map(TagEntity::getTagName).toList());
+          });
       log.info(LogMessage.SERVICE_UPLOAD_SUCCESS.getMessage(), document.getId());
     } catch (Exception e) {
       log.error(LogMessage.SERVICE_UPLOAD_ERROR.getMessage(), e);
+      if (reserved) {
+        userUsageService.releaseQuota(request.getUser(), file.getSize());
+      }
       throw new DocumentUploadException("Failed to upload document", e);
     }
   }
@@ -96,12 +143,38 @@ public class DocumentService {
    *
    * <p>Note: Pagination validation is performed at the controller layer.
    */
-  @Transactional(readOnly = true)
+  @Transactional(readOnly = true, timeoutString = SEARCH_TIMEOUT)
   public PaginatedDocumentSearchResponse searchDocuments(
       DocumentSearchFilters filters, int page, int size) {
+    return searchDocuments(filters, page, size, null, false);
+  }
+
+  /**
+   * Searches for documents based on filters, with pagination and sorting. The sort defaults to
+   * creation date descending and always ends with the document id, so pages are stable even when
+   * sort values repeat. When facets are requested, the response also carries the top tags of the
+   * whole filtered set (not only the current page) with their document counts. User-scoped searches
+   * also return the version of the user's collection, read in the same transaction.
+   *
+   * <p>The transaction is bounded by {@code document-management.query-timeout.search-seconds};
+   * statements still running at the deadline are cancelled on the server.
+   *
+   * <p>Note: Pagination and sort validation is performed at the controller layer.
+   */
+  @Transactional(readOnly = true, timeoutString = SEARCH_TIMEOUT)
+  public PaginatedDocumentSearchResponse searchDocuments(
+      DocumentSearchFilters filters, int page, int size, String sort, boolean includeFacets) {
     log.info(LogMessage.SERVICE_SEARCH_STARTED.getMessage(), filters);
 
-    Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+    Optional<String> user = Optional.ofNullable(filters).map(DocumentSearchFilters::getUser);
+    user.filter(readYourWritesTracker::hasRecentWrite)
+        .ifPresent(u -> DataSourceRoutingContext.usePrimaryForCurrentTransaction());
+    // Read first, on the same connection, so the version never runs ahead of the page
+    Long collectionVersion =
+        user.map(u -> userCollectionVersionRepository.findVersionByUserName(u).orElse(0L))
+            .orElse(null);
+
+    Pageable pageable = PageRequest.of(page, size, buildSort(sort));
 
     Specification<DocumentEntity> spec = DocumentSpecification.withFilters(filters);
 
@@ -121,32 +194,144 @@ public class DocumentService {
     return PaginatedDocumentSearchResponse.builder()
         .metadata(metadata)
         .documents(dtoPage.getContent())
+        .facets(includeFacets ? countTagFacets(spec) : null)
+        .collectionVersion(collectionVersion)
         .build();
   }
 
+  /**
+   * Returns the version of a user's document collection, which changes with every write to the
+   * user's documents; 0 for a user without documents. Read from the primary while the user has
+   * recent writes, like the search itself.
+   */
+  @Transactional(readOnly = true, timeoutString = SEARCH_TIMEOUT)
+  public long getCollectionVersion(String user) {
+    if (readYourWritesTracker.hasRecentWrite(user)) {
+      DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+    }
+    return userCollectionVersionRepository.findVersionByUserName(user).orElse(0L);
+  }
+
+  private List<TagFacet> countTagFacets(Specification<DocumentEntity> spec) {
+    int limit = properties.getSearch().getFacetLimit();
+    List<TagFacet> facets =
+        documentRepository.countTopTags(spec, limit).entrySet().stream()
+            .map(entry -> TagFacet.builder().tag(entry.getKey()).count(entry.getValue()).build())
+            .toList();
+    log.debug(LogMessage.SERVICE_SEARCH_FACETS_COMPUTED.getMessage(), facets.size(), limit);
+    return facets;
+  }
+
   /**
    * Generates a presigned download URL for a document.
    *
    * <p>Note: Document ID validation is performed at the controller layer.
    */
-  @Transactional(readOnly = true)
+  @Transactional(readOnly = true, timeoutString = DOWNLOAD_TIMEOUT)
   public DocumentDownloadUrlResponse getDownloadUrl(String documentId) {
     log.info(LogMessage.SERVICE_DOWNLOAD_STARTED.getMessage(), documentId);
 
+    PresignedUrl url = minioService.presign(getMinioPath(documentId));
+
+    return DocumentDownloadUrlResponse.builder()
+        .url(url.getUrl())
+        .expiresAt(url.getExpiresAt())
+        .build();
+  }
+
+  /**
+   * Returns the download URL {@link #getDownloadUrl} would hand out if both the document's path and
+   * its URL are cached, without a database lookup or signing. Lets a conditional request that
+   * already has this URL be answered without opening a transaction.
+   *
+   * <p>Note: Document ID validation is performed at the controller layer.
+   */
+  public Optional<DocumentDownloadUrlResponse> findCachedDownloadUrl(String documentId) {
+    return documentPathCache
+        .getIfPresent(UUID.fromString(documentId))
+        .flatMap(minioService::findCachedUrl)
+        .map(
+            url ->
+                DocumentDownloadUrlResponse.builder()
+                    .url(url.getUrl())
+                    .expiresAt(url.getExpiresAt())
+                    .build());
+  }
+
+  /**
+   * Returns the storage path of a document. Paths are served from {@link DocumentPathCache} when
+   * possible; otherwise only the path column is read, from a covering index.
+   *
+   * <p>Note: Document ID validation is performed at the controller layer.
+   *
+   * @throws DocumentNotFoundException if no document exists with the ID
+   */
+  @Transactional(readOnly = true, timeoutString = DOWNLOAD_TIMEOUT)
+  public String getMinioPath(String documentId) {
     UUID uuid = UUID.fromString(documentId);
+    if (readYourWritesTracker.hasRecentWrite(uuid)) {
+      DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+    }
 
-    DocumentEntity document =
-        documentRepository
-            .findById(uuid)
-            .orElseThrow(
-                () -> new DocumentNotFoundException("Document not found with id: " + documentId));
+    return documentPathCache
+        .get(uuid, documentRepository::findMinioPathById)
+        .orElseThrow(
+            () -> new DocumentNotFoundException("Document not found with id: " + documentId));
+  }
 
-    String url = minioService.generatePresignedUrl(document.getMinioPath());
+  /**
+   * Generates presigned download URLs for several documents. Paths missing from {@link
+   * DocumentPathCache} are loaded in a single query selecting only ID and path; IDs without a
+   * document are reported as not found instead of failing the whole batch.
+   *
+   * <p>Note: Document ID validation is performed at the controller layer.
+   */
+  @Transactional(readOnly = true, timeoutString = DOWNLOAD_TIMEOUT)
+  public BatchDownloadUrlResponse getDownloadUrls(List<String> documentIds) {
+    List<UUID> uuids = documentIds.stream().map(UUID::fromString).distinct().toList();
+    if (uuids.stream().anyMatch(readYourWritesTracker::hasRecentWrite)) {
+      DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+    }
+
+    Map<UUID, String> minioPaths =
+        documentPathCache.getAll(
+            uuids,
+            missing ->
+                documentRepository.findPathsByIdIn(List.copyOf(missing)).stream()
+                    .collect(
+                        Collectors.toMap(DocumentPathView::getId, DocumentPathView::getMinioPath)));
+    log.debug(
+        LogMessage.SERVICE_BATCH_DOWNLOAD_RESOLVED.getMessage(), minioPaths.size(), uuids.size());
+
+    Map<String, BatchDownloadUrl> urls = new LinkedHashMap<>();
+    documentIds.forEach(
+        documentId ->
+            urls.computeIfAbsent(
+                documentId,
+                id ->
+                    Optional.ofNullable(minioPaths.get(UUID.fromString(id)))
+                        .map(minioService::generatePresignedUrl)
+                        .map(url -> BatchDownloadUrl.builder().found(true).url(url).build())
+                        .orElseGet(() -> BatchDownloadUrl.builder().found(false).build())));
+
+    return BatchDownloadUrlResponse.builder().urls(urls).build();
+  }
+
+  private Sort buildSort(String sort) {
+    SortField sortField = SortField.CREATED_AT;
+    Sort.Direction direction = Sort.Direction.DESC;
+
+    if (sort != null && !sort.isBlank()) {
+      String[] parts = sort.split(",");
+      sortField = SortField.fromKey(parts[0].trim()).orElseThrow();
+      direction =
+          parts.length > 1 ? Sort.Direction.fromString(parts[1].trim()) : Sort.Direction.ASC;
+    }
 
-    return DocumentDownloadUrlResponse.builder().url(url).build();
+    return Sort.by(direction, sortField.getProperty(), SortField.TIE_BREAKER_PROPERTY);
   }
 
-  private String ensurePdfExtension(String filename) {
+  static String ensurePdfExtension(String filename) {
     return Optional.ofNullable(filename)
         .filter(f -> !f.isBlank())
         .map(String::trim)
@@ -0,0 +1,202 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentTagsUpdateRequest;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentKeyView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentSpecification;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentTagWriter;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.mapper.DocumentMapper;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Adds and removes tags of existing documents. Only the changed tags rows are written, by {@link
+ * DocumentTagWriter}; documents are never loaded to change their tags, so a retag of many documents
+ * costs a few statements per batch and no memory per document.
+ */
+@Service
+@Slf4j
+public class DocumentTagService {
+
+  private final DocumentRepository documentRepository;
+  private final DocumentTagWriter documentTagWriter;
+  private final UserCollectionVersionRepository userCollectionVersionRepository;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final SuggestionService suggestionService;
+  private final DocumentMapper documentMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final DocumentManagementProperties.Retag properties;
+
+  public DocumentTagService(
+      DocumentRepository documentRepository,
+      DocumentTagWriter documentTagWriter,
+      UserCollectionVersionRepository userCollectionVersionRepository,
+      ReadYourWritesTracker readYourWritesTracker,
+      SuggestionService suggestionService,
+      DocumentMapper documentMapper,
+      TransactionTemplate transactionTemplate,
+      DocumentManagementProperties properties) {
+    this.documentRepository = documentRepository;
+    this.documentTagWriter = documentTagWriter;
+    this.userCollectionVersionRepository = userCollectionVersionRepository;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.suggestionService = suggestionService;
+    this.documentMapper = documentMapper;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties.getRetag();
+  }
+
+  /**
+   * Adds and removes tags of a document.
+   *
+   * <p>Note: Document ID and tag validation is performed at the controller layer.
+   *
+   * @return The document with its new tags
+   * @throws DocumentNotFoundException if no document exists with the ID, or it is deleted
+   */
+  public DocumentDto updateTags(String documentId, DocumentTagsUpdateRequest request) {
+    UUID uuid = UUID.fromString(documentId);
+    DocumentEntity document =
+        transactionTemplate.execute(
+            status ->
+                documentRepository
+                    .findOwnerById(uuid)
+                    // Zero rows when a concurrent delete of the document committed first
+                    .filter(
+                        owner ->
+                            documentTagWriter.update(
+                                    List.of(uuid),
+                                    tags(request.getAdd()),
+                                    tags(request.getRemove()),
+                                    now())
+                                == 1)
+                    .flatMap(
+                        owner -> {
+                          userCollectionVersionRepository.incrementVersion(owner.getUserName());
+                          return documentRepository.findById(uuid);
+                        })
+                    .orElseThrow(
+                        () ->
+                            new DocumentNotFoundException(
+                                "Document not found with id: " + documentId)));
+
+    readYourWritesTracker.recordWrite(document.getUserName(), uuid);
+    suggestionService.recordTagChange(document.getUserName());
+    log.info(LogMessage.SERVICE_TAGS_UPDATE_SUCCESS.getMessage(), documentId);
+    return documentMapper.toDto(document);
+  }
+
+  /**
+   * Adds and removes tags of every document matching the filters, newest first, in transactions of
+   * {@code batchSize} documents. A failure leaves the batches committed before it retagged.
+   *
+   * <p>Note: Filter and tag validation, including the required user, is performed at the controller
+   * layer.
+   *
+   * @return The number of documents retagged
+   */
+  public long retagDocuments(DocumentRetagRequest request) {
+    Set<String> added = tags(request.getAdd());
+    Set<String> removed = tags(request.getRemove());
+    int batchSize = properties.getBatchSize();
+    DocumentSearchFilters filters = request.getFilters();
+    long retagged = 0;
+
+    Batch batch;
+    do {
+      DocumentSearchFilters page = filters;
+      batch = transactionTemplate.execute(status -> retagBatch(page, added, removed, batchSize));
+      retagged += batch.updated();
+      users(batch.documents()).forEach(this::afterRetag);
+      log.debug(LogMessage.SERVICE_RETAG_PROGRESS.getMessage(), retagged);
+
+      // Removing a tag can make a document stop matching, so batches are walked with a keyset
+      // cursor rather than by offset
+      filters = batch.documents().isEmpty() ? filters : after(filters, batch.last());
+    } while (batch.documents().size() == batchSize);
+
+    log.info(LogMessage.SERVICE_RETAG_SUCCESS.getMessage(), retagged, request.getFilters());
+    return retagged;
+  }
+
+  private Batch retagBatch(
+      DocumentSearchFilters filters, Set<String> added, Set<String> removed, int batchSize) {
+    List<DocumentKeyView> documents =
+        documentRepository.findBy(
+            DocumentSpecification.withFilters(filters),
+            query ->
+                query
+                    .as(DocumentKeyView.class)
+                    .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                    .limit(batchSize)
+                    .all());
+    if (documents.isEmpty()) {
+      return new Batch(documents, 0);
+    }
+
+    int updated =
+        documentTagWriter.update(
+            documents.stream().map(DocumentKeyView::getId).toList(), added, removed, now());
+    // Sorted, so concurrent bulk writes lock the version rows in the same order
+    users(documents).forEach(userCollectionVersionRepository::incrementVersion);
+    return new Batch(documents, updated);
+  }
+
+  /** The filters narrowed to the documents after the given one in the default order. */
+  private static DocumentSearchFilters after(
+      DocumentSearchFilters filters, DocumentKeyView document) {
+    return filters.toBuilder()
+        .beforeCreatedAt(document.getCreatedAt())
+        .beforeId(document.getId())
+        .build();
+  }
+
+  private void afterRetag(String user) {
+    readYourWritesTracker.recordWrite(user);
+    suggestionService.recordTagChange(user);
+  }
+
+  private static Set<String> users(List<DocumentKeyView> documents) {
+    return documents.stream()
+        .map(DocumentKeyView::getUserName)
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /** The trimmed, non-blank tags, the way they are stored on upload. */
+  private static Set<String> tags(List<String> tags) {
+    return Optional.ofNullable(tags).orElse(List.of()).stream()
+        .filter(tag -> tag != null && !tag.isBlank())
+        .map(String::trim)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  private static LocalDateTime now() {
+    return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+  }
+
+  /** A selected batch and how many of it were still live when retagged. */
+  private record Batch(List<DocumentKeyView> documents, int updated) {
+    DocumentKeyView last() {
+      return documents.get(documents.size() - 1);
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportRecord;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ImportFormat;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ValidationMessage;
+import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Reads import records one at a time, so an import holds only the current record in memory. A
+ * malformed record is reported as an {@link InvalidDocumentException} once it has been consumed;
+ * the next call continues with the following record. A record longer than {@code maxRecordLength}
+ * characters is malformed too, so a stray quote in CSV cannot make a quoted field take in the rest
+ * of the input.
+ */
+abstract class ImportRecordReader {
+
+  private final BufferedReader reader;
+  private final int maxRecordLength;
+  private long linesRead;
+  private long recordLine;
+
+  private ImportRecordReader(BufferedReader reader, int maxRecordLength) {
+    this.reader = reader;
+    this.maxRecordLength = maxRecordLength;
+  }
+
+  /**
+   * @throws InvalidDocumentException if a CSV header lacks required columns
+   */
+  static ImportRecordReader of(
+      ImportFormat format, BufferedReader reader, ObjectMapper objectMapper, int maxRecordLength)
+      throws IOException {
+    return switch (format) {
+      case CSV -> new Csv(reader, maxRecordLength);
+      case NDJSON -> new Ndjson(reader, objectMapper, maxRecordLength);
+    };
+  }
+
+  /** Returns the next record, or empty at the end of the input. */
+  abstract Optional<DocumentImportRecord> next() throws IOException;
+
+  /** Line on which the record last returned or rejected by {@link #next()} starts. */
+  long recordLine() {
+    return recordLine;
+  }
+
+  long linesRead() {
+    return linesRead;
+  }
+
+  /** Returns the next non-blank line and marks it as the start of a record. */
+  Optional<String> nextRecordLine() throws IOException {
+    Optional<String> line = readLine();
+    while (line.isPresent() && line.get().isBlank()) {
+      line = readLine();
+    }
+    recordLine = linesRead;
+    return line;
+  }
+
+  Optional<String> readLine() throws IOException {
+    Optional<String> line = Optional.ofNullable(reader.readLine());
+    line.ifPresent(l -> linesRead++);
+    return line;
+  }
+
+  /** Rejects the current record if the given length exceeds the maximum. */
+  void checkRecordLength(int length) {
+    if (length > maxRecordLength) {
+      throw malformed("record is longer than " + maxRecordLength + " characters");
+    }
+  }
+
+  static InvalidDocumentException malformed(String reason) {
+    return new InvalidDocumentException(ValidationMessage.IMPORT_RECORD_MALFORMED.format(reason));
+  }
+
+  /** One JSON object per line. */
+  private static final class Ndjson extends ImportRecordReader {
+
+    private final ObjectReader objectReader;
+
+    private Ndjson(BufferedReader reader, ObjectMapper objectMapper, int maxRecordLength) {
+      super(reader, maxRecordLength);
+      this.objectReader = objectMapper.readerFor(DocumentImportRecord.class);
+    }
+
+    @Override
+    Optional<DocumentImportRecord> next() throws IOException {
+      Optional<String> line = nextRecordLine();
+      if (line.isEmpty()) {
+        return Optional.empty();
+      }
+      checkRecordLength(line.get().length());
+      try {
+        return Optional.of(objectReader.readValue(line.get()));
+      } catch (JsonProcessingException e) {
+        throw malformed(e.getOriginalMessage());
+      }
+    }
+  }
+
+  /**
+   * RFC 4180 CSV: fields may be quoted, with {@code ""} for a quote, and quoted fields may span
+   * lines. Columns are matched by the header row, in any order.
+   */
+  private static final class Csv extends ImportRecordReader {
+
+    private static final List<String> REQUIRED_COLUMNS =
+        List.of("user", "name", "minio_path", "size", "tags");
+    private static final String CREATED_AT_COLUMN = "created_at";
+    private static final Pattern TAG_SEPARATOR = Pattern.compile("\\|");
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private Csv(BufferedReader reader, int maxRecordLength) throws IOException {
+      super(reader, maxRecordLength);
+      List<String> header = readFields().orElse(List.of());
+      for (int i = 0; i < header.size(); i++) {
+        String column = header.get(i).trim().toLowerCase();
+        columns.put(
+            i == 0 && !column.isEmpty() && column.charAt(0) == BYTE_ORDER_MARK
+                ? column.substring(1)
+                : column,
+            i);
+      }
+      List<String> missing =
+          REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+      if (!header.isEmpty() && !missing.isEmpty()) {
+        throw new InvalidDocumentException(
+            ValidationMessage.IMPORT_COLUMNS_MISSING.format(missing));
+      }
+    }
+
+    @Override
+    Optional<DocumentImportRecord> next() throws IOException {
+      if (columns.isEmpty()) {
+        return Optional.empty();
+      }
+      Optional<List<String>> fields = readFields();
+      if (fields.isEmpty()) {
+        return Optional.empty();
+      }
+      if (fields.get().size() != columns.size()) {
+        throw malformed("expected " + columns.size() + " fields but found " + fields.get().size());
+      }
+      return Optional.of(
+          DocumentImportRecord.builder()
+              .user(field(fields.get(), "user"))
+              .name(field(fields.get(), "name"))
+              .minioPath(field(fields.get(), "minio_path"))
+              .size(parseSize(field(fields.get(), "size")))
+              .tags(Arrays.asList(TAG_SEPARATOR.split(field(fields.get(), "tags"))))
+              .createdAt(parseCreatedAt(field(fields.get(), CREATED_AT_COLUMN)))
+              .build());
+    }
+
+    private String field(List<String> fields, String column) {
+      return Optional.ofNullable(columns.get(column)).map(fields::get).orElse("");
+    }
+
+    private static Long parseSize(String size) {
+      try {
+        return size.isBlank() ? null : Long.valueOf(size.trim());
+      } catch (NumberFormatException e) {
+        throw malformed("size '" + size + "' is not a number");
+      }
+    }
+
+    private static LocalDateTime parseCreatedAt(String createdAt) {
+      try {
+        return createdAt.isBlank() ? null : LocalDateTime.parse(createdAt.trim());
+      } catch (DateTimeParseException e) {
+        throw malformed("created_at '" + createdAt + "' is not an ISO local date-time");
+      }
+    }
+
+    private Optional<List<String>> readFields() throws IOException {
+      Optional<String> first = nextRecordLine();
+      if (first.isEmpty()) {
+        return Optional.empty();
+      }
+      String line = first.get();
+      int recordLength = line.length();
+      checkRecordLength(recordLength);
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      int i = 0;
+      while (true) {
+        if (i == line.length()) {
+          if (!quoted) {
+            fields.add(field.toString());
+            return Optional.of(fields);
+          }
+          line = readLine().orElseThrow(() -> malformed("unterminated quoted field"));
+          recordLength += line.length() + 1;
+          checkRecordLength(recordLength);
+          field.append('\n');
+          i = 0;
+          continue;
+        }
+        char c = line.charAt(i++);
+        if (quoted) {
+          if (c != '"') {
+            field.append(c);
+          } else if (i < line.length() && line.charAt(i) == '"') {
+            field.append('"');
+            i++;
+          } else {
+            quoted = false;
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else {
+          field.append(c);
+        }
+      }
+    }
+  }
+}
@@ -2,15 +2,31 @@ package com.clara.ops.challenge.document_management_service_challenge.service;
 
 import com.clara.ops.challenge.document_management_service_challenge.config.MinioProperties;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentModifiedException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
-import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
-import io.minio.http.Method;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,8 +36,16 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class MinioService {
 
+  private static final String NO_SUCH_KEY = "NoSuchKey";
+  private static final String PRECONDITION_FAILED = "PreconditionFailed";
+
+  /** The S3 limit on keys per multi-object delete request. */
+  static final int MAX_OBJECTS_PER_REMOVE = 1000;
+
   private final MinioClient minioClient;
   private final MinioProperties minioProperties;
+  private final PresignedUrlCache presignedUrlCache;
+  private final PresignedUrlSigner presignedUrlSigner;
 
   /**
    * Uploads a file to MinIO using streaming to minimize memory usage. The file is uploaded in
@@ -48,10 +72,7 @@ public class MinioService {
     try {
       log.info(LogMessage.MINIO_UPLOAD_STARTED.getMessage(), validObjectPath);
 
-      String bucketName =
-          Optional.ofNullable(minioProperties.getBucketName())
-              .filter(bn -> !bn.isBlank())
-              .orElseThrow(() -> new InvalidDocumentException("Bucket name is not configured"));
+      String bucketName = bucketName();
 
       minioClient.putObject(
           PutObjectArgs.builder().bucket(bucketName).object(validObjectPath).stream(
@@ -69,46 +90,247 @@ public class MinioService {
   }
 
   /**
-   * Generates a presigned URL for downloading a file from MinIO. The URL expires after the
-   * configured time.
+   * Returns a presigned URL for downloading a file from MinIO, signed locally without contacting
+   * storage. The URL expires after the configured time; a recently signed URL for the same object
+   * is reused while enough of its validity is left, so repeated downloads get an identical,
+   * cacheable URL.
    *
    * @param objectPath The path of the file in MinIO
    * @return The presigned URL
    */
   public String generatePresignedUrl(String objectPath) {
+    return presign(objectPath).getUrl();
+  }
+
+  /**
+   * Same as {@link #generatePresignedUrl(String)}, along with the time the URL expires, for callers
+   * that let clients cache it.
+   *
+   * @param objectPath The path of the file in MinIO
+   * @return The presigned URL and its expiry
+   */
+  public PresignedUrl presign(String objectPath) {
     String validObjectPath =
         Optional.ofNullable(objectPath)
             .filter(path -> !path.isBlank())
             .orElseThrow(() -> new InvalidDocumentException("Object path cannot be empty"));
 
+    return presignedUrlCache.get(validObjectPath, this::signUrl);
+  }
+
+  /**
+   * Returns the URL {@link #presign(String)} would hand out for the file if it is cached, without
+   * signing a new one.
+   *
+   * @param objectPath The path of the file in MinIO
+   * @return The cached presigned URL and its expiry, if any
+   */
+  public Optional<PresignedUrl> findCachedUrl(String objectPath) {
+    return presignedUrlCache.getIfPresent(objectPath);
+  }
+
+  /**
+   * Returns the size, ETag, modification time and content type of a stored file.
+   *
+   * @param objectPath The path of the file in MinIO
+   * @return The object metadata
+   * @throws DocumentNotFoundException if no object exists at the path
+   */
+  public StatObjectResponse statObject(String objectPath) {
+    String validObjectPath =
+        Optional.ofNullable(objectPath)
+            .filter(path -> !path.isBlank())
+            .orElseThrow(() -> new InvalidDocumentException("Object path cannot be empty"));
+
+    try {
+      return minioClient.statObject(
+          StatObjectArgs.builder().bucket(bucketName()).object(validObjectPath).build());
+    } catch (DocumentUploadException | InvalidDocumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw readFailure(validObjectPath, e);
+    }
+  }
+
+  /**
+   * Opens a stream over {@code length} bytes of a stored file starting at {@code offset}, provided
+   * it still has the given ETag. Only the requested range is transferred from MinIO; the caller
+   * must close the stream.
+   *
+   * @param objectPath The path of the file in MinIO
+   * @param etag The expected ETag of the file
+   * @param offset First byte to read
+   * @param length Number of bytes to read
+   * @return The content stream
+   * @throws DocumentNotFoundException if no object exists at the path
+   * @throws DocumentModifiedException if the file no longer has the given ETag
+   */
+  public InputStream getObjectIfMatch(String objectPath, String etag, long offset, long length) {
+    return getObject(
+        objectPath, GetObjectArgs.builder().matchETag(etag).offset(offset).length(length));
+  }
+
+  /**
+   * Opens a stream over a whole stored file; the caller must close the stream.
+   *
+   * @param objectPath The path of the file in MinIO
+   * @return The content stream
+   * @throws DocumentNotFoundException if no object exists at the path
+   */
+  public InputStream getObject(String objectPath) {
+    return getObject(objectPath, GetObjectArgs.builder());
+  }
+
+  /**
+   * Opens a stream over a whole stored file, provided it still has the given ETag; the caller must
+   * close the stream.
+   *
+   * @param objectPath The path of the file in MinIO
+   * @param etag The expected ETag of the file
+   * @return The content stream
+   * @throws DocumentModifiedException if the file no longer has the given ETag
+   * @throws DocumentUploadException if the file cannot be read
+   */
+  public InputStream getObjectIfMatch(String objectPath, String etag) {
+    return getObject(objectPath, GetObjectArgs.builder().matchETag(etag));
+  }
+
+  /**
+   * Removes files from MinIO with multi-object delete requests, one per {@value
+   * #MAX_OBJECTS_PER_REMOVE} paths. Paths that no longer exist count as removed.
+   *
+   * @param objectPaths The paths of the files in MinIO
+   * @return The paths that could not be removed
+   * @throws DocumentUploadException if storage cannot be reached
+   */
+  public Set<String> removeObjects(Collection<String> objectPaths) {
+    Set<String> failed = new HashSet<>();
+    if (objectPaths.isEmpty()) {
+      return failed;
+    }
+    String bucketName = bucketName();
+    List<DeleteObject> objects = objectPaths.stream().map(DeleteObject::new).toList();
+
+    try {
+      for (int from = 0; from < objects.size(); from += MAX_OBJECTS_PER_REMOVE) {
+        List<DeleteObject> batch =
+            objects.subList(from, Math.min(from + MAX_OBJECTS_PER_REMOVE, objects.size()));
+        // The request is only sent once the results are iterated; they list the failures
+        Iterable<Result<DeleteError>> errors =
+            minioClient.removeObjects(
+                RemoveObjectsArgs.builder().bucket(bucketName).objects(batch).build());
+        for (Result<DeleteError> result : errors) {
+          DeleteError error = result.get();
+          if (!NO_SUCH_KEY.equals(error.code())) {
+            log.warn(
+                LogMessage.MINIO_REMOVE_FAILED.getMessage(), error.objectName(), error.message());
+            failed.add(error.objectName());
+          }
+        }
+      }
+    } catch (Exception e) {
+      log.error(LogMessage.MINIO_REMOVE_ERROR.getMessage(), objectPaths.size(), e);
+      throw new DocumentUploadException("Failed to remove files from storage", e);
+    }
+
+    objectPaths.forEach(presignedUrlCache::evict);
+    log.info(
+        LogMessage.MINIO_REMOVE_SUCCESS.getMessage(),
+        objectPaths.size() - failed.size(),
+        objectPaths.size());
+    return failed;
+  }
+
+  /**
+   * Lists the objects of the bucket in key order, which is UTF-8 byte order, starting after the
+   * given key. Pages of keys are fetched as the stream is consumed, so only one page is held at a
+   * time and a consumer that stops early fetches no further pages.
+   *
+   * @param startAfter Key to start after, or null to start at the first key
+   * @return The objects; listing failures surface while the stream is consumed
+   * @throws DocumentUploadException if storage cannot be reached
+   */
+  public Stream<StoredObject> listObjects(String startAfter) {
+    ListObjectsArgs.Builder args = ListObjectsArgs.builder().bucket(bucketName()).recursive(true);
+    Optional.ofNullable(startAfter).ifPresent(args::startAfter);
+    Iterable<Result<Item>> results = minioClient.listObjects(args.build());
+
+    return StreamSupport.stream(results.spliterator(), false)
+        .map(
+            result -> {
+              try {
+                Item item = result.get();
+                // Listings quote ETags, unlike object metadata
+                return new StoredObject(
+                    item.objectName(),
+                    item.lastModified().toInstant(),
+                    item.etag().replace("\"", ""));
+              } catch (Exception e) {
+                log.error(LogMessage.MINIO_LIST_ERROR.getMessage(), startAfter, e);
+                throw new DocumentUploadException("Failed to list files in storage", e);
+              }
+            });
+  }
+
+  private InputStream getObject(String objectPath, GetObjectArgs.Builder args) {
+    String validObjectPath =
+        Optional.ofNullable(objectPath)
+            .filter(path -> !path.isBlank())
+            .orElseThrow(() -> new InvalidDocumentException("Object path cannot be empty"));
+
+    try {
+      return minioClient.getObject(args.bucket(bucketName()).object(validObjectPath).build());
+    } catch (DocumentUploadException | InvalidDocumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw readFailure(validObjectPath, e);
+    }
+  }
+
+  private String bucketName() {
+    return Optional.ofNullable(minioProperties.getBucketName())
+        .filter(bn -> !bn.isBlank())
+        .orElseThrow(() -> new InvalidDocumentException("Bucket name is not configured"));
+  }
+
+  private RuntimeException readFailure(String objectPath, Exception e) {
+    if (e instanceof ErrorResponseException errorResponse
+        && NO_SUCH_KEY.equals(errorResponse.errorResponse().code())) {
+      log.error(LogMessage.MINIO_OBJECT_NOT_FOUND.getMessage(), objectPath);
+      return new DocumentNotFoundException("Document content not found: " + objectPath);
+    }
+    if (e instanceof ErrorResponseException errorResponse
+        && PRECONDITION_FAILED.equals(errorResponse.errorResponse().code())) {
+      log.warn(LogMessage.MINIO_OBJECT_MODIFIED.getMessage(), objectPath);
+      return new DocumentModifiedException(
+          "Document content changed while being read: " + objectPath);
+    }
+    log.error(LogMessage.MINIO_DOWNLOAD_ERROR.getMessage(), objectPath, e);
+    return new DocumentUploadException("Failed to read file from storage", e);
+  }
+
+  private PresignedUrl signUrl(String validObjectPath) {
     try {
       log.info(LogMessage.MINIO_URL_GENERATION_STARTED.getMessage(), validObjectPath);
 
-      String bucketName =
-          Optional.ofNullable(minioProperties.getBucketName())
-              .filter(bn -> !bn.isBlank())
-              .orElseThrow(() -> new InvalidDocumentException("Bucket name is not configured"));
+      String bucketName = bucketName();
 
       Integer expirySeconds =
           Optional.ofNullable(minioProperties.getPresignedUrlExpirySeconds())
               .orElseThrow(
                   () -> new InvalidDocumentException("Presigned URL expiry is not configured"));
 
-      String url =
-          minioClient.getPresignedObjectUrl(
-              GetPresignedObjectUrlArgs.builder()
-                  .method(Method.GET)
-                  .bucket(bucketName)
-                  .object(validObjectPath)
-                  .expiry(expirySeconds, TimeUnit.SECONDS)
-                  .build());
+      // Taken before signing, so the expiry never lies after the one the URL carries
+      Instant expiresAt = Instant.now().plusSeconds(expirySeconds);
+      // Signed locally: no round trip to storage, so this also works while MinIO is unreachable
+      String url = presignedUrlSigner.presignGet(bucketName, validObjectPath, expirySeconds);
 
       return Optional.ofNullable(url)
           .filter(u -> !u.isBlank())
           .map(
               u -> {
                 log.info(LogMessage.MINIO_URL_GENERATION_SUCCESS.getMessage(), validObjectPath);
-                return u;
+                return new PresignedUrl(u, expiresAt);
               })
           .orElseThrow(() -> new DocumentUploadException("Generated URL is empty"));
     } catch (DocumentUploadException | InvalidDocumentException e) {
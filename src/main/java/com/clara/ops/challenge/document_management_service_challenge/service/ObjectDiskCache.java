@@ -0,0 +1,238 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node-local disk copies of hot objects for proxied downloads. Copies are keyed by object path and
+ * ETag, so a replaced object is never served from a stale copy. An object is admitted only after
+ * repeated reads and is copied in the background, conditional on the ETag it was read with; the
+ * least recently used copies are deleted once the cache exceeds its size.
+ *
+ * <p>Hits are sent with {@link FileChannel#transferTo} into a channel over the response stream.
+ * That target is neither a file nor a socket channel, so the JDK copies the bytes through a small
+ * buffer rather than zero-copy; the gain is skipping the round trip to storage.
+ */
+@Component
+@Slf4j
+public class ObjectDiskCache {
+
+  private static final String FILE_SUFFIX = ".object";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final Duration READ_COUNT_RETENTION = Duration.ofHours(1);
+  private static final int MAX_TRACKED_OBJECTS = 10_000;
+
+  private final MinioService minioService;
+  private final Optional<State> state;
+
+  @Autowired
+  public ObjectDiskCache(MinioService minioService, DocumentManagementProperties properties) {
+    this(minioService, properties, null);
+  }
+
+  ObjectDiskCache(
+      MinioService minioService, DocumentManagementProperties properties, Executor executor) {
+    this.minioService = minioService;
+    DocumentManagementProperties.DiskCache config =
+        properties.getDownload().getProxy().getDiskCache();
+    this.state = Optional.of(config).filter(c -> c.isEnabled()).map(c -> new State(c, executor));
+    state.ifPresent(
+        s ->
+            log.info(
+                LogMessage.DISK_CACHE_CONFIGURED.getMessage(),
+                s.directory,
+                config.getMaxSizeMb(),
+                s.admitAfterReads));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    state.map(s -> s.ownedExecutor).ifPresent(ExecutorService::shutdownNow);
+  }
+
+  /**
+   * Sends {@code length} bytes of the object from {@code start} if a copy with this ETag is on
+   * disk. Otherwise counts the read towards admitting the object and returns {@code false}, and the
+   * caller reads the object from storage.
+   *
+   * @throws IOException if the copy on disk is shorter than the object; it is evicted, but part of
+   *     the content may already have been written
+   */
+  public boolean transfer(
+      String objectPath, String etag, long size, long start, long length, OutputStream out)
+      throws IOException {
+    if (state.isEmpty()) {
+      return false;
+    }
+    State s = state.get();
+    String key = key(objectPath, etag);
+
+    Optional<Path> file = Optional.ofNullable(s.files.getIfPresent(key)).map(CachedObject::file);
+    if (file.isPresent()) {
+      try (FileChannel channel = FileChannel.open(file.get(), StandardOpenOption.READ)) {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = start;
+        long end = start + length;
+        while (position < end) {
+          long sent = channel.transferTo(position, end - position, target);
+          if (sent <= 0) {
+            // The copy ends before the object does; never serve it again
+            log.warn(LogMessage.DISK_CACHE_COPY_TRUNCATED.getMessage(), objectPath, position, end);
+            s.files.invalidate(key);
+            throw new IOException(
+                "Cached copy of " + objectPath + " ended at byte " + position + " of " + end);
+          }
+          position += sent;
+        }
+        return true;
+      } catch (NoSuchFileException e) {
+        // Evicted since the lookup; fall back to storage
+        s.files.invalidate(key);
+      }
+    }
+
+    recordRead(s, key, objectPath, etag, size);
+    return false;
+  }
+
+  private void recordRead(State s, String key, String objectPath, String etag, long size) {
+    if (size > s.maxObjectSizeBytes) {
+      return;
+    }
+    int reads = s.reads.get(key, k -> new AtomicInteger()).incrementAndGet();
+    if (reads >= s.admitAfterReads && s.admitting.add(key)) {
+      s.executor.execute(() -> admit(s, key, objectPath, etag, size));
+    }
+  }
+
+  private void admit(State s, String key, String objectPath, String etag, long size) {
+    Path temp = null;
+    try {
+      temp = Files.createTempFile(s.directory, "fill-", TEMP_SUFFIX);
+      try (InputStream in = minioService.getObjectIfMatch(objectPath, etag)) {
+        long copied = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        if (copied != size) {
+          throw new IOException("Expected " + size + " bytes but read " + copied);
+        }
+      }
+      Path file = s.directory.resolve(key + FILE_SUFFIX);
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      s.files.put(key, new CachedObject(file, size));
+      s.reads.invalidate(key);
+      log.debug(LogMessage.DISK_CACHE_ADMITTED.getMessage(), objectPath, size);
+    } catch (IOException | RuntimeException e) {
+      log.warn(LogMessage.DISK_CACHE_ADMISSION_FAILED.getMessage(), objectPath, e);
+      Optional.ofNullable(temp).ifPresent(ObjectDiskCache::delete);
+    } finally {
+      s.admitting.remove(key);
+    }
+  }
+
+  private static String key(String objectPath, String etag) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(objectPath.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(etag.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn(LogMessage.DISK_CACHE_DELETE_FAILED.getMessage(), file, e);
+    }
+  }
+
+  private record CachedObject(Path file, long size) {}
+
+  private static final class State {
+    private final Path directory;
+    private final long maxObjectSizeBytes;
+    private final int admitAfterReads;
+    private final ExecutorService ownedExecutor;
+    private final Executor executor;
+    private final Cache<String, CachedObject> files;
+    private final Cache<String, AtomicInteger> reads;
+    private final Set<String> admitting = ConcurrentHashMap.newKeySet();
+
+    private State(DocumentManagementProperties.DiskCache config, Executor executor) {
+      this.directory = Path.of(config.getDirectory());
+      this.maxObjectSizeBytes = config.getMaxObjectSizeMb() * 1024 * 1024;
+      this.admitAfterReads = config.getAdmitAfterReads();
+      this.ownedExecutor = executor == null ? Executors.newSingleThreadExecutor() : null;
+      this.executor = executor == null ? ownedExecutor : executor;
+      this.files =
+          Caffeine.newBuilder()
+              .maximumWeight(config.getMaxSizeMb() * 1024)
+              .weigher((String key, CachedObject cached) -> weightInKb(cached.size()))
+              .executor(this.executor)
+              .removalListener(
+                  (String key, CachedObject cached, RemovalCause cause) -> {
+                    if (cached != null && cause != RemovalCause.REPLACED) {
+                      delete(cached.file());
+                    }
+                  })
+              .build();
+      this.reads =
+          Caffeine.newBuilder()
+              .maximumSize(MAX_TRACKED_OBJECTS)
+              .expireAfterAccess(READ_COUNT_RETENTION)
+              .build();
+      clearDirectory();
+    }
+
+    /** Copies left by a previous run are not indexed, so they are removed rather than served. */
+    private void clearDirectory() {
+      try {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers =
+            Files.newDirectoryStream(directory, "*{" + FILE_SUFFIX + "," + TEMP_SUFFIX + "}")) {
+          leftovers.forEach(ObjectDiskCache::delete);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot prepare disk cache directory " + directory, e);
+      }
+    }
+
+    private static int weightInKb(long size) {
+      return (int) Math.min(Integer.MAX_VALUE, size / 1024 + 1);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps monthly partitions of the documents and tags tables created ahead of time, so inserts never
+ * fall into the default partition. Runs at startup and on a daily schedule; the DDL itself lives in
+ * the {@code ensure_monthly_partitions} database function and is idempotent.
+ *
+ * <p>Rows found in the default partition for a missing month are moved into the month's new
+ * partition, and a month that cannot be created does not stop the later ones; both are logged as
+ * they mean partitions were missing when rows arrived.
+ */
+@Service
+@ConditionalOnProperty(
+    prefix = "document-management.partitioning",
+    name = "enabled",
+    havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+  private static final String ENSURE_PARTITIONS_SQL =
+      "SELECT created, moved_rows, failed_months"
+          + " FROM document_schema.ensure_monthly_partitions(?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DocumentManagementProperties properties;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${document-management.partitioning.cron:0 0 3 * * *}")
+  public void ensureMonthlyPartitions() {
+    LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+    int months = properties.getPartitioning().getMonthsAhead() + 1;
+
+    // A failure is not fatal: rows land in the default partition, and are moved out of it once a
+    // later run creates their month
+    try {
+      ensure(currentMonth, months);
+    } catch (DataAccessException e) {
+      log.error(LogMessage.PARTITIONS_ERROR.getMessage(), currentMonth, e);
+    }
+  }
+
+  /**
+   * Creates the monthly partitions from the month of {@code from} through the month of {@code to},
+   * e.g. before rows dated in them are written, so they do not land in the default partition.
+   *
+   * @throws DataAccessException if the database cannot be reached
+   */
+  public void ensurePartitions(LocalDate from, LocalDate to) {
+    LocalDate firstMonth = from.withDayOfMonth(1);
+    ensure(firstMonth, (int) ChronoUnit.MONTHS.between(firstMonth, to.withDayOfMonth(1)) + 1);
+  }
+
+  private void ensure(LocalDate firstMonth, int months) {
+    Result result =
+        jdbcTemplate.queryForObject(
+            ENSURE_PARTITIONS_SQL,
+            (rs, rowNum) ->
+                new Result(
+                    rs.getInt("created"),
+                    rs.getLong("moved_rows"),
+                    List.of((String[]) rs.getArray("failed_months").getArray())),
+            Date.valueOf(firstMonth),
+            months);
+    log.info(LogMessage.PARTITIONS_ENSURED.getMessage(), months, firstMonth, result.created());
+    if (result.movedRows() > 0) {
+      log.warn(LogMessage.PARTITIONS_ROWS_MOVED.getMessage(), result.movedRows());
+    }
+    if (!result.failedMonths().isEmpty()) {
+      log.error(LogMessage.PARTITIONS_MONTHS_FAILED.getMessage(), result.failedMonths());
+    }
+  }
+
+  private record Result(int created, long movedRows, List<String> failedMonths) {}
+}
@@ -0,0 +1,11 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import java.time.Instant;
+import lombok.Value;
+
+/** A presigned download URL with the instant it stops being accepted by storage. */
+@Value
+public class PresignedUrl {
+  String url;
+  Instant expiresAt;
+}
@@ -0,0 +1,63 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.MinioProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of presigned download URLs keyed by object path. Entries expire once only {@code
+ * minRemainingFraction} of the URL validity is left, measured from signing time, so a cached URL is
+ * always good for at least that long after it is handed out.
+ */
+@Component
+@Slf4j
+public class PresignedUrlCache {
+
+  private final Optional<Cache<String, PresignedUrl>> urls;
+
+  public PresignedUrlCache(MinioProperties minioProperties) {
+    MinioProperties.PresignedUrlCache config = minioProperties.getPresignedUrlCache();
+    long reuseSeconds =
+        (long)
+            (minioProperties.getPresignedUrlExpirySeconds()
+                * (1 - config.getMinRemainingFraction()));
+
+    this.urls =
+        Optional.of(config)
+            .filter(MinioProperties.PresignedUrlCache::isEnabled)
+            .filter(c -> reuseSeconds > 0)
+            .map(
+                c ->
+                    Caffeine.newBuilder()
+                        .maximumSize(c.getMaxEntries())
+                        .expireAfterWrite(Duration.ofSeconds(reuseSeconds))
+                        .build());
+    log.info(
+        LogMessage.MINIO_URL_CACHE_CONFIGURED.getMessage(), urls.isPresent() ? reuseSeconds : 0);
+  }
+
+  /**
+   * Returns the cached URL for the object, signing and caching a new one with {@code signer} when
+   * there is none or it has too little validity left.
+   */
+  public PresignedUrl get(String objectPath, Function<String, PresignedUrl> signer) {
+    return urls.map(cache -> cache.get(objectPath, signer))
+        .orElseGet(() -> signer.apply(objectPath));
+  }
+
+  /** Returns the cached URL for the object, if any, without signing a new one. */
+  public Optional<PresignedUrl> getIfPresent(String objectPath) {
+    return urls.map(cache -> cache.getIfPresent(objectPath));
+  }
+
+  /** Drops the cached URL of an object, e.g. once the object is deleted. */
+  public void evict(String objectPath) {
+    urls.ifPresent(cache -> cache.invalidate(objectPath));
+  }
+}
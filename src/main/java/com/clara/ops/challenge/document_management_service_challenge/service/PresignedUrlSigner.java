@@ -0,0 +1,154 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.MinioProperties;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Presigns path-style S3 GET URLs with AWS Signature V4 query authentication, entirely in process.
+ * Produces the same URLs as {@code MinioClient#getPresignedObjectUrl} without its bucket region
+ * lookup, so signing is pure CPU and keeps working while storage is unreachable. The derived
+ * signing key only depends on the day, so it is computed once per day and reused.
+ */
+@Component
+public class PresignedUrlSigner {
+
+  private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+  private static final String HMAC = "HmacSHA256";
+  private static final String SERVICE = "s3";
+  private static final String TERMINATOR = "aws4_request";
+  private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+  private static final DateTimeFormatter DATE =
+      DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final String baseUrl;
+  private final String host;
+  private final String accessKey;
+  private final String secretKey;
+  private final String region;
+  private final Clock clock;
+
+  private volatile SigningKey signingKey;
+
+  @Autowired
+  public PresignedUrlSigner(MinioProperties minioProperties) {
+    this(minioProperties, Clock.systemUTC());
+  }
+
+  PresignedUrlSigner(MinioProperties minioProperties, Clock clock) {
+    URI endpoint = URI.create(minioProperties.getEndpoint());
+    boolean defaultPort =
+        endpoint.getPort() == -1
+            || ("http".equals(endpoint.getScheme()) && endpoint.getPort() == 80)
+            || ("https".equals(endpoint.getScheme()) && endpoint.getPort() == 443);
+    this.host = endpoint.getHost() + (defaultPort ? "" : ":" + endpoint.getPort());
+    this.baseUrl = endpoint.getScheme() + "://" + host;
+    this.accessKey = minioProperties.getAccessKey();
+    this.secretKey = minioProperties.getSecretKey();
+    this.region = minioProperties.getRegion();
+    this.clock = clock;
+  }
+
+  /**
+   * Returns a presigned GET URL for the object, valid for {@code expirySeconds} from now.
+   *
+   * @param bucket Bucket name
+   * @param objectPath Object key
+   * @param expirySeconds Validity of the URL in seconds
+   * @return The presigned URL
+   */
+  public String presignGet(String bucket, String objectPath, int expirySeconds) {
+    Instant now = clock.instant();
+    String date = DATE.format(now);
+    String scope = date + "/" + region + "/" + SERVICE + "/" + TERMINATOR;
+
+    String path = "/" + encode(bucket, false) + "/" + encode(objectPath, true);
+    // Parameters in canonical (sorted) order; the same string is used for the URL
+    String query =
+        "X-Amz-Algorithm="
+            + ALGORITHM
+            + "&X-Amz-Credential="
+            + encode(accessKey + "/" + scope, false)
+            + "&X-Amz-Date="
+            + TIMESTAMP.format(now)
+            + "&X-Amz-Expires="
+            + expirySeconds
+            + "&X-Amz-SignedHeaders=host";
+
+    String canonicalRequest =
+        String.join("\n", "GET", path, query, "host:" + host, "", "host", UNSIGNED_PAYLOAD);
+    String stringToSign =
+        String.join("\n", ALGORITHM, TIMESTAMP.format(now), scope, sha256Hex(canonicalRequest));
+    String signature = HEX.formatHex(hmac(signingKey(date), stringToSign));
+
+    return baseUrl + path + "?" + query + "&X-Amz-Signature=" + signature;
+  }
+
+  private byte[] signingKey(String date) {
+    SigningKey current = signingKey;
+    if (current == null || !current.date().equals(date)) {
+      byte[] dateKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+      byte[] regionKey = hmac(dateKey, region);
+      byte[] serviceKey = hmac(regionKey, SERVICE);
+      current = new SigningKey(date, hmac(serviceKey, TERMINATOR));
+      signingKey = current;
+    }
+    return current.key();
+  }
+
+  /** URI-encodes per SigV4: every byte except unreserved characters (and '/' if kept). */
+  private static String encode(String value, boolean keepSlash) {
+    StringBuilder encoded = new StringBuilder(value.length() * 2);
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xFF);
+      if ((c >= 'A' && c <= 'Z')
+          || (c >= 'a' && c <= 'z')
+          || (c >= '0' && c <= '9')
+          || c == '-'
+          || c == '_'
+          || c == '.'
+          || c == '~'
+          || (keepSlash && c == '/')) {
+        encoded.append(c);
+      } else {
+        encoded.append('%').append(HEX.withUpperCase().toHexDigits(b));
+      }
+    }
+    return encoded.toString();
+  }
+
+  private static byte[] hmac(byte[] key, String data) {
+    try {
+      Mac mac = Mac.getInstance(HMAC);
+      mac.init(new SecretKeySpec(key, HMAC));
+      return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+
+  private static String sha256Hex(String data) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HEX.formatHex(digest.digest(data.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record SigningKey(String date, byte[] key) {}
+}
@@ -0,0 +1,73 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.ReplicaDataSourceProperties;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers recent writes per user and per document so that reads following them can be pinned to
+ * the primary while replicas may still be catching up. Inactive when read replicas are disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesTracker {
+
+  private static final int PURGE_THRESHOLD = 10_000;
+
+  private final ReplicaDataSourceProperties properties;
+  private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+  public void recordWrite(String user, UUID documentId) {
+    record(userKey(user), documentKey(documentId));
+  }
+
+  /** Records a write to the user's documents as a whole, such as a bulk import. */
+  public void recordWrite(String user) {
+    record(userKey(user));
+  }
+
+  private void record(String... keys) {
+    if (!isActive()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long expiresAt = now + properties.getReadYourWritesWindowSeconds() * 1000;
+    for (String key : keys) {
+      expiries.put(key, expiresAt);
+    }
+    if (expiries.size() > PURGE_THRESHOLD) {
+      expiries.values().removeIf(expiry -> expiry <= now);
+    }
+  }
+
+  public boolean hasRecentWrite(String user) {
+    return user != null && isRecent(userKey(user));
+  }
+
+  public boolean hasRecentWrite(UUID documentId) {
+    return documentId != null && isRecent(documentKey(documentId));
+  }
+
+  private boolean isActive() {
+    return properties.isEnabled() && properties.getReadYourWritesWindowSeconds() > 0;
+  }
+
+  private boolean isRecent(String key) {
+    if (!isActive()) {
+      return false;
+    }
+    Long expiresAt = expiries.get(key);
+    return expiresAt != null && expiresAt > System.currentTimeMillis();
+  }
+
+  private static String userKey(String user) {
+    return "user:" + user;
+  }
+
+  private static String documentKey(UUID documentId) {
+    return "document:" + documentId;
+  }
+}
@@ -0,0 +1,486 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.StorageReconciliationResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathReader;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathReader.DocumentPath;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
+import io.minio.StatObjectResponse;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the objects in storage with the documents pointing to them and reports, or with {@code
+ * repair} fixes, the drift: objects no document points to, e.g. left by an upload whose row was
+ * never saved, and live documents whose object is gone.
+ *
+ * <p>Both sides are read in the same byte order and merged in one pass per key range: storage
+ * listing pages on one side, keyset pages of {@code (minio_path, id)} on the other, each page in
+ * its own short read-only transaction. Memory use is a page of each per range, whatever the size of
+ * the bucket, and ranges are compared in parallel.
+ *
+ * <p>Objects and documents younger than the grace period may belong to an upload in progress and
+ * are skipped. Orphaned objects are checked again on the primary right before they are removed, so
+ * a lagging replica or a concurrent import cannot make a referenced object look orphaned, and then
+ * in storage, so an object rewritten since the listing, e.g. by an upload whose row has not yet
+ * committed, is kept. Dangling documents are deleted like any other, and the purge removes them,
+ * once storage confirms again that their object is missing; only the rows seen dangling are
+ * deleted, never a later upload to the same path.
+ */
+@Service
+@ConditionalOnProperty(
+    prefix = "document-management.reconciliation",
+    name = "enabled",
+    havingValue = "true")
+@Slf4j
+public class StorageReconciliationService {
+
+  static final int PAGE_SIZE = 1000;
+  static final int REPAIR_BATCH_SIZE = 1000;
+
+  /**
+   * UTF-8 byte order, in which storage lists keys and the byte-collated path column sorts. It
+   * equals code point order, which {@link String#compareTo} departs from for supplementary
+   * characters.
+   */
+  static final Comparator<String> KEY_ORDER =
+      (left, right) -> {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+          int a = left.codePointAt(i);
+          int b = right.codePointAt(j);
+          if (a != b) {
+            return Integer.compare(a, b);
+          }
+          i += Character.charCount(a);
+          j += Character.charCount(b);
+        }
+        return Boolean.compare(i < left.length(), j < right.length());
+      };
+
+  private final MinioService minioService;
+  private final DocumentPathReader documentPathReader;
+  private final DocumentRepository documentRepository;
+  private final DocumentDeletionService documentDeletionService;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTransactionTemplate;
+  private final DocumentManagementProperties.Reconciliation properties;
+  private final ExecutorService rangeExecutor;
+  private final ExecutorService runExecutor;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicReference<StorageReconciliationResponse> lastReport = new AtomicReference<>();
+
+  public StorageReconciliationService(
+      MinioService minioService,
+      DocumentPathReader documentPathReader,
+      DocumentRepository documentRepository,
+      DocumentDeletionService documentDeletionService,
+      PlatformTransactionManager transactionManager,
+      DocumentManagementProperties properties) {
+    this.minioService = minioService;
+    this.documentPathReader = documentPathReader;
+    this.documentRepository = documentRepository;
+    this.documentDeletionService = documentDeletionService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+    this.properties = properties.getReconciliation();
+    this.rangeExecutor = Executors.newFixedThreadPool(this.properties.getParallelism());
+    this.runExecutor = Executors.newSingleThreadExecutor();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    runExecutor.shutdownNow();
+    rangeExecutor.shutdownNow();
+  }
+
+  /** Runs a reconciliation on schedule, unless one is already running. */
+  @Scheduled(cron = "${document-management.reconciliation.cron:0 30 4 * * *}")
+  public void reconcile() {
+    if (running.compareAndSet(false, true)) {
+      run();
+    } else {
+      log.warn(LogMessage.RECONCILIATION_ALREADY_RUNNING.getMessage());
+    }
+  }
+
+  /**
+   * Starts a reconciliation in the background.
+   *
+   * @return false if one is already running
+   */
+  public boolean startReconciliation() {
+    if (!running.compareAndSet(false, true)) {
+      return false;
+    }
+    runExecutor.execute(this::run);
+    return true;
+  }
+
+  /** The report of the last finished reconciliation, if any. */
+  public Optional<StorageReconciliationResponse> getLastReport() {
+    return Optional.ofNullable(lastReport.get());
+  }
+
+  private void run() {
+    try {
+      List<KeyRange> ranges = KeyRange.split(properties.getSplitPoints());
+      log.info(LogMessage.RECONCILIATION_STARTED.getMessage(), ranges.size());
+      Run run = new Run(properties, Instant.now());
+      List<Callable<Void>> tasks =
+          ranges.stream()
+              .<Callable<Void>>map(
+                  range ->
+                      () -> {
+                        reconcileRange(range, run);
+                        return null;
+                      })
+              .toList();
+      rangeExecutor.invokeAll(tasks);
+
+      StorageReconciliationResponse report = run.report();
+      lastReport.set(report);
+      log.info(
+          LogMessage.RECONCILIATION_SUCCESS.getMessage(),
+          report.getObjectsScanned(),
+          report.getDocumentsScanned(),
+          report.getElapsedMs(),
+          report.getOrphanedObjects(),
+          report.getObjectsRemoved(),
+          report.getDanglingDocuments(),
+          report.getDocumentsDeleted(),
+          report.getFailedRanges().size());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * Merges the objects and documents of one key range. A failure abandons the rest of the range,
+   * which is listed as failed in the report; other ranges carry on.
+   */
+  void reconcileRange(KeyRange range, Run run) {
+    Repairs repairs = new Repairs(run);
+    long objectsScanned = 0;
+    long documentsScanned = 0;
+    try (Stream<StoredObject> listing = minioService.listObjects(range.after())) {
+      Iterator<StoredObject> objects =
+          listing.takeWhile(object -> range.contains(object.getPath())).iterator();
+      DocumentCursor documents = new DocumentCursor(range);
+
+      StoredObject object = objects.hasNext() ? objects.next() : null;
+      while (object != null || documents.peek() != null) {
+        int order =
+            object == null
+                ? 1
+                : documents.peek() == null
+                    ? -1
+                    : KEY_ORDER.compare(object.getPath(), documents.peek().minioPath());
+        if (order <= 0) {
+          objectsScanned++;
+          if (order < 0 && object.getLastModified().isBefore(run.objectCutoff)) {
+            repairs.orphaned(object);
+          }
+        }
+        if (order >= 0) {
+          // A path may be shared by several documents, so all its rows are consumed at once
+          List<DocumentPath> rows = documents.nextPath();
+          documentsScanned += rows.size();
+          if (order > 0) {
+            List<UUID> dangling =
+                rows.stream()
+                    .filter(row -> !row.deleted() && row.createdAt().isBefore(run.documentCutoff))
+                    .map(DocumentPath::id)
+                    .toList();
+            if (!dangling.isEmpty()) {
+              repairs.dangling(rows.get(0).minioPath(), dangling);
+            }
+          }
+        }
+        if (order <= 0) {
+          object = objects.hasNext() ? objects.next() : null;
+        }
+      }
+      repairs.flush();
+      log.debug(
+          LogMessage.RECONCILIATION_RANGE_DONE.getMessage(),
+          range,
+          objectsScanned,
+          documentsScanned);
+    } catch (DataAccessException | TransactionException | DocumentUploadException e) {
+      log.error(LogMessage.RECONCILIATION_RANGE_ERROR.getMessage(), range, e);
+      run.failedRanges.add(range.toString());
+    } finally {
+      run.objectsScanned.addAndGet(objectsScanned);
+      run.documentsScanned.addAndGet(documentsScanned);
+    }
+  }
+
+  /** Reads the documents of a range a page at a time, one short transaction per page. */
+  private class DocumentCursor {
+    private final KeyRange range;
+    private List<DocumentPath> page = List.of();
+    private int position;
+    private boolean exhausted;
+
+    DocumentCursor(KeyRange range) {
+      this.range = range;
+    }
+
+    DocumentPath peek() {
+      if (position == page.size() && !exhausted) {
+        String after = page.isEmpty() ? range.after() : page.get(page.size() - 1).minioPath();
+        UUID afterId = page.isEmpty() ? null : page.get(page.size() - 1).id();
+        page =
+            readOnlyTransactionTemplate.execute(
+                status -> documentPathReader.findPage(after, afterId, range.upTo(), PAGE_SIZE));
+        position = 0;
+        exhausted = page.size() < PAGE_SIZE;
+      }
+      return position < page.size() ? page.get(position) : null;
+    }
+
+    List<DocumentPath> nextPath() {
+      List<DocumentPath> rows = new ArrayList<>();
+      String path = peek().minioPath();
+      while (peek() != null && peek().minioPath().equals(path)) {
+        rows.add(page.get(position++));
+      }
+      return rows;
+    }
+  }
+
+  /** Counts the drift of a range and, with {@code repair}, fixes it in batches. */
+  private class Repairs {
+    private final Run run;
+    private final List<StoredObject> orphaned = new ArrayList<>();
+    private final Map<String, List<UUID>> dangling = new LinkedHashMap<>();
+
+    Repairs(Run run) {
+      this.run = run;
+    }
+
+    void orphaned(StoredObject object) {
+      run.orphanedObjects.incrementAndGet();
+      if (run.sample(run.orphanedPaths, object.getPath())) {
+        log.warn(LogMessage.RECONCILIATION_ORPHANED_OBJECT.getMessage(), object.getPath());
+      }
+      if (run.repair) {
+        orphaned.add(object);
+        if (orphaned.size() == REPAIR_BATCH_SIZE) {
+          removeOrphaned();
+        }
+      }
+    }
+
+    void dangling(String path, List<UUID> documentIds) {
+      run.danglingDocuments.addAndGet(documentIds.size());
+      if (run.sample(run.danglingPaths, path)) {
+        log.warn(LogMessage.RECONCILIATION_DANGLING_DOCUMENT.getMessage(), path);
+      }
+      if (run.repair) {
+        dangling.put(path, documentIds);
+        if (dangling.size() == REPAIR_BATCH_SIZE) {
+          deleteDangling();
+        }
+      }
+    }
+
+    void flush() {
+      if (!orphaned.isEmpty()) {
+        removeOrphaned();
+      }
+      if (!dangling.isEmpty()) {
+        deleteDangling();
+      }
+    }
+
+    private void removeOrphaned() {
+      List<StoredObject> objects = List.copyOf(orphaned);
+      orphaned.clear();
+      List<String> paths = objects.stream().map(StoredObject::getPath).toList();
+      // Checked again on the primary: the listing may have raced an import or a lagging replica
+      Set<String> referenced =
+          new HashSet<>(
+              transactionTemplate.execute(status -> documentRepository.findReferencedPaths(paths)));
+      // Then in storage, last, as an upload writes its object before its row commits
+      List<String> removable =
+          objects.stream()
+              .filter(object -> !referenced.contains(object.getPath()))
+              .filter(this::unchangedSinceListing)
+              .map(StoredObject::getPath)
+              .toList();
+      Set<String> failed = minioService.removeObjects(removable);
+      run.objectsRemoved.addAndGet(removable.size() - failed.size());
+    }
+
+    private boolean unchangedSinceListing(StoredObject object) {
+      StatObjectResponse stat;
+      try {
+        stat = minioService.statObject(object.getPath());
+      } catch (DocumentNotFoundException e) {
+        return false;
+      }
+      // Object metadata carries the modification time to the second only
+      Instant lastModified = stat.lastModified().toInstant();
+      boolean unchanged =
+          object.getEtag().equals(stat.etag())
+              && lastModified.equals(object.getLastModified().truncatedTo(ChronoUnit.SECONDS))
+              && lastModified.isBefore(run.objectCutoff);
+      if (!unchanged) {
+        log.info(LogMessage.RECONCILIATION_ORPHANED_KEPT.getMessage(), object.getPath());
+      }
+      return unchanged;
+    }
+
+    private void deleteDangling() {
+      Map<String, List<UUID>> documents = new LinkedHashMap<>(dangling);
+      dangling.clear();
+      // Paths are reused by re-uploads, so only the rows seen dangling are deleted, and only if
+      // their object is still missing: the listing may have passed the path before an upload
+      List<UUID> ids =
+          documents.entrySet().stream()
+              .filter(entry -> !objectExists(entry.getKey()))
+              .flatMap(entry -> entry.getValue().stream())
+              .toList();
+      if (!ids.isEmpty()) {
+        run.documentsDeleted.addAndGet(
+            documentDeletionService.deleteDanglingDocuments(ids, run.documentCutoff));
+      }
+    }
+
+    private boolean objectExists(String path) {
+      try {
+        minioService.statObject(path);
+        log.info(LogMessage.RECONCILIATION_DANGLING_KEPT.getMessage(), path);
+        return true;
+      } catch (DocumentNotFoundException e) {
+        return false;
+      }
+    }
+  }
+
+  /** The totals of one reconciliation, shared by its ranges. */
+  static class Run {
+    private final Instant startedAt;
+    private final boolean repair;
+    private final int maxReportedPaths;
+    private final Instant objectCutoff;
+    private final LocalDateTime documentCutoff;
+    private final AtomicLong objectsScanned = new AtomicLong();
+    private final AtomicLong documentsScanned = new AtomicLong();
+    private final AtomicLong orphanedObjects = new AtomicLong();
+    private final AtomicLong objectsRemoved = new AtomicLong();
+    private final AtomicLong danglingDocuments = new AtomicLong();
+    private final AtomicLong documentsDeleted = new AtomicLong();
+    private final List<String> failedRanges = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> orphanedPaths = new ArrayList<>();
+    private final List<String> danglingPaths = new ArrayList<>();
+
+    Run(DocumentManagementProperties.Reconciliation properties, Instant startedAt) {
+      Duration gracePeriod = Duration.ofMinutes(properties.getGracePeriodMinutes());
+      this.startedAt = startedAt;
+      this.repair = properties.isRepair();
+      this.maxReportedPaths = properties.getMaxReportedPaths();
+      this.objectCutoff = startedAt.minus(gracePeriod);
+      // Documents are stamped with the local time of the node that saved them
+      this.documentCutoff = LocalDateTime.now().minus(gracePeriod);
+    }
+
+    /** Keeps the path as a sample if the report has room for it. */
+    private boolean sample(List<String> samples, String path) {
+      synchronized (samples) {
+        return samples.size() < maxReportedPaths && samples.add(path);
+      }
+    }
+
+    StorageReconciliationResponse report() {
+      return StorageReconciliationResponse.builder()
+          .startedAt(startedAt)
+          .elapsedMs(Duration.between(startedAt, Instant.now()).toMillis())
+          .repair(repair)
+          .objectsScanned(objectsScanned.get())
+          .documentsScanned(documentsScanned.get())
+          .orphanedObjects(orphanedObjects.get())
+          .objectsRemoved(objectsRemoved.get())
+          .danglingDocuments(danglingDocuments.get())
+          .documentsDeleted(documentsDeleted.get())
+          .failedRanges(List.copyOf(failedRanges))
+          .orphanedPaths(sorted(orphanedPaths))
+          .danglingPaths(sorted(danglingPaths))
+          .build();
+    }
+
+    private static List<String> sorted(List<String> samples) {
+      synchronized (samples) {
+        return samples.stream().sorted(KEY_ORDER).toList();
+      }
+    }
+  }
+
+  /** Keys after {@code after} up to and including {@code upTo}; a null bound is open. */
+  record KeyRange(String after, String upTo) {
+
+    /** Cuts the key space at the split points, which need not be sorted. */
+    static List<KeyRange> split(List<String> splitPoints) {
+      List<String> points = splitPoints.stream().distinct().sorted(KEY_ORDER).toList();
+      List<KeyRange> ranges = new ArrayList<>();
+      String after = null;
+      for (String point : points) {
+        ranges.add(new KeyRange(after, point));
+        after = point;
+      }
+      ranges.add(new KeyRange(after, null));
+      return ranges;
+    }
+
+    boolean contains(String key) {
+      return upTo == null || KEY_ORDER.compare(key, upTo) <= 0;
+    }
+
+    @Override
+    public String toString() {
+      return "("
+          + Optional.ofNullable(after).orElse("")
+          + ", "
+          + Optional.ofNullable(upTo).orElse("")
+          + "]";
+    }
+  }
+}
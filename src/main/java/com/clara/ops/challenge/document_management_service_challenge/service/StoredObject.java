@@ -0,0 +1,12 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import java.time.Instant;
+import lombok.Value;
+
+/** An object listed from the bucket, with when it was last written and its ETag. */
+@Value
+public class StoredObject {
+  String path;
+  Instant lastModified;
+  String etag;
+}
@@ -0,0 +1,65 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sorted, case-insensitive term set answering prefix queries with a single ordered range scan. Safe
+ * for concurrent reads and inserts. The terms are counted as they are added, since the size of the
+ * skip list takes a full traversal.
+ */
+class SuggestionIndex {
+
+  private final NavigableMap<String, String> terms = new ConcurrentSkipListMap<>();
+  private final AtomicInteger count = new AtomicInteger();
+  private final int maxTerms;
+
+  SuggestionIndex(int maxTerms) {
+    this.maxTerms = maxTerms;
+  }
+
+  /**
+   * Adds the term unless blank.
+   *
+   * @return False if the term was left out because the index is full
+   */
+  boolean add(String term) {
+    if (term == null || term.isBlank()) {
+      return true;
+    }
+    String trimmed = term.trim();
+    String key = trimmed.toLowerCase(Locale.ROOT);
+    if (terms.containsKey(key)) {
+      return true;
+    }
+    if (count.incrementAndGet() > maxTerms) {
+      count.decrementAndGet();
+      return false;
+    }
+    if (terms.putIfAbsent(key, trimmed) != null) {
+      count.decrementAndGet();
+    }
+    return true;
+  }
+
+  List<String> complete(String prefix, int limit) {
+    String key = prefix.toLowerCase(Locale.ROOT);
+    List<String> completions = new ArrayList<>(limit);
+    for (Map.Entry<String, String> entry : terms.tailMap(key, true).entrySet()) {
+      if (completions.size() >= limit || !entry.getKey().startsWith(key)) {
+        break;
+      }
+      completions.add(entry.getValue());
+    }
+    return completions;
+  }
+
+  int size() {
+    return count.get();
+  }
+}
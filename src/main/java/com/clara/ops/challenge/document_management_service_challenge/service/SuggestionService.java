@@ -0,0 +1,184 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.SuggestionResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Prefix completions for document names and tags, served from per-user in-memory indexes. A user's
+ * index is loaded from the database on first use and then kept current on upload, so the keystroke
+ * path never queries PostgreSQL; a delete drops the index, to be reloaded on next use. Indexes are
+ * evicted by total term count, re-weighed after each upload, and expire a fixed time after loading
+ * so changes made through other nodes show up eventually.
+ *
+ * <p>An index holds at most {@code maxTermsPerUser} names and as many tags, the first in
+ * alphabetical order; completions beyond them are never suggested.
+ */
+@Service
+@Slf4j
+public class SuggestionService {
+
+  private final DocumentRepository documentRepository;
+  private final DocumentManagementProperties.Suggest properties;
+  private final Cache<String, UserIndex> indexes;
+
+  @Autowired
+  public SuggestionService(
+      DocumentRepository documentRepository, DocumentManagementProperties properties) {
+    this(documentRepository, properties, Ticker.systemTicker(), ForkJoinPool.commonPool());
+  }
+
+  SuggestionService(
+      DocumentRepository documentRepository,
+      DocumentManagementProperties properties,
+      Ticker ticker,
+      Executor executor) {
+    this.documentRepository = documentRepository;
+    this.properties = properties.getSuggest();
+    this.indexes =
+        Caffeine.newBuilder()
+            .maximumWeight(this.properties.getMaxCachedTerms())
+            .weigher((String user, UserIndex index) -> index.weight())
+            .expireAfter(
+                new ExpireAfterLoad(Duration.ofSeconds(this.properties.getExpireAfterSeconds())))
+            .ticker(ticker)
+            .executor(executor)
+            .build();
+  }
+
+  /**
+   * Returns up to {@code limit} names and tags of the user starting with the prefix, compared
+   * case-insensitively and in alphabetical order.
+   *
+   * <p>Note: Parameter validation is performed at the controller layer.
+   */
+  public SuggestionResponse suggest(String user, String prefix, int limit) {
+    UserIndex index = indexes.get(user, this::loadIndex);
+    return SuggestionResponse.builder()
+        .names(index.names().complete(prefix, limit))
+        .tags(index.tags().complete(prefix, limit))
+        .build();
+  }
+
+  /**
+   * Adds an uploaded document to its user's index, then puts the index back so the cache weighs it
+   * again. Without a loaded index, or when the index has no room for a new term, the index is
+   * dropped instead: a load in progress may have read before the upload, and a full index must be
+   * reloaded to keep holding the first terms in alphabetical order. Inside a transaction the update
+   * is deferred until commit so rolled-back uploads are never suggested.
+   */
+  public void recordUpload(String user, String documentName, Collection<String> tags) {
+    Runnable update =
+        () -> {
+          UserIndex index = indexes.getIfPresent(user);
+          boolean added =
+              index != null
+                  && index.names().add(documentName)
+                  && tags.stream().allMatch(index.tags()::add);
+          if (!added) {
+            // Waits for a load in progress, then discards it
+            indexes.invalidate(user);
+          } else {
+            // Only if still cached, so an index dropped meanwhile is not brought back
+            indexes.asMap().replace(user, index, index);
+          }
+        };
+
+    runAfterCommit(update);
+  }
+
+  /**
+   * Drops the index of a user whose documents were deleted, so it is reloaded without them on next
+   * use. Deferred until commit inside a transaction, like {@link #recordUpload}.
+   */
+  public void recordDelete(String user) {
+    runAfterCommit(() -> indexes.invalidate(user));
+  }
+
+  /**
+   * Drops the index of a user whose tags changed. A removed tag may still be on other documents, so
+   * the index is reloaded rather than patched.
+   */
+  public void recordTagChange(String user) {
+    runAfterCommit(() -> indexes.invalidate(user));
+  }
+
+  private static void runAfterCommit(Runnable update) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              update.run();
+            }
+          });
+    } else {
+      update.run();
+    }
+  }
+
+  private UserIndex loadIndex(String user) {
+    int maxTerms = properties.getMaxTermsPerUser();
+    PageRequest firstTerms = PageRequest.of(0, maxTerms);
+    UserIndex index = new UserIndex(new SuggestionIndex(maxTerms), new SuggestionIndex(maxTerms));
+    documentRepository.findDistinctDocumentNames(user, firstTerms).forEach(index.names()::add);
+    documentRepository.findDistinctTagNames(user, firstTerms).forEach(index.tags()::add);
+    log.debug(
+        LogMessage.SUGGEST_INDEX_LOADED.getMessage(),
+        user,
+        index.names().size(),
+        index.tags().size());
+    return index;
+  }
+
+  long cachedTerms() {
+    return indexes.policy().eviction().orElseThrow().weightedSize().orElse(0L);
+  }
+
+  private record UserIndex(SuggestionIndex names, SuggestionIndex tags) {
+    int weight() {
+      return Math.max(1, names.size() + tags.size());
+    }
+  }
+
+  /** Expires an index a fixed time after it was loaded; re-weighing it does not extend that. */
+  private static final class ExpireAfterLoad implements Expiry<String, UserIndex> {
+    private final long nanos;
+
+    private ExpireAfterLoad(Duration duration) {
+      this.nanos = duration.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String user, UserIndex index, long currentTime) {
+      return nanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String user, UserIndex index, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(
+        String user, UserIndex index, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.UserUsageDeltaEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Folds the usage deltas into the per-user totals, in the background. Each batch sums the oldest
+ * deltas per user, adds the sums to the totals and removes the deltas in one transaction, so usage
+ * reads see a delta either pending or folded, never both. Deltas are locked while folded, so
+ * several nodes can fold at once.
+ */
+@Service
+@ConditionalOnProperty(
+    prefix = "document-management.usage",
+    name = "fold-enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Slf4j
+public class UserUsageFoldService {
+
+  private final UserUsageRepository userUsageRepository;
+  private final UserUsageDeltaRepository userUsageDeltaRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final DocumentManagementProperties.Usage properties;
+
+  public UserUsageFoldService(
+      UserUsageRepository userUsageRepository,
+      UserUsageDeltaRepository userUsageDeltaRepository,
+      TransactionTemplate transactionTemplate,
+      DocumentManagementProperties properties) {
+    this.userUsageRepository = userUsageRepository;
+    this.userUsageDeltaRepository = userUsageDeltaRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties.getUsage();
+  }
+
+  /** Folds batches until fewer deltas than a batch are left. */
+  @Scheduled(
+      initialDelayString = "${document-management.usage.fold-interval-ms:60000}",
+      fixedDelayString = "${document-management.usage.fold-interval-ms:60000}")
+  public void foldUsageDeltas() {
+    // A failure is not fatal: the deltas stay pending, still counted, and the next run folds them
+    try {
+      int folded;
+      do {
+        folded = foldBatch();
+      } while (folded == properties.getFoldBatchSize());
+    } catch (DataAccessException | TransactionException e) {
+      log.error(LogMessage.USAGE_FOLD_ERROR.getMessage(), e);
+    }
+  }
+
+  int foldBatch() {
+    return transactionTemplate.execute(
+        status -> {
+          List<UserUsageDeltaEntity> deltas =
+              userUsageDeltaRepository.findOldestForFold(Limit.of(properties.getFoldBatchSize()));
+          if (deltas.isEmpty()) {
+            return 0;
+          }
+
+          // Sorted, so concurrent folds lock the totals rows in the same order
+          Map<String, Totals> totals =
+              deltas.stream()
+                  .collect(
+                      Collectors.toMap(
+                          UserUsageDeltaEntity::getUserName,
+                          delta -> new Totals(delta.getDocumentCount(), delta.getTotalBytes()),
+                          Totals::plus,
+                          TreeMap::new));
+          totals.forEach(
+              (user, total) ->
+                  userUsageRepository.addUsage(user, total.documents(), total.bytes()));
+          userUsageDeltaRepository.deleteByIdIn(
+              deltas.stream().map(UserUsageDeltaEntity::getId).toList());
+
+          log.debug(LogMessage.USAGE_FOLD_SUCCESS.getMessage(), deltas.size(), totals.size());
+          return deltas.size();
+        });
+  }
+
+  private record Totals(long documents, long bytes) {
+    Totals plus(Totals other) {
+      return new Totals(documents + other.documents, bytes + other.bytes);
+    }
+  }
+}
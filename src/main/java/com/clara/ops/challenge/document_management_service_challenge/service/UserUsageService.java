@@ -0,0 +1,109 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.UserUsageResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DataSourceRoutingContext;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageView;
+import com.clara.ops.challenge.document_management_service_challenge.exception.QuotaExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reports the document count and bytes of each user's live documents and enforces the optional
+ * quota. Usage is kept up to date incrementally, as deltas written with every upload, delete and
+ * import and folded by {@link UserUsageFoldService}, so neither costs a scan of the user's
+ * documents.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserUsageService {
+
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+
+  private final UserUsageRepository userUsageRepository;
+  private final UserUsageDeltaRepository userUsageDeltaRepository;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final DocumentManagementProperties properties;
+
+  /**
+   * Returns the current usage of a user, zero for a user without documents, and the quota if
+   * enabled.
+   *
+   * <p>Note: User validation is performed at the controller layer.
+   */
+  @Transactional(readOnly = true)
+  public UserUsageResponse getUsage(String user) {
+    // A user who just uploaded or deleted expects to see it counted
+    if (readYourWritesTracker.hasRecentWrite(user)) {
+      DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+    }
+    UserUsageView usage = userUsageRepository.findUsage(user);
+    DocumentManagementProperties.Quota quota = properties.getUsage().getQuota();
+
+    return UserUsageResponse.builder()
+        .user(user)
+        .documentCount(usage.getDocumentCount())
+        .totalBytes(usage.getTotalBytes())
+        .maxDocuments(quota.isEnabled() ? quota.getMaxDocuments() : null)
+        .maxBytes(quota.isEnabled() ? quota.getMaxSizeMb() * BYTES_PER_MB : null)
+        .build();
+  }
+
+  /**
+   * Reserves room for one more document of the given size, if the quota is enabled: checks that it
+   * keeps the user within the quota and records it in the user's usage, in a short transaction of
+   * its own. Called by an upload before the file is sent to storage; an upload that then fails
+   * hands the reservation back with {@link #releaseQuota}.
+   *
+   * <p>The user is locked until this transaction commits, so concurrent reservations of the same
+   * user run one at a time, each seeing the ones before it. The lock is held only for the check and
+   * the insert, never while a file is streamed.
+   *
+   * @return Whether the upload was recorded in the usage; if not, the upload records it itself
+   * @throws QuotaExceededException if the upload would exceed the document or size quota
+   */
+  @Transactional
+  public boolean reserveQuota(String user, long fileSize) {
+    DocumentManagementProperties.Quota quota = properties.getUsage().getQuota();
+    if (!quota.isEnabled()) {
+      return false;
+    }
+
+    userUsageRepository.lockUser(user);
+    UserUsageView usage = userUsageRepository.findUsage(user);
+    if (usage.getDocumentCount() + 1 > quota.getMaxDocuments()
+        || usage.getTotalBytes() + fileSize > quota.getMaxSizeMb() * BYTES_PER_MB) {
+      log.warn(
+          LogMessage.SERVICE_QUOTA_EXCEEDED.getMessage(),
+          user,
+          usage.getDocumentCount(),
+          usage.getTotalBytes(),
+          fileSize);
+      throw new QuotaExceededException(
+          "Storage quota exceeded for user: "
+              + user
+              + " (at most "
+              + quota.getMaxDocuments()
+              + " documents and "
+              + quota.getMaxSizeMb()
+              + " MB)");
+    }
+    userUsageDeltaRepository.recordChange(user, 1, fileSize);
+    return true;
+  }
+
+  /**
+   * Hands back a reservation made by {@link #reserveQuota} for an upload that failed. A node that
+   * stops between the two leaves the reservation counted.
+   */
+  @Transactional
+  public void releaseQuota(String user, long fileSize) {
+    userUsageDeltaRepository.recordChange(user, -1, -fileSize);
+  }
+}
@@ -1,13 +1,27 @@
 package com.clara.ops.challenge.document_management_service_challenge.validation;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BundleDownloadRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportRecord;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
 import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.FileType;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ImportFormat;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.LogMessage;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.SortField;
 import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ValidationMessage;
 import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,6 +37,12 @@ public class DocumentValidator {
   private static final String UUID_REGEX =
       "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
 
+  private static final int MAX_USER_LENGTH = 255;
+  private static final int MAX_NAME_LENGTH = 500;
+  private static final int MAX_PATH_LENGTH = 1000;
+  private static final int MAX_TAG_LENGTH = 255;
+  private static final int MAX_TAG_CHANGES = 100;
+
   private final DocumentManagementProperties properties;
 
   /**
@@ -109,6 +129,142 @@ public class DocumentValidator {
     log.debug(LogMessage.SEARCH_VALIDATION_PASSED.getMessage(), page, size);
   }
 
+  /**
+   * Validates that range filters describe non-empty ranges.
+   *
+   * @param filters Search filters, may be null
+   * @throws InvalidDocumentException if a range is inverted
+   */
+  public void validateSearchFilters(DocumentSearchFilters filters) {
+    if (filters == null) {
+      return;
+    }
+
+    LocalDateTime createdFrom = filters.getCreatedFrom();
+    LocalDateTime createdTo = filters.getCreatedTo();
+    if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+      log.error(
+          LogMessage.SEARCH_VALIDATION_FAILED_CREATED_RANGE.getMessage(), createdFrom, createdTo);
+      throw new InvalidDocumentException(ValidationMessage.CREATED_RANGE_INVALID.getMessage());
+    }
+
+    Long minSize = filters.getMinSize();
+    Long maxSize = filters.getMaxSize();
+    if (minSize != null && maxSize != null && minSize > maxSize) {
+      log.error(LogMessage.SEARCH_VALIDATION_FAILED_SIZE_RANGE.getMessage(), minSize, maxSize);
+      throw new InvalidDocumentException(ValidationMessage.SIZE_RANGE_INVALID.getMessage());
+    }
+
+    if ((filters.getBeforeCreatedAt() == null) != (filters.getBeforeId() == null)) {
+      log.error(
+          LogMessage.SEARCH_VALIDATION_FAILED_CURSOR.getMessage(),
+          filters.getBeforeCreatedAt(),
+          filters.getBeforeId());
+      throw new InvalidDocumentException(ValidationMessage.CURSOR_INCOMPLETE.getMessage());
+    }
+  }
+
+  /**
+   * Validates the sort parameter against the whitelisted sort keys. Sorts that are only
+   * index-backed per user are rejected when no user filter is present, since they would force an
+   * in-memory sort of the whole result set. A keyset cursor only works with the default sort.
+   *
+   * @param sort Sort in the format property[,asc|desc], may be null
+   * @param filters Search filters the sort is applied to, may be null
+   * @throws InvalidDocumentException if the sort is unknown or not allowed for the filters
+   */
+  public void validateSort(String sort, DocumentSearchFilters filters) {
+    if (sort == null || sort.isBlank()) {
+      return;
+    }
+
+    String[] parts = sort.split(",", -1);
+    if (parts.length > 2
+        || (parts.length == 2 && Sort.Direction.fromOptionalString(parts[1].trim()).isEmpty())) {
+      log.error(LogMessage.SEARCH_VALIDATION_FAILED_SORT.getMessage(), sort);
+      throw new InvalidDocumentException(ValidationMessage.SORT_INVALID_FORMAT.format(sort));
+    }
+
+    SortField sortField =
+        SortField.fromKey(parts[0].trim())
+            .orElseThrow(
+                () -> {
+                  log.error(LogMessage.SEARCH_VALIDATION_FAILED_SORT.getMessage(), sort);
+                  return new InvalidDocumentException(
+                      ValidationMessage.SORT_UNSUPPORTED_PROPERTY.format(
+                          parts[0].trim(),
+                          Arrays.stream(SortField.values())
+                              .map(SortField::getKey)
+                              .collect(Collectors.joining(", "))));
+                });
+
+    boolean hasUserFilter =
+        Optional.ofNullable(filters)
+            .map(DocumentSearchFilters::getUser)
+            .filter(user -> !user.isBlank())
+            .isPresent();
+    if (sortField.isRequiresUserFilter() && !hasUserFilter) {
+      log.error(LogMessage.SEARCH_VALIDATION_FAILED_SORT_SCOPE.getMessage(), sortField.getKey());
+      throw new InvalidDocumentException(
+          ValidationMessage.SORT_REQUIRES_USER_FILTER.format(sortField.getKey()));
+    }
+
+    boolean hasCursor = filters != null && filters.getBeforeCreatedAt() != null;
+    boolean isDefaultSort =
+        sortField == SortField.CREATED_AT
+            && parts.length == 2
+            && Sort.Direction.fromString(parts[1].trim()).isDescending();
+    if (hasCursor && !isDefaultSort) {
+      log.error(LogMessage.SEARCH_VALIDATION_FAILED_SORT.getMessage(), sort);
+      throw new InvalidDocumentException(
+          ValidationMessage.CURSOR_REQUIRES_DEFAULT_SORT.getMessage());
+    }
+  }
+
+  /**
+   * Validates autocomplete parameters.
+   *
+   * @param user Owner whose names and tags are completed
+   * @param prefix Case-insensitive prefix to complete
+   * @param limit Maximum completions per category
+   * @throws InvalidDocumentException if a parameter is missing or out of range
+   */
+  public void validateSuggestParams(String user, String prefix, int limit) {
+    if (user == null || user.isBlank()) {
+      log.error(LogMessage.SUGGEST_VALIDATION_FAILED.getMessage(), "missing user");
+      throw new InvalidDocumentException(ValidationMessage.SUGGEST_USER_REQUIRED.getMessage());
+    }
+
+    if (prefix == null || prefix.isBlank()) {
+      log.error(LogMessage.SUGGEST_VALIDATION_FAILED.getMessage(), "missing prefix");
+      throw new InvalidDocumentException(ValidationMessage.SUGGEST_PREFIX_REQUIRED.getMessage());
+    }
+
+    int maxLimit = properties.getSuggest().getMaxLimit();
+    if (limit < 1 || limit > maxLimit) {
+      log.error(LogMessage.SUGGEST_VALIDATION_FAILED.getMessage(), "limit " + limit);
+      throw new InvalidDocumentException(ValidationMessage.SUGGEST_LIMIT_INVALID.format(maxLimit));
+    }
+  }
+
+  /**
+   * Validates the user whose usage is requested.
+   *
+   * @throws InvalidDocumentException if the user is missing or too long
+   */
+  public void validateUsageUser(String user) {
+    if (user == null || user.isBlank()) {
+      log.error(LogMessage.USAGE_VALIDATION_FAILED.getMessage(), "missing user");
+      throw new InvalidDocumentException(ValidationMessage.USAGE_USER_REQUIRED.getMessage());
+    }
+
+    if (user.length() > MAX_USER_LENGTH) {
+      log.error(LogMessage.USAGE_VALIDATION_FAILED.getMessage(), "user too long");
+      throw new InvalidDocumentException(
+          ValidationMessage.USAGE_USER_TOO_LONG.format(MAX_USER_LENGTH));
+    }
+  }
+
   /**
    * Validates document ID format (UUID).
    *
@@ -137,4 +293,229 @@ public class DocumentValidator {
 
     log.debug(LogMessage.DOWNLOAD_VALIDATION_PASSED.getMessage(), validId);
   }
+
+  /**
+   * Validates the document IDs of a batch download request.
+   *
+   * @param documentIds The document IDs to validate
+   * @throws InvalidDocumentException if the batch is empty, too large or has an invalid ID
+   */
+  public void validateDocumentIds(List<String> documentIds) {
+    if (documentIds == null || documentIds.isEmpty()) {
+      log.error(LogMessage.BATCH_DOWNLOAD_VALIDATION_FAILED.getMessage(), 0);
+      throw new InvalidDocumentException(
+          ValidationMessage.BATCH_DOCUMENT_IDS_REQUIRED.getMessage());
+    }
+
+    int maxBatchSize = properties.getDownload().getMaxBatchSize();
+    if (documentIds.size() > maxBatchSize) {
+      log.error(LogMessage.BATCH_DOWNLOAD_VALIDATION_FAILED.getMessage(), documentIds.size());
+      throw new InvalidDocumentException(
+          ValidationMessage.BATCH_DOCUMENT_IDS_TOO_MANY.format(maxBatchSize));
+    }
+
+    documentIds.forEach(this::validateDocumentId);
+  }
+
+  /**
+   * Validates a bundle download request: either document IDs or search filters, within the bundle
+   * size limit.
+   *
+   * @param request The bundle request to validate
+   * @throws InvalidDocumentException if the selection is missing, ambiguous or too large
+   */
+  public void validateBundleRequest(BundleDownloadRequest request) {
+    boolean byIds = request != null && request.getDocumentIds() != null;
+    boolean byFilters = request != null && request.getFilters() != null;
+    if (byIds == byFilters) {
+      log.error(LogMessage.BUNDLE_VALIDATION_FAILED.getMessage(), "ambiguous selection");
+      throw new InvalidDocumentException(ValidationMessage.BUNDLE_SELECTION_INVALID.getMessage());
+    }
+
+    if (byFilters) {
+      validateSearchFilters(request.getFilters());
+      return;
+    }
+
+    List<String> documentIds = request.getDocumentIds();
+    if (documentIds.isEmpty()) {
+      log.error(LogMessage.BUNDLE_VALIDATION_FAILED.getMessage(), "no document IDs");
+      throw new InvalidDocumentException(
+          ValidationMessage.BATCH_DOCUMENT_IDS_REQUIRED.getMessage());
+    }
+
+    int maxDocuments = properties.getDownload().getBundle().getMaxDocuments();
+    if (documentIds.size() > maxDocuments) {
+      log.error(
+          LogMessage.BUNDLE_VALIDATION_FAILED.getMessage(), documentIds.size() + " document IDs");
+      throw new InvalidDocumentException(
+          ValidationMessage.BUNDLE_TOO_MANY_DOCUMENTS.format(maxDocuments));
+    }
+
+    documentIds.forEach(this::validateDocumentId);
+  }
+
+  /**
+   * Validates the filters of a bulk delete. They must name a user, so a delete can never reach
+   * beyond one user's documents.
+   *
+   * @param filters Filters selecting the documents to delete
+   * @throws InvalidDocumentException if the user is missing or a range is invalid
+   */
+  public void validateDeleteFilters(DocumentSearchFilters filters) {
+    if (filters == null || filters.getUser() == null || filters.getUser().isBlank()) {
+      log.error(LogMessage.BULK_DELETE_VALIDATION_FAILED.getMessage(), filters);
+      throw new InvalidDocumentException(ValidationMessage.DELETE_USER_REQUIRED.getMessage());
+    }
+    validateSearchFilters(filters);
+  }
+
+  /**
+   * Validates the tags to add to and remove from documents. Blank tags are ignored, as on upload.
+   *
+   * @param add Tags to add, may be null
+   * @param remove Tags to remove, may be null
+   * @throws InvalidDocumentException if there is no change, too many, a tag is too long or a tag is
+   *     both added and removed
+   */
+  public void validateTagChanges(List<String> add, List<String> remove) {
+    Set<String> added = nonBlankTags(add);
+    Set<String> removed = nonBlankTags(remove);
+    if (added.isEmpty() && removed.isEmpty()) {
+      log.error(LogMessage.TAGS_VALIDATION_FAILED.getMessage(), "no changes");
+      throw new InvalidDocumentException(ValidationMessage.TAG_CHANGES_REQUIRED.getMessage());
+    }
+
+    if (added.size() + removed.size() > MAX_TAG_CHANGES) {
+      log.error(
+          LogMessage.TAGS_VALIDATION_FAILED.getMessage(),
+          added.size() + removed.size() + " changes");
+      throw new InvalidDocumentException(
+          ValidationMessage.TAG_CHANGES_TOO_MANY.format(MAX_TAG_CHANGES));
+    }
+
+    Stream.concat(added.stream(), removed.stream())
+        .filter(tag -> tag.length() > MAX_TAG_LENGTH)
+        .findFirst()
+        .ifPresent(
+            tag -> {
+              log.error(LogMessage.TAGS_VALIDATION_FAILED.getMessage(), "tag too long");
+              throw new InvalidDocumentException(
+                  ValidationMessage.TAG_TOO_LONG.format(MAX_TAG_LENGTH));
+            });
+
+    added.stream()
+        .filter(removed::contains)
+        .findFirst()
+        .ifPresent(
+            tag -> {
+              log.error(LogMessage.TAGS_VALIDATION_FAILED.getMessage(), "conflicting " + tag);
+              throw new InvalidDocumentException(
+                  ValidationMessage.TAG_CHANGES_CONFLICT.format(tag));
+            });
+  }
+
+  /**
+   * Validates a bulk retag. Like a bulk delete, it must name a user.
+   *
+   * @param request Filters selecting the documents and the tag changes
+   * @throws InvalidDocumentException if the user is missing, a range is invalid or the tag changes
+   *     are invalid
+   */
+  public void validateRetagRequest(DocumentRetagRequest request) {
+    DocumentSearchFilters filters =
+        Optional.ofNullable(request).map(DocumentRetagRequest::getFilters).orElse(null);
+    if (filters == null || filters.getUser() == null || filters.getUser().isBlank()) {
+      log.error(LogMessage.RETAG_VALIDATION_FAILED.getMessage(), filters);
+      throw new InvalidDocumentException(ValidationMessage.RETAG_USER_REQUIRED.getMessage());
+    }
+    validateSearchFilters(filters);
+    validateTagChanges(request.getAdd(), request.getRemove());
+  }
+
+  private static Set<String> nonBlankTags(List<String> tags) {
+    return Optional.ofNullable(tags).orElse(List.of()).stream()
+        .filter(tag -> tag != null && !tag.isBlank())
+        .map(String::trim)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * Validates the content type of a bulk import.
+   *
+   * @param contentType Content type of the request body
+   * @throws InvalidDocumentException if it is not one of the {@link ImportFormat}s
+   */
+  public void validateImportFormat(String contentType) {
+    if (ImportFormat.fromContentType(contentType).isEmpty()) {
+      log.error(LogMessage.IMPORT_VALIDATION_FAILED.getMessage(), contentType);
+      throw new InvalidDocumentException(
+          ValidationMessage.IMPORT_FORMAT_UNSUPPORTED.format(
+              contentType,
+              Arrays.stream(ImportFormat.values())
+                  .map(ImportFormat::getContentType)
+                  .collect(Collectors.joining(", "))));
+    }
+  }
+
+  /**
+   * Validates one record of a bulk import against the column limits of the documents and tags
+   * tables. Logged at debug level only, since an import may reject many records.
+   *
+   * @param record The record to validate
+   * @throws InvalidDocumentException if a field is missing or too long
+   */
+  public void validateImportRecord(DocumentImportRecord record) {
+    String name =
+        Optional.ofNullable(record.getName())
+            .map(String::trim)
+            .map(n -> FileType.PDF.hasExtension(n) ? n : n + FileType.PDF.getExtension())
+            .orElse(null);
+    requireText("user", record.getUser(), MAX_USER_LENGTH);
+    requireText("name", name, MAX_NAME_LENGTH);
+    requireText("minioPath", record.getMinioPath(), MAX_PATH_LENGTH);
+
+    if (record.getSize() == null) {
+      rejectImportRecord(ValidationMessage.IMPORT_FIELD_REQUIRED.format("size"));
+    }
+    if (record.getSize() < 0) {
+      rejectImportRecord(ValidationMessage.IMPORT_SIZE_INVALID.getMessage());
+    }
+
+    List<String> tags =
+        Optional.ofNullable(record.getTags()).orElse(List.of()).stream()
+            .filter(tag -> tag != null && !tag.isBlank())
+            .map(String::trim)
+            .toList();
+    if (tags.isEmpty()) {
+      rejectImportRecord(ValidationMessage.IMPORT_TAGS_REQUIRED.getMessage());
+    }
+    tags.forEach(tag -> requireText("tag", tag, MAX_TAG_LENGTH));
+
+    // Rows are stored in the monthly partition of their creation date, which must be creatable
+    if (record.getCreatedAt() != null) {
+      LocalDateTime now = LocalDateTime.now();
+      int maxAgeMonths = properties.getBulkImport().getMaxAgeMonths();
+      if (record.getCreatedAt().isAfter(now)) {
+        rejectImportRecord(ValidationMessage.IMPORT_CREATED_AT_IN_FUTURE.getMessage());
+      }
+      if (record.getCreatedAt().isBefore(now.minusMonths(maxAgeMonths))) {
+        rejectImportRecord(ValidationMessage.IMPORT_CREATED_AT_TOO_OLD.format(maxAgeMonths));
+      }
+    }
+  }
+
+  private void requireText(String field, String value, int maxLength) {
+    if (value == null || value.isBlank()) {
+      rejectImportRecord(ValidationMessage.IMPORT_FIELD_REQUIRED.format(field));
+    }
+    if (value.trim().length() > maxLength) {
+      rejectImportRecord(ValidationMessage.IMPORT_FIELD_TOO_LONG.format(field, maxLength));
+    }
+  }
+
+  private void rejectImportRecord(String message) {
+    log.debug(LogMessage.IMPORT_RECORD_REJECTED.getMessage(), message);
+    throw new InvalidDocumentException(message);
+  }
 }
@@ -2,13 +2,18 @@ package com.clara.ops.challenge.document_management_service_challenge;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentService;
 import io.minio.MinioClient;
+import java.lang.reflect.Method;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -16,6 +21,8 @@ class DocumentManagementServiceChallengeApplicationTests {
 
   @Autowired private ApplicationContext applicationContext;
 
+  @Autowired private TransactionAttributeSource transactionAttributeSource;
+
   @MockitoBean private MinioClient minioClient;
 
   @Test
@@ -23,4 +30,28 @@ class DocumentManagementServiceChallengeApplicationTests {
     assertThat(applicationContext).isNotNull();
     assertThat(applicationContext.getBeanDefinitionCount()).isGreaterThan(0);
   }
+
+  @Test
+  void shouldTakeTransactionTimeoutsFromQueryTimeoutProperties() throws NoSuchMethodException {
+    DocumentManagementProperties.QueryTimeout queryTimeout =
+        applicationContext.getBean(DocumentManagementProperties.class).getQueryTimeout();
+    Method search =
+        DocumentService.class.getMethod(
+            "searchDocuments",
+            DocumentSearchFilters.class,
+            int.class,
+            int.class,
+            String.class,
+            boolean.class);
+    Method download = DocumentService.class.getMethod("getDownloadUrl", String.class);
+
+    assertThat(timeoutOf(search)).isEqualTo(queryTimeout.getSearchSeconds());
+    assertThat(timeoutOf(download)).isEqualTo(queryTimeout.getDownloadSeconds());
+  }
+
+  private int timeoutOf(Method method) {
+    return transactionAttributeSource
+        .getTransactionAttribute(method, DocumentService.class)
+        .getTimeout();
+  }
 }
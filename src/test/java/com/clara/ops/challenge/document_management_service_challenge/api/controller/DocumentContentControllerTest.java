@@ -0,0 +1,150 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentModifiedException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentContentService;
+import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import java.io.OutputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(DocumentContentController.class)
+@Import(DocumentManagementProperties.class)
+@TestPropertySource(properties = "document-management.download.proxy.enabled=true")
+class DocumentContentControllerTest {
+
+  private static final String DOCUMENT_ID = "123e4567-e89b-12d3-a456-426614174000";
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private DocumentContentService documentContentService;
+
+  @MockitoBean private DocumentValidator documentValidator;
+
+  private DocumentContentService.Content.ContentBuilder storedContent() {
+    return DocumentContentService.Content.builder()
+        .objectPath("testuser/testdoc.pdf")
+        .contentType("application/pdf")
+        .size(10L)
+        .etag("\"abc123\"")
+        .lastModified(ZonedDateTime.of(2024, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC));
+  }
+
+  @Test
+  void shouldStreamWholeDocument() throws Exception {
+    DocumentContentService.Content whole = storedContent().start(0).length(10L).build();
+    when(documentContentService.open(DOCUMENT_ID, null, null)).thenReturn(whole);
+    doAnswer(
+            invocation -> {
+              invocation.<OutputStream>getArgument(1).write("0123456789".getBytes());
+              return null;
+            })
+        .when(documentContentService)
+        .transfer(eq(whole), any());
+
+    mockMvc
+        .perform(get("/document-management/download/{documentId}/content", DOCUMENT_ID))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+        .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+        .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Mon, 01 Jan 2024 10:00:00 GMT"))
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
+        .andExpect(content().bytes("0123456789".getBytes()));
+  }
+
+  @Test
+  void shouldStreamRequestedRangeAsPartialContent() throws Exception {
+    DocumentContentService.Content partial =
+        storedContent().partial(true).start(2L).length(3L).build();
+    when(documentContentService.open(DOCUMENT_ID, "bytes=2-4", "\"abc123\"")).thenReturn(partial);
+
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}/content", DOCUMENT_ID)
+                .header(HttpHeaders.RANGE, "bytes=2-4")
+                .header(HttpHeaders.IF_RANGE, "\"abc123\""))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+        .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "3"));
+
+    verify(documentContentService).transfer(eq(partial), any());
+  }
+
+  @Test
+  void shouldRejectUnsatisfiableRange() throws Exception {
+    DocumentContentService.Content unsatisfiable = storedContent().satisfiable(false).build();
+    when(documentContentService.open(DOCUMENT_ID, "bytes=50-", null)).thenReturn(unsatisfiable);
+
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}/content", DOCUMENT_ID)
+                .header(HttpHeaders.RANGE, "bytes=50-"))
+        .andExpect(status().isRequestedRangeNotSatisfiable())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+
+    verify(documentContentService, never()).transfer(any(), any());
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenStreamingWithInvalidId() throws Exception {
+    doThrow(new InvalidDocumentException("Invalid document ID format"))
+        .when(documentValidator)
+        .validateDocumentId("invalid-id");
+
+    mockMvc
+        .perform(get("/document-management/download/{documentId}/content", "invalid-id"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentContentService, never()).open(any(), isNull(), isNull());
+  }
+
+  @Test
+  void shouldReturnNotFoundWhenStreamingMissingDocument() throws Exception {
+    when(documentContentService.open(DOCUMENT_ID, null, null))
+        .thenThrow(new DocumentNotFoundException("Document not found"));
+
+    mockMvc
+        .perform(get("/document-management/download/{documentId}/content", DOCUMENT_ID))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void shouldReturnConflictWithoutContentHeadersWhenDocumentChangesBeforeTransfer()
+      throws Exception {
+    DocumentContentService.Content whole = storedContent().start(0).length(10L).build();
+    when(documentContentService.open(DOCUMENT_ID, null, null)).thenReturn(whole);
+    doThrow(new DocumentModifiedException("Document content changed while being read"))
+        .when(documentContentService)
+        .transfer(eq(whole), any());
+
+    mockMvc
+        .perform(get("/document-management/download/{documentId}/content", DOCUMENT_ID))
+        .andExpect(status().isConflict())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE));
+  }
+}
@@ -0,0 +1,69 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ImportFormat;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentImportService;
+import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(DocumentImportController.class)
+@Import({DocumentManagementProperties.class, DocumentValidator.class})
+@TestPropertySource(properties = "document-management.bulk-import.enabled=true")
+class DocumentImportControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private DocumentImportService documentImportService;
+
+  @Test
+  void shouldImportCsvBody() throws Exception {
+    when(documentImportService.importDocuments(any(), eq(ImportFormat.CSV)))
+        .thenReturn(
+            DocumentImportResponse.builder()
+                .imported(2L)
+                .rejected(0L)
+                .chunks(1)
+                .elapsedMs(5L)
+                .errors(List.of())
+                .build());
+
+    mockMvc
+        .perform(
+            post("/document-management/admin/import")
+                .contentType("text/csv; charset=UTF-8")
+                .content("user,name,minio_path,size,tags\nalice,a,alice/a.pdf,1,t\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.chunks").value(1));
+  }
+
+  @Test
+  void shouldRejectUnsupportedContentType() throws Exception {
+    mockMvc
+        .perform(
+            post("/document-management/admin/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentImportService, never()).importDocuments(any(), any());
+  }
+}
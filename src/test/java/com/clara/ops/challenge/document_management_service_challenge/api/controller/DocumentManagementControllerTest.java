@@ -1,39 +1,69 @@
 package com.clara.ops.challenge.document_management_service_challenge.api.controller;
 
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrl;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrlRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrlResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BundleDownloadRequest;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDownloadUrlResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagRequest;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentTagsUpdateRequest;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.Metadata;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.PaginatedDocumentSearchResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.SuggestionResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.TagFacet;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.UploadDocumentRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.UserUsageResponse;
 import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.QuotaExceededException;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentBundleService;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentDeletionService;
 import com.clara.ops.challenge.document_management_service_challenge.service.DocumentService;
+import com.clara.ops.challenge.document_management_service_challenge.service.DocumentTagService;
+import com.clara.ops.challenge.document_management_service_challenge.service.SuggestionService;
+import com.clara.ops.challenge.document_management_service_challenge.service.UserUsageService;
 import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -49,6 +79,16 @@ class DocumentManagementControllerTest {
 
   @MockitoBean private DocumentService documentService;
 
+  @MockitoBean private SuggestionService suggestionService;
+
+  @MockitoBean private DocumentBundleService documentBundleService;
+
+  @MockitoBean private DocumentDeletionService documentDeletionService;
+
+  @MockitoBean private DocumentTagService documentTagService;
+
+  @MockitoBean private UserUsageService userUsageService;
+
   @MockitoBean private DocumentValidator documentValidator;
 
   private UploadDocumentRequest uploadRequest;
@@ -122,7 +162,8 @@ class DocumentManagementControllerTest {
 
   @Test
   void shouldReturnSearchResultsWhenSearchingDocuments() throws Exception {
-    when(documentService.searchDocuments(any(), anyInt(), anyInt())).thenReturn(searchResponse);
+    when(documentService.searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean()))
+        .thenReturn(searchResponse);
 
     mockMvc
         .perform(
@@ -135,7 +176,173 @@ class DocumentManagementControllerTest {
         .andExpect(jsonPath("$.metadata.totalItems").value(1))
         .andExpect(jsonPath("$.documents[0].user").value("testuser"));
 
-    verify(documentService, times(1)).searchDocuments(any(), eq(0), eq(20));
+    verify(documentService, times(1)).searchDocuments(any(), eq(0), eq(20), isNull(), eq(false));
+  }
+
+  @Test
+  void shouldReturnNotModifiedUntilUserCollectionChanges() throws Exception {
+    when(documentService.getCollectionVersion("testuser")).thenReturn(3L, 4L);
+    when(documentService.searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean()))
+        .thenReturn(
+            searchResponse.toBuilder().collectionVersion(3L).build(),
+            searchResponse.toBuilder().collectionVersion(4L).build());
+    String filters = objectMapper.writeValueAsString(searchFilters);
+
+    String etag =
+        mockMvc
+            .perform(
+                post("/document-management/search")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(filters))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"3-")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(filters)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(filters)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"4-")));
+
+    verify(documentService, times(2))
+        .searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean());
+    verify(documentService, times(2)).getCollectionVersion("testuser");
+  }
+
+  @Test
+  void shouldTagResultsWithTheVersionReadInTheSearch() throws Exception {
+    // The check may see a newer version than the replica the search then reads from
+    when(documentService.getCollectionVersion("testuser")).thenReturn(5L);
+    when(documentService.searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean()))
+        .thenReturn(searchResponse.toBuilder().collectionVersion(4L).build());
+
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchFilters))
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-stale\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"4-")))
+        .andExpect(jsonPath("$.collectionVersion").doesNotExist());
+  }
+
+  @Test
+  void shouldNotTagSearchesWithoutUserFilter() throws Exception {
+    when(documentService.searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean()))
+        .thenReturn(searchResponse);
+
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}")
+                .header(HttpHeaders.IF_NONE_MATCH, "*"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+    verify(documentService, never()).getCollectionVersion(any());
+  }
+
+  @Test
+  void shouldRequestFacetsWhenFacetsParamIsTrue() throws Exception {
+    searchResponse.setFacets(Arrays.asList(TagFacet.builder().tag("tag1").count(1L).build()));
+    when(documentService.searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean()))
+        .thenReturn(searchResponse);
+
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchFilters))
+                .param("facets", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.facets[0].tag").value("tag1"))
+        .andExpect(jsonPath("$.facets[0].count").value(1));
+
+    verify(documentService, times(1)).searchDocuments(any(), eq(0), anyInt(), isNull(), eq(true));
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenSortIsRejected() throws Exception {
+    doThrow(new InvalidDocumentException("Sorting by 'name' requires a user filter"))
+        .when(documentValidator)
+        .validateSort(eq("name,asc"), any());
+
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}")
+                .param("sort", "name,asc"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentService, never())
+        .searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean());
+  }
+
+  @Test
+  void shouldReturnServiceUnavailableWhenSearchTimesOut() throws Exception {
+    when(documentService.searchDocuments(any(), anyInt(), anyInt(), any(), anyBoolean()))
+        .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+    mockMvc
+        .perform(
+            post("/document-management/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchFilters)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+        .andExpect(jsonPath("$.status").value(503));
+  }
+
+  @Test
+  void shouldReturnSuggestionsWhenPrefixIsValid() throws Exception {
+    when(suggestionService.suggest("testuser", "inv", 10))
+        .thenReturn(
+            SuggestionResponse.builder()
+                .names(List.of("Invoice March"))
+                .tags(List.of("invoices"))
+                .build());
+
+    mockMvc
+        .perform(
+            get("/document-management/suggest").param("user", "testuser").param("prefix", "inv"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.names[0]").value("Invoice March"))
+        .andExpect(jsonPath("$.tags[0]").value("invoices"));
+
+    verify(documentValidator, times(1)).validateSuggestParams("testuser", "inv", 10);
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenSuggestLimitIsRejected() throws Exception {
+    doThrow(new InvalidDocumentException("Limit must be between 1 and 25"))
+        .when(documentValidator)
+        .validateSuggestParams("testuser", "inv", 500);
+
+    mockMvc
+        .perform(
+            get("/document-management/suggest")
+                .param("user", "testuser")
+                .param("prefix", "inv")
+                .param("limit", "500"))
+        .andExpect(status().isBadRequest());
+
+    verify(suggestionService, never()).suggest(anyString(), anyString(), anyInt());
   }
 
   @Test
@@ -151,6 +358,90 @@ class DocumentManagementControllerTest {
     verify(documentService, times(1)).getDownloadUrl(documentId);
   }
 
+  @Test
+  void shouldReturnNotModifiedWhenDownloadUrlIsUnchanged() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    when(documentService.getDownloadUrl(documentId)).thenReturn(downloadResponse);
+
+    String etag =
+        mockMvc
+            .perform(get("/document-management/download/{documentId}", documentId))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}", documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    when(documentService.getDownloadUrl(documentId))
+        .thenReturn(DocumentDownloadUrlResponse.builder().url("http://re-signed").build());
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}", documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.url").value("http://re-signed"));
+  }
+
+  @Test
+  void shouldAnswerNotModifiedFromCachedDownloadUrlWithoutLookingUpTheDocument() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    when(documentService.getDownloadUrl(documentId)).thenReturn(downloadResponse);
+    String etag =
+        mockMvc
+            .perform(get("/document-management/download/{documentId}", documentId))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    when(documentService.findCachedDownloadUrl(documentId))
+        .thenReturn(Optional.of(downloadResponse));
+
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}", documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+    verify(documentService, times(1)).getDownloadUrl(documentId);
+  }
+
+  @Test
+  void shouldRedirectToDownloadUrlCacheableUntilItExpires() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    downloadResponse.setExpiresAt(Instant.now().plusSeconds(1800));
+    when(documentService.getDownloadUrl(documentId)).thenReturn(downloadResponse);
+
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}", documentId).param("redirect", "true"))
+        .andExpect(status().isFound())
+        .andExpect(header().string(HttpHeaders.LOCATION, downloadResponse.getUrl()))
+        .andExpect(
+            header()
+                .string(HttpHeaders.CACHE_CONTROL, matchesPattern("max-age=1(79\\d|800), private")))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void shouldNotCacheRedirectToExpiredDownloadUrl() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    downloadResponse.setExpiresAt(Instant.now().minusSeconds(1));
+    when(documentService.getDownloadUrl(documentId)).thenReturn(downloadResponse);
+
+    mockMvc
+        .perform(
+            get("/document-management/download/{documentId}", documentId).param("redirect", "true"))
+        .andExpect(status().isFound())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+  }
+
   @Test
   void shouldReturnBadRequestWhenUploadingInvalidFileType() throws Exception {
     MockMultipartFile file =
@@ -201,4 +492,230 @@ class DocumentManagementControllerTest {
         .perform(get("/document-management/download/{documentId}", documentId))
         .andExpect(status().isNotFound());
   }
+
+  @Test
+  void shouldReturnDownloadUrlsForBatch() throws Exception {
+    List<String> documentIds =
+        List.of("123e4567-e89b-12d3-a456-426614174000", "123e4567-e89b-12d3-a456-426614174001");
+    Map<String, BatchDownloadUrl> urls = new LinkedHashMap<>();
+    urls.put(documentIds.get(0), BatchDownloadUrl.builder().found(true).url("http://url").build());
+    urls.put(documentIds.get(1), BatchDownloadUrl.builder().found(false).build());
+    when(documentService.getDownloadUrls(documentIds))
+        .thenReturn(BatchDownloadUrlResponse.builder().urls(urls).build());
+
+    mockMvc
+        .perform(
+            post("/document-management/download/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        BatchDownloadUrlRequest.builder().documentIds(documentIds).build())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.urls['123e4567-e89b-12d3-a456-426614174000'].found").value(true))
+        .andExpect(
+            jsonPath("$.urls['123e4567-e89b-12d3-a456-426614174000'].url").value("http://url"))
+        .andExpect(jsonPath("$.urls['123e4567-e89b-12d3-a456-426614174001'].found").value(false))
+        .andExpect(jsonPath("$.urls['123e4567-e89b-12d3-a456-426614174001'].url").doesNotExist());
+
+    verify(documentValidator, times(1)).validateDocumentIds(documentIds);
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenBatchIsInvalid() throws Exception {
+    doThrow(new InvalidDocumentException("At least one document ID is required"))
+        .when(documentValidator)
+        .validateDocumentIds(any());
+
+    mockMvc
+        .perform(
+            post("/document-management/download/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentService, never()).getDownloadUrls(any());
+  }
+
+  @Test
+  void shouldStreamBundleAsZipAttachment() throws Exception {
+    BundleDownloadRequest request =
+        BundleDownloadRequest.builder()
+            .documentIds(List.of("123e4567-e89b-12d3-a456-426614174000"))
+            .build();
+    when(documentBundleService.resolve(request)).thenReturn(List.of());
+
+    mockMvc
+        .perform(
+            post("/document-management/download/bundle")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/zip"))
+        .andExpect(
+            header()
+                .string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documents.zip\""));
+
+    verify(documentValidator, times(1)).validateBundleRequest(request);
+    verify(documentBundleService, times(1)).write(eq(List.of()), any());
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenBundleSelectionIsInvalid() throws Exception {
+    doThrow(new InvalidDocumentException("Provide either documentIds or filters"))
+        .when(documentValidator)
+        .validateBundleRequest(any());
+
+    mockMvc
+        .perform(
+            post("/document-management/download/bundle")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentBundleService, never()).resolve(any());
+  }
+
+  @Test
+  void shouldReturnNoContentWhenDocumentIsDeleted() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+
+    mockMvc.perform(delete("/document-management/" + documentId)).andExpect(status().isNoContent());
+
+    verify(documentValidator, times(1)).validateDocumentId(documentId);
+    verify(documentDeletionService, times(1)).deleteDocument(documentId);
+  }
+
+  @Test
+  void shouldReturnNotFoundWhenDeletedDocumentDoesNotExist() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    doThrow(new DocumentNotFoundException("Document not found with id: " + documentId))
+        .when(documentDeletionService)
+        .deleteDocument(documentId);
+
+    mockMvc.perform(delete("/document-management/" + documentId)).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void shouldReturnCountOfDocumentsDeletedByFilter() throws Exception {
+    when(documentDeletionService.deleteDocuments(searchFilters)).thenReturn(42L);
+
+    mockMvc
+        .perform(
+            post("/document-management/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchFilters)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.deleted").value(42));
+
+    verify(documentValidator, times(1)).validateDeleteFilters(searchFilters);
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenBulkDeleteHasNoUser() throws Exception {
+    doThrow(new InvalidDocumentException("A user filter is required to delete documents by filter"))
+        .when(documentValidator)
+        .validateDeleteFilters(any());
+
+    mockMvc
+        .perform(
+            post("/document-management/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentDeletionService, never()).deleteDocuments(any());
+  }
+
+  @Test
+  void shouldReturnDocumentWithUpdatedTags() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    DocumentTagsUpdateRequest request =
+        DocumentTagsUpdateRequest.builder().add(List.of("tag3")).remove(List.of("tag1")).build();
+    when(documentTagService.updateTags(documentId, request))
+        .thenReturn(DocumentDto.builder().id(documentId).tags(List.of("tag2", "tag3")).build());
+
+    mockMvc
+        .perform(
+            patch("/document-management/" + documentId + "/tags")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.tags[1]").value("tag3"));
+
+    verify(documentValidator, times(1)).validateDocumentId(documentId);
+    verify(documentValidator, times(1)).validateTagChanges(List.of("tag3"), List.of("tag1"));
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenTagUpdateHasNoChanges() throws Exception {
+    String documentId = "123e4567-e89b-12d3-a456-426614174000";
+    doThrow(new InvalidDocumentException("At least one tag to add or remove is required"))
+        .when(documentValidator)
+        .validateTagChanges(any(), any());
+
+    mockMvc
+        .perform(
+            patch("/document-management/" + documentId + "/tags")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentTagService, never()).updateTags(any(), any());
+  }
+
+  @Test
+  void shouldReturnCountOfDocumentsRetaggedByFilter() throws Exception {
+    DocumentRetagRequest request =
+        DocumentRetagRequest.builder().filters(searchFilters).add(List.of("archived")).build();
+    when(documentTagService.retagDocuments(request)).thenReturn(7L);
+
+    mockMvc
+        .perform(
+            post("/document-management/retag")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(7));
+
+    verify(documentValidator, times(1)).validateRetagRequest(request);
+  }
+
+  @Test
+  void shouldReturnUsageOfUser() throws Exception {
+    when(userUsageService.getUsage("testuser"))
+        .thenReturn(
+            UserUsageResponse.builder()
+                .user("testuser")
+                .documentCount(3L)
+                .totalBytes(2048L)
+                .build());
+
+    mockMvc
+        .perform(get("/document-management/usage").param("user", " testuser "))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.documentCount").value(3))
+        .andExpect(jsonPath("$.totalBytes").value(2048));
+
+    verify(documentValidator, times(1)).validateUsageUser(" testuser ");
+  }
+
+  @Test
+  void shouldReturnForbiddenWhenUploadExceedsQuota() throws Exception {
+    MockMultipartFile file =
+        new MockMultipartFile("file", "test.pdf", "application/pdf", "test content".getBytes());
+    MockMultipartFile metadata =
+        new MockMultipartFile(
+            "metadata",
+            "",
+            MediaType.APPLICATION_JSON_VALUE,
+            objectMapper.writeValueAsBytes(uploadRequest));
+    doThrow(new QuotaExceededException("Storage quota exceeded for user: testuser"))
+        .when(documentService)
+        .uploadDocument(any(), any());
+
+    mockMvc
+        .perform(multipart("/document-management/upload").file(file).file(metadata))
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.message").value("Storage quota exceeded for user: testuser"));
+  }
 }
@@ -0,0 +1,75 @@
+package com.clara.ops.challenge.document_management_service_challenge.api.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.StorageReconciliationResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.service.StorageReconciliationService;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(StorageReconciliationController.class)
+@Import(DocumentManagementProperties.class)
+@TestPropertySource(properties = "document-management.reconciliation.enabled=true")
+class StorageReconciliationControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private StorageReconciliationService storageReconciliationService;
+
+  @Test
+  void shouldStartReconciliationInTheBackground() throws Exception {
+    when(storageReconciliationService.startReconciliation()).thenReturn(true);
+
+    mockMvc
+        .perform(post("/document-management/admin/reconciliation"))
+        .andExpect(status().isAccepted());
+  }
+
+  @Test
+  void shouldReturnConflictWhenReconciliationIsAlreadyRunning() throws Exception {
+    when(storageReconciliationService.startReconciliation()).thenReturn(false);
+
+    mockMvc
+        .perform(post("/document-management/admin/reconciliation"))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  void shouldReturnTheLastReport() throws Exception {
+    when(storageReconciliationService.getLastReport())
+        .thenReturn(
+            Optional.of(
+                StorageReconciliationResponse.builder()
+                    .objectsScanned(3L)
+                    .orphanedObjects(1L)
+                    .orphanedPaths(List.of("alice/a.pdf"))
+                    .build()));
+
+    mockMvc
+        .perform(get("/document-management/admin/reconciliation"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.objectsScanned").value(3))
+        .andExpect(jsonPath("$.orphanedPaths[0]").value("alice/a.pdf"));
+  }
+
+  @Test
+  void shouldReturnNoContentBeforeTheFirstReport() throws Exception {
+    when(storageReconciliationService.getLastReport()).thenReturn(Optional.empty());
+
+    mockMvc
+        .perform(get("/document-management/admin/reconciliation"))
+        .andExpect(status().isNoContent());
+  }
+}
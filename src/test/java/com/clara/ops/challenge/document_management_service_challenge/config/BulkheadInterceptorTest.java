@@ -0,0 +1,152 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import com.clara.ops.challenge.document_management_service_challenge.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+class BulkheadInterceptorTest {
+
+  private final DocumentManagementProperties.Bulkhead properties =
+      new DocumentManagementProperties.Bulkhead();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  private BulkheadInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    properties.setUpload(new DocumentManagementProperties.Limit(1, 0, 0L, 1));
+    properties.setDownload(new DocumentManagementProperties.Limit(1, 1, 5_000L, 1));
+    interceptor = new BulkheadInterceptor(properties, Optional.of(meterRegistry));
+  }
+
+  @AfterEach
+  void tearDown() {
+    WorkloadContext.exit();
+  }
+
+  @Test
+  void shouldRejectRequestOverLimitWhenQueueIsFull() throws Exception {
+    MockHttpServletRequest first = new MockHttpServletRequest();
+    interceptor.preHandle(first, response, handler("upload"));
+
+    assertThatThrownBy(
+            () -> interceptor.preHandle(new MockHttpServletRequest(), response, handler("upload")))
+        .isInstanceOf(ServiceOverloadedException.class);
+    assertThat(rejected(Workload.UPLOAD)).isEqualTo(1.0);
+    assertThat(interceptor.active(Workload.UPLOAD)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepCapacityOfOtherWorkloads() throws Exception {
+    interceptor.preHandle(new MockHttpServletRequest(), response, handler("upload"));
+
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("download")))
+        .isTrue();
+    assertThat(interceptor.active(Workload.DOWNLOAD)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepUploadCapacityFromMutations() throws Exception {
+    interceptor.preHandle(new MockHttpServletRequest(), response, handler("mutate"));
+
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("upload")))
+        .isTrue();
+    assertThat(interceptor.active(Workload.MUTATE)).isEqualTo(1);
+    assertThat(interceptor.active(Workload.UPLOAD)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReleasePermitOnCompletion() throws Exception {
+    MockHttpServletRequest first = new MockHttpServletRequest();
+    interceptor.preHandle(first, response, handler("upload"));
+    interceptor.afterCompletion(first, response, handler("upload"), null);
+    interceptor.afterCompletion(first, response, handler("upload"), null);
+
+    assertThat(interceptor.active(Workload.UPLOAD)).isZero();
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("upload")))
+        .isTrue();
+  }
+
+  @Test
+  void shouldAdmitQueuedRequestWhenPermitIsReleased() throws Exception {
+    MockHttpServletRequest first = new MockHttpServletRequest();
+    interceptor.preHandle(first, response, handler("download"));
+
+    CompletableFuture<Boolean> queued =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return interceptor.preHandle(
+                    new MockHttpServletRequest(), response, handler("download"));
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    while (meterRegistry.get("document.bulkhead.queued").tag("workload", "download").gauge().value()
+        < 1) {
+      Thread.onSpinWait();
+    }
+    interceptor.afterCompletion(first, response, handler("download"), null);
+
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(interceptor.active(Workload.DOWNLOAD)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepTheWorkloadOfTheRequestUntilItCompletes() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    interceptor.preHandle(request, response, handler("upload"));
+
+    assertThat(WorkloadContext.current()).contains(Workload.UPLOAD);
+
+    interceptor.afterCompletion(request, response, handler("upload"), null);
+
+    assertThat(WorkloadContext.current()).isEmpty();
+  }
+
+  @Test
+  void shouldNotLimitHandlersWithoutWorkload() throws Exception {
+    for (int request = 0; request < 3; request++) {
+      assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("health")))
+          .isTrue();
+    }
+  }
+
+  private double rejected(Workload workload) {
+    return meterRegistry
+        .get("document.bulkhead.rejected")
+        .tag("workload", workload.getKey())
+        .counter()
+        .count();
+  }
+
+  private static HandlerMethod handler(String method) throws NoSuchMethodException {
+    return new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(method));
+  }
+
+  static class Handlers {
+    @Bulkhead(Workload.UPLOAD)
+    void upload() {}
+
+    @Bulkhead(Workload.MUTATE)
+    void mutate() {}
+
+    @Bulkhead(Workload.DOWNLOAD)
+    void download() {}
+
+    void health() {}
+  }
+}
@@ -100,6 +100,16 @@ class MinioConfigTest {
         .hasMessageContaining("MinIO bucket name");
   }
 
+  @Test
+  void shouldThrowExceptionWhenRegionIsBlank() {
+    minioProperties.setRegion(" ");
+    minioConfig = new MinioConfig(minioProperties);
+
+    assertThatThrownBy(() -> minioConfig.minioClient())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("MinIO region");
+  }
+
   @Test
   void shouldVerifyMinioPropertiesAccessors() {
     assertThat(minioProperties.getEndpoint()).isEqualTo("http://localhost:9000");
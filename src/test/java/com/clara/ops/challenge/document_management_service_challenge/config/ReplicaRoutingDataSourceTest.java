@@ -0,0 +1,75 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTest {
+
+  private ReplicaRoutingDataSource routingDataSource;
+
+  @BeforeEach
+  void setUp() {
+    routingDataSource = new ReplicaRoutingDataSource(List.of("replica-0", "replica-1"));
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    TransactionSynchronizationManager.clear();
+  }
+
+  @Test
+  void shouldRouteReadWriteTransactionsToPrimary() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+    assertThat(routingDataSource.determineCurrentLookupKey())
+        .isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+  }
+
+  @Test
+  void shouldRouteReadOnlyTransactionsToReplicasInRoundRobin() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+    assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+  }
+
+  @Test
+  void shouldRouteReadOnlyTransactionsToPrimaryWhenForced() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+
+    assertThat(routingDataSource.determineCurrentLookupKey())
+        .isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+  }
+
+  @Test
+  void shouldClearPrimaryOverrideWhenTransactionCompletes() {
+    DataSourceRoutingContext.usePrimaryForCurrentTransaction();
+    assertThat(DataSourceRoutingContext.isPrimaryForced()).isTrue();
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+    assertThat(DataSourceRoutingContext.isPrimaryForced()).isFalse();
+  }
+
+  @Test
+  void shouldRouteToPrimaryWhenNoReplicasAreConfigured() {
+    ReplicaRoutingDataSource withoutReplicas = new ReplicaRoutingDataSource(List.of());
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertThat(withoutReplicas.determineCurrentLookupKey())
+        .isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+  }
+}
@@ -0,0 +1,98 @@
+package com.clara.ops.challenge.document_management_service_challenge.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.Workload;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WorkloadConnectionBudgetTest {
+
+  private final DataSource target = mock(DataSource.class);
+
+  private WorkloadConnectionBudget budget;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    DocumentManagementProperties.Bulkhead properties = new DocumentManagementProperties.Bulkhead();
+    properties.setUpload(new DocumentManagementProperties.Limit(3, 0, 0L, 1));
+    properties.setSearch(new DocumentManagementProperties.Limit(3, 0, 0L, 1));
+    when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    budget = new WorkloadConnectionBudget(target, properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    WorkloadContext.exit();
+  }
+
+  @Test
+  void shouldFailLikeAnExhaustedPoolWhenTheWorkloadHoldsItsBudget() throws SQLException {
+    WorkloadContext.enter(Workload.UPLOAD);
+    budget.getConnection();
+
+    assertThatThrownBy(budget::getConnection)
+        .isInstanceOf(SQLTransientConnectionException.class)
+        .hasMessage("No connection left in the upload budget");
+    assertThat(budget.inUse(Workload.UPLOAD)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepTheBudgetOfOtherWorkloads() throws SQLException {
+    WorkloadContext.enter(Workload.UPLOAD);
+    budget.getConnection();
+
+    WorkloadContext.enter(Workload.SEARCH);
+    assertThat(budget.getConnection()).isNotNull();
+    assertThat(budget.inUse(Workload.SEARCH)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldHandTheConnectionBackOnceWhenClosed() throws SQLException {
+    WorkloadContext.enter(Workload.UPLOAD);
+    Connection connection = budget.getConnection();
+    connection.close();
+    connection.close();
+
+    assertThat(budget.inUse(Workload.UPLOAD)).isZero();
+    budget.getConnection();
+    assertThat(budget.inUse(Workload.UPLOAD)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCloseTheUnderlyingConnection() throws SQLException {
+    Connection underlying = mock(Connection.class);
+    when(target.getConnection()).thenReturn(underlying);
+    WorkloadContext.enter(Workload.UPLOAD);
+
+    budget.getConnection().close();
+
+    verify(underlying).close();
+  }
+
+  @Test
+  void shouldHandThePermitBackWhenThePoolFails() throws SQLException {
+    when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+    WorkloadContext.enter(Workload.UPLOAD);
+
+    assertThatThrownBy(budget::getConnection).hasMessage("pool exhausted");
+    assertThat(budget.inUse(Workload.UPLOAD)).isZero();
+  }
+
+  @Test
+  void shouldNotChargeConnectionsTakenOutsideARequest() throws SQLException {
+    budget.getConnection();
+    budget.getConnection();
+
+    assertThat(budget.inUse(Workload.UPLOAD)).isZero();
+  }
+}
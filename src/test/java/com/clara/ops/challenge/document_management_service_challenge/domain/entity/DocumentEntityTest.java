@@ -50,6 +50,19 @@ class DocumentEntityTest {
     assertThat(document.getTags()).hasSize(3).containsExactly(tag1, tag2, tag3);
   }
 
+  @Test
+  void shouldKeepTagNamesInSyncWithTags() {
+    TagEntity beta = TagEntity.builder().tagName("beta").build();
+    TagEntity alpha = TagEntity.builder().tagName("alpha").build();
+
+    document.addTag(beta);
+    document.addTag(alpha);
+    assertThat(document.getTagNames()).containsExactly("alpha", "beta");
+
+    document.removeTag(beta);
+    assertThat(document.getTagNames()).containsExactly("alpha");
+  }
+
   @Test
   void shouldInitializeTagsListWhenNull() {
     TagEntity tag = new TagEntity();
@@ -0,0 +1,39 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+  @Test
+  void shouldGenerateVersion7UuidsWithCurrentTimestamp() {
+    long before = System.currentTimeMillis();
+    UUID uuid = UuidV7Generator.generate();
+
+    assertThat(uuid.version()).isEqualTo(7);
+    assertThat(uuid.variant()).isEqualTo(2);
+    assertThat(uuid.getMostSignificantBits() >>> 16)
+        .isBetween(before, System.currentTimeMillis() + 1);
+  }
+
+  @Test
+  void shouldGenerateStrictlyIncreasingUniqueIds() {
+    List<UUID> uuids = new ArrayList<>();
+    for (int i = 0; i < 50_000; i++) {
+      uuids.add(UuidV7Generator.generate());
+    }
+
+    // Unsigned byte order, as PostgreSQL compares uuid values
+    Comparator<UUID> byteOrder =
+        Comparator.comparing((UUID uuid) -> uuid.getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+    assertThat(uuids).isSortedAccordingTo(byteOrder);
+    assertThat(new HashSet<>(uuids)).hasSize(uuids.size());
+  }
+}
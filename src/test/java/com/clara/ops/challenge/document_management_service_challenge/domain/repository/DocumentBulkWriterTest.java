@@ -0,0 +1,80 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.UuidV7Generator;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DocumentBulkWriter.class)
+class DocumentBulkWriterTest {
+
+  private static final LocalDateTime CREATED_AT =
+      LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+
+  @Autowired private DocumentBulkWriter documentBulkWriter;
+
+  @Autowired private DocumentRepository documentRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void shouldInsertDocumentsWithTheirTags() {
+    DocumentEntity first = document("alice", "report.pdf", "2024", "finance");
+    DocumentEntity second = document("bob", "scan.pdf", "archive");
+
+    documentBulkWriter.insert(List.of(first, second));
+    entityManager.clear();
+
+    DocumentEntity stored = documentRepository.findById(first.getId()).orElseThrow();
+    assertThat(stored.getUserName()).isEqualTo("alice");
+    assertThat(stored.getCreatedAt()).isEqualTo(CREATED_AT);
+    assertThat(stored.getTagNames()).containsExactly("2024", "finance");
+    assertThat(stored.getTags())
+        .extracting(TagEntity::getTagName)
+        .containsExactlyInAnyOrder("finance", "2024");
+    assertThat(stored.getTags())
+        .extracting(TagEntity::getDocumentCreatedAt)
+        .containsOnly(CREATED_AT);
+    assertThat(documentRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldQuoteCopyFieldsAndArrayElements() {
+    DocumentEntity document = document("alice", "say \"hi\", twice.pdf", "a,b", "back\\slash");
+    document.setId(UUID.fromString("018f0000-0000-7000-8000-000000000001"));
+
+    assertThat(DocumentBulkWriter.documentRow(document))
+        .isEqualTo(
+            "\"018f0000-0000-7000-8000-000000000001\",\"alice\",\"say \"\"hi\"\", twice.pdf\","
+                + "\"alice/say \"\"hi\"\", twice.pdf\",\"10\",\"application/pdf\","
+                + "\"{\"\"a,b\"\",\"\"back\\\\slash\"\"}\","
+                + "\"2024-03-01 12:00:00.123456\",\"2024-03-01 12:00:00.123456\"\n");
+    assertThat(DocumentBulkWriter.tagRows(document).lines()).hasSize(2);
+  }
+
+  private static DocumentEntity document(String user, String name, String... tags) {
+    return DocumentEntity.builder()
+        .id(UuidV7Generator.generate())
+        .userName(user)
+        .documentName(name)
+        .minioPath(user + "/" + name)
+        .fileSize(10L)
+        .fileType("application/pdf")
+        .createdAt(CREATED_AT)
+        .updatedAt(CREATED_AT)
+        .tagNames(tags)
+        .build();
+  }
+}
@@ -0,0 +1,63 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathReader.DocumentPath;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DocumentPathReader.class)
+class DocumentPathReaderTest {
+
+  @Autowired private DocumentPathReader documentPathReader;
+
+  @Autowired private DocumentRepository documentRepository;
+
+  @Test
+  void shouldReturnThePathsOfTheRangeInPathOrder() {
+    save("a/1.pdf");
+    save("b/2.pdf");
+    DocumentEntity deleted = save("b/1.pdf");
+    save("c/1.pdf");
+    documentRepository.markDeleted(List.of(deleted.getId()), LocalDateTime.now());
+
+    List<DocumentPath> page = documentPathReader.findPage("a/1.pdf", null, "b/2.pdf", 10);
+
+    assertThat(page).extracting(DocumentPath::minioPath).containsExactly("b/1.pdf", "b/2.pdf");
+    assertThat(page).extracting(DocumentPath::deleted).containsExactly(true, false);
+  }
+
+  @Test
+  void shouldPageThroughDocumentsSharingAPath() {
+    save("a/1.pdf");
+    save("a/1.pdf");
+    save("a/2.pdf");
+
+    List<DocumentPath> first = documentPathReader.findPage(null, null, null, 1);
+    List<DocumentPath> second =
+        documentPathReader.findPage(first.get(0).minioPath(), first.get(0).id(), null, 10);
+
+    assertThat(first).extracting(DocumentPath::minioPath).containsExactly("a/1.pdf");
+    assertThat(second).extracting(DocumentPath::minioPath).containsExactly("a/1.pdf", "a/2.pdf");
+    assertThat(second.get(0).id()).isNotEqualTo(first.get(0).id());
+  }
+
+  private DocumentEntity save(String minioPath) {
+    return documentRepository.saveAndFlush(
+        DocumentEntity.builder()
+            .userName("alice")
+            .documentName(minioPath)
+            .minioPath(minioPath)
+            .fileSize(10L)
+            .fileType("application/pdf")
+            .build());
+  }
+}
@@ -1,15 +1,25 @@
 package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.TagMatchMode;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -50,7 +60,9 @@ class DocumentRepositoryTest {
             .build();
 
     TagEntity tag3 = TagEntity.builder().tagName("tag3").build();
+    TagEntity sharedTag = TagEntity.builder().tagName("tag1").build();
     document2.addTag(tag3);
+    document2.addTag(sharedTag);
 
     entityManager.persist(document1);
     entityManager.persist(document2);
@@ -81,6 +93,8 @@ class DocumentRepositoryTest {
     DocumentEntity saved = documentRepository.save(newDoc);
 
     assertThat(saved.getId()).isNotNull();
+    assertThat(saved.getId().version()).isEqualTo(7);
+    assertThat(saved.getId()).isGreaterThan(document2.getId());
     assertThat(saved.getUserName()).isEqualTo("user3");
     assertThat(saved.getTags()).hasSize(1);
   }
@@ -116,4 +130,256 @@ class DocumentRepositoryTest {
 
     assertThat(finalTagCount).isLessThan(initialTagCount);
   }
+
+  @Test
+  void shouldCountTopTagsOverFilteredDocuments() {
+    Map<String, Long> allCounts =
+        documentRepository.countTopTags(
+            DocumentSpecification.withFilters(new DocumentSearchFilters()), 10);
+
+    assertThat(allCounts).containsExactly(entry("tag1", 2L), entry("tag2", 1L), entry("tag3", 1L));
+
+    Map<String, Long> user2Counts =
+        documentRepository.countTopTags(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder().user("user2").build()),
+            10);
+
+    assertThat(user2Counts).containsExactly(entry("tag1", 1L), entry("tag3", 1L));
+  }
+
+  @Test
+  void shouldLimitTopTagsToRequestedSize() {
+    Map<String, Long> counts =
+        documentRepository.countTopTags(
+            DocumentSpecification.withFilters(new DocumentSearchFilters()), 1);
+
+    assertThat(counts).containsExactly(entry("tag1", 2L));
+  }
+
+  @Test
+  void shouldFilterDocumentsBySizeRange() {
+    List<DocumentEntity> documents =
+        documentRepository.findAll(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder().minSize(2000L).maxSize(4096L).build()));
+
+    assertThat(documents).extracting(DocumentEntity::getDocumentName).containsExactly("doc2.pdf");
+  }
+
+  @Test
+  void shouldFilterDocumentsByHalfOpenCreatedRange() {
+    entityManager.clear();
+    LocalDateTime createdAt =
+        documentRepository.findById(document1.getId()).orElseThrow().getCreatedAt();
+
+    List<DocumentEntity> fromCreation =
+        documentRepository.findAll(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder()
+                    .createdFrom(createdAt)
+                    .createdTo(createdAt.plusDays(1))
+                    .build()));
+    List<DocumentEntity> endingAtCreation =
+        documentRepository.findAll(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder()
+                    .createdFrom(createdAt.minusDays(1))
+                    .createdTo(createdAt)
+                    .build()));
+
+    assertThat(fromCreation).extracting(DocumentEntity::getId).contains(document1.getId());
+    assertThat(endingAtCreation)
+        .extracting(DocumentEntity::getId)
+        .doesNotContain(document1.getId());
+  }
+
+  @Test
+  void shouldFindDistinctSuggestionTermsForUser() {
+    List<String> names =
+        documentRepository.findDistinctDocumentNames("user2", PageRequest.of(0, 10));
+    List<String> tags = documentRepository.findDistinctTagNames("user2", PageRequest.of(0, 10));
+
+    assertThat(names).containsExactly("doc2.pdf");
+    assertThat(tags).containsExactly("tag1", "tag3");
+  }
+
+  @Test
+  void shouldCopyDocumentCreationDateToTags() {
+    assertThat(document1.getTags())
+        .extracting(TagEntity::getDocumentCreatedAt)
+        .containsOnly(document1.getCreatedAt());
+  }
+
+  @Test
+  void shouldReturnOlderDocumentsAfterKeysetCursor() {
+    entityManager.clear();
+    DocumentEntity newest =
+        documentRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id")).get(0);
+
+    List<DocumentEntity> nextPage =
+        documentRepository.findAll(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder()
+                    .beforeCreatedAt(newest.getCreatedAt())
+                    .beforeId(newest.getId())
+                    .build()));
+
+    assertThat(nextPage).extracting(DocumentEntity::getId).doesNotContain(newest.getId());
+    assertThat(nextPage).hasSize(1);
+  }
+
+  @Test
+  void shouldMatchAllRequestedTagsByDefault() {
+    List<DocumentEntity> documents =
+        documentRepository.findAll(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder().tags(List.of("tag1", "tag3")).build()));
+
+    assertThat(documents).extracting(DocumentEntity::getDocumentName).containsExactly("doc2.pdf");
+  }
+
+  @Test
+  void shouldMatchAnyRequestedTagWhenModeIsAny() {
+    List<DocumentEntity> documents =
+        documentRepository.findAll(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder()
+                    .tags(List.of("tag2", "tag3"))
+                    .tagMatch(TagMatchMode.ANY)
+                    .build()));
+
+    assertThat(documents)
+        .extracting(DocumentEntity::getDocumentName)
+        .containsExactlyInAnyOrder("doc1.pdf", "doc2.pdf");
+  }
+
+  @Test
+  void shouldFindOnlyIdAndPathOfRequestedDocuments() {
+    List<DocumentPathView> paths =
+        documentRepository.findPathsByIdIn(List.of(document1.getId(), UUID.randomUUID()));
+
+    assertThat(paths)
+        .extracting(DocumentPathView::getId, DocumentPathView::getMinioPath)
+        .containsExactly(tuple(document1.getId(), document1.getMinioPath()));
+  }
+
+  @Test
+  void shouldFindFilesOfRequestedDocuments() {
+    List<DocumentFileView> files =
+        documentRepository.findFilesByIdIn(List.of(document2.getId(), UUID.randomUUID()));
+
+    assertThat(files)
+        .extracting(
+            DocumentFileView::getId,
+            DocumentFileView::getDocumentName,
+            DocumentFileView::getMinioPath)
+        .containsExactly(tuple(document2.getId(), "doc2.pdf", "user2/doc2.pdf"));
+  }
+
+  @Test
+  void shouldProjectFilteredDocumentsToFiles() {
+    List<DocumentFileView> files =
+        documentRepository.findBy(
+            DocumentSpecification.withFilters(
+                DocumentSearchFilters.builder().tags(List.of("tag1")).build()),
+            query ->
+                query
+                    .as(DocumentFileView.class)
+                    .sortBy(Sort.by(Sort.Direction.ASC, "documentName"))
+                    .limit(1)
+                    .all());
+
+    assertThat(files)
+        .extracting(DocumentFileView::getDocumentName, DocumentFileView::getMinioPath)
+        .containsExactly(tuple("doc1.pdf", "user1/doc1.pdf"));
+  }
+
+  @Test
+  void shouldFindOnlyMinioPathById() {
+    assertThat(documentRepository.findMinioPathById(document1.getId())).contains("user1/doc1.pdf");
+    assertThat(documentRepository.findMinioPathById(UUID.randomUUID())).isEmpty();
+  }
+
+  @Test
+  void shouldHideDeletedDocumentsFromReads() {
+    assertThat(documentRepository.markDeleted(List.of(document1.getId()), LocalDateTime.now()))
+        .isEqualTo(1);
+    entityManager.clear();
+
+    assertThat(documentRepository.findMinioPathById(document1.getId())).isEmpty();
+    assertThat(documentRepository.findPathsByIdIn(List.of(document1.getId()))).isEmpty();
+    assertThat(documentRepository.findFilesByIdIn(List.of(document1.getId()))).isEmpty();
+    assertThat(documentRepository.findOwnerById(document1.getId())).isEmpty();
+    assertThat(documentRepository.findDistinctDocumentNames("user1", PageRequest.of(0, 10)))
+        .isEmpty();
+    assertThat(documentRepository.findDistinctTagNames("user1", PageRequest.of(0, 10))).isEmpty();
+    assertThat(
+            documentRepository.findAll(
+                DocumentSpecification.withFilters(
+                    DocumentSearchFilters.builder().tags(List.of("tag1")).build())))
+        .extracting(DocumentEntity::getId)
+        .containsExactly(document2.getId());
+    assertThat(documentRepository.markDeleted(List.of(document1.getId()), LocalDateTime.now()))
+        .isZero();
+  }
+
+  @Test
+  void shouldFindDeletedDocumentsAndPathsStillInUse() {
+    DocumentEntity replacement =
+        DocumentEntity.builder()
+            .userName("user1")
+            .documentName("doc1.pdf")
+            .minioPath("user1/doc1.pdf")
+            .fileSize(512L)
+            .fileType("application/pdf")
+            .build();
+    entityManager.persist(replacement);
+    LocalDateTime deletedAt = LocalDateTime.of(2030, 1, 1, 12, 0);
+    documentRepository.markDeleted(List.of(document1.getId()), deletedAt);
+    documentRepository.markDeleted(List.of(document2.getId()), deletedAt.plusSeconds(1));
+    documentRepository.requeueDeleted(List.of(document1.getId()), deletedAt.minusDays(1));
+    entityManager.clear();
+
+    assertThat(documentRepository.findDeleted(Limit.of(1)))
+        .extracting(
+            DeletedDocumentView::getId,
+            DeletedDocumentView::getUserName,
+            DeletedDocumentView::getDeletedAt)
+        .containsExactly(tuple(document1.getId(), "user1", deletedAt));
+    assertThat(
+            documentRepository.findLivePaths(
+                List.of("user1", "user2"), List.of("user1/doc1.pdf", "user2/doc2.pdf")))
+        .containsExactly("user1/doc1.pdf");
+  }
+
+  @Test
+  void shouldPurgeOnlyDeletedDocumentsWithTheirTags() {
+    documentRepository.markDeleted(List.of(document1.getId()), LocalDateTime.now());
+    List<UUID> ids = List.of(document1.getId(), document2.getId());
+
+    documentRepository.deleteTagsByDocumentIdIn(List.of(document1.getId()));
+    assertThat(documentRepository.deleteDeletedByIdIn(ids)).isEqualTo(1);
+    entityManager.clear();
+
+    assertThat(documentRepository.findAll())
+        .extracting(DocumentEntity::getId)
+        .containsExactly(document2.getId());
+    assertThat(documentRepository.findDeleted(Limit.of(10))).isEmpty();
+  }
+
+  @Test
+  void shouldFindOnlyLiveDocumentsCreatedBeforeTheCutoff() {
+    documentRepository.markDeleted(List.of(document2.getId()), LocalDateTime.now());
+    entityManager.clear();
+    List<UUID> ids = List.of(document1.getId(), document2.getId());
+
+    assertThat(
+            documentRepository.findLiveOwnersCreatedBefore(ids, LocalDateTime.now().plusHours(1)))
+        .extracting(DocumentOwnerView::getId)
+        .containsExactly(document1.getId());
+    assertThat(
+            documentRepository.findLiveOwnersCreatedBefore(ids, LocalDateTime.now().minusHours(1)))
+        .isEmpty();
+  }
 }
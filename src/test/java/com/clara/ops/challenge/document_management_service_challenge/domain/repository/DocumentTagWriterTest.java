@@ -0,0 +1,109 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DocumentTagWriter.class)
+class DocumentTagWriterTest {
+
+  private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+  @Autowired private DocumentTagWriter documentTagWriter;
+
+  @Autowired private DocumentRepository documentRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void shouldAddAndRemoveOnlyTheChangedTags() {
+    DocumentEntity document = save("report.pdf", "finance", "draft");
+    Long financeTagId = tagId(document, "finance");
+
+    int updated =
+        documentTagWriter.update(
+            List.of(document.getId()), Set.of("2024", "finance"), Set.of("draft"), UPDATED_AT);
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    DocumentEntity stored = documentRepository.findById(document.getId()).orElseThrow();
+    assertThat(stored.getTagNames()).containsExactly("2024", "finance");
+    assertThat(stored.getTags())
+        .extracting(TagEntity::getTagName)
+        .containsExactlyInAnyOrder("2024", "finance");
+    assertThat(stored.getTags())
+        .extracting(TagEntity::getDocumentCreatedAt)
+        .containsOnly(stored.getCreatedAt());
+    // The unchanged tag keeps its row
+    assertThat(tagId(stored, "finance")).isEqualTo(financeTagId);
+    assertThat(stored.getUpdatedAt()).isEqualTo(UPDATED_AT);
+  }
+
+  @Test
+  void shouldUpdateSeveralDocumentsAtOnce() {
+    DocumentEntity first = save("a.pdf", "old");
+    DocumentEntity second = save("b.pdf", "new");
+
+    int updated =
+        documentTagWriter.update(
+            List.of(first.getId(), second.getId()), Set.of("new"), Set.of("old"), UPDATED_AT);
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(2);
+    assertThat(documentRepository.findAllById(List.of(first.getId(), second.getId())))
+        .allSatisfy(stored -> assertThat(stored.getTagNames()).containsExactly("new"));
+  }
+
+  @Test
+  void shouldSkipDeletedAndUnknownDocuments() {
+    DocumentEntity document = save("report.pdf", "finance");
+    documentRepository.markDeleted(List.of(document.getId()), UPDATED_AT);
+
+    int updated =
+        documentTagWriter.update(
+            List.of(document.getId(), UUID.randomUUID()), Set.of("2024"), Set.of(), UPDATED_AT);
+    entityManager.clear();
+
+    assertThat(updated).isZero();
+    assertThat(documentRepository.findById(document.getId()).orElseThrow().getTagNames())
+        .containsExactly("finance");
+  }
+
+  private DocumentEntity save(String name, String... tags) {
+    DocumentEntity document =
+        DocumentEntity.builder()
+            .userName("alice")
+            .documentName(name)
+            .minioPath("alice/" + name)
+            .fileSize(10L)
+            .fileType("application/pdf")
+            .build();
+    for (String tag : tags) {
+      document.addTag(TagEntity.builder().tagName(tag).build());
+    }
+    DocumentEntity saved = documentRepository.saveAndFlush(document);
+    entityManager.clear();
+    return saved;
+  }
+
+  private static Long tagId(DocumentEntity document, String tagName) {
+    return document.getTags().stream()
+        .filter(tag -> tag.getTagName().equals(tagName))
+        .map(TagEntity::getId)
+        .findFirst()
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,37 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserCollectionVersionRepositoryTest {
+
+  @Autowired private UserCollectionVersionRepository userCollectionVersionRepository;
+
+  @Test
+  void shouldCreateVersionOnFirstIncrement() {
+    userCollectionVersionRepository.incrementVersion("user1");
+
+    assertThat(userCollectionVersionRepository.findVersionByUserName("user1")).contains(1L);
+  }
+
+  @Test
+  void shouldIncrementOnlyTheUsersVersion() {
+    userCollectionVersionRepository.incrementVersion("user1");
+    userCollectionVersionRepository.incrementVersion("user1");
+    userCollectionVersionRepository.incrementVersion("user2");
+
+    assertThat(userCollectionVersionRepository.findVersionByUserName("user1")).contains(2L);
+    assertThat(userCollectionVersionRepository.findVersionByUserName("user2")).contains(1L);
+  }
+
+  @Test
+  void shouldHaveNoVersionBeforeFirstWrite() {
+    assertThat(userCollectionVersionRepository.findVersionByUserName("unknown")).isEmpty();
+  }
+}
@@ -0,0 +1,96 @@
+package com.clara.ops.challenge.document_management_service_challenge.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.service.UserUsageFoldService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserUsageFoldService.class, DocumentManagementProperties.class})
+@TestPropertySource(properties = "document-management.usage.fold-enabled=true")
+class UserUsageRepositoryTest {
+
+  private static final LocalDateTime DELETED_AT = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+  @Autowired private UserUsageRepository userUsageRepository;
+
+  @Autowired private UserUsageDeltaRepository userUsageDeltaRepository;
+
+  @Autowired private DocumentRepository documentRepository;
+
+  @Autowired private UserUsageFoldService userUsageFoldService;
+
+  @Test
+  void shouldReportZeroUsageForUnknownUser() {
+    UserUsageView usage = userUsageRepository.findUsage("nobody");
+
+    assertThat(usage.getDocumentCount()).isZero();
+    assertThat(usage.getTotalBytes()).isZero();
+  }
+
+  @Test
+  void shouldAddPendingDeltasToFoldedTotals() {
+    userUsageRepository.addUsage("alice", 2, 300);
+    userUsageDeltaRepository.recordChange("alice", 1, 50);
+    userUsageDeltaRepository.recordChange("alice", -1, -100);
+    userUsageDeltaRepository.recordChange("bob", 1, 7);
+
+    UserUsageView usage = userUsageRepository.findUsage("alice");
+
+    assertThat(usage.getDocumentCount()).isEqualTo(2);
+    assertThat(usage.getTotalBytes()).isEqualTo(250);
+  }
+
+  @Test
+  void shouldRecordOnlyTheDocumentsMarkedWithTheTimestampAsDeleted() {
+    DocumentEntity first = save("a.pdf", 10L);
+    DocumentEntity second = save("b.pdf", 20L);
+    DocumentEntity earlier = save("c.pdf", 40L);
+    documentRepository.markDeleted(List.of(earlier.getId()), DELETED_AT.minusDays(1));
+    documentRepository.markDeleted(
+        List.of(first.getId(), second.getId(), earlier.getId()), DELETED_AT);
+
+    userUsageDeltaRepository.recordDeleted(
+        List.of(first.getId(), second.getId(), earlier.getId()), DELETED_AT);
+
+    UserUsageView usage = userUsageRepository.findUsage("alice");
+    assertThat(usage.getDocumentCount()).isEqualTo(-2);
+    assertThat(usage.getTotalBytes()).isEqualTo(-30);
+  }
+
+  @Test
+  void shouldFoldDeltasIntoTotalsWithoutChangingUsage() {
+    userUsageRepository.addUsage("alice", 1, 100);
+    userUsageDeltaRepository.recordChange("alice", 2, 30);
+    userUsageDeltaRepository.recordChange("bob", 1, 7);
+    userUsageDeltaRepository.recordChange("alice", -1, -10);
+
+    userUsageFoldService.foldUsageDeltas();
+
+    assertThat(userUsageDeltaRepository.count()).isZero();
+    assertThat(userUsageRepository.findById("alice").orElseThrow().getTotalBytes()).isEqualTo(120);
+    assertThat(userUsageRepository.findUsage("alice").getDocumentCount()).isEqualTo(2);
+    assertThat(userUsageRepository.findUsage("bob").getTotalBytes()).isEqualTo(7);
+  }
+
+  private DocumentEntity save(String name, long fileSize) {
+    return documentRepository.saveAndFlush(
+        DocumentEntity.builder()
+            .userName("alice")
+            .documentName(name)
+            .minioPath("alice/" + name)
+            .fileSize(fileSize)
+            .fileType("application/pdf")
+            .build());
+  }
+}
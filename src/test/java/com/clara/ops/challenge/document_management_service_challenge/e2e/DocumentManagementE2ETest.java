@@ -9,8 +9,10 @@ import com.clara.ops.challenge.document_management_service_challenge.api.dto.Pag
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.UploadDocumentRequest;
 import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
 import com.clara.ops.challenge.document_management_service_challenge.service.MinioService;
+import com.clara.ops.challenge.document_management_service_challenge.service.PresignedUrl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -63,9 +65,11 @@ class DocumentManagementE2ETest {
             org.mockito.ArgumentMatchers.anyString(),
             org.mockito.ArgumentMatchers.anyString(),
             org.mockito.ArgumentMatchers.anyLong());
-    org.mockito.Mockito.when(
-            minioService.generatePresignedUrl(org.mockito.ArgumentMatchers.anyString()))
-        .thenReturn("http://localhost:9000/documents/presigned-url?expires=3600");
+    org.mockito.Mockito.when(minioService.presign(org.mockito.ArgumentMatchers.anyString()))
+        .thenReturn(
+            new PresignedUrl(
+                "http://localhost:9000/documents/presigned-url?expires=3600",
+                Instant.now().plusSeconds(3600)));
   }
 
   @AfterEach
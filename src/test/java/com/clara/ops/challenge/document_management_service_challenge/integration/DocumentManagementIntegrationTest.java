@@ -13,14 +13,18 @@ import static org.mockito.Mockito.when;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.PaginatedDocumentSearchResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.UploadDocumentRequest;
+import com.clara.ops.challenge.document_management_service_challenge.config.WorkloadConnectionBudget;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
 import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
 import com.clara.ops.challenge.document_management_service_challenge.service.DocumentService;
 import com.clara.ops.challenge.document_management_service_challenge.service.MinioService;
+import com.clara.ops.challenge.document_management_service_challenge.service.PresignedUrl;
 import io.minio.MinioClient;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +44,8 @@ class DocumentManagementIntegrationTest {
 
   @Autowired private DocumentRepository documentRepository;
 
+  @Autowired private DataSource dataSource;
+
   @MockitoBean private MinioClient minioClient;
 
   @MockitoBean private MinioService minioService;
@@ -63,8 +69,15 @@ class DocumentManagementIntegrationTest {
             "file", "integration-test.pdf", "application/pdf", "PDF content".getBytes());
 
     doNothing().when(minioService).uploadFile(any(), anyString(), anyString(), anyLong());
-    when(minioService.generatePresignedUrl(anyString()))
-        .thenReturn("http://localhost:9000/presigned-url");
+    when(minioService.presign(anyString()))
+        .thenReturn(
+            new PresignedUrl(
+                "http://localhost:9000/presigned-url", Instant.now().plusSeconds(3600)));
+  }
+
+  @Test
+  void shouldChargeConnectionsToTheWorkloadBudgets() {
+    assertThat(dataSource).isInstanceOf(WorkloadConnectionBudget.class);
   }
 
   @Test
@@ -184,7 +197,7 @@ class DocumentManagementIntegrationTest {
 
     assertThat(downloadResponse.getUrl()).isNotNull();
 
-    verify(minioService, times(1)).generatePresignedUrl(anyString());
+    verify(minioService, times(1)).presign(anyString());
   }
 
   @Test
@@ -0,0 +1,108 @@
+package com.clara.ops.challenge.document_management_service_challenge.queryplan;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records the SQL and bind parameters of the queries issued while capturing, so that each one can
+ * be replayed verbatim under {@code EXPLAIN}. Binds are recorded as the {@code setXxx} calls made
+ * on the prepared statement and re-applied the same way.
+ */
+class CapturingDataSource extends DelegatingDataSource {
+
+  private final ThreadLocal<List<CapturedQuery>> captured = new ThreadLocal<>();
+
+  CapturingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  /** Runs the action and returns the queries it executed, in order. */
+  List<CapturedQuery> capture(Runnable action) {
+    captured.set(new ArrayList<>());
+    try {
+      action.run();
+      return captured.get();
+    } finally {
+      captured.remove();
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return proxyConnection(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return proxyConnection(super.getConnection(username, password));
+  }
+
+  private Connection proxyConnection(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              Object result = invoke(connection, method, args);
+              if (result instanceof PreparedStatement statement
+                  && method.getName().equals("prepareStatement")) {
+                return proxyStatement(statement, (String) args[0]);
+              }
+              return result;
+            });
+  }
+
+  private PreparedStatement proxyStatement(PreparedStatement statement, String sql) {
+    List<Bind> binds = new ArrayList<>();
+    return (PreparedStatement)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {PreparedStatement.class},
+            (proxy, method, args) -> {
+              if (method.getName().startsWith("set")
+                  && args != null
+                  && args.length >= 2
+                  && args[0] instanceof Integer) {
+                binds.add(new Bind(method, args.clone()));
+              } else if (method.getName().equals("executeQuery") && captured.get() != null) {
+                captured.get().add(new CapturedQuery(sql, List.copyOf(binds)));
+              }
+              return invoke(statement, method, args);
+            });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  record Bind(Method setter, Object[] args) {}
+
+  record CapturedQuery(String sql, List<Bind> binds) {
+
+    /** Prepares {@code prefix + sql} on the connection with the original binds applied. */
+    PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+      PreparedStatement statement = connection.prepareStatement(prefix + sql);
+      try {
+        for (Bind bind : binds) {
+          invoke(statement, bind.setter(), bind.args());
+        }
+      } catch (Throwable e) {
+        statement.close();
+        throw new SQLException("Could not replay binds for: " + sql, e);
+      }
+      return statement;
+    }
+  }
+}
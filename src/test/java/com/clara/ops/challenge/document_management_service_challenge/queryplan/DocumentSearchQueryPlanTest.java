@@ -0,0 +1,324 @@
+package com.clara.ops.challenge.document_management_service_challenge.queryplan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.TagMatchMode;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentSpecification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Guards the execution plans of the search query shapes built by {@link DocumentSpecification} and
+ * of the download path lookup. An embedded PostgreSQL (bundled binaries, no network) is created
+ * from the production schema script and seeded with generated documents spread over two years of
+ * monthly partitions. Each shape is issued through the repository, and the exact SQL and binds
+ * Hibernate sent are replayed under {@code EXPLAIN (ANALYZE, BUFFERS)} to check index usage,
+ * partition pruning and a latency budget.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pquery-plan}. The seed size and
+ * budget can be tuned with {@code -Dquery-plan.documents}, {@code -Dquery-plan.users} and {@code
+ * -Dquery-plan.budget-ms}. PostgreSQL refuses to run as root, so run it as a regular user.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DocumentSearchQueryPlanTest {
+
+  private static final int DOCUMENTS = Integer.getInteger("query-plan.documents", 2_000_000);
+  private static final int USERS = Integer.getInteger("query-plan.users", 10_000);
+  private static final double BUDGET_MS =
+      Double.parseDouble(System.getProperty("query-plan.budget-ms", "100"));
+  private static final int SEEDED_MONTHS = 24;
+  private static final long MAX_SEQ_SCAN_ROWS = 1_000;
+
+  private static final Path SCHEMA_SCRIPT = Path.of("docker/init-scripts/schema-init.sql");
+  private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+  private static final String DOCUMENTS_TABLE = "documents";
+  private static final String TAGS_TABLE = "tags";
+  private static final Pattern TAGS_FROM = Pattern.compile("from (\\w+\\.)?tags ");
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private static final String SEED_DOCUMENTS_SQL =
+      """
+      INSERT INTO documents (id, user_name, document_name, minio_path, file_size, file_type,
+                             tag_names, created_at, updated_at)
+      SELECT gen_random_uuid(),
+             'user-' || g %% %2$d,
+             'document-' || g || '.pdf',
+             'user-' || g %% %2$d || '/document-' || g || '.pdf',
+             1024 + (g::BIGINT * 7919) %% 50000000,
+             'application/pdf',
+             ARRAY['topic-' || g %% 50, 'tag-' || g %% 1000]::VARCHAR(255)[],
+             created_at,
+             created_at
+      FROM generate_series(%1$d, 1, -1) AS g,
+           LATERAL (SELECT date_trunc('second', LOCALTIMESTAMP)
+                           - make_interval(secs => g * %3$f) AS created_at) AS t
+      """;
+
+  private static final String SEED_TAGS_SQL =
+      """
+      INSERT INTO tags (document_id, document_created_at, tag_name)
+      SELECT id, created_at, unnest(tag_names) FROM documents
+      """;
+
+  @Autowired private DocumentRepository documentRepository;
+
+  @Autowired private CapturingDataSource dataSource;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @TestConfiguration
+  static class EmbeddedPostgresConfig {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+      return EmbeddedPostgres.builder().start();
+    }
+
+    @Bean
+    CapturingDataSource dataSource(EmbeddedPostgres embeddedPostgres)
+        throws IOException, SQLException {
+      DataSource target = embeddedPostgres.getPostgresDatabase();
+      seed(target);
+      return new CapturingDataSource(target);
+    }
+
+    /** Creates the schema and inserts rows oldest first, as the append-only table would be. */
+    private static void seed(DataSource target) throws IOException, SQLException {
+      double secondsBetweenDocuments = SEEDED_MONTHS * 30.44 * 86_400 / DOCUMENTS;
+      try (Connection connection = target.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute(Files.readString(SCHEMA_SCRIPT));
+        statement.execute(
+            "SELECT ensure_monthly_partitions((CURRENT_DATE - INTERVAL '%d months')::DATE, %d)"
+                .formatted(SEEDED_MONTHS + 1, SEEDED_MONTHS + 2));
+        statement.execute(SEED_DOCUMENTS_SQL.formatted(DOCUMENTS, USERS, secondsBetweenDocuments));
+        statement.execute(SEED_TAGS_SQL);
+        statement.execute("VACUUM ANALYZE");
+      }
+    }
+  }
+
+  @Test
+  void shouldUseIndexForUserScopedRecentFirstPage() throws Exception {
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder().user("user-42").build(),
+            sortedPage(Sort.Direction.DESC, "createdAt"));
+
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldUseIndexForUserScopedNameSort() throws Exception {
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder().user("user-42").build(),
+            sortedPage(Sort.Direction.ASC, "documentName"));
+
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldUseIndexForUserScopedSizeRange() throws Exception {
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder()
+                .user("user-42")
+                .minSize(1_000_000L)
+                .maxSize(5_000_000L)
+                .build(),
+            sortedPage(Sort.Direction.DESC, "fileSize"));
+
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldUseIndexForAllTagsFilter() throws Exception {
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder().tags(List.of("topic-7", "tag-507")).build(),
+            sortedPage(Sort.Direction.DESC, "createdAt"));
+
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldUseIndexForAnyTagFilter() throws Exception {
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder()
+                .tags(List.of("tag-507", "tag-508"))
+                .tagMatch(TagMatchMode.ANY)
+                .build(),
+            sortedPage(Sort.Direction.DESC, "createdAt"));
+
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldPruneToSinglePartitionForMonthRange() throws Exception {
+    YearMonth month = YearMonth.now().minusMonths(3);
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder()
+                .user("user-42")
+                .createdFrom(month.atDay(1).atStartOfDay())
+                .createdTo(month.plusMonths(1).atDay(1).atStartOfDay())
+                .build(),
+            sortedPage(Sort.Direction.DESC, "createdAt"));
+
+    assertThat(plan.partitionsInPlan(DOCUMENTS_TABLE))
+        .as("%s", plan)
+        .containsExactly(partitionOf(month));
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldPruneNewerPartitionsForKeysetPage() throws Exception {
+    LocalDateTime cursor = LocalDate.now().minusMonths(12).atStartOfDay();
+    QueryPlan plan =
+        explain(
+            DocumentSearchFilters.builder()
+                .user("user-42")
+                .beforeCreatedAt(cursor)
+                .beforeId(UUID.randomUUID())
+                .build(),
+            sortedPage(Sort.Direction.DESC, "createdAt"));
+
+    String newestAllowed = partitionOf(YearMonth.from(cursor));
+    assertThat(plan.partitionsInPlan(DOCUMENTS_TABLE))
+        .as("%s", plan)
+        .isNotEmpty()
+        .allMatch(partition -> partition.compareTo(newestAllowed) <= 0);
+    assertIndexedWithinBudget(plan);
+  }
+
+  @Test
+  void shouldLoadTagsOfAPageInOneQueryPrunedToItsMonths() throws Exception {
+    List<DocumentEntity> page = new ArrayList<>();
+    List<CapturingDataSource.CapturedQuery> queries =
+        dataSource.capture(
+            () ->
+                page.addAll(
+                    documentRepository
+                        .findAll(
+                            DocumentSpecification.withFilters(
+                                DocumentSearchFilters.builder().user("user-42").build()),
+                            sortedPage(Sort.Direction.DESC, "createdAt"))
+                        .getContent()));
+    List<CapturingDataSource.CapturedQuery> tagQueries =
+        queries.stream().filter(query -> TAGS_FROM.matcher(query.sql()).find()).toList();
+
+    // The page, its count and one batch for all its tags; none per document or tag
+    assertThat(queries).as("%s", queries).hasSize(3);
+    assertThat(tagQueries).as("%s", queries).hasSize(1);
+    QueryPlan plan = explain(tagQueries.get(0));
+    Set<String> pageMonths =
+        page.stream()
+            .map(
+                document ->
+                    TAGS_TABLE
+                        + "_p"
+                        + YearMonth.from(document.getCreatedAt()).format(PARTITION_SUFFIX))
+            .collect(Collectors.toSet());
+    assertThat(plan.partitionsInPlan(TAGS_TABLE))
+        .as("%s", plan)
+        .containsExactlyInAnyOrderElementsOf(pageMonths);
+    assertThat(plan.sequentiallyScanned(TAGS_TABLE, MAX_SEQ_SCAN_ROWS)).as("%s", plan).isEmpty();
+  }
+
+  @Test
+  void shouldResolveDownloadPathWithIndexOnlyScan() throws Exception {
+    UUID documentId;
+    try (Connection connection = dataSource.getTargetDataSource().getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet =
+            statement.executeQuery("SELECT id FROM document_schema.documents LIMIT 1")) {
+      resultSet.next();
+      documentId = resultSet.getObject(1, UUID.class);
+    }
+
+    QueryPlan plan = explain(() -> documentRepository.findMinioPathById(documentId));
+
+    // Partitions are probed without pruning; none may fall back to reading the heap
+    assertThat(plan.scanTypes(DOCUMENTS_TABLE))
+        .as("%s", plan)
+        .contains("Index Only Scan")
+        .doesNotContain("Index Scan", "Bitmap Heap Scan");
+    assertThat(plan.sequentiallyScanned(DOCUMENTS_TABLE, MAX_SEQ_SCAN_ROWS))
+        .as("%s", plan)
+        .isEmpty();
+    assertThat(plan.executionTimeMs()).as("%s", plan).isLessThanOrEqualTo(BUDGET_MS);
+  }
+
+  /** Runs the search like {@code DocumentService} does and explains its row query. */
+  private QueryPlan explain(DocumentSearchFilters filters, Pageable pageable) throws Exception {
+    // The page content is queried first; the count and the batched tag fetch follow
+    return explain(
+        () -> documentRepository.findAll(DocumentSpecification.withFilters(filters), pageable));
+  }
+
+  /** Explains the first query the repository call issues. */
+  private QueryPlan explain(Runnable repositoryCall) throws Exception {
+    return explain(dataSource.capture(repositoryCall).get(0));
+  }
+
+  private QueryPlan explain(CapturingDataSource.CapturedQuery query) throws Exception {
+    try (Connection connection = dataSource.getTargetDataSource().getConnection();
+        PreparedStatement statement = query.prepare(connection, EXPLAIN);
+        ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return new QueryPlan(query.sql(), objectMapper.readTree(resultSet.getString(1)));
+    }
+  }
+
+  private static Pageable sortedPage(Sort.Direction direction, String property) {
+    return PageRequest.of(0, 20, Sort.by(direction, property, "id"));
+  }
+
+  private static String partitionOf(YearMonth month) {
+    return DOCUMENTS_TABLE + "_p" + month.format(PARTITION_SUFFIX);
+  }
+
+  private static void assertIndexedWithinBudget(QueryPlan plan) {
+    assertThat(plan.sequentiallyScanned(DOCUMENTS_TABLE, MAX_SEQ_SCAN_ROWS))
+        .as("%s", plan)
+        .isEmpty();
+    assertThat(plan.usesIndex()).as("%s", plan).isTrue();
+    assertThat(plan.executionTimeMs()).as("%s", plan).isLessThanOrEqualTo(BUDGET_MS);
+  }
+}
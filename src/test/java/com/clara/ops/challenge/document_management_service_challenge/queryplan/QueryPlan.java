@@ -0,0 +1,85 @@
+package com.clara.ops.challenge.document_management_service_challenge.queryplan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/** An {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} result flattened into its plan nodes. */
+class QueryPlan {
+
+  private final String sql;
+  private final JsonNode root;
+  private final List<JsonNode> nodes = new ArrayList<>();
+
+  QueryPlan(String sql, JsonNode explainOutput) {
+    this.sql = sql;
+    this.root = explainOutput.get(0);
+    collect(root.get("Plan"));
+  }
+
+  private void collect(JsonNode node) {
+    nodes.add(node);
+    node.path("Plans").forEach(this::collect);
+  }
+
+  double executionTimeMs() {
+    return root.path("Execution Time").asDouble();
+  }
+
+  /**
+   * Relations of the given table (its partitions included) scanned sequentially over more than
+   * {@code maxRows} rows. Small or empty partitions are legitimately cheaper to scan than to probe.
+   */
+  Set<String> sequentiallyScanned(String table, long maxRows) {
+    Set<String> relations = new TreeSet<>();
+    nodes.stream()
+        .filter(node -> "Seq Scan".equals(node.path("Node Type").asText()))
+        .filter(node -> rowsRead(node) > maxRows)
+        .map(node -> node.path("Relation Name").asText())
+        .filter(relation -> isRelationOf(relation, table))
+        .forEach(relations::add);
+    return relations;
+  }
+
+  /** Partitions of the given table left in the plan after plan-time pruning. */
+  Set<String> partitionsInPlan(String table) {
+    Set<String> relations = new TreeSet<>();
+    nodes.stream()
+        .map(node -> node.path("Relation Name").asText())
+        .filter(relation -> relation.startsWith(table + "_"))
+        .forEach(relations::add);
+    return relations;
+  }
+
+  private static long rowsRead(JsonNode node) {
+    return (node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong())
+        * node.path("Actual Loops").asLong();
+  }
+
+  /** Node types of the scans over the given table and its partitions. */
+  Set<String> scanTypes(String table) {
+    Set<String> types = new TreeSet<>();
+    nodes.stream()
+        .filter(node -> isRelationOf(node.path("Relation Name").asText(), table))
+        .map(node -> node.path("Node Type").asText())
+        .forEach(types::add);
+    return types;
+  }
+
+  private static boolean isRelationOf(String relation, String table) {
+    return relation.equals(table) || relation.startsWith(table + "_");
+  }
+
+  boolean usesIndex() {
+    return nodes.stream()
+        .map(node -> node.path("Node Type").asText())
+        .anyMatch(type -> type.contains("Index"));
+  }
+
+  @Override
+  public String toString() {
+    return sql + System.lineSeparator() + root.toPrettyString();
+  }
+}
@@ -0,0 +1,101 @@
+package com.clara.ops.challenge.document_management_service_challenge.queryplan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageView;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Runs the PostgreSQL-only quota lock of {@link UserUsageRepository#lockUser} against an embedded
+ * PostgreSQL created from the production schema script, which the H2 tests can only mock. Each test
+ * runs in its own transaction, which holds the lock it takes until the test ends; other sessions
+ * probe it with {@code pg_try_advisory_xact_lock}.
+ *
+ * <p>Excluded from the default build with the rest of the query-plan suite; run with {@code mvn
+ * test -Pquery-plan} as a regular user.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserUsageLockTest {
+
+  private static final Path SCHEMA_SCRIPT = Path.of("docker/init-scripts/schema-init.sql");
+  private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(hashtext(?))";
+
+  @Autowired private UserUsageRepository userUsageRepository;
+
+  @Autowired private UserUsageDeltaRepository userUsageDeltaRepository;
+
+  @Autowired private EmbeddedPostgres embeddedPostgres;
+
+  @TestConfiguration
+  static class EmbeddedPostgresConfig {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+      return EmbeddedPostgres.builder().start();
+    }
+
+    @Bean
+    DataSource dataSource(EmbeddedPostgres embeddedPostgres) throws IOException, SQLException {
+      DataSource target = embeddedPostgres.getPostgresDatabase();
+      try (Connection connection = target.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute(Files.readString(SCHEMA_SCRIPT));
+      }
+      return target;
+    }
+  }
+
+  @Test
+  void shouldHoldTheUserLockUntilTheTransactionEnds() throws Exception {
+    userUsageRepository.lockUser("locked-user");
+
+    assertThat(tryLockElsewhere("locked-user")).isFalse();
+    assertThat(tryLockElsewhere("other-user")).isTrue();
+  }
+
+  @Test
+  void shouldReadReservationsRecordedUnderTheLock() throws Exception {
+    userUsageRepository.lockUser("reserving-user");
+    userUsageDeltaRepository.recordChange("reserving-user", 1, 2048);
+    userUsageDeltaRepository.recordChange("reserving-user", 1, 1024);
+    userUsageDeltaRepository.recordChange("reserving-user", -1, -1024);
+
+    UserUsageView usage = userUsageRepository.findUsage("reserving-user");
+
+    assertThat(usage.getDocumentCount()).isEqualTo(1L);
+    assertThat(usage.getTotalBytes()).isEqualTo(2048L);
+    assertThat(tryLockElsewhere("reserving-user")).isFalse();
+  }
+
+  /** Tries the user's lock from a separate session, releasing it again if it was taken. */
+  private boolean tryLockElsewhere(String user) throws SQLException {
+    try (Connection connection = embeddedPostgres.getPostgresDatabase().getConnection();
+        PreparedStatement statement = connection.prepareStatement(TRY_LOCK)) {
+      statement.setString(1, user);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getBoolean(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BundleDownloadRequest;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentFileView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentBundleServiceTest {
+
+  @Mock private DocumentRepository documentRepository;
+
+  @Mock private MinioService minioService;
+
+  @Mock private ReadYourWritesTracker readYourWritesTracker;
+
+  private DocumentBundleService documentBundleService;
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getDownload().getBundle().setPrefetch(1);
+    properties.getDownload().getBundle().setFetchThreads(2);
+    documentBundleService =
+        new DocumentBundleService(
+            documentRepository, minioService, readYourWritesTracker, properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    documentBundleService.shutdown();
+  }
+
+  @Test
+  void shouldWriteDocumentsAsZipEntriesInOrder() throws Exception {
+    byte[] large = new byte[200_000];
+    for (int i = 0; i < large.length; i++) {
+      large[i] = (byte) (i * 31);
+    }
+    when(minioService.getObject("user/a.pdf")).thenReturn(new ByteArrayInputStream(large));
+    when(minioService.getObject("user/b.pdf")).thenReturn(stream("second"));
+    when(minioService.getObject("other/a.pdf")).thenReturn(stream("third"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    documentBundleService.write(
+        List.of(
+            file("a.pdf", "user/a.pdf"), file("b.pdf", "user/b.pdf"), file("a.pdf", "other/a.pdf")),
+        output);
+
+    Map<String, byte[]> entries = unzip(output.toByteArray());
+    assertThat(entries).containsOnlyKeys("a.pdf", "b.pdf", "a (2).pdf");
+    assertThat(new ArrayList<>(entries.keySet())).containsExactly("a.pdf", "b.pdf", "a (2).pdf");
+    assertThat(entries.get("a.pdf")).isEqualTo(large);
+    assertThat(entries.get("b.pdf")).isEqualTo("second".getBytes());
+    assertThat(entries.get("a (2).pdf")).isEqualTo("third".getBytes());
+  }
+
+  @Test
+  void shouldNotCompressEntries() throws Exception {
+    byte[] compressible = new byte[100_000];
+    when(minioService.getObject("user/a.pdf")).thenReturn(new ByteArrayInputStream(compressible));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    documentBundleService.write(List.of(file("a.pdf", "user/a.pdf")), output);
+
+    assertThat(output.size()).isGreaterThan(compressible.length);
+  }
+
+  @Test
+  void shouldFailWhenObjectIsMissingFromStorage() {
+    when(minioService.getObject("user/a.pdf")).thenReturn(stream("first"));
+    when(minioService.getObject("user/b.pdf"))
+        .thenThrow(new DocumentNotFoundException("Document content not found: user/b.pdf"));
+
+    assertThatThrownBy(
+            () ->
+                documentBundleService.write(
+                    List.of(file("a.pdf", "user/a.pdf"), file("b.pdf", "user/b.pdf")),
+                    new ByteArrayOutputStream()))
+        .isInstanceOf(DocumentNotFoundException.class);
+  }
+
+  @Test
+  void shouldResolveDocumentIdsInRequestOrder() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    DocumentFileView firstFile = file(first, "a.pdf", "user/a.pdf");
+    DocumentFileView secondFile = file(second, "b.pdf", "user/b.pdf");
+    when(documentRepository.findFilesByIdIn(List.of(second, first)))
+        .thenReturn(List.of(firstFile, secondFile));
+
+    List<DocumentFileView> files =
+        documentBundleService.resolve(
+            BundleDownloadRequest.builder()
+                .documentIds(List.of(second.toString(), first.toString()))
+                .build());
+
+    assertThat(files).containsExactly(secondFile, firstFile);
+  }
+
+  @Test
+  void shouldFailWhenRequestedDocumentDoesNotExist() {
+    UUID missing = UUID.randomUUID();
+    when(documentRepository.findFilesByIdIn(anyList())).thenReturn(List.of());
+
+    assertThatThrownBy(
+            () ->
+                documentBundleService.resolve(
+                    BundleDownloadRequest.builder()
+                        .documentIds(List.of(missing.toString()))
+                        .build()))
+        .isInstanceOf(DocumentNotFoundException.class)
+        .hasMessageContaining(missing.toString());
+    verify(minioService, never()).getObject(missing.toString());
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes());
+  }
+
+  private static Map<String, byte[]> unzip(byte[] archive) throws Exception {
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        entries.put(entry.getName(), zip.readAllBytes());
+      }
+    }
+    return entries;
+  }
+
+  private static DocumentFileView file(String documentName, String minioPath) {
+    return file(UUID.randomUUID(), documentName, minioPath);
+  }
+
+  private static DocumentFileView file(UUID id, String documentName, String minioPath) {
+    return new DocumentFileView() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public String getDocumentName() {
+        return documentName;
+      }
+
+      @Override
+      public String getMinioPath() {
+        return minioPath;
+      }
+    };
+  }
+}
@@ -0,0 +1,182 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import io.minio.StatObjectResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentContentServiceTest {
+
+  private static final String DOCUMENT_ID = "123e4567-e89b-12d3-a456-426614174000";
+  private static final String OBJECT_PATH = "testuser/testdoc.pdf";
+  private static final ZonedDateTime LAST_MODIFIED =
+      ZonedDateTime.of(2024, 1, 1, 10, 0, 0, 500_000_000, ZoneOffset.UTC);
+
+  @Mock private DocumentService documentService;
+
+  @Mock private MinioService minioService;
+
+  @Mock private ObjectDiskCache objectDiskCache;
+
+  @Mock private StatObjectResponse stat;
+
+  private DocumentContentService documentContentService;
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getDownload().getProxy().setBufferSizeKb(4);
+    documentContentService =
+        new DocumentContentService(documentService, minioService, objectDiskCache, properties);
+
+    lenient().when(documentService.getMinioPath(DOCUMENT_ID)).thenReturn(OBJECT_PATH);
+    lenient().when(minioService.statObject(OBJECT_PATH)).thenReturn(stat);
+    lenient().when(stat.size()).thenReturn(100L);
+    lenient().when(stat.etag()).thenReturn("abc123");
+    lenient().when(stat.lastModified()).thenReturn(LAST_MODIFIED);
+    lenient().when(stat.contentType()).thenReturn("application/pdf");
+  }
+
+  @Test
+  void shouldServeWholeDocumentWithoutRange() {
+    DocumentContentService.Content content = documentContentService.open(DOCUMENT_ID, null, null);
+
+    assertThat(content.isPartial()).isFalse();
+    assertThat(content.isSatisfiable()).isTrue();
+    assertThat(content.getStart()).isZero();
+    assertThat(content.getLength()).isEqualTo(100L);
+    assertThat(content.getEtag()).isEqualTo("\"abc123\"");
+  }
+
+  @Test
+  void shouldServeRequestedByteRange() {
+    DocumentContentService.Content content =
+        documentContentService.open(DOCUMENT_ID, "bytes=10-19", null);
+
+    assertThat(content.isPartial()).isTrue();
+    assertThat(content.getStart()).isEqualTo(10L);
+    assertThat(content.getLength()).isEqualTo(10L);
+    assertThat(content.getEnd()).isEqualTo(19L);
+  }
+
+  @Test
+  void shouldServeOpenEndedAndSuffixRanges() {
+    DocumentContentService.Content openEnded =
+        documentContentService.open(DOCUMENT_ID, "bytes=90-", null);
+    DocumentContentService.Content suffix =
+        documentContentService.open(DOCUMENT_ID, "bytes=-5", null);
+
+    assertThat(openEnded.getStart()).isEqualTo(90L);
+    assertThat(openEnded.getLength()).isEqualTo(10L);
+    assertThat(suffix.getStart()).isEqualTo(95L);
+    assertThat(suffix.getLength()).isEqualTo(5L);
+  }
+
+  @Test
+  void shouldClampRangeEndToDocumentSize() {
+    DocumentContentService.Content content =
+        documentContentService.open(DOCUMENT_ID, "bytes=50-1000", null);
+
+    assertThat(content.getStart()).isEqualTo(50L);
+    assertThat(content.getEnd()).isEqualTo(99L);
+  }
+
+  @Test
+  void shouldMarkRangeBeyondDocumentAsNotSatisfiable() {
+    DocumentContentService.Content content =
+        documentContentService.open(DOCUMENT_ID, "bytes=100-", null);
+
+    assertThat(content.isSatisfiable()).isFalse();
+    assertThat(content.getSize()).isEqualTo(100L);
+  }
+
+  @Test
+  void shouldServeWholeDocumentForMultipleOrMalformedRanges() {
+    assertThat(documentContentService.open(DOCUMENT_ID, "bytes=0-9,20-29", null).isPartial())
+        .isFalse();
+    assertThat(documentContentService.open(DOCUMENT_ID, "items=0-9", null).isPartial()).isFalse();
+  }
+
+  @Test
+  void shouldHonourRangeWhenIfRangeMatchesEtagOrDate() {
+    assertThat(documentContentService.open(DOCUMENT_ID, "bytes=10-19", "\"abc123\"").isPartial())
+        .isTrue();
+    assertThat(
+            documentContentService
+                .open(DOCUMENT_ID, "bytes=10-19", "Mon, 01 Jan 2024 10:00:00 GMT")
+                .isPartial())
+        .isTrue();
+  }
+
+  @Test
+  void shouldServeWholeDocumentWhenIfRangeDoesNotMatch() {
+    assertThat(documentContentService.open(DOCUMENT_ID, "bytes=10-19", "\"changed\"").isPartial())
+        .isFalse();
+    assertThat(documentContentService.open(DOCUMENT_ID, "bytes=10-19", "W/\"abc123\"").isPartial())
+        .isFalse();
+    assertThat(
+            documentContentService
+                .open(DOCUMENT_ID, "bytes=10-19", "Tue, 02 Jan 2024 10:00:00 GMT")
+                .isPartial())
+        .isFalse();
+  }
+
+  @Test
+  void shouldTransferOnlyResolvedRangeThroughBuffer() throws Exception {
+    byte[] payload = new byte[10_000];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (byte) i;
+    }
+    when(stat.size()).thenReturn(20_000L);
+    when(minioService.getObjectIfMatch(OBJECT_PATH, "\"abc123\"", 5_000L, 10_000L))
+        .thenReturn(new ByteArrayInputStream(payload));
+    DocumentContentService.Content content =
+        documentContentService.open(DOCUMENT_ID, "bytes=5000-14999", null);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    documentContentService.transfer(content, output);
+
+    assertThat(output.toByteArray()).isEqualTo(payload);
+  }
+
+  @Test
+  void shouldNotReadFromStorageForEmptyDocument() throws Exception {
+    when(stat.size()).thenReturn(0L);
+    DocumentContentService.Content content = documentContentService.open(DOCUMENT_ID, null, null);
+
+    documentContentService.transfer(content, new ByteArrayOutputStream());
+
+    verify(minioService, never()).getObjectIfMatch(anyString(), anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void shouldNotReadFromStorageWhenDiskCacheServesContent() throws Exception {
+    when(objectDiskCache.transfer(
+            eq(OBJECT_PATH), eq("\"abc123\""), eq(100L), eq(10L), eq(10L), any()))
+        .thenReturn(true);
+    DocumentContentService.Content content =
+        documentContentService.open(DOCUMENT_ID, "bytes=10-19", null);
+
+    documentContentService.transfer(content, new ByteArrayOutputStream());
+
+    verify(minioService, never()).getObjectIfMatch(anyString(), anyString(), anyLong(), anyLong());
+  }
+}
@@ -0,0 +1,153 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentOwnerView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentDeletionServiceTest {
+
+  private static final UUID DOCUMENT_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+  @Mock private DocumentRepository documentRepository;
+
+  @Mock private UserCollectionVersionRepository userCollectionVersionRepository;
+
+  @Mock private UserUsageDeltaRepository userUsageDeltaRepository;
+
+  @Mock private ReadYourWritesTracker readYourWritesTracker;
+
+  @Mock private SuggestionService suggestionService;
+
+  @Mock private DocumentPathCache documentPathCache;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private DocumentDeletionService documentDeletionService;
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getDeletion().setBatchSize(2);
+    documentDeletionService =
+        new DocumentDeletionService(
+            documentRepository,
+            userCollectionVersionRepository,
+            userUsageDeltaRepository,
+            readYourWritesTracker,
+            suggestionService,
+            documentPathCache,
+            new TransactionTemplate(transactionManager),
+            properties);
+  }
+
+  @Test
+  void shouldMarkDocumentDeletedAndInvalidateWhatRefersToIt() {
+    when(documentRepository.findOwnerById(DOCUMENT_ID))
+        .thenReturn(Optional.of(owner(DOCUMENT_ID, "testuser")));
+    when(documentRepository.markDeleted(eq(List.of(DOCUMENT_ID)), any())).thenReturn(1);
+
+    documentDeletionService.deleteDocument(DOCUMENT_ID.toString());
+
+    verify(userCollectionVersionRepository).incrementVersion("testuser");
+    verify(userUsageDeltaRepository).recordDeleted(eq(List.of(DOCUMENT_ID)), any());
+    verify(readYourWritesTracker).recordWrite("testuser", DOCUMENT_ID);
+    verify(suggestionService).recordDelete("testuser");
+    verify(documentPathCache).evict(DOCUMENT_ID);
+  }
+
+  @Test
+  void shouldThrowDocumentNotFoundExceptionWhenDocumentIsAlreadyDeleted() {
+    when(documentRepository.findOwnerById(DOCUMENT_ID))
+        .thenReturn(Optional.of(owner(DOCUMENT_ID, "testuser")));
+    when(documentRepository.markDeleted(eq(List.of(DOCUMENT_ID)), any())).thenReturn(0);
+
+    assertThatThrownBy(() -> documentDeletionService.deleteDocument(DOCUMENT_ID.toString()))
+        .isInstanceOf(DocumentNotFoundException.class);
+    verify(userCollectionVersionRepository, never()).incrementVersion("testuser");
+    verify(documentPathCache, never()).evict(DOCUMENT_ID);
+  }
+
+  @Test
+  void shouldDeleteMatchingDocumentsInBatches() {
+    List<DocumentOwnerView> first = List.of(owner("testuser"), owner("testuser"));
+    List<DocumentOwnerView> second = List.of(owner("testuser"));
+    when(documentRepository.findBy(any(Specification.class), any())).thenReturn(first, second);
+    when(documentRepository.markDeleted(anyList(), any())).thenReturn(2, 1);
+
+    long deleted =
+        documentDeletionService.deleteDocuments(
+            DocumentSearchFilters.builder().user("testuser").build());
+
+    assertThat(deleted).isEqualTo(3);
+    verify(documentRepository, times(2)).markDeleted(anyList(), any());
+    verify(userCollectionVersionRepository, times(2)).incrementVersion("testuser");
+    verify(userUsageDeltaRepository, times(2)).recordDeleted(anyList(), any());
+    verify(documentPathCache, times(3)).evict(any());
+    verify(suggestionService, times(2)).recordDelete("testuser");
+  }
+
+  @Test
+  void shouldNotMarkAnythingWhenNoDocumentMatches() {
+    when(documentRepository.findBy(any(Specification.class), any())).thenReturn(List.of());
+
+    long deleted =
+        documentDeletionService.deleteDocuments(
+            DocumentSearchFilters.builder().user("testuser").build());
+
+    assertThat(deleted).isZero();
+    verify(documentRepository, never()).markDeleted(anyList(), any());
+  }
+
+  private static DocumentOwnerView owner(String userName) {
+    return owner(UUID.randomUUID(), userName);
+  }
+
+  static DocumentOwnerView owner(UUID id, String userName) {
+    return owner(id, userName, userName + "/" + id + ".pdf");
+  }
+
+  static DocumentOwnerView owner(UUID id, String userName, String minioPath) {
+    return new DocumentOwnerView() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public String getUserName() {
+        return userName;
+      }
+
+      @Override
+      public String getMinioPath() {
+        return minioPath;
+      }
+    };
+  }
+}
@@ -0,0 +1,274 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentImportResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.ImportRowError;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.enums.ImportFormat;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentBulkWriter;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import com.clara.ops.challenge.document_management_service_challenge.validation.DocumentValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentImportServiceTest {
+
+  private static final String CSV_HEADER = "user,name,minio_path,size,tags,created_at\n";
+
+  @Mock private DocumentBulkWriter documentBulkWriter;
+
+  @Mock private UserCollectionVersionRepository userCollectionVersionRepository;
+
+  @Mock private UserUsageDeltaRepository userUsageDeltaRepository;
+
+  @Mock private ReadYourWritesTracker readYourWritesTracker;
+
+  @Mock private SuggestionService suggestionService;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private ObjectProvider<PartitionMaintenanceService> partitionMaintenanceProvider;
+
+  @Mock private PartitionMaintenanceService partitionMaintenanceService;
+
+  private final List<List<DocumentEntity>> writtenChunks = new ArrayList<>();
+
+  private DocumentImportService documentImportService;
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getBulkImport().setChunkSize(2);
+    properties.getBulkImport().setMaxReportedErrors(1);
+    properties.getBulkImport().setMaxRecordLength(1000);
+    documentImportService =
+        new DocumentImportService(
+            documentBulkWriter,
+            userCollectionVersionRepository,
+            userUsageDeltaRepository,
+            readYourWritesTracker,
+            suggestionService,
+            partitionMaintenanceProvider,
+            new DocumentValidator(properties),
+            new TransactionTemplate(transactionManager),
+            new ObjectMapper().findAndRegisterModules(),
+            properties);
+  }
+
+  @Test
+  void shouldImportCsvRecordsInChunks() throws Exception {
+    recordWrittenChunks();
+    String csv =
+        CSV_HEADER
+            + "alice,report,alice/report.pdf,1024,finance|2024,2024-01-15T10:30:00\n"
+            + "alice,\"notes, draft\",alice/notes.pdf,10,finance,\n"
+            + "bob,scan.PDF,bob/scan.pdf,99,archive,\n";
+
+    DocumentImportResponse response = importCsv(csv);
+
+    assertThat(response.getImported()).isEqualTo(3L);
+    assertThat(response.getRejected()).isZero();
+    assertThat(response.getChunks()).isEqualTo(2);
+    assertThat(writtenChunks).extracting(List::size).containsExactly(2, 1);
+
+    DocumentEntity first = writtenChunks.get(0).get(0);
+    assertThat(first.getUserName()).isEqualTo("alice");
+    assertThat(first.getDocumentName()).isEqualTo("report.pdf");
+    assertThat(first.getMinioPath()).isEqualTo("alice/report.pdf");
+    assertThat(first.getFileSize()).isEqualTo(1024L);
+    assertThat(first.getTagNames()).containsExactly("2024", "finance");
+    assertThat(first.getCreatedAt()).isEqualTo(LocalDateTime.of(2024, 1, 15, 10, 30));
+    assertThat(first.getId().version()).isEqualTo(7);
+    assertThat(writtenChunks.get(0).get(1).getDocumentName()).isEqualTo("notes, draft.pdf");
+    assertThat(writtenChunks.get(1).get(0).getDocumentName()).isEqualTo("scan.PDF");
+
+    verify(userCollectionVersionRepository).incrementVersion("alice");
+    verify(userCollectionVersionRepository).incrementVersion("bob");
+    verify(userUsageDeltaRepository).recordChange("alice", 2, 1034);
+    verify(userUsageDeltaRepository).recordChange("bob", 1, 99);
+    verify(readYourWritesTracker).recordWrite("alice");
+  }
+
+  @Test
+  void shouldCreateThePartitionsOfEachChunkBeforeWritingIt() throws Exception {
+    recordWrittenChunks();
+    when(partitionMaintenanceProvider.getIfAvailable()).thenReturn(partitionMaintenanceService);
+    String csv =
+        CSV_HEADER
+            + "alice,a,alice/a.pdf,1,tag,2024-03-15T10:30:00\n"
+            + "alice,b,alice/b.pdf,1,tag,2023-11-02T00:00:00\n"
+            + "bob,c,bob/c.pdf,1,tag,2022-06-30T23:59:59\n";
+
+    importCsv(csv);
+
+    verify(partitionMaintenanceService)
+        .ensurePartitions(LocalDate.of(2023, 11, 2), LocalDate.of(2024, 3, 15));
+    verify(partitionMaintenanceService)
+        .ensurePartitions(LocalDate.of(2022, 6, 30), LocalDate.of(2022, 6, 30));
+  }
+
+  @Test
+  void shouldRejectCreationDatesInTheFutureOrBeyondTheMaximumAge() throws Exception {
+    String csv =
+        CSV_HEADER
+            + "alice,a,alice/a.pdf,1,tag,"
+            + LocalDateTime.now().plusDays(1)
+            + "\n"
+            + "alice,b,alice/b.pdf,1,tag,1990-01-01T00:00:00\n";
+    documentImportService =
+        new DocumentImportService(
+            documentBulkWriter,
+            userCollectionVersionRepository,
+            userUsageDeltaRepository,
+            readYourWritesTracker,
+            suggestionService,
+            partitionMaintenanceProvider,
+            new DocumentValidator(new DocumentManagementProperties()),
+            new TransactionTemplate(transactionManager),
+            new ObjectMapper().findAndRegisterModules(),
+            new DocumentManagementProperties());
+
+    DocumentImportResponse response = importCsv(csv);
+
+    assertThat(response.getImported()).isZero();
+    assertThat(response.getErrors())
+        .extracting(ImportRowError::getMessage)
+        .containsExactly(
+            "createdAt must not be in the future",
+            "createdAt must not be more than 120 months ago");
+  }
+
+  @Test
+  void shouldSkipInvalidRecordsAndReportTheirLines() throws Exception {
+    recordWrittenChunks();
+    String csv =
+        CSV_HEADER
+            + "alice,report,alice/report.pdf,1024,finance,\n"
+            + ",orphan,x/orphan.pdf,1,tag,\n"
+            + "alice,big,alice/big.pdf,lots,tag,\n"
+            + "alice,\"multi\nline\",alice/multi.pdf,5,tag,\n";
+
+    DocumentImportResponse response = importCsv(csv);
+
+    assertThat(response.getImported()).isEqualTo(2L);
+    assertThat(response.getRejected()).isEqualTo(2L);
+    assertThat(response.getErrors())
+        .extracting(ImportRowError::getLine, ImportRowError::getMessage)
+        .containsExactly(tuple(3L, "user is required"));
+    assertThat(writtenChunks.get(0).get(1).getDocumentName()).isEqualTo("multi\nline.pdf");
+  }
+
+  @Test
+  void shouldRejectQuotedFieldRunningPastTheMaximumRecordLength() throws Exception {
+    recordWrittenChunks();
+    String csv =
+        CSV_HEADER
+            + "alice,\"stray,alice/stray.pdf,1,tag,\n"
+            + "x".repeat(1000)
+            + "\n"
+            + "bob,scan,bob/scan.pdf,2,tag,\n";
+
+    DocumentImportResponse response = importCsv(csv);
+
+    assertThat(response.getImported()).isEqualTo(1L);
+    assertThat(response.getRejected()).isEqualTo(1L);
+    assertThat(response.getErrors())
+        .extracting(ImportRowError::getLine, ImportRowError::getMessage)
+        .containsExactly(tuple(2L, "Malformed record: record is longer than 1000 characters"));
+    assertThat(writtenChunks.get(0).get(0).getUserName()).isEqualTo("bob");
+  }
+
+  @Test
+  void shouldImportNdjsonRecords() throws Exception {
+    recordWrittenChunks();
+    String ndjson =
+        "{\"user\":\"alice\",\"name\":\"a\",\"minioPath\":\"alice/a.pdf\",\"size\":1,\"tags\":[\"x\"]}\n"
+            + "\n"
+            + "{not json}\n"
+            + "{\"user\":\"alice\",\"name\":\"b\",\"minioPath\":\"alice/b.pdf\",\"size\":2,\"tags\":[\"y\"],\"createdAt\":\"2023-05-01T00:00:00\"}\n";
+
+    DocumentImportResponse response =
+        documentImportService.importDocuments(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON);
+
+    assertThat(response.getImported()).isEqualTo(2L);
+    assertThat(response.getErrors()).extracting(ImportRowError::getLine).containsExactly(3L);
+    assertThat(writtenChunks.get(0).get(1).getCreatedAt())
+        .isEqualTo(LocalDateTime.of(2023, 5, 1, 0, 0));
+  }
+
+  @Test
+  void shouldRejectCsvWithoutRequiredColumns() {
+    assertThatThrownBy(() -> importCsv("user,name\nalice,report\n"))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("minio_path");
+  }
+
+  @Test
+  void shouldStopAtFailedChunkKeepingCountOfCommittedOnes() {
+    doAnswer(invocation -> null)
+        .doThrow(new DataIntegrityViolationException("duplicate"))
+        .when(documentBulkWriter)
+        .insert(anyList());
+    String csv =
+        CSV_HEADER
+            + "alice,a,alice/a.pdf,1,t,\n"
+            + "alice,b,alice/b.pdf,1,t,\n"
+            + "alice,c,alice/c.pdf,1,t,\n";
+
+    assertThatThrownBy(() -> importCsv(csv))
+        .isInstanceOf(DocumentUploadException.class)
+        .hasMessageContaining("after 2 documents");
+    verify(documentBulkWriter, times(2)).insert(anyList());
+  }
+
+  @Test
+  void shouldImportNothingFromEmptyInput() throws Exception {
+    DocumentImportResponse response = importCsv("");
+
+    assertThat(response.getImported()).isZero();
+    assertThat(response.getChunks()).isZero();
+  }
+
+  private DocumentImportResponse importCsv(String csv) throws Exception {
+    return documentImportService.importDocuments(
+        new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+  }
+
+  private void recordWrittenChunks() {
+    doAnswer(
+            invocation -> {
+              writtenChunks.add(List.copyOf(invocation.<List<DocumentEntity>>getArgument(0)));
+              return null;
+            })
+        .when(documentBulkWriter)
+        .insert(anyList());
+  }
+}
@@ -0,0 +1,64 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DocumentPathCacheTest {
+
+  private final UUID first = UUID.randomUUID();
+  private final UUID second = UUID.randomUUID();
+  private final UUID missing = UUID.randomUUID();
+
+  @Test
+  void shouldLookUpOnlyUncachedPaths() {
+    DocumentPathCache cache = new DocumentPathCache(new DocumentManagementProperties());
+    cache.get(first, id -> Optional.of("user/first.pdf"));
+    List<Set<UUID>> lookups = new ArrayList<>();
+
+    Map<UUID, String> paths =
+        cache.getAll(
+            List.of(first, second, missing),
+            ids -> {
+              lookups.add(new HashSet<>(ids));
+              return Map.of(second, "user/second.pdf");
+            });
+
+    assertThat(paths)
+        .containsOnly(Map.entry(first, "user/first.pdf"), Map.entry(second, "user/second.pdf"));
+    assertThat(lookups).containsExactly(Set.of(second, missing));
+  }
+
+  @Test
+  void shouldAlwaysLookUpWhenDisabled() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getDownload().getPathCache().setEnabled(false);
+    DocumentPathCache cache = new DocumentPathCache(properties);
+    AtomicInteger lookups = new AtomicInteger();
+
+    cache.get(first, id -> Optional.of("user/first-" + lookups.incrementAndGet() + ".pdf"));
+    Optional<String> path =
+        cache.get(first, id -> Optional.of("user/first-" + lookups.incrementAndGet() + ".pdf"));
+
+    assertThat(path).contains("user/first-2.pdf");
+  }
+
+  @Test
+  void shouldLookUpAgainAfterEviction() {
+    DocumentPathCache cache = new DocumentPathCache(new DocumentManagementProperties());
+    cache.get(first, id -> Optional.of("user/old.pdf"));
+
+    cache.evict(first);
+
+    assertThat(cache.get(first, id -> Optional.of("user/new.pdf"))).contains("user/new.pdf");
+  }
+}
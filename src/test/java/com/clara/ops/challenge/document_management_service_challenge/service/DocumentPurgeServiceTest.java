@@ -0,0 +1,187 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DeletedDocumentView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
+import io.minio.StatObjectResponse;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPurgeServiceTest {
+
+  private static final UUID FIRST_ID = UUID.randomUUID();
+  private static final UUID SECOND_ID = UUID.randomUUID();
+  private static final UUID THIRD_ID = UUID.randomUUID();
+  private static final LocalDateTime DELETED_AT = LocalDateTime.now().minusHours(1);
+
+  @Mock private DocumentRepository documentRepository;
+
+  @Mock private MinioService minioService;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private DocumentPurgeService documentPurgeService;
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getDeletion().setBatchSize(3);
+    documentPurgeService =
+        new DocumentPurgeService(
+            documentRepository,
+            minioService,
+            new TransactionTemplate(transactionManager),
+            properties);
+  }
+
+  @Test
+  void shouldRemoveObjectsInOneRequestThenDeleteRows() {
+    List<DeletedDocumentView> deleted =
+        List.of(deleted(FIRST_ID, "user/a.pdf"), deleted(SECOND_ID, "user/b.pdf"));
+    when(documentRepository.findDeleted(Limit.of(3))).thenReturn(deleted);
+    when(documentRepository.findLivePaths(anyCollection(), anyCollection())).thenReturn(List.of());
+    givenWritten("user/a.pdf", DELETED_AT.minusDays(1));
+    givenWritten("user/b.pdf", DELETED_AT.minusDays(1));
+    when(minioService.removeObjects(Set.of("user/a.pdf", "user/b.pdf"))).thenReturn(Set.of());
+
+    documentPurgeService.purgeDeletedDocuments();
+
+    verify(minioService, times(1)).removeObjects(any());
+    verify(documentRepository).deleteTagsByDocumentIdIn(List.of(FIRST_ID, SECOND_ID));
+    verify(documentRepository).deleteDeletedByIdIn(List.of(FIRST_ID, SECOND_ID));
+    verify(documentRepository, never()).requeueDeleted(anyList(), any());
+  }
+
+  @Test
+  void shouldKeepObjectsStillUsedByLiveDocuments() {
+    List<DeletedDocumentView> deleted =
+        List.of(deleted(FIRST_ID, "user/a.pdf"), deleted(SECOND_ID, "user/b.pdf"));
+    when(documentRepository.findDeleted(Limit.of(3))).thenReturn(deleted);
+    when(documentRepository.findLivePaths(anyCollection(), anyCollection()))
+        .thenReturn(List.of("user/a.pdf"));
+    givenWritten("user/b.pdf", DELETED_AT.minusDays(1));
+    when(minioService.removeObjects(Set.of("user/b.pdf"))).thenReturn(Set.of());
+
+    documentPurgeService.purgeDeletedDocuments();
+
+    verify(documentRepository).deleteDeletedByIdIn(List.of(FIRST_ID, SECOND_ID));
+  }
+
+  @Test
+  void shouldKeepObjectsWrittenAfterTheirDocumentWasDeleted() {
+    List<DeletedDocumentView> deleted =
+        List.of(deleted(FIRST_ID, "user/a.pdf"), deleted(SECOND_ID, "user/b.pdf"));
+    when(documentRepository.findDeleted(Limit.of(3))).thenReturn(deleted);
+    when(documentRepository.findLivePaths(anyCollection(), anyCollection())).thenReturn(List.of());
+    // Re-uploaded under the same name, its row not yet committed
+    givenWritten("user/a.pdf", DELETED_AT.plusMinutes(5));
+    when(minioService.statObject("user/b.pdf"))
+        .thenThrow(new DocumentNotFoundException("Document content not found: user/b.pdf"));
+    when(minioService.removeObjects(Set.of())).thenReturn(Set.of());
+
+    documentPurgeService.purgeDeletedDocuments();
+
+    verify(minioService).removeObjects(Set.of());
+    verify(documentRepository).deleteDeletedByIdIn(List.of(FIRST_ID, SECOND_ID));
+  }
+
+  @Test
+  void shouldRequeueDocumentsWhoseObjectsCouldNotBeRemoved() {
+    List<DeletedDocumentView> deleted =
+        List.of(
+            deleted(FIRST_ID, "user/a.pdf"),
+            deleted(SECOND_ID, "user/b.pdf"),
+            deleted(THIRD_ID, "user/c.pdf"));
+    when(documentRepository.findDeleted(Limit.of(3))).thenReturn(deleted);
+    when(documentRepository.findLivePaths(anyCollection(), anyCollection())).thenReturn(List.of());
+    givenWritten("user/a.pdf", DELETED_AT.minusDays(1));
+    givenWritten("user/b.pdf", DELETED_AT.minusDays(1));
+    givenWritten("user/c.pdf", DELETED_AT.minusDays(1));
+    when(minioService.removeObjects(any())).thenReturn(Set.of("user/b.pdf"));
+
+    DocumentPurgeService.Purge purge = documentPurgeService.purgeBatch();
+
+    assertThat(purge.selected()).isEqualTo(3);
+    assertThat(purge.purged()).isEqualTo(2);
+    verify(documentRepository).deleteDeletedByIdIn(List.of(FIRST_ID, THIRD_ID));
+    verify(documentRepository).requeueDeleted(eq(List.of(SECOND_ID)), any());
+  }
+
+  @Test
+  void shouldLeaveDocumentsMarkedWhenStorageIsUnavailable() {
+    when(documentRepository.findDeleted(Limit.of(3)))
+        .thenReturn(List.of(deleted(FIRST_ID, "user/a.pdf")));
+    when(documentRepository.findLivePaths(anyCollection(), anyCollection())).thenReturn(List.of());
+    givenWritten("user/a.pdf", DELETED_AT.minusDays(1));
+    when(minioService.removeObjects(any()))
+        .thenThrow(new DocumentUploadException("Failed to remove files from storage"));
+
+    documentPurgeService.purgeDeletedDocuments();
+
+    verify(documentRepository, never()).deleteDeletedByIdIn(anyList());
+  }
+
+  @Test
+  void shouldDoNothingWhenNoDocumentIsDeleted() {
+    when(documentRepository.findDeleted(Limit.of(3))).thenReturn(List.of());
+
+    documentPurgeService.purgeDeletedDocuments();
+
+    verify(minioService, never()).removeObjects(any());
+  }
+
+  private void givenWritten(String path, LocalDateTime lastModified) {
+    StatObjectResponse stat = mock(StatObjectResponse.class);
+    when(stat.lastModified()).thenReturn(lastModified.atZone(ZoneId.systemDefault()));
+    when(minioService.statObject(path)).thenReturn(stat);
+  }
+
+  private static DeletedDocumentView deleted(UUID id, String minioPath) {
+    return new DeletedDocumentView() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public String getUserName() {
+        return "user";
+      }
+
+      @Override
+      public String getMinioPath() {
+        return minioPath;
+      }
+
+      @Override
+      public LocalDateTime getDeletedAt() {
+        return DELETED_AT;
+      }
+    };
+  }
+}
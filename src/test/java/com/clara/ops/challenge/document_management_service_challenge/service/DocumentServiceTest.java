@@ -2,42 +2,64 @@ package com.clara.ops.challenge.document_management_service_challenge.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BatchDownloadUrlResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDownloadUrlResponse;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.PaginatedDocumentSearchResponse;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.TagFacet;
 import com.clara.ops.challenge.document_management_service_challenge.api.dto.UploadDocumentRequest;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
 import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathView;
 import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.QuotaExceededException;
 import com.clara.ops.challenge.document_management_service_challenge.mapper.DocumentMapper;
 import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class DocumentServiceTest {
@@ -48,6 +70,26 @@ class DocumentServiceTest {
 
   @Mock private DocumentMapper documentMapper;
 
+  @Spy private DocumentManagementProperties properties = new DocumentManagementProperties();
+
+  @Spy
+  private DocumentPathCache documentPathCache =
+      new DocumentPathCache(new DocumentManagementProperties());
+
+  @Mock private ReadYourWritesTracker readYourWritesTracker;
+
+  @Mock private SuggestionService suggestionService;
+
+  @Mock private UserCollectionVersionRepository userCollectionVersionRepository;
+
+  @Mock private UserUsageDeltaRepository userUsageDeltaRepository;
+
+  @Mock private UserUsageService userUsageService;
+
+  @Spy
+  private TransactionTemplate transactionTemplate =
+      new TransactionTemplate(mock(PlatformTransactionManager.class));
+
   @InjectMocks private DocumentService documentService;
 
   private UploadDocumentRequest uploadRequest;
@@ -107,6 +149,49 @@ class DocumentServiceTest {
             eq("application/pdf"),
             eq((long) mockFile.getSize()));
     verify(documentRepository, times(1)).save(any(DocumentEntity.class));
+    verify(userCollectionVersionRepository, times(1)).incrementVersion("testuser");
+    verify(userUsageDeltaRepository, times(1)).recordChange("testuser", 1, mockFile.getSize());
+    verify(readYourWritesTracker, times(1)).recordWrite(eq("testuser"), any());
+    verify(suggestionService, times(1))
+        .recordUpload(eq("testuser"), anyString(), eq(List.of("tag1", "tag2")));
+  }
+
+  @Test
+  void shouldRejectUploadOverQuotaBeforeSendingItToStorage() {
+    doThrow(new QuotaExceededException("Storage quota exceeded for user: testuser"))
+        .when(userUsageService)
+        .reserveQuota("testuser", mockFile.getSize());
+
+    assertThatThrownBy(() -> documentService.uploadDocument(uploadRequest, mockFile))
+        .isInstanceOf(QuotaExceededException.class);
+    verify(minioService, never())
+        .uploadFile(any(InputStream.class), anyString(), anyString(), anyLong());
+    verify(documentRepository, never()).save(any(DocumentEntity.class));
+  }
+
+  @Test
+  void shouldNotRecordUsageAgainWhenTheQuotaReservedIt() {
+    when(userUsageService.reserveQuota("testuser", mockFile.getSize())).thenReturn(true);
+    when(documentRepository.save(any(DocumentEntity.class))).thenReturn(documentEntity);
+
+    documentService.uploadDocument(uploadRequest, mockFile);
+
+    verify(documentRepository, times(1)).save(any(DocumentEntity.class));
+    verify(userUsageDeltaRepository, never()).recordChange(anyString(), anyLong(), anyLong());
+    verify(userUsageService, never()).releaseQuota(anyString(), anyLong());
+  }
+
+  @Test
+  void shouldReleaseTheReservedQuotaWhenTheUploadFails() {
+    when(userUsageService.reserveQuota("testuser", mockFile.getSize())).thenReturn(true);
+    doThrow(new RuntimeException("storage unavailable"))
+        .when(minioService)
+        .uploadFile(any(InputStream.class), anyString(), anyString(), anyLong());
+
+    assertThatThrownBy(() -> documentService.uploadDocument(uploadRequest, mockFile))
+        .isInstanceOf(DocumentUploadException.class);
+    verify(userUsageService, times(1)).releaseQuota("testuser", mockFile.getSize());
+    verify(documentRepository, never()).save(any(DocumentEntity.class));
   }
 
   @Test
@@ -158,29 +243,112 @@ class DocumentServiceTest {
     when(documentRepository.findAll(any(Specification.class), any(Pageable.class)))
         .thenReturn(page);
     when(documentMapper.toDto(any(DocumentEntity.class))).thenReturn(documentDto);
+    when(userCollectionVersionRepository.findVersionByUserName("testuser"))
+        .thenReturn(Optional.of(4L));
 
     PaginatedDocumentSearchResponse response = documentService.searchDocuments(filters, 0, 20);
 
     assertThat(response).isNotNull();
     assertThat(response.getDocuments()).hasSize(1);
+    assertThat(response.getCollectionVersion()).isEqualTo(4L);
     verify(documentRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
   }
 
+  @Test
+  void shouldSortByCreationDateDescendingWithIdTieBreakerByDefault() {
+    when(documentRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(Page.empty());
+
+    documentService.searchDocuments(new DocumentSearchFilters(), 0, 20);
+
+    ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(documentRepository).findAll(any(Specification.class), pageable.capture());
+    assertThat(pageable.getValue().getSort())
+        .isEqualTo(Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+  }
+
+  @Test
+  void shouldApplyRequestedSortWithIdTieBreaker() {
+    when(documentRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(Page.empty());
+
+    documentService.searchDocuments(
+        DocumentSearchFilters.builder().user("testuser").build(), 0, 20, "size", false);
+    documentService.searchDocuments(
+        DocumentSearchFilters.builder().user("testuser").build(), 0, 20, "name,desc", false);
+
+    ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(documentRepository, times(2)).findAll(any(Specification.class), pageable.capture());
+    assertThat(pageable.getAllValues())
+        .extracting(Pageable::getSort)
+        .containsExactly(
+            Sort.by(Sort.Direction.ASC, "fileSize", "id"),
+            Sort.by(Sort.Direction.DESC, "documentName", "id"));
+  }
+
+  @Test
+  void shouldReturnTagFacetsWhenRequested() {
+    Page<DocumentEntity> page = new PageImpl<>(Arrays.asList(documentEntity));
+    Map<String, Long> counts = new LinkedHashMap<>();
+    counts.put("tag1", 5L);
+    counts.put("tag2", 2L);
+
+    when(documentRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(page);
+    when(documentMapper.toDto(any(DocumentEntity.class))).thenReturn(documentDto);
+    when(documentRepository.countTopTags(any(Specification.class), eq(10))).thenReturn(counts);
+
+    PaginatedDocumentSearchResponse response =
+        documentService.searchDocuments(new DocumentSearchFilters(), 0, 20, null, true);
+
+    assertThat(response.getFacets())
+        .extracting(TagFacet::getTag, TagFacet::getCount)
+        .containsExactly(tuple("tag1", 5L), tuple("tag2", 2L));
+  }
+
+  @Test
+  void shouldNotComputeTagFacetsWhenNotRequested() {
+    Page<DocumentEntity> page = new PageImpl<>(Arrays.asList(documentEntity));
+
+    when(documentRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(page);
+    when(documentMapper.toDto(any(DocumentEntity.class))).thenReturn(documentDto);
+
+    PaginatedDocumentSearchResponse response =
+        documentService.searchDocuments(new DocumentSearchFilters(), 0, 20);
+
+    assertThat(response.getFacets()).isNull();
+    verify(documentRepository, never()).countTopTags(any(Specification.class), anyInt());
+  }
+
+  @Test
+  void shouldReturnCollectionVersionOrZeroForUserWithoutDocuments() {
+    when(userCollectionVersionRepository.findVersionByUserName("testuser"))
+        .thenReturn(Optional.of(7L));
+
+    assertThat(documentService.getCollectionVersion("testuser")).isEqualTo(7L);
+    assertThat(documentService.getCollectionVersion("unknown")).isZero();
+  }
+
   @Test
   void shouldReturnPresignedUrlWhenDocumentIdIsValid() {
     UUID documentId = UUID.randomUUID();
     documentEntity.setId(documentId);
     String expectedUrl = "http://minio:9000/bucket/testuser/testdoc.pdf?presigned=true";
 
-    when(documentRepository.findById(documentId)).thenReturn(Optional.of(documentEntity));
-    when(minioService.generatePresignedUrl(anyString())).thenReturn(expectedUrl);
+    when(documentRepository.findMinioPathById(documentId))
+        .thenReturn(Optional.of(documentEntity.getMinioPath()));
+    Instant expiresAt = Instant.now().plusSeconds(3600);
+    when(minioService.presign(anyString())).thenReturn(new PresignedUrl(expectedUrl, expiresAt));
 
     DocumentDownloadUrlResponse response = documentService.getDownloadUrl(documentId.toString());
 
     assertThat(response).isNotNull();
     assertThat(response.getUrl()).isEqualTo(expectedUrl);
-    verify(documentRepository, times(1)).findById(documentId);
-    verify(minioService, times(1)).generatePresignedUrl(documentEntity.getMinioPath());
+    assertThat(response.getExpiresAt()).isEqualTo(expiresAt);
+    verify(documentRepository, times(1)).findMinioPathById(documentId);
+    verify(documentRepository, never()).findById(any());
+    verify(minioService, times(1)).presign(documentEntity.getMinioPath());
   }
 
   @Test
@@ -196,10 +364,98 @@ class DocumentServiceTest {
   @Test
   void shouldThrowExceptionWhenDocumentNotFound() {
     UUID documentId = UUID.randomUUID();
-    when(documentRepository.findById(documentId)).thenReturn(Optional.empty());
+    when(documentRepository.findMinioPathById(documentId)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> documentService.getDownloadUrl(documentId.toString()))
         .isInstanceOf(DocumentNotFoundException.class)
         .hasMessageContaining("Document not found");
   }
+
+  @Test
+  void shouldReturnDownloadUrlsForBatchAndMarkMissingDocuments() {
+    UUID missingId = UUID.randomUUID();
+    String documentId = documentEntity.getId().toString();
+    when(documentRepository.findPathsByIdIn(anyCollection()))
+        .thenReturn(List.of(pathView(documentEntity.getId(), "testuser/testdoc.pdf")));
+    when(minioService.generatePresignedUrl("testuser/testdoc.pdf"))
+        .thenReturn("http://minio:9000/bucket/testuser/testdoc.pdf?presigned=true");
+
+    BatchDownloadUrlResponse response =
+        documentService.getDownloadUrls(List.of(documentId, missingId.toString(), documentId));
+
+    assertThat(response.getUrls()).containsOnlyKeys(documentId, missingId.toString());
+    assertThat(response.getUrls().get(documentId).isFound()).isTrue();
+    assertThat(response.getUrls().get(documentId).getUrl())
+        .isEqualTo("http://minio:9000/bucket/testuser/testdoc.pdf?presigned=true");
+    assertThat(response.getUrls().get(missingId.toString()).isFound()).isFalse();
+    assertThat(response.getUrls().get(missingId.toString()).getUrl()).isNull();
+    verify(documentRepository, never()).findById(any());
+    verify(minioService, times(1)).generatePresignedUrl("testuser/testdoc.pdf");
+  }
+
+  @Test
+  void shouldServeRepeatedDownloadPathFromCache() {
+    UUID documentId = documentEntity.getId();
+    when(documentRepository.findMinioPathById(documentId))
+        .thenReturn(Optional.of("testuser/testdoc.pdf"));
+    when(minioService.presign("testuser/testdoc.pdf"))
+        .thenReturn(new PresignedUrl("http://url", Instant.now().plusSeconds(3600)));
+    when(minioService.generatePresignedUrl("testuser/testdoc.pdf")).thenReturn("http://url");
+
+    documentService.getDownloadUrl(documentId.toString());
+    DocumentDownloadUrlResponse response = documentService.getDownloadUrl(documentId.toString());
+    BatchDownloadUrlResponse batch =
+        documentService.getDownloadUrls(List.of(documentId.toString()));
+
+    assertThat(response.getUrl()).isEqualTo("http://url");
+    assertThat(batch.getUrls().get(documentId.toString()).isFound()).isTrue();
+    verify(documentRepository, times(1)).findMinioPathById(documentId);
+    verify(documentRepository, never()).findPathsByIdIn(anyCollection());
+  }
+
+  @Test
+  void shouldFindCachedDownloadUrlOnlyOnceThePathIsCached() {
+    UUID documentId = documentEntity.getId();
+    PresignedUrl url = new PresignedUrl("http://url", Instant.now().plusSeconds(3600));
+    when(documentRepository.findMinioPathById(documentId))
+        .thenReturn(Optional.of("testuser/testdoc.pdf"));
+    when(minioService.presign("testuser/testdoc.pdf")).thenReturn(url);
+    when(minioService.findCachedUrl("testuser/testdoc.pdf")).thenReturn(Optional.of(url));
+
+    assertThat(documentService.findCachedDownloadUrl(documentId.toString())).isEmpty();
+    documentService.getDownloadUrl(documentId.toString());
+
+    assertThat(documentService.findCachedDownloadUrl(documentId.toString()))
+        .get()
+        .extracting(DocumentDownloadUrlResponse::getUrl)
+        .isEqualTo("http://url");
+    verify(documentRepository, times(1)).findMinioPathById(documentId);
+  }
+
+  @Test
+  void shouldNotCacheUnknownDocumentPath() {
+    UUID documentId = UUID.randomUUID();
+    when(documentRepository.findMinioPathById(documentId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> documentService.getDownloadUrl(documentId.toString()))
+        .isInstanceOf(DocumentNotFoundException.class);
+    assertThatThrownBy(() -> documentService.getDownloadUrl(documentId.toString()))
+        .isInstanceOf(DocumentNotFoundException.class);
+
+    verify(documentRepository, times(2)).findMinioPathById(documentId);
+  }
+
+  private static DocumentPathView pathView(UUID id, String minioPath) {
+    return new DocumentPathView() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public String getMinioPath() {
+        return minioPath;
+      }
+    };
+  }
 }
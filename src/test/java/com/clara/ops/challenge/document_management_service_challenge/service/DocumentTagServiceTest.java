@@ -0,0 +1,192 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static com.clara.ops.challenge.document_management_service_challenge.service.DocumentDeletionServiceTest.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentDto;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentTagsUpdateRequest;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.DocumentEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.entity.TagEntity;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentKeyView;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentTagWriter;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserCollectionVersionRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.mapper.DocumentMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentTagServiceTest {
+
+  private static final UUID DOCUMENT_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+  @Mock private DocumentRepository documentRepository;
+
+  @Mock private DocumentTagWriter documentTagWriter;
+
+  @Mock private UserCollectionVersionRepository userCollectionVersionRepository;
+
+  @Mock private ReadYourWritesTracker readYourWritesTracker;
+
+  @Mock private SuggestionService suggestionService;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private DocumentTagService documentTagService;
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties properties = new DocumentManagementProperties();
+    properties.getRetag().setBatchSize(2);
+    documentTagService =
+        new DocumentTagService(
+            documentRepository,
+            documentTagWriter,
+            userCollectionVersionRepository,
+            readYourWritesTracker,
+            suggestionService,
+            new DocumentMapper(),
+            new TransactionTemplate(transactionManager),
+            properties);
+  }
+
+  @Test
+  void shouldApplyTrimmedTagChangesAndReturnTheDocument() {
+    when(documentRepository.findOwnerById(DOCUMENT_ID))
+        .thenReturn(Optional.of(owner(DOCUMENT_ID, "testuser")));
+    when(documentTagWriter.update(
+            eq(List.of(DOCUMENT_ID)), eq(Set.of("tag3")), eq(Set.of("tag1")), any()))
+        .thenReturn(1);
+    when(documentRepository.findById(DOCUMENT_ID))
+        .thenReturn(Optional.of(document("tag2", "tag3")));
+
+    DocumentDto document =
+        documentTagService.updateTags(
+            DOCUMENT_ID.toString(),
+            DocumentTagsUpdateRequest.builder()
+                .add(List.of(" tag3 ", " "))
+                .remove(List.of("tag1"))
+                .build());
+
+    assertThat(document.getTags()).containsExactly("tag2", "tag3");
+    verify(userCollectionVersionRepository).incrementVersion("testuser");
+    verify(readYourWritesTracker).recordWrite("testuser", DOCUMENT_ID);
+    verify(suggestionService).recordTagChange("testuser");
+  }
+
+  @Test
+  void shouldThrowDocumentNotFoundExceptionWhenDocumentIsDeletedMeanwhile() {
+    when(documentRepository.findOwnerById(DOCUMENT_ID))
+        .thenReturn(Optional.of(owner(DOCUMENT_ID, "testuser")));
+    when(documentTagWriter.update(anyList(), any(), any(), any())).thenReturn(0);
+
+    assertThatThrownBy(
+            () ->
+                documentTagService.updateTags(
+                    DOCUMENT_ID.toString(),
+                    DocumentTagsUpdateRequest.builder().add(List.of("tag3")).build()))
+        .isInstanceOf(DocumentNotFoundException.class);
+    verify(userCollectionVersionRepository, never()).incrementVersion("testuser");
+    verify(suggestionService, never()).recordTagChange("testuser");
+  }
+
+  @Test
+  void shouldRetagMatchingDocumentsInBatches() {
+    List<DocumentKeyView> first = List.of(key("testuser"), key("testuser"));
+    List<DocumentKeyView> second = List.of(key("testuser"));
+    when(documentRepository.findBy(any(Specification.class), any())).thenReturn(first, second);
+    when(documentTagWriter.update(anyList(), any(), any(), any())).thenReturn(2, 1);
+
+    long retagged =
+        documentTagService.retagDocuments(
+            DocumentRetagRequest.builder()
+                .filters(DocumentSearchFilters.builder().user("testuser").build())
+                .remove(List.of("draft"))
+                .build());
+
+    assertThat(retagged).isEqualTo(3);
+    verify(documentTagWriter)
+        .update(
+            eq(first.stream().map(DocumentKeyView::getId).toList()),
+            eq(Set.of()),
+            eq(Set.of("draft")),
+            any());
+    verify(userCollectionVersionRepository, times(2)).incrementVersion("testuser");
+    verify(suggestionService, times(2)).recordTagChange("testuser");
+  }
+
+  @Test
+  void shouldNotWriteAnythingWhenNoDocumentMatches() {
+    when(documentRepository.findBy(any(Specification.class), any())).thenReturn(List.of());
+
+    long retagged =
+        documentTagService.retagDocuments(
+            DocumentRetagRequest.builder()
+                .filters(DocumentSearchFilters.builder().user("testuser").build())
+                .add(List.of("archived"))
+                .build());
+
+    assertThat(retagged).isZero();
+    verify(documentTagWriter, never()).update(anyList(), any(), any(), any());
+  }
+
+  private static DocumentEntity document(String... tags) {
+    DocumentEntity document =
+        DocumentEntity.builder()
+            .id(DOCUMENT_ID)
+            .userName("testuser")
+            .documentName("testdoc.pdf")
+            .fileSize(1024L)
+            .fileType("application/pdf")
+            .createdAt(LocalDateTime.now())
+            .build();
+    for (String tag : tags) {
+      document.addTag(TagEntity.builder().tagName(tag).build());
+    }
+    return document;
+  }
+
+  private static DocumentKeyView key(String userName) {
+    UUID id = UUID.randomUUID();
+    LocalDateTime createdAt = LocalDateTime.now();
+    return new DocumentKeyView() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public String getUserName() {
+        return userName;
+      }
+
+      @Override
+      public LocalDateTime getCreatedAt() {
+        return createdAt;
+      }
+    };
+  }
+}
@@ -3,23 +3,41 @@ package com.clara.ops.challenge.document_management_service_challenge.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.clara.ops.challenge.document_management_service_challenge.config.MinioProperties;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentModifiedException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
 import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
-import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
 import io.minio.ObjectWriteResponse;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Item;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -32,12 +50,23 @@ class MinioServiceTest {
 
   @Mock private ObjectWriteResponse objectWriteResponse;
 
-  @InjectMocks private MinioService minioService;
+  @Mock private PresignedUrlSigner presignedUrlSigner;
+
+  private MinioService minioService;
 
   @BeforeEach
   void setUp() {
     lenient().when(minioProperties.getBucketName()).thenReturn("test-bucket");
     lenient().when(minioProperties.getPresignedUrlExpirySeconds()).thenReturn(3600);
+    when(minioProperties.getPresignedUrlCache())
+        .thenReturn(new MinioProperties.PresignedUrlCache());
+
+    minioService =
+        new MinioService(
+            minioClient,
+            minioProperties,
+            new PresignedUrlCache(minioProperties),
+            presignedUrlSigner);
   }
 
   @Test
@@ -75,24 +104,198 @@ class MinioServiceTest {
     String objectPath = "user/document.pdf";
     String expectedUrl = "http://localhost:9000/test-bucket/user/document.pdf?presigned=true";
 
-    when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
-        .thenReturn(expectedUrl);
+    when(presignedUrlSigner.presignGet(anyString(), anyString(), anyInt())).thenReturn(expectedUrl);
 
     String actualUrl = minioService.generatePresignedUrl(objectPath);
 
     assertThat(actualUrl).isEqualTo(expectedUrl);
-    verify(minioClient, times(1)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+    verify(presignedUrlSigner, times(1)).presignGet("test-bucket", objectPath, 3600);
+  }
+
+  @Test
+  void shouldReportWhenPresignedUrlExpires() throws Exception {
+    when(presignedUrlSigner.presignGet(anyString(), anyString(), anyInt()))
+        .thenReturn("http://localhost:9000/test-bucket/user/document.pdf?signature=1");
+    Instant before = Instant.now();
+
+    PresignedUrl url = minioService.presign("user/document.pdf");
+
+    assertThat(url.getExpiresAt())
+        .isBetween(before.plusSeconds(3600), Instant.now().plusSeconds(3600));
   }
 
   @Test
   void shouldThrowDocumentUploadExceptionWhenMinioFailsGeneratingUrl() throws Exception {
     String objectPath = "user/document.pdf";
 
-    when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+    when(presignedUrlSigner.presignGet(anyString(), anyString(), anyInt()))
         .thenThrow(new RuntimeException("MinIO error"));
 
     assertThatThrownBy(() -> minioService.generatePresignedUrl(objectPath))
         .isInstanceOf(DocumentUploadException.class)
         .hasMessageContaining("Failed to generate download URL");
   }
+
+  @Test
+  void shouldReuseCachedPresignedUrlForSameObject() throws Exception {
+    String objectPath = "user/document.pdf";
+    when(presignedUrlSigner.presignGet(anyString(), anyString(), anyInt()))
+        .thenReturn("http://localhost:9000/test-bucket/user/document.pdf?signature=1")
+        .thenReturn("http://localhost:9000/test-bucket/user/document.pdf?signature=2");
+
+    String first = minioService.generatePresignedUrl(objectPath);
+    String second = minioService.generatePresignedUrl(objectPath);
+
+    assertThat(second).isEqualTo(first);
+    verify(presignedUrlSigner, times(1)).presignGet("test-bucket", objectPath, 3600);
+  }
+
+  @Test
+  void shouldSignEveryTimeWhenUrlCacheIsDisabled() throws Exception {
+    MinioProperties.PresignedUrlCache disabled = new MinioProperties.PresignedUrlCache();
+    disabled.setEnabled(false);
+    when(minioProperties.getPresignedUrlCache()).thenReturn(disabled);
+    minioService =
+        new MinioService(
+            minioClient,
+            minioProperties,
+            new PresignedUrlCache(minioProperties),
+            presignedUrlSigner);
+    when(presignedUrlSigner.presignGet(anyString(), anyString(), anyInt()))
+        .thenReturn("http://localhost:9000/test-bucket/user/document.pdf?signature=1");
+
+    minioService.generatePresignedUrl("user/document.pdf");
+    minioService.generatePresignedUrl("user/document.pdf");
+
+    verify(presignedUrlSigner, times(2)).presignGet(anyString(), anyString(), anyInt());
+  }
+
+  @Test
+  void shouldNotCacheFailedSigning() throws Exception {
+    String objectPath = "user/document.pdf";
+    when(presignedUrlSigner.presignGet(anyString(), anyString(), anyInt()))
+        .thenThrow(new RuntimeException("MinIO error"))
+        .thenReturn("http://localhost:9000/test-bucket/user/document.pdf?signature=1");
+
+    assertThatThrownBy(() -> minioService.generatePresignedUrl(objectPath))
+        .isInstanceOf(DocumentUploadException.class);
+    assertThat(minioService.generatePresignedUrl(objectPath)).endsWith("signature=1");
+  }
+
+  @Test
+  void shouldRequestOnlyTheGivenRangeFromMinio() throws Exception {
+    ArgumentCaptor<GetObjectArgs> args = ArgumentCaptor.forClass(GetObjectArgs.class);
+    when(minioClient.getObject(args.capture())).thenReturn(null);
+
+    minioService.getObjectIfMatch("user/document.pdf", "\"etag\"", 1024L, 512L);
+
+    assertThat(args.getValue().bucket()).isEqualTo("test-bucket");
+    assertThat(args.getValue().object()).isEqualTo("user/document.pdf");
+    assertThat(args.getValue().offset()).isEqualTo(1024L);
+    assertThat(args.getValue().length()).isEqualTo(512L);
+    assertThat(args.getValue().matchETag()).isEqualTo("\"etag\"");
+  }
+
+  @Test
+  void shouldThrowDocumentModifiedExceptionWhenObjectNoLongerMatchesEtag() throws Exception {
+    ErrorResponse preconditionFailed =
+        new ErrorResponse(
+            "PreconditionFailed",
+            "At least one of the pre-conditions you specified did not hold",
+            "test-bucket",
+            "user/document.pdf",
+            "",
+            "",
+            "");
+    when(minioClient.getObject(any(GetObjectArgs.class)))
+        .thenThrow(new ErrorResponseException(preconditionFailed, null, null));
+
+    assertThatThrownBy(
+            () -> minioService.getObjectIfMatch("user/document.pdf", "\"etag\"", 0L, 10L))
+        .isInstanceOf(DocumentModifiedException.class)
+        .hasMessageContaining("user/document.pdf");
+  }
+
+  @Test
+  void shouldThrowDocumentNotFoundExceptionWhenObjectIsMissing() throws Exception {
+    ErrorResponse noSuchKey =
+        new ErrorResponse(
+            "NoSuchKey", "Object does not exist", "test-bucket", "user/missing.pdf", "", "", "");
+    when(minioClient.statObject(any(StatObjectArgs.class)))
+        .thenThrow(new ErrorResponseException(noSuchKey, null, null));
+
+    assertThatThrownBy(() -> minioService.statObject("user/missing.pdf"))
+        .isInstanceOf(DocumentNotFoundException.class)
+        .hasMessageContaining("user/missing.pdf");
+  }
+
+  @Test
+  void shouldThrowDocumentUploadExceptionWhenMinioFailsDuringRead() throws Exception {
+    when(minioClient.statObject(any(StatObjectArgs.class)))
+        .thenThrow(new RuntimeException("MinIO error"));
+
+    assertThatThrownBy(() -> minioService.statObject("user/document.pdf"))
+        .isInstanceOf(DocumentUploadException.class)
+        .hasMessageContaining("Failed to read file from storage");
+  }
+
+  @Test
+  void shouldRemoveObjectsInRequestsOfAtMostOneThousandKeys() {
+    when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of());
+    List<String> paths = IntStream.range(0, 1500).mapToObj(i -> "user/" + i + ".pdf").toList();
+
+    assertThat(minioService.removeObjects(paths)).isEmpty();
+
+    verify(minioClient, times(2)).removeObjects(any(RemoveObjectsArgs.class));
+  }
+
+  @Test
+  void shouldReportObjectsThatCouldNotBeRemovedButIgnoreMissingOnes() {
+    DeleteError missing = mock(DeleteError.class);
+    when(missing.code()).thenReturn("NoSuchKey");
+    DeleteError denied = mock(DeleteError.class);
+    when(denied.code()).thenReturn("AccessDenied");
+    when(denied.objectName()).thenReturn("user/b.pdf");
+    when(minioClient.removeObjects(any(RemoveObjectsArgs.class)))
+        .thenReturn(List.of(new Result<>(missing), new Result<>(denied)));
+
+    assertThat(minioService.removeObjects(List.of("user/a.pdf", "user/b.pdf")))
+        .containsExactly("user/b.pdf");
+  }
+
+  @Test
+  void shouldThrowDocumentUploadExceptionWhenMinioFailsDuringRemove() {
+    when(minioClient.removeObjects(any(RemoveObjectsArgs.class)))
+        .thenReturn(List.of(new Result<DeleteError>(new IOException("MinIO error"))));
+
+    assertThatThrownBy(() -> minioService.removeObjects(List.of("user/a.pdf")))
+        .isInstanceOf(DocumentUploadException.class)
+        .hasMessageContaining("Failed to remove files from storage");
+  }
+
+  @Test
+  void shouldListObjectsAfterTheGivenKeyLazily() throws Exception {
+    Item item = mock(Item.class);
+    when(item.objectName()).thenReturn("user/b.pdf");
+    when(item.lastModified()).thenReturn(ZonedDateTime.parse("2024-01-01T00:00:00Z"));
+    when(item.etag()).thenReturn("\"a1b2c3\"");
+    ArgumentCaptor<ListObjectsArgs> args = ArgumentCaptor.forClass(ListObjectsArgs.class);
+    when(minioClient.listObjects(args.capture())).thenReturn(List.of(new Result<>(item)));
+
+    assertThat(minioService.listObjects("user/a.pdf").toList())
+        .containsExactly(
+            new StoredObject("user/b.pdf", Instant.parse("2024-01-01T00:00:00Z"), "a1b2c3"));
+    assertThat(args.getValue().startAfter()).isEqualTo("user/a.pdf");
+    assertThat(args.getValue().recursive()).isTrue();
+  }
+
+  @Test
+  void shouldThrowDocumentUploadExceptionWhenMinioFailsDuringListing() {
+    when(minioClient.listObjects(any(ListObjectsArgs.class)))
+        .thenReturn(List.of(new Result<Item>(new IOException("MinIO error"))));
+
+    assertThatThrownBy(() -> minioService.listObjects(null).toList())
+        .isInstanceOf(DocumentUploadException.class)
+        .hasMessageContaining("Failed to list files in storage");
+  }
 }
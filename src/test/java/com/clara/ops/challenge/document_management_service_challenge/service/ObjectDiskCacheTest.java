@@ -0,0 +1,171 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ObjectDiskCacheTest {
+
+  private static final String OBJECT_PATH = "testuser/testdoc.pdf";
+  private static final String ETAG = "\"abc123\"";
+
+  @TempDir Path directory;
+
+  private final MinioService minioService = mock(MinioService.class);
+  private final DocumentManagementProperties properties = new DocumentManagementProperties();
+  private final byte[] payload = payload(10_000);
+
+  @BeforeEach
+  void setUp() {
+    DocumentManagementProperties.DiskCache diskCache =
+        properties.getDownload().getProxy().getDiskCache();
+    diskCache.setEnabled(true);
+    diskCache.setDirectory(directory.toString());
+    diskCache.setAdmitAfterReads(2);
+  }
+
+  @Test
+  void shouldServeObjectFromDiskOnceReadOftenEnough() throws IOException {
+    when(minioService.getObjectIfMatch(OBJECT_PATH, ETAG))
+        .thenReturn(new ByteArrayInputStream(payload));
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertThat(cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, output)).isFalse();
+    assertThat(cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, output)).isFalse();
+    assertThat(cache.transfer(OBJECT_PATH, ETAG, payload.length, 5_000, 1_000, output)).isTrue();
+
+    assertThat(output.toByteArray()).isEqualTo(Arrays.copyOfRange(payload, 5_000, 6_000));
+  }
+
+  @Test
+  void shouldNotServeCopyOfOtherVersion() throws IOException {
+    when(minioService.getObjectIfMatch(OBJECT_PATH, ETAG))
+        .thenReturn(new ByteArrayInputStream(payload));
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+    cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream());
+    cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream());
+
+    assertThat(
+            cache.transfer(
+                OBJECT_PATH, "\"changed\"", payload.length, 0, 10, new ByteArrayOutputStream()))
+        .isFalse();
+  }
+
+  @Test
+  void shouldEvictAndFailWhenCopyOnDiskIsTruncated() throws IOException {
+    when(minioService.getObjectIfMatch(OBJECT_PATH, ETAG))
+        .thenReturn(new ByteArrayInputStream(payload));
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+    cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream());
+    cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream());
+    try (Stream<Path> files = Files.list(directory)) {
+      Path copy = files.filter(file -> file.toString().endsWith(".object")).findFirst().get();
+      Files.write(copy, Arrays.copyOf(payload, 100));
+    }
+
+    assertThatThrownBy(
+            () ->
+                cache.transfer(
+                    OBJECT_PATH, ETAG, payload.length, 0, 1_000, new ByteArrayOutputStream()))
+        .isInstanceOf(IOException.class);
+    assertThat(
+            cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream()))
+        .isFalse();
+  }
+
+  @Test
+  void shouldNotAdmitObjectLargerThanLimit() throws IOException {
+    properties.getDownload().getProxy().getDiskCache().setMaxObjectSizeMb(1);
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+    long size = 2L * 1024 * 1024;
+
+    for (int read = 0; read < 3; read++) {
+      assertThat(cache.transfer(OBJECT_PATH, ETAG, size, 0, 10, new ByteArrayOutputStream()))
+          .isFalse();
+    }
+    verify(minioService, never()).getObjectIfMatch(anyString(), anyString());
+  }
+
+  @Test
+  void shouldDiscardCopyWhenObjectSizeDoesNotMatch() throws IOException {
+    when(minioService.getObjectIfMatch(OBJECT_PATH, ETAG))
+        .thenReturn(new ByteArrayInputStream(payload(10)));
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+    cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream());
+    cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream());
+
+    assertThat(
+            cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream()))
+        .isFalse();
+    assertThat(filesIn(directory)).isZero();
+  }
+
+  @Test
+  void shouldDeleteFilesBeyondMaximumSize() throws IOException {
+    byte[] large = payload(600 * 1024);
+    when(minioService.getObjectIfMatch(anyString(), anyString()))
+        .thenAnswer(invocation -> new ByteArrayInputStream(large));
+    properties.getDownload().getProxy().getDiskCache().setMaxSizeMb(1);
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+
+    for (String path : new String[] {"user/first.pdf", "user/second.pdf"}) {
+      cache.transfer(path, ETAG, large.length, 0, 10, new ByteArrayOutputStream());
+      cache.transfer(path, ETAG, large.length, 0, 10, new ByteArrayOutputStream());
+    }
+
+    assertThat(filesIn(directory)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRemoveFilesLeftByPreviousRun() throws IOException {
+    Files.write(directory.resolve("stale.object"), payload);
+
+    new ObjectDiskCache(minioService, properties, Runnable::run);
+
+    assertThat(filesIn(directory)).isZero();
+  }
+
+  @Test
+  void shouldNeverServeWhenDisabled() throws IOException {
+    properties.getDownload().getProxy().getDiskCache().setEnabled(false);
+    ObjectDiskCache cache = new ObjectDiskCache(minioService, properties, Runnable::run);
+
+    for (int read = 0; read < 3; read++) {
+      assertThat(
+              cache.transfer(OBJECT_PATH, ETAG, payload.length, 0, 10, new ByteArrayOutputStream()))
+          .isFalse();
+    }
+    verify(minioService, never()).getObjectIfMatch(anyString(), anyString());
+  }
+
+  private static long filesIn(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  private static byte[] payload(int size) {
+    byte[] payload = new byte[size];
+    for (int i = 0; i < size; i++) {
+      payload[i] = (byte) i;
+    }
+    return payload;
+  }
+}
@@ -0,0 +1,77 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Spy private DocumentManagementProperties properties = new DocumentManagementProperties();
+
+  @InjectMocks private PartitionMaintenanceService partitionMaintenanceService;
+
+  @Test
+  void shouldEnsurePartitionsFromCurrentMonthThroughMonthsAhead() throws Exception {
+    givenResult(1, 0, new String[0]);
+
+    partitionMaintenanceService.ensureMonthlyPartitions();
+
+    verify(jdbcTemplate)
+        .queryForObject(
+            anyString(),
+            any(RowMapper.class),
+            eq(Date.valueOf(LocalDate.now().withDayOfMonth(1))),
+            eq(4));
+  }
+
+  @Test
+  void shouldReportMovedRowsAndFailedMonthsWithoutFailing() throws Exception {
+    givenResult(2, 5, new String[] {"2031_01"});
+
+    assertThatCode(() -> partitionMaintenanceService.ensureMonthlyPartitions())
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldNotPropagateDatabaseErrors() {
+    when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(), any()))
+        .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+    assertThatCode(() -> partitionMaintenanceService.ensureMonthlyPartitions())
+        .doesNotThrowAnyException();
+  }
+
+  /** Answers the function call with one row, mapped by the service's own row mapper. */
+  private void givenResult(int created, long movedRows, String[] failedMonths) throws Exception {
+    ResultSet row = mock(ResultSet.class);
+    Array failed = mock(Array.class);
+    when(row.getInt("created")).thenReturn(created);
+    when(row.getLong("moved_rows")).thenReturn(movedRows);
+    when(row.getArray("failed_months")).thenReturn(failed);
+    when(failed.getArray()).thenReturn(failedMonths);
+    when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(), any()))
+        .thenAnswer(invocation -> invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0));
+  }
+}
@@ -0,0 +1,62 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.clara.ops.challenge.document_management_service_challenge.config.MinioProperties;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PresignedUrlSignerTest {
+
+  private static final Pattern AMZ_DATE = Pattern.compile("X-Amz-Date=(\\d{8}T\\d{6}Z)");
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "user/document.pdf",
+        "user name/Quarterly report (final) + notes.pdf",
+        "usér/日本語 ~*.pdf"
+      })
+  void shouldProduceSameUrlAsMinioClient(String objectPath) throws Exception {
+    MinioProperties properties = new MinioProperties();
+    properties.setEndpoint("http://localhost:9000");
+    properties.setAccessKey("test-access-key");
+    properties.setSecretKey("test-secret-key");
+    properties.setRegion("eu-west-1");
+    MinioClient minioClient =
+        MinioClient.builder()
+            .endpoint(properties.getEndpoint())
+            .credentials(properties.getAccessKey(), properties.getSecretKey())
+            .region(properties.getRegion())
+            .build();
+
+    String expected =
+        minioClient.getPresignedObjectUrl(
+            GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET)
+                .bucket("test-bucket")
+                .object(objectPath)
+                .expiry(3600, TimeUnit.SECONDS)
+                .build());
+
+    Matcher amzDate = AMZ_DATE.matcher(expected);
+    assertThat(amzDate.find()).isTrue();
+    Instant signedAt = TIMESTAMP.parse(amzDate.group(1), Instant::from);
+    PresignedUrlSigner signer =
+        new PresignedUrlSigner(properties, Clock.fixed(signedAt, ZoneOffset.UTC));
+
+    assertThat(signer.presignGet("test-bucket", objectPath, 3600)).isEqualTo(expected);
+  }
+}
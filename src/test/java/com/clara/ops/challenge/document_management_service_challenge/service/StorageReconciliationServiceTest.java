@@ -0,0 +1,255 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.StorageReconciliationResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathReader;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentPathReader.DocumentPath;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentNotFoundException;
+import com.clara.ops.challenge.document_management_service_challenge.exception.DocumentUploadException;
+import com.clara.ops.challenge.document_management_service_challenge.service.StorageReconciliationService.KeyRange;
+import io.minio.StatObjectResponse;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class StorageReconciliationServiceTest {
+
+  private static final Instant OLD_OBJECT = Instant.now().minus(2, ChronoUnit.HOURS);
+  private static final Instant NEW_OBJECT = Instant.now();
+  private static final LocalDateTime OLD_DOCUMENT = LocalDateTime.now().minusHours(2);
+  private static final LocalDateTime NEW_DOCUMENT = LocalDateTime.now();
+  private static final String ETAG = "a1b2c3";
+  private static final UUID DANGLING_ID = UUID.randomUUID();
+  private static final UUID SECOND_DANGLING_ID = UUID.randomUUID();
+
+  @Mock private MinioService minioService;
+
+  @Mock private DocumentPathReader documentPathReader;
+
+  @Mock private DocumentRepository documentRepository;
+
+  @Mock private DocumentDeletionService documentDeletionService;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private DocumentManagementProperties properties;
+
+  private StorageReconciliationService storageReconciliationService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new DocumentManagementProperties();
+    properties.getReconciliation().setSplitPoints(List.of());
+    storageReconciliationService =
+        new StorageReconciliationService(
+            minioService,
+            documentPathReader,
+            documentRepository,
+            documentDeletionService,
+            transactionManager,
+            properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    storageReconciliationService.shutdown();
+  }
+
+  @Test
+  void shouldReportDriftOlderThanTheGracePeriodWithoutRepairing() {
+    givenDrift();
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getObjectsScanned()).isEqualTo(4);
+    assertThat(report.getDocumentsScanned()).isEqualTo(5);
+    // The young object and document may belong to an upload in progress; the deleted document's
+    // object is left to the purge
+    assertThat(report.getOrphanedObjects()).isEqualTo(1);
+    assertThat(report.getOrphanedPaths()).containsExactly("a.pdf");
+    assertThat(report.getDanglingDocuments()).isEqualTo(2);
+    assertThat(report.getDanglingPaths()).containsExactly("d.pdf");
+    assertThat(report.getFailedRanges()).isEmpty();
+    verify(minioService, never()).removeObjects(anyCollection());
+    verify(documentDeletionService, never()).deleteDanglingDocuments(anyCollection(), any());
+  }
+
+  @Test
+  void shouldRemoveOrphanedObjectsAndDeleteDanglingDocumentsWhenRepairing() {
+    properties.getReconciliation().setRepair(true);
+    givenDrift();
+    when(documentRepository.findReferencedPaths(List.of("a.pdf"))).thenReturn(List.of());
+    when(minioService.removeObjects(List.of("a.pdf"))).thenReturn(Set.of());
+    givenStat("a.pdf", ETAG, OLD_OBJECT);
+    when(minioService.statObject("d.pdf"))
+        .thenThrow(new DocumentNotFoundException("Document content not found: d.pdf"));
+    when(documentDeletionService.deleteDanglingDocuments(
+            eq(List.of(DANGLING_ID, SECOND_DANGLING_ID)), any()))
+        .thenReturn(2);
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getObjectsRemoved()).isEqualTo(1);
+    assertThat(report.getDocumentsDeleted()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldKeepDanglingDocumentsWhoseObjectWasWrittenSinceTheListing() {
+    properties.getReconciliation().setRepair(true);
+    when(minioService.listObjects(null)).thenReturn(Stream.of());
+    when(documentPathReader.findPage(isNull(), isNull(), isNull(), any(Integer.class)))
+        .thenReturn(List.of(path("d.pdf", OLD_DOCUMENT, false)));
+    when(minioService.statObject("d.pdf")).thenReturn(mock(StatObjectResponse.class));
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getDanglingDocuments()).isEqualTo(1);
+    assertThat(report.getDocumentsDeleted()).isZero();
+    verify(documentDeletionService, never()).deleteDanglingDocuments(anyCollection(), any());
+  }
+
+  @Test
+  void shouldKeepOrphanedObjectsReferencedByTheTimeTheyAreRemoved() {
+    properties.getReconciliation().setRepair(true);
+    when(minioService.listObjects(null))
+        .thenReturn(Stream.of(new StoredObject("a.pdf", OLD_OBJECT, ETAG)));
+    when(documentPathReader.findPage(isNull(), isNull(), isNull(), any(Integer.class)))
+        .thenReturn(List.of());
+    when(documentRepository.findReferencedPaths(List.of("a.pdf"))).thenReturn(List.of("a.pdf"));
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getOrphanedObjects()).isEqualTo(1);
+    assertThat(report.getObjectsRemoved()).isZero();
+    verify(minioService).removeObjects(List.of());
+  }
+
+  @Test
+  void shouldKeepOrphanedObjectsRewrittenSinceTheListing() {
+    properties.getReconciliation().setRepair(true);
+    when(minioService.listObjects(null))
+        .thenReturn(Stream.of(new StoredObject("a.pdf", OLD_OBJECT, ETAG)));
+    when(documentPathReader.findPage(isNull(), isNull(), isNull(), any(Integer.class)))
+        .thenReturn(List.of());
+    when(documentRepository.findReferencedPaths(List.of("a.pdf"))).thenReturn(List.of());
+    givenStat("a.pdf", "d4e5f6", NEW_OBJECT);
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getOrphanedObjects()).isEqualTo(1);
+    assertThat(report.getObjectsRemoved()).isZero();
+    verify(minioService).removeObjects(List.of());
+  }
+
+  @Test
+  void shouldReadTheNextPageAfterTheLastDocumentOfAFullPage() {
+    List<DocumentPath> page =
+        IntStream.range(0, StorageReconciliationService.PAGE_SIZE)
+            .mapToObj(i -> path("p/%04d".formatted(i), NEW_DOCUMENT, false))
+            .toList();
+    DocumentPath last = page.get(page.size() - 1);
+    when(minioService.listObjects(null)).thenReturn(Stream.of());
+    when(documentPathReader.findPage(null, null, null, StorageReconciliationService.PAGE_SIZE))
+        .thenReturn(page);
+    when(documentPathReader.findPage(
+            last.minioPath(), last.id(), null, StorageReconciliationService.PAGE_SIZE))
+        .thenReturn(List.of(path("q.pdf", NEW_DOCUMENT, false)));
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getDocumentsScanned()).isEqualTo(StorageReconciliationService.PAGE_SIZE + 1);
+  }
+
+  @Test
+  void shouldListAFailedRangeAndCarryOnWithTheOthers() {
+    properties.getReconciliation().setSplitPoints(List.of("m"));
+    when(minioService.listObjects(null))
+        .thenThrow(new DocumentUploadException("Failed to list files in storage", null));
+    when(minioService.listObjects("m"))
+        .thenReturn(Stream.of(new StoredObject("n.pdf", OLD_OBJECT, ETAG)));
+    when(documentPathReader.findPage(eq("m"), isNull(), isNull(), any(Integer.class)))
+        .thenReturn(List.of(path("n.pdf", OLD_DOCUMENT, false)));
+
+    StorageReconciliationResponse report = reconcile();
+
+    assertThat(report.getFailedRanges()).containsExactly("(, m]");
+    assertThat(report.getObjectsScanned()).isEqualTo(1);
+    assertThat(report.getOrphanedObjects()).isZero();
+  }
+
+  @Test
+  void shouldSplitTheKeySpaceInByteOrder() {
+    // U+1F4C4 sorts after U+FFFD in UTF-8, though its UTF-16 surrogates sort before it
+    assertThat(KeyRange.split(List.of("\uD83D\uDCC4", "\uFFFD", "a", "a")))
+        .containsExactly(
+            new KeyRange(null, "a"),
+            new KeyRange("a", "\uFFFD"),
+            new KeyRange("\uFFFD", "\uD83D\uDCC4"),
+            new KeyRange("\uD83D\uDCC4", null));
+  }
+
+  /**
+   * Storage holds an old orphan, a matched object, a young orphan and the object of a deleted
+   * document; the database an old live document without object, shared by two rows, and a young
+   * one.
+   */
+  private void givenDrift() {
+    when(minioService.listObjects(null))
+        .thenReturn(
+            Stream.of(
+                new StoredObject("a.pdf", OLD_OBJECT, ETAG),
+                new StoredObject("b.pdf", OLD_OBJECT, ETAG),
+                new StoredObject("c.pdf", NEW_OBJECT, ETAG),
+                new StoredObject("e.pdf", OLD_OBJECT, ETAG)));
+    when(documentPathReader.findPage(isNull(), isNull(), isNull(), any(Integer.class)))
+        .thenReturn(
+            List.of(
+                path("b.pdf", OLD_DOCUMENT, false),
+                new DocumentPath("d.pdf", DANGLING_ID, OLD_DOCUMENT, false),
+                new DocumentPath("d.pdf", SECOND_DANGLING_ID, OLD_DOCUMENT, false),
+                path("e.pdf", OLD_DOCUMENT, true),
+                path("f.pdf", NEW_DOCUMENT, false)));
+  }
+
+  private void givenStat(String path, String etag, Instant lastModified) {
+    StatObjectResponse stat = mock(StatObjectResponse.class);
+    when(stat.etag()).thenReturn(etag);
+    when(stat.lastModified())
+        .thenReturn(lastModified.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneOffset.UTC));
+    when(minioService.statObject(path)).thenReturn(stat);
+  }
+
+  private StorageReconciliationResponse reconcile() {
+    storageReconciliationService.reconcile();
+    return storageReconciliationService.getLastReport().orElseThrow();
+  }
+
+  private static DocumentPath path(String minioPath, LocalDateTime createdAt, boolean deleted) {
+    return new DocumentPath(minioPath, UUID.randomUUID(), createdAt, deleted);
+  }
+}
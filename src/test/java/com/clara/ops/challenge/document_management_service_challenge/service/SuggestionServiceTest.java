@@ -0,0 +1,157 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.SuggestionResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.DocumentRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+  @Mock private DocumentRepository documentRepository;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private DocumentManagementProperties properties;
+  private SuggestionService suggestionService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new DocumentManagementProperties();
+    suggestionService =
+        new SuggestionService(documentRepository, properties, nanos::get, Runnable::run);
+  }
+
+  @Test
+  void shouldCompletePrefixCaseInsensitivelyInAlphabeticalOrder() {
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("invoice-april", "Invoice-March", "contract", "INVENTORY"));
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("invoices", "legal"));
+
+    SuggestionResponse response = suggestionService.suggest("testuser", "INV", 2);
+
+    assertThat(response.getNames()).containsExactly("INVENTORY", "invoice-april");
+    assertThat(response.getTags()).containsExactly("invoices");
+  }
+
+  @Test
+  void shouldLoadUserIndexOnlyOnce() {
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("report"));
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+
+    suggestionService.suggest("testuser", "r", 10);
+    suggestionService.suggest("testuser", "re", 10);
+
+    verify(documentRepository, times(1)).findDistinctDocumentNames(eq("testuser"), any());
+    verify(documentRepository, times(1)).findDistinctTagNames(eq("testuser"), any());
+  }
+
+  @Test
+  void shouldIncludeUploadedDocumentInLoadedIndex() {
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    suggestionService.suggest("testuser", "q", 10);
+
+    suggestionService.recordUpload("testuser", "Quarterly Report", List.of("quarterly"));
+
+    SuggestionResponse response = suggestionService.suggest("testuser", "qua", 10);
+    assertThat(response.getNames()).containsExactly("Quarterly Report");
+    assertThat(response.getTags()).containsExactly("quarterly");
+  }
+
+  @Test
+  void shouldReloadIndexOnceItExpires() {
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("report"), List.of("report", "review"));
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    suggestionService.suggest("testuser", "re", 10);
+
+    nanos.addAndGet(Duration.ofSeconds(600).toNanos());
+
+    assertThat(suggestionService.suggest("testuser", "re", 10).getNames())
+        .containsExactly("report", "review");
+  }
+
+  @Test
+  void shouldWeighIndexAgainAfterUpload() {
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("report"));
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    suggestionService.suggest("testuser", "r", 10);
+
+    suggestionService.recordUpload("testuser", "review", List.of("quarterly", "finance"));
+
+    assertThat(suggestionService.cachedTerms()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldNotExtendIndexExpiryOnUpload() {
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("report"), List.of("report", "review", "renewal"));
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    suggestionService.suggest("testuser", "re", 10);
+    nanos.addAndGet(Duration.ofSeconds(200).toNanos());
+    suggestionService.recordUpload("testuser", "review", List.of());
+
+    nanos.addAndGet(Duration.ofSeconds(400).toNanos());
+
+    assertThat(suggestionService.suggest("testuser", "re", 10).getNames())
+        .containsExactly("renewal", "report", "review");
+  }
+
+  @Test
+  void shouldReloadIndexWhenUploadedTagsDoNotFit() {
+    properties.getSuggest().setMaxTermsPerUser(2);
+    suggestionService =
+        new SuggestionService(documentRepository, properties, nanos::get, Runnable::run);
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("finance"), List.of("audit", "budget"));
+    suggestionService.suggest("testuser", "", 10);
+
+    suggestionService.recordUpload("testuser", "report", List.of("budget", "audit"));
+
+    assertThat(suggestionService.suggest("testuser", "", 10).getTags())
+        .containsExactly("audit", "budget");
+    verify(documentRepository, times(2)).findDistinctTagNames(eq("testuser"), any());
+  }
+
+  @Test
+  void shouldReloadFullIndexOnUploadToKeepTheFirstTermsInAlphabeticalOrder() {
+    properties.getSuggest().setMaxTermsPerUser(1);
+    suggestionService =
+        new SuggestionService(documentRepository, properties, nanos::get, Runnable::run);
+    when(documentRepository.findDistinctDocumentNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of("budget"), List.of("annual"));
+    when(documentRepository.findDistinctTagNames(eq("testuser"), any(Pageable.class)))
+        .thenReturn(List.of());
+    suggestionService.suggest("testuser", "", 10);
+
+    suggestionService.recordUpload("testuser", "annual", List.of());
+
+    assertThat(suggestionService.suggest("testuser", "", 10).getNames()).containsExactly("annual");
+  }
+}
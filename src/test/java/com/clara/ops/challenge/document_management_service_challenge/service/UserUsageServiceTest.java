@@ -0,0 +1,131 @@
+package com.clara.ops.challenge.document_management_service_challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.UserUsageResponse;
+import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageDeltaRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageRepository;
+import com.clara.ops.challenge.document_management_service_challenge.domain.repository.UserUsageView;
+import com.clara.ops.challenge.document_management_service_challenge.exception.QuotaExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UserUsageServiceTest {
+
+  private static final long MB = 1024L * 1024L;
+
+  @Mock private UserUsageRepository userUsageRepository;
+
+  @Mock private UserUsageDeltaRepository userUsageDeltaRepository;
+
+  @Mock private ReadYourWritesTracker readYourWritesTracker;
+
+  private DocumentManagementProperties properties;
+  private UserUsageService userUsageService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new DocumentManagementProperties();
+    DocumentManagementProperties.Quota quota = properties.getUsage().getQuota();
+    quota.setEnabled(true);
+    quota.setMaxDocuments(10);
+    quota.setMaxSizeMb(1);
+    userUsageService =
+        new UserUsageService(
+            userUsageRepository, userUsageDeltaRepository, readYourWritesTracker, properties);
+  }
+
+  @Test
+  void shouldReturnUsageWithQuota() {
+    when(userUsageRepository.findUsage("testuser")).thenReturn(usage(3, 2048));
+
+    UserUsageResponse response = userUsageService.getUsage("testuser");
+
+    assertThat(response.getUser()).isEqualTo("testuser");
+    assertThat(response.getDocumentCount()).isEqualTo(3L);
+    assertThat(response.getTotalBytes()).isEqualTo(2048L);
+    assertThat(response.getMaxDocuments()).isEqualTo(10L);
+    assertThat(response.getMaxBytes()).isEqualTo(MB);
+  }
+
+  @Test
+  void shouldReserveUploadThatFitsTheQuota() {
+    when(userUsageRepository.findUsage("testuser")).thenReturn(usage(9, MB - 100));
+
+    assertThat(userUsageService.reserveQuota("testuser", 100)).isTrue();
+    verify(userUsageDeltaRepository).recordChange("testuser", 1, 100);
+  }
+
+  @Test
+  void shouldLockTheUserBeforeReadingUsage() {
+    when(userUsageRepository.findUsage("testuser")).thenReturn(usage(0, 0));
+
+    userUsageService.reserveQuota("testuser", 100);
+
+    InOrder inOrder = inOrder(userUsageRepository, userUsageDeltaRepository);
+    inOrder.verify(userUsageRepository).lockUser("testuser");
+    inOrder.verify(userUsageRepository).findUsage("testuser");
+    inOrder.verify(userUsageDeltaRepository).recordChange("testuser", 1, 100);
+  }
+
+  @Test
+  void shouldRejectUploadOverTheDocumentQuota() {
+    when(userUsageRepository.findUsage("testuser")).thenReturn(usage(10, 0));
+
+    assertThatThrownBy(() -> userUsageService.reserveQuota("testuser", 1))
+        .isInstanceOf(QuotaExceededException.class)
+        .hasMessage("Storage quota exceeded for user: testuser (at most 10 documents and 1 MB)");
+    verify(userUsageDeltaRepository, never()).recordChange(anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void shouldRejectUploadOverTheSizeQuota() {
+    when(userUsageRepository.findUsage("testuser")).thenReturn(usage(1, MB - 100));
+
+    assertThatThrownBy(() -> userUsageService.reserveQuota("testuser", 101))
+        .isInstanceOf(QuotaExceededException.class);
+  }
+
+  @Test
+  void shouldNotReserveWhenQuotaIsDisabled() {
+    properties.getUsage().getQuota().setEnabled(false);
+
+    assertThat(userUsageService.reserveQuota("testuser", Long.MAX_VALUE)).isFalse();
+    verifyNoInteractions(userUsageRepository, userUsageDeltaRepository);
+  }
+
+  @Test
+  void shouldHandBackReleasedReservation() {
+    userUsageService.releaseQuota("testuser", 100);
+
+    verify(userUsageDeltaRepository).recordChange("testuser", -1, -100);
+  }
+
+  private static UserUsageView usage(long documentCount, long totalBytes) {
+    return new UserUsageView() {
+      @Override
+      public Long getDocumentCount() {
+        return documentCount;
+      }
+
+      @Override
+      public Long getTotalBytes() {
+        return totalBytes;
+      }
+    };
+  }
+}
@@ -3,8 +3,14 @@ package com.clara.ops.challenge.document_management_service_challenge.validation
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.BundleDownloadRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentRetagRequest;
+import com.clara.ops.challenge.document_management_service_challenge.api.dto.DocumentSearchFilters;
 import com.clara.ops.challenge.document_management_service_challenge.config.DocumentManagementProperties;
 import com.clara.ops.challenge.document_management_service_challenge.exception.InvalidDocumentException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -166,6 +172,121 @@ class DocumentValidatorTest {
         .doesNotThrowAnyException();
   }
 
+  // ==================== validateSearchFilters Tests ====================
+
+  @Test
+  void shouldPassValidationForNullSearchFilters() {
+    assertThatCode(() -> documentValidator.validateSearchFilters(null)).doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldPassValidationForValidRanges() {
+    DocumentSearchFilters filters =
+        DocumentSearchFilters.builder()
+            .createdFrom(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .createdTo(LocalDateTime.of(2024, 1, 2, 0, 0))
+            .minSize(100L)
+            .maxSize(100L)
+            .build();
+
+    assertThatCode(() -> documentValidator.validateSearchFilters(filters))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldThrowExceptionWhenCreatedRangeIsEmpty() {
+    LocalDateTime instant = LocalDateTime.of(2024, 1, 1, 0, 0);
+    DocumentSearchFilters filters =
+        DocumentSearchFilters.builder().createdFrom(instant).createdTo(instant).build();
+
+    assertThatThrownBy(() -> documentValidator.validateSearchFilters(filters))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("createdFrom must be before createdTo");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSizeRangeIsInverted() {
+    DocumentSearchFilters filters =
+        DocumentSearchFilters.builder().minSize(2048L).maxSize(1024L).build();
+
+    assertThatThrownBy(() -> documentValidator.validateSearchFilters(filters))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("minSize must not be greater than maxSize");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenCursorIsIncomplete() {
+    DocumentSearchFilters filters =
+        DocumentSearchFilters.builder().beforeCreatedAt(LocalDateTime.now()).build();
+
+    assertThatThrownBy(() -> documentValidator.validateSearchFilters(filters))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("must be provided together");
+  }
+
+  @Test
+  void shouldRejectCursorWithNonDefaultSort() {
+    DocumentSearchFilters filters =
+        DocumentSearchFilters.builder()
+            .user("user")
+            .beforeCreatedAt(LocalDateTime.now())
+            .beforeId(UUID.randomUUID())
+            .build();
+
+    assertThatCode(() -> documentValidator.validateSort("createdAt,desc", filters))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(() -> documentValidator.validateSort("name,asc", filters))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("requires the default sort");
+  }
+
+  // ==================== validateSort Tests ====================
+
+  @Test
+  void shouldPassValidationForMissingSort() {
+    assertThatCode(() -> documentValidator.validateSort(null, null)).doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldPassValidationForCreatedAtSortWithoutUserFilter() {
+    assertThatCode(
+            () -> documentValidator.validateSort("createdAt,asc", new DocumentSearchFilters()))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldPassValidationForUserScopedSorts() {
+    DocumentSearchFilters filters = DocumentSearchFilters.builder().user("user1").build();
+
+    assertThatCode(() -> documentValidator.validateSort("name", filters))
+        .doesNotThrowAnyException();
+    assertThatCode(() -> documentValidator.validateSort("size,DESC", filters))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSortPropertyIsNotWhitelisted() {
+    assertThatThrownBy(() -> documentValidator.validateSort("minioPath,asc", null))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("Unsupported sort property 'minioPath'");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSortDirectionIsInvalid() {
+    assertThatThrownBy(() -> documentValidator.validateSort("createdAt,sideways", null))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("Invalid sort");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenUserScopedSortHasNoUserFilter() {
+    DocumentSearchFilters filters = DocumentSearchFilters.builder().name("report").build();
+
+    assertThatThrownBy(() -> documentValidator.validateSort("size,asc", filters))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("requires a user filter");
+  }
+
   // ==================== validateDocumentId Tests ====================
 
   @Test
@@ -175,6 +296,15 @@ class DocumentValidatorTest {
         .doesNotThrowAnyException();
   }
 
+  @Test
+  void shouldPassValidationForRandomAndTimeOrderedUUIDs() {
+    assertThatCode(() -> documentValidator.validateDocumentId(UUID.randomUUID().toString()))
+        .doesNotThrowAnyException();
+    assertThatCode(
+            () -> documentValidator.validateDocumentId("01927f3e-5b7a-7c3d-9f1e-2a4b6c8d0e1f"))
+        .doesNotThrowAnyException();
+  }
+
   @Test
   void shouldThrowExceptionWhenDocumentIdIsNull() {
     assertThatThrownBy(() -> documentValidator.validateDocumentId(null))
@@ -224,4 +354,185 @@ class DocumentValidatorTest {
     assertThatCode(() -> documentValidator.validateDocumentId(validUuid))
         .doesNotThrowAnyException();
   }
+
+  // ==================== validateSuggestParams Tests ====================
+
+  @Test
+  void shouldPassSuggestValidationForValidParams() {
+    assertThatCode(() -> documentValidator.validateSuggestParams("user", "inv", 10))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSuggestPrefixIsBlank() {
+    assertThatThrownBy(() -> documentValidator.validateSuggestParams("user", " ", 10))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("Prefix is required");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSuggestLimitExceedsMaximum() {
+    assertThatThrownBy(() -> documentValidator.validateSuggestParams("user", "inv", 26))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("Limit must be between 1 and 25");
+  }
+
+  // ==================== validateDocumentIds Tests ====================
+
+  @Test
+  void shouldAcceptBatchOfValidDocumentIds() {
+    List<String> documentIds =
+        List.of("123e4567-e89b-12d3-a456-426614174000", "123e4567-e89b-12d3-a456-426614174001");
+
+    assertThatCode(() -> documentValidator.validateDocumentIds(documentIds))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldRejectEmptyBatchOfDocumentIds() {
+    assertThatThrownBy(() -> documentValidator.validateDocumentIds(List.of()))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("At least one document ID is required");
+  }
+
+  @Test
+  void shouldRejectBatchLargerThanConfiguredMaximum() {
+    properties.getDownload().setMaxBatchSize(2);
+    List<String> documentIds =
+        List.of(
+            "123e4567-e89b-12d3-a456-426614174000",
+            "123e4567-e89b-12d3-a456-426614174001",
+            "123e4567-e89b-12d3-a456-426614174002");
+
+    assertThatThrownBy(() -> documentValidator.validateDocumentIds(documentIds))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("A batch must not exceed 2 document IDs");
+  }
+
+  @Test
+  void shouldRejectBatchContainingInvalidDocumentId() {
+    List<String> documentIds = List.of("123e4567-e89b-12d3-a456-426614174000", "invalid-uuid");
+
+    assertThatThrownBy(() -> documentValidator.validateDocumentIds(documentIds))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessageContaining("Invalid document ID format");
+  }
+
+  // ==================== validateBundleRequest Tests ====================
+
+  @Test
+  void shouldAcceptBundleOfDocumentIds() {
+    BundleDownloadRequest request =
+        BundleDownloadRequest.builder()
+            .documentIds(List.of("123e4567-e89b-12d3-a456-426614174000"))
+            .build();
+
+    assertThatCode(() -> documentValidator.validateBundleRequest(request))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldAcceptBundleSelectedByFilters() {
+    BundleDownloadRequest request =
+        BundleDownloadRequest.builder()
+            .filters(DocumentSearchFilters.builder().user("user").build())
+            .build();
+
+    assertThatCode(() -> documentValidator.validateBundleRequest(request))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldRequireUserForDeleteByFilter() {
+    assertThatCode(
+            () ->
+                documentValidator.validateDeleteFilters(
+                    DocumentSearchFilters.builder().user("testuser").build()))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(
+            () ->
+                documentValidator.validateDeleteFilters(
+                    DocumentSearchFilters.builder().user(" ").tags(List.of("tag1")).build()))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("A user filter is required to delete documents by filter");
+    assertThatThrownBy(() -> documentValidator.validateDeleteFilters(null))
+        .isInstanceOf(InvalidDocumentException.class);
+  }
+
+  @Test
+  void shouldRejectTagChangesThatChangeNothingOrConflict() {
+    assertThatCode(() -> documentValidator.validateTagChanges(List.of("tag1"), null))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(() -> documentValidator.validateTagChanges(List.of(" "), List.of()))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("At least one tag to add or remove is required");
+    assertThatThrownBy(
+            () -> documentValidator.validateTagChanges(List.of("tag1"), List.of(" tag1 ")))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("Tag 'tag1' cannot be both added and removed");
+    assertThatThrownBy(() -> documentValidator.validateTagChanges(List.of("x".repeat(256)), null))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("Tags must not exceed 255 characters");
+  }
+
+  @Test
+  void shouldRequireUserForRetagByFilter() {
+    assertThatCode(
+            () ->
+                documentValidator.validateRetagRequest(
+                    DocumentRetagRequest.builder()
+                        .filters(DocumentSearchFilters.builder().user("testuser").build())
+                        .add(List.of("tag1"))
+                        .build()))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(
+            () ->
+                documentValidator.validateRetagRequest(
+                    DocumentRetagRequest.builder().add(List.of("tag1")).build()))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("A user filter is required to retag documents by filter");
+  }
+
+  @Test
+  void shouldRejectBundleWithBothOrNoSelection() {
+    BundleDownloadRequest both =
+        BundleDownloadRequest.builder()
+            .documentIds(List.of("123e4567-e89b-12d3-a456-426614174000"))
+            .filters(DocumentSearchFilters.builder().build())
+            .build();
+
+    assertThatThrownBy(() -> documentValidator.validateBundleRequest(both))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("Provide either documentIds or filters");
+    assertThatThrownBy(() -> documentValidator.validateBundleRequest(new BundleDownloadRequest()))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("Provide either documentIds or filters");
+  }
+
+  @Test
+  void shouldRejectBundleLargerThanConfiguredMaximum() {
+    properties.getDownload().getBundle().setMaxDocuments(1);
+    BundleDownloadRequest request =
+        BundleDownloadRequest.builder()
+            .documentIds(
+                List.of(
+                    "123e4567-e89b-12d3-a456-426614174000", "123e4567-e89b-12d3-a456-426614174001"))
+            .build();
+
+    assertThatThrownBy(() -> documentValidator.validateBundleRequest(request))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("A bundle must not exceed 1 documents");
+  }
+
+  @Test
+  void shouldRequireUserOfBoundedLengthForUsage() {
+    assertThatCode(() -> documentValidator.validateUsageUser("testuser"))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(() -> documentValidator.validateUsageUser(" "))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("User is required");
+    assertThatThrownBy(() -> documentValidator.validateUsageUser("u".repeat(256)))
+        .isInstanceOf(InvalidDocumentException.class)
+        .hasMessage("User must not exceed 255 characters");
+  }
 }
@@ -1,5 +1,6 @@
 -- H2 Test Database Schema
 -- Tables will be created in document_schema as specified in application-test.yml
+-- H2 has no declarative partitioning; the tables mirror the PostgreSQL columns unpartitioned.
 
 CREATE TABLE documents (
     id UUID PRIMARY KEY DEFAULT RANDOM_UUID(),
@@ -8,21 +9,47 @@ CREATE TABLE documents (
     minio_path VARCHAR(1000) NOT NULL,
     file_size BIGINT NOT NULL,
     file_type VARCHAR(100) NOT NULL,
+    tag_names VARCHAR(255) ARRAY NOT NULL DEFAULT ARRAY[],
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP
 );
 
 CREATE TABLE tags (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     document_id UUID NOT NULL,
+    document_created_at TIMESTAMP NOT NULL,
     tag_name VARCHAR(255) NOT NULL,
     CONSTRAINT fk_document FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE
 );
 
 CREATE INDEX idx_documents_user_name ON documents(user_name);
 CREATE INDEX idx_documents_document_name ON documents(document_name);
-CREATE INDEX idx_documents_created_at ON documents(created_at DESC);
+CREATE INDEX idx_documents_created_at ON documents(created_at DESC, id DESC);
+CREATE INDEX idx_documents_user_name_sort ON documents(user_name, document_name, id);
+CREATE INDEX idx_documents_user_size ON documents(user_name, file_size, id);
+CREATE INDEX idx_documents_minio_path ON documents(minio_path, id);
 CREATE INDEX idx_tags_tag_name ON tags(tag_name);
 CREATE INDEX idx_tags_document_id ON tags(document_id);
 CREATE UNIQUE INDEX idx_tags_unique_document_tag ON tags(document_id, tag_name);
 
+
+CREATE TABLE user_collection_versions (
+    user_name VARCHAR(255) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+CREATE TABLE user_usage (
+    user_name VARCHAR(255) PRIMARY KEY,
+    document_count BIGINT NOT NULL,
+    total_bytes BIGINT NOT NULL
+);
+
+CREATE TABLE user_usage_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    user_name VARCHAR(255) NOT NULL,
+    document_count BIGINT NOT NULL,
+    total_bytes BIGINT NOT NULL
+);
+
+CREATE INDEX idx_user_usage_deltas_user_name ON user_usage_deltas(user_name);